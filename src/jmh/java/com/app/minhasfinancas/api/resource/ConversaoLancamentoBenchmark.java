@@ -0,0 +1,80 @@
+package com.app.minhasfinancas.api.resource;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.app.minhasfinancas.dto.LancamentoDTO;
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.service.UsuarioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Conversão DTO -> entidade feita pelo resource em todo POST/PUT de lançamento.
+ * O usuário vem de um serviço fixo para medir apenas o mapeamento.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConversaoLancamentoBenchmark {
+	
+	private LancamentoResource resource;
+	private LancamentoDTO dto;
+
+	@Setup
+	public void preparar() throws Exception {
+		Usuario usuario = new Usuario();
+		usuario.setId(1L);
+		usuario.setNome("usuario");
+		usuario.setEmail("usuario@email.com");
+		
+		ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		resource = new LancamentoResource(null, new UsuarioFixo(usuario), null, null, objectMapper);
+		
+		dto = objectMapper.readValue("{\"descricao\": \"Conta de luz\", \"ano\": 2020, \"mes\": 8, \"valor\": 123.45, "
+				+ "\"usuario\": 1, \"tipo\": \"DESPESA\", \"status\": \"PENDENTE\"}", LancamentoDTO.class);
+	}
+	
+	@Benchmark
+	public Lancamento converter() {
+		return resource.converter(dto, null);
+	}
+	
+	static class UsuarioFixo implements UsuarioService {
+		
+		private final Optional<Usuario> usuario;
+		
+		UsuarioFixo(Usuario usuario) {
+			this.usuario = Optional.of(usuario);
+		}
+
+		@Override
+		public Usuario autenticar(String email, String senha) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Usuario salvarUsuario(Usuario usuario) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void validarEmail(String email) {
+		}
+
+		@Override
+		public Optional<Usuario> obterporId(Long id) {
+			return usuario;
+		}
+	}
+	
+}
@@ -0,0 +1,66 @@
+package com.app.minhasfinancas.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.app.minhasfinancas.api.interceptor.AutenticacaoInterceptor;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.service.impl.TokenServiceImpl;
+
+/**
+ * Custo de autenticação por requisição: validação do token no interceptor
+ * comparada ao login com bcrypt, que só acontece na emissão do token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AutenticacaoBenchmark {
+	
+	private TokenServiceImpl tokenService;
+	private AutenticacaoInterceptor interceptor;
+	private BCryptPasswordEncoder encoder;
+	private String token;
+	private String hash;
+
+	@Setup
+	public void preparar() {
+		tokenService = new TokenServiceImpl("chave-do-benchmark-com-pelo-menos-32-caracteres", 60);
+		interceptor = new AutenticacaoInterceptor(tokenService, true);
+		encoder = new BCryptPasswordEncoder();
+		
+		Usuario usuario = new Usuario();
+		usuario.setId(42L);
+		token = tokenService.gerarToken(usuario);
+		hash = encoder.encode("senha");
+	}
+	
+	@Benchmark
+	public Long validarToken() {
+		return tokenService.obterIdUsuario(token);
+	}
+	
+	@Benchmark
+	public Object interceptarRequisicao() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos");
+		request.addHeader("Authorization", "Bearer " + token);
+		interceptor.preHandle(request, new MockHttpServletResponse(), null);
+		return request.getAttribute(AutenticacaoInterceptor.ID_USUARIO);
+	}
+	
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public boolean conferirSenhaBcrypt() {
+		return encoder.matches("senha", hash);
+	}
+	
+}
@@ -0,0 +1,95 @@
+package com.app.minhasfinancas.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.app.minhasfinancas.MinhasfinancasApplication;
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.repository.LancamentoRepository;
+import com.app.minhasfinancas.model.repository.UsuarioRepository;
+import com.app.minhasfinancas.service.LancamentoService;
+
+/**
+ * Consulta de saldo contra o H2 do perfil de teste: o saldo materializado
+ * em saldo_usuario comparado às duas agregações sobre lancamento.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SaldoUsuarioBenchmark {
+	
+	private static final int LANCAMENTOS = 5000;
+	
+	private ConfigurableApplicationContext contexto;
+	private LancamentoService service;
+	private LancamentoRepository repository;
+	private Long idUsuario;
+
+	@Setup
+	public void preparar() {
+		contexto = new SpringApplicationBuilder(MinhasfinancasApplication.class)
+				.profiles("test")
+				.web(WebApplicationType.NONE)
+				.logStartupInfo(false)
+				.run("--logging.level.root=WARN", 
+						"--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE;INIT=CREATE SCHEMA IF NOT EXISTS financas");
+		
+		service = contexto.getBean(LancamentoService.class);
+		repository = contexto.getBean(LancamentoRepository.class);
+		
+		Usuario usuario = new Usuario();
+		usuario.setNome("benchmark");
+		usuario.setEmail("benchmark@email.com");
+		usuario.setSenha("senha");
+		usuario = contexto.getBean(UsuarioRepository.class).save(usuario);
+		idUsuario = usuario.getId();
+		
+		List<Lancamento> lancamentos = new ArrayList<>(LANCAMENTOS);
+		for (int i = 0; i < LANCAMENTOS; i++) {
+			Lancamento lancamento = new Lancamento();
+			lancamento.setDescricao("lançamento " + i);
+			lancamento.setAno(2020);
+			lancamento.setMes(i % 12 + 1);
+			lancamento.setValor(BigDecimal.valueOf(i + 1));
+			lancamento.setTipo(i % 3 == 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA);
+			lancamento.setUsuario(usuario);
+			lancamentos.add(lancamento);
+		}
+		service.salvarLote(lancamentos);
+	}
+	
+	@TearDown
+	public void encerrar() {
+		contexto.close();
+	}
+	
+	@Benchmark
+	public BigDecimal obterSaldoPorUsuario() {
+		return service.obterSaldoPorUsuario(idUsuario);
+	}
+	
+	@Benchmark
+	public BigDecimal obterSaldoPorAgregacao() {
+		BigDecimal receitas = repository.obterSaldoPorUsuarioETipo(idUsuario, TipoLancamento.RECEITA);
+		BigDecimal despesas = repository.obterSaldoPorUsuarioETipo(idUsuario, TipoLancamento.DESPESA);
+		
+		return receitas.subtract(despesas);
+	}
+	
+}
@@ -0,0 +1,79 @@
+package com.app.minhasfinancas.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Serialização das listas devolvidas pela API, com o mesmo ObjectMapper
+ * que o Spring Boot monta para os controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SerializacaoJsonBenchmark {
+	
+	@Param({"10", "500"})
+	private int quantidade;
+	
+	private ObjectWriter writer;
+	private List<Lancamento> lancamentos;
+	private List<Usuario> usuarios;
+
+	@Setup
+	public void preparar() {
+		writer = Jackson2ObjectMapperBuilder.json().build().writer();
+		lancamentos = new ArrayList<>(quantidade);
+		usuarios = new ArrayList<>(quantidade);
+		
+		for (int i = 0; i < quantidade; i++) {
+			Usuario usuario = new Usuario();
+			usuario.setId((long) i);
+			usuario.setNome("usuario " + i);
+			usuario.setEmail("usuario" + i + "@email.com");
+			usuario.setSenha("senha");
+			usuarios.add(usuario);
+			
+			Lancamento lancamento = new Lancamento();
+			lancamento.setId((long) i);
+			lancamento.setDescricao("lançamento " + i);
+			lancamento.setAno(2020);
+			lancamento.setMes(i % 12 + 1);
+			lancamento.setValor(BigDecimal.valueOf(i * 100 + 99, 2));
+			lancamento.setDataCadastro(LocalDate.of(2020, 8, 1));
+			lancamento.setTipo(i % 2 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA);
+			lancamento.setStatus(StatusLancamento.PENDENTE);
+			lancamento.setUsuario(usuario);
+			lancamentos.add(lancamento);
+		}
+	}
+	
+	@Benchmark
+	public byte[] serializarLancamentos() throws Exception {
+		return writer.writeValueAsBytes(lancamentos);
+	}
+	
+	@Benchmark
+	public byte[] serializarUsuarios() throws Exception {
+		return writer.writeValueAsBytes(usuarios);
+	}
+	
+}
@@ -0,0 +1,69 @@
+package com.app.minhasfinancas.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.app.minhasfinancas.exception.RegraNegocioException;
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.service.impl.LancamentoServiceImpl;
+
+/**
+ * Validação executada em cada salvar/atualizar e em cada item do lote,
+ * no caminho feliz e no caminho que lança {@link RegraNegocioException}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ValidacaoLancamentoBenchmark {
+	
+	private LancamentoServiceImpl service;
+	private Lancamento valido;
+	private Lancamento invalido;
+
+	@Setup
+	public void preparar() {
+		service = new LancamentoServiceImpl(null, null, null, null, null, null, null, null, null);
+		
+		Usuario usuario = new Usuario();
+		usuario.setId(1L);
+		
+		valido = new Lancamento();
+		valido.setDescricao("Conta de luz");
+		valido.setAno(2020);
+		valido.setMes(8);
+		valido.setValor(new BigDecimal("123.45"));
+		valido.setUsuario(usuario);
+		valido.setTipo(TipoLancamento.DESPESA);
+		
+		invalido = new Lancamento();
+		invalido.setDescricao("Conta de luz");
+		invalido.setAno(2020);
+		invalido.setMes(13);
+	}
+	
+	@Benchmark
+	public void validarLancamentoValido() {
+		service.validar(valido);
+	}
+	
+	@Benchmark
+	public void validarLancamentoInvalido(Blackhole blackhole) {
+		try {
+			service.validar(invalido);
+		} catch (RegraNegocioException e) {
+			blackhole.consume(e);
+		}
+	}
+	
+}
@@ -0,0 +1,63 @@
+package com.app.minhasfinancas.api.interceptor;
+
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.app.minhasfinancas.exception.ErroAutenticacao;
+import com.app.minhasfinancas.service.TokenService;
+
+public class AutenticacaoInterceptor implements HandlerInterceptor {
+	
+	public static final String ID_USUARIO = "idUsuarioAutenticado";
+	
+	private static final String PREFIXO = "Bearer ";
+	
+	private TokenService tokenService;
+	private boolean obrigatorio;
+	
+	public AutenticacaoInterceptor(TokenService tokenService, boolean obrigatorio) {
+		this.tokenService = tokenService;
+		this.obrigatorio = obrigatorio;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+		String autorizacao = request.getHeader(HttpHeaders.AUTHORIZATION);
+		
+		if(autorizacao == null || !autorizacao.startsWith(PREFIXO)) {
+			if(obrigatorio && !isRotaPublica(request)) {
+				return recusar(response, "Token de acesso não informado!");
+			}
+			return true;
+		}
+		
+		try {
+			request.setAttribute(ID_USUARIO, tokenService.obterIdUsuario(autorizacao.substring(PREFIXO.length())));
+			return true;
+			
+		} catch (ErroAutenticacao e) {
+			return recusar(response, e.getMessage());
+		}
+	}
+	
+	private boolean isRotaPublica(HttpServletRequest request) {
+		String caminho = request.getRequestURI().substring(request.getContextPath().length());
+		
+		return caminho.equals("/api/usuarios/autenticar") 
+				|| (caminho.equals("/api/usuarios") && "POST".equals(request.getMethod()));
+	}
+	
+	private boolean recusar(HttpServletResponse response, String mensagem) throws Exception {
+		response.setStatus(HttpStatus.UNAUTHORIZED.value());
+		response.setContentType("text/plain;charset=UTF-8");
+		response.getOutputStream().write(mensagem.getBytes(StandardCharsets.UTF_8));
+		return false;
+	}
+
+}
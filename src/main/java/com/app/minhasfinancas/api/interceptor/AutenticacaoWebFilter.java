@@ -0,0 +1,73 @@
+package com.app.minhasfinancas.api.interceptor;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.app.minhasfinancas.exception.ErroAutenticacao;
+import com.app.minhasfinancas.service.TokenService;
+
+import reactor.core.publisher.Mono;
+
+public class AutenticacaoWebFilter implements WebFilter {
+	
+	private static final String PREFIXO = "Bearer ";
+	
+	private TokenService tokenService;
+	private boolean obrigatorio;
+	
+	public AutenticacaoWebFilter(TokenService tokenService, boolean obrigatorio) {
+		this.tokenService = tokenService;
+		this.obrigatorio = obrigatorio;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		String caminho = exchange.getRequest().getPath().pathWithinApplication().value();
+		
+		if(!caminho.startsWith("/api/")) {
+			return chain.filter(exchange);
+		}
+		
+		String autorizacao = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		
+		if(autorizacao == null || !autorizacao.startsWith(PREFIXO)) {
+			if(obrigatorio && !isRotaPublica(caminho, exchange.getRequest().getMethod())) {
+				return recusar(exchange, "Token de acesso não informado!");
+			}
+			return chain.filter(exchange);
+		}
+		
+		try {
+			exchange.getAttributes().put(AutenticacaoInterceptor.ID_USUARIO, 
+					tokenService.obterIdUsuario(autorizacao.substring(PREFIXO.length())));
+			return chain.filter(exchange);
+			
+		} catch (ErroAutenticacao e) {
+			return recusar(exchange, e.getMessage());
+		}
+	}
+	
+	private boolean isRotaPublica(String caminho, HttpMethod metodo) {
+		return caminho.equals("/api/usuarios/autenticar") 
+				|| (caminho.equals("/api/usuarios") && HttpMethod.POST == metodo);
+	}
+	
+	private Mono<Void> recusar(ServerWebExchange exchange, String mensagem) {
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(HttpStatus.UNAUTHORIZED);
+		response.getHeaders().setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8));
+		
+		DataBuffer corpo = response.bufferFactory().wrap(mensagem.getBytes(StandardCharsets.UTF_8));
+		return response.writeWith(Mono.just(corpo));
+	}
+
+}
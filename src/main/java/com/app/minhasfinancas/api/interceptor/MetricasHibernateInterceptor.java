@@ -0,0 +1,56 @@
+package com.app.minhasfinancas.api.interceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.app.minhasfinancas.config.ContadorHibernate;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Publica, por endpoint, quantos comandos SQL, entidades carregadas e flushes
+ * cada requisição custou ao Hibernate.
+ */
+public class MetricasHibernateInterceptor implements HandlerInterceptor {
+	
+	private MeterRegistry registry;
+	
+	public MetricasHibernateInterceptor(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		ContadorHibernate.iniciar();
+		return true;
+	}
+	
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		ContadorHibernate.Contagem contagem = ContadorHibernate.finalizar();
+		if(contagem == null) {
+			return;
+		}
+		
+		Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		Tags tags = Tags.of("uri", uri == null ? "UNKNOWN" : uri.toString(), "method", request.getMethod());
+		
+		registrar("hibernate.requisicao.comandos", "Comandos SQL preparados por requisição", tags, contagem.getComandos());
+		registrar("hibernate.requisicao.entidades", "Entidades carregadas por requisição", tags, contagem.getEntidades());
+		registrar("hibernate.requisicao.flushes", "Flushes por requisição", tags, contagem.getFlushes());
+	}
+	
+	private void registrar(String nome, String descricao, Tags tags, long valor) {
+		DistributionSummary.builder(nome)
+			.description(descricao)
+			.tags(tags)
+			.register(registry)
+			.record(valor);
+	}
+
+}
@@ -0,0 +1,310 @@
+package com.app.minhasfinancas.api.resource;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.app.minhasfinancas.api.interceptor.AutenticacaoInterceptor;
+import com.app.minhasfinancas.dto.AtualizaStatusDTO;
+import com.app.minhasfinancas.dto.AtualizaStatusLoteDTO;
+import com.app.minhasfinancas.dto.LancamentoDTO;
+import com.app.minhasfinancas.dto.ProgressoImportacaoDTO;
+import com.app.minhasfinancas.exception.RegraNegocioException;
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.enums.FormatoExtrato;
+import com.app.minhasfinancas.model.repository.LancamentoReativoRepository;
+import com.app.minhasfinancas.model.repository.UsuarioReativoRepository;
+import com.app.minhasfinancas.service.ImportacaoExtratoService;
+import com.app.minhasfinancas.service.IngestaoLancamentoService;
+import com.app.minhasfinancas.service.LancamentoService;
+import com.app.minhasfinancas.service.UsuarioService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Rotas de {@link LancamentoResource} na pilha reativa. Consultas sem descrição e exportação leem via
+ * R2DBC sem ocupar threads; a busca por descrição, a paginação e as escritas passam pelo mesmo serviço
+ * da pilha servlet, no scheduler elástico, para responderem igual.
+ */
+@RestController
+@Profile("reativo")
+@RequestMapping("/api/lancamentos")
+public class LancamentoReativoResource {
+	
+	private static final int TAMANHO_BUFFER_IMPORTACAO = 64 * 1024;
+	
+	private LancamentoResource recurso;
+	private LancamentoService service;
+	private ImportacaoExtratoService importacaoService;
+	private LancamentoReativoRepository repository;
+	private UsuarioReativoRepository usuarioRepository;
+	private ObjectMapper objectMapper;
+	
+	public LancamentoReativoResource(LancamentoService service, UsuarioService usuarioService, 
+			IngestaoLancamentoService ingestaoService, ImportacaoExtratoService importacaoService, 
+			ObjectMapper objectMapper, LancamentoReativoRepository repository, UsuarioReativoRepository usuarioRepository) {
+		this.recurso = new LancamentoResource(service, usuarioService, ingestaoService, importacaoService, objectMapper);
+		this.service = service;
+		this.importacaoService = importacaoService;
+		this.repository = repository;
+		this.usuarioRepository = usuarioRepository;
+		this.objectMapper = objectMapper;
+	}
+	
+	@GetMapping
+	public Mono<ResponseEntity> buscar(
+			@RequestParam(value = "descricao", required = false) String descricao, 
+			@RequestParam(value = "mes", required = false) Integer mes, 
+			@RequestParam(value = "ano", required = false) Integer ano, 
+			@RequestParam(value = "usuario", required = false) Long idusuario, 
+			@RequestParam(value = "after", required = false) String after, 
+			@RequestParam(value = "limit", required = false) Integer limit, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado, 
+			ServerWebExchange exchange) {
+		
+		if(idAutenticado != null && idusuario != null && !idusuario.equals(idAutenticado)) {
+			return Mono.just(new ResponseEntity(HttpStatus.FORBIDDEN));
+		}
+		
+		return resolverUsuario(idusuario, idAutenticado)
+				.flatMap(idUsuario -> usuarioRepository.obterGeracao(idUsuario).flatMap(geracao -> {
+					String etag = LancamentoResource.etagDoUsuario(idUsuario, geracao);
+					
+					if(exchange.checkNotModified(etag)) {
+						return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+					}
+					
+					if(after != null || limit != null) {
+						return bloqueante(() -> buscarPagina(idUsuario, descricao, mes, ano, after, limit, etag));
+					}
+					
+					if(descricao != null) {
+						return bloqueante(() -> ResponseEntity.ok().eTag(etag).body(service.buscar(filtro(idUsuario, descricao, mes, ano))));
+					}
+					
+					return repository.buscar(idUsuario, mes, ano).collectList()
+							.map(lancamentos -> (ResponseEntity) ResponseEntity.ok().eTag(etag).body(lancamentos));
+				}))
+				.defaultIfEmpty(ResponseEntity.badRequest().body("Não foi possível realizar a consulta. Usuario não encontrado!"));
+	}
+	
+	@GetMapping("/exportar")
+	public Mono<ResponseEntity<Flux<String>>> exportar(@RequestParam(value = "usuario", required = false) Long idParametro, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		
+		if(idAutenticado != null && idParametro != null && !idParametro.equals(idAutenticado)) {
+			return Mono.just(new ResponseEntity<>(HttpStatus.FORBIDDEN));
+		}
+		
+		return resolverUsuario(idParametro, idAutenticado)
+				.map(idUsuario -> ResponseEntity.ok().contentType(LancamentoResource.NDJSON)
+						.body(repository.percorrerPorUsuario(idUsuario).map(this::linhaNdjson)))
+				.defaultIfEmpty(ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN)
+						.body(Flux.just("Não foi possível realizar a exportação. Usuario não encontrado!")));
+	}
+	
+	@PostMapping(value = "/importar", consumes = {"text/*", "application/octet-stream", "application/x-ofx"})
+	public Mono<ResponseEntity<Flux<String>>> importar(@RequestParam("formato") String formato, 
+			@RequestParam(value = "usuario", required = false) Long idParametro, 
+			@RequestParam(value = "charset", defaultValue = "UTF-8") String charset, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado, 
+			@RequestBody Flux<DataBuffer> extrato) {
+		
+		if(idAutenticado != null && idParametro != null && !idParametro.equals(idAutenticado)) {
+			return Mono.just(new ResponseEntity<>(HttpStatus.FORBIDDEN));
+		}
+		
+		FormatoExtrato formatoExtrato;
+		Charset codificacao;
+		try {
+			formatoExtrato = FormatoExtrato.valueOf(formato.toUpperCase());
+			codificacao = Charset.forName(charset);
+			
+		} catch (IllegalArgumentException e) {
+			return Mono.just(ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN)
+					.body(Flux.just("Formato ou charset inválido. Use formato=CSV ou formato=OFX.")));
+		}
+		
+		return resolverUsuario(idParametro, idAutenticado)
+				.map(idUsuario -> ResponseEntity.ok().contentType(LancamentoResource.NDJSON)
+						.body(importar(idUsuario, formatoExtrato, codificacao, extrato).map(this::linhaNdjson)))
+				.defaultIfEmpty(ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN)
+						.body(Flux.just("Não foi possível realizar a importação. Usuario não encontrado!")));
+	}
+	
+	@PostMapping
+	public Mono<ResponseEntity> salvar(@RequestBody LancamentoDTO dto, 
+			@RequestHeader(value = LancamentoResource.IDEMPOTENCY_KEY, required = false) String chaveIdempotencia, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		return bloqueante(() -> recurso.salvar(dto, chaveIdempotencia, idAutenticado));
+	}
+	
+	@PostMapping(params = "assincrono=true")
+	public Mono<ResponseEntity> enfileirar(@RequestBody LancamentoDTO dto, 
+			@RequestHeader(value = LancamentoResource.IDEMPOTENCY_KEY, required = false) String chaveIdempotencia, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		return bloqueante(() -> recurso.enfileirar(dto, chaveIdempotencia, idAutenticado));
+	}
+	
+	@GetMapping("/ingestao/{id}")
+	public Mono<ResponseEntity> obterSituacaoIngestao(@PathVariable("id") String id) {
+		return Mono.fromSupplier(() -> recurso.obterSituacaoIngestao(id));
+	}
+	
+	@PostMapping("/lote")
+	public Mono<ResponseEntity> salvarLote(@RequestBody List<LancamentoDTO> dtos, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		return bloqueante(() -> recurso.salvarLote(dtos, idAutenticado));
+	}
+	
+	@PutMapping("{id}")
+	public Mono<ResponseEntity> atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto, 
+			@RequestHeader(value = "If-Match", required = false) String ifMatch, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		return bloqueante(() -> recurso.atualizar(id, dto, ifMatch, idAutenticado));
+	}
+	
+	@PutMapping("{id}/atualiza-status")
+	public Mono<ResponseEntity> atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO dto, 
+			@RequestHeader(value = "If-Match", required = false) String ifMatch, 
+			@RequestParam(value = "usuario", required = false) Long idusuario, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		return bloqueante(() -> recurso.atualizarStatus(id, dto, ifMatch, idusuario, idAutenticado));
+	}
+	
+	@PutMapping("/atualiza-status")
+	public Mono<ResponseEntity> atualizarStatusEmLote(@RequestBody AtualizaStatusLoteDTO dto, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		return bloqueante(() -> recurso.atualizarStatusEmLote(dto, idAutenticado));
+	}
+	
+	@DeleteMapping("{id}")
+	public Mono<ResponseEntity> deletar(@PathVariable("id") Long id, 
+			@RequestParam(value = "usuario", required = false) Long idusuario, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		return bloqueante(() -> recurso.deletar(id, idusuario, idAutenticado));
+	}
+	
+	private Mono<Long> resolverUsuario(Long idParametro, Long idAutenticado) {
+		if(idAutenticado != null) {
+			return Mono.just(idAutenticado);
+		}
+		
+		if(idParametro == null) {
+			return Mono.empty();
+		}
+		
+		return usuarioRepository.existe(idParametro).filter(Boolean::booleanValue).map(existe -> idParametro);
+	}
+	
+	/**
+	 * Liga o corpo da requisição ao leitor bloqueante do serviço por um pipe de tamanho fixo: 
+	 * a escrita no pipe trava quando ele enche, o que segura a leitura do socket até a importação 
+	 * consumir o que já chegou.
+	 */
+	private Flux<ProgressoImportacaoDTO> importar(Long idUsuario, FormatoExtrato formato, Charset charset, 
+			Flux<DataBuffer> extrato) {
+		Usuario usuario = new Usuario();
+		usuario.setId(idUsuario);
+		
+		return Flux.<ProgressoImportacaoDTO>create(sink -> {
+			PipedInputStream entrada = new PipedInputStream(TAMANHO_BUFFER_IMPORTACAO);
+			PipedOutputStream saida;
+			try {
+				saida = new PipedOutputStream(entrada);
+				
+			} catch (IOException e) {
+				sink.error(e);
+				return;
+			}
+			
+			Disposable escrita = DataBufferUtils.write(extrato.publishOn(Schedulers.boundedElastic()), saida)
+					.doFinally(sinal -> fechar(saida))
+					.subscribe(DataBufferUtils.releaseConsumer(), sink::error);
+			sink.onDispose(escrita);
+			
+			try (Reader leitor = new InputStreamReader(entrada, charset)) {
+				importacaoService.importar(usuario, formato, leitor, sink::next);
+				sink.complete();
+				
+			} catch (IOException | RuntimeException e) {
+				sink.error(e);
+			}
+		}).subscribeOn(Schedulers.boundedElastic());
+	}
+	
+	private void fechar(PipedOutputStream saida) {
+		try {
+			saida.close();
+			
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private ResponseEntity buscarPagina(Long idUsuario, String descricao, Integer mes, Integer ano, 
+			String after, Integer limit, String etag) {
+		try {
+			return ResponseEntity.ok().eTag(etag).body(service.buscar(filtro(idUsuario, descricao, mes, ano), after, limit));
+			
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	private Lancamento filtro(Long idUsuario, String descricao, Integer mes, Integer ano) {
+		Usuario usuario = new Usuario();
+		usuario.setId(idUsuario);
+		
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		filtro.setDescricao(descricao);
+		filtro.setMes(mes);
+		filtro.setAno(ano);
+		return filtro;
+	}
+	
+	private String linhaNdjson(Object lancamento) {
+		try {
+			return objectMapper.writeValueAsString(lancamento) + "\n";
+			
+		} catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	static <T> Mono<T> bloqueante(Callable<T> chamada) {
+		return Mono.fromCallable(chamada).subscribeOn(Schedulers.boundedElastic());
+	}
+}
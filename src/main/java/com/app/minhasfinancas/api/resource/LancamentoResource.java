@@ -1,40 +1,92 @@
 package com.app.minhasfinancas.api.resource;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.app.minhasfinancas.api.interceptor.AutenticacaoInterceptor;
 import com.app.minhasfinancas.dto.AtualizaStatusDTO;
+import com.app.minhasfinancas.dto.AtualizaStatusLoteDTO;
+import com.app.minhasfinancas.dto.ErroLoteDTO;
 import com.app.minhasfinancas.dto.LancamentoDTO;
+import com.app.minhasfinancas.dto.PaginaLancamentoDTO;
+import com.app.minhasfinancas.dto.ResultadoAtualizaStatusDTO;
+import com.app.minhasfinancas.dto.ResultadoLoteDTO;
+import com.app.minhasfinancas.dto.SituacaoIngestaoDTO;
+import com.app.minhasfinancas.exception.AcessoNegadoException;
+import com.app.minhasfinancas.exception.ConflitoVersaoException;
+import com.app.minhasfinancas.exception.FilaCheiaException;
+import com.app.minhasfinancas.exception.LancamentoDuplicadoException;
 import com.app.minhasfinancas.exception.RegraNegocioException;
 import com.app.minhasfinancas.model.entity.Lancamento;
 import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.enums.FormatoExtrato;
 import com.app.minhasfinancas.model.enums.StatusLancamento;
 import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+import com.app.minhasfinancas.service.ImportacaoExtratoService;
+import com.app.minhasfinancas.service.IngestaoLancamentoService;
 import com.app.minhasfinancas.service.LancamentoService;
 import com.app.minhasfinancas.service.UsuarioService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 @RestController
+@Profile("!reativo")
 @RequestMapping("/api/lancamentos")
 public class LancamentoResource {
 	
+	static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+	static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+	static final int TAMANHO_MAXIMO_CHAVE = 100;
+	
 	private LancamentoService service;
 	private UsuarioService usuarioService;
+	private IngestaoLancamentoService ingestaoService;
+	private ImportacaoExtratoService importacaoService;
+	private ObjectWriter ndjsonWriter;
 
-	public LancamentoResource(LancamentoService service, UsuarioService usuarioService) {
+	public LancamentoResource(LancamentoService service, UsuarioService usuarioService, 
+			IngestaoLancamentoService ingestaoService, ImportacaoExtratoService importacaoService, 
+			ObjectMapper objectMapper) {
 		this.service = service;
 		this.usuarioService = usuarioService;
+		this.ingestaoService = ingestaoService;
+		this.importacaoService = importacaoService;
+		this.ndjsonWriter = objectMapper.writer()
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+				.without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
 	}
 	
 	@GetMapping
@@ -42,90 +94,363 @@ public class LancamentoResource {
 			@RequestParam(value = "descricao", required = false) String descricao, 
 			@RequestParam(value = "mes", required = false) Integer mes, 
 			@RequestParam(value = "ano", required = false) Integer ano, 
-			@RequestParam("usuario") Long idusuario) {
+			@RequestParam(value = "usuario", required = false) Long idusuario, 
+			@RequestParam(value = "after", required = false) String after, 
+			@RequestParam(value = "limit", required = false) Integer limit, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado, 
+			WebRequest request) {
 		
 		Lancamento lancamentoFiltro = new Lancamento();
 		lancamentoFiltro.setDescricao(descricao);
 		lancamentoFiltro.setAno(ano);
 		lancamentoFiltro.setMes(mes);
 		
-		Optional<Usuario> usuario = usuarioService.obterporId(idusuario);
+		if(idAutenticado != null) {
+			if(idusuario != null && !idusuario.equals(idAutenticado)) {
+				return new ResponseEntity(HttpStatus.FORBIDDEN);
+			}
+			lancamentoFiltro.setUsuario(referenciaUsuario(idAutenticado));
+			
+		} else {
+			Optional<Usuario> usuario = idusuario == null ? Optional.empty() : usuarioService.obterporId(idusuario);
+			
+			if(!usuario.isPresent()) {
+				return ResponseEntity.badRequest().body("Não foi possível realizar a consulta. Usuario não encontrado!");
+			
+			} else {
+				lancamentoFiltro.setUsuario(usuario.get());
+			}
+		}
 		
-		if(!usuario.isPresent()) {
-			return ResponseEntity.badRequest().body("Não foi possível realizar a consulta. Usuario não encontrado!");
+		Long idUsuario = lancamentoFiltro.getUsuario().getId();
+		if(request.checkNotModified(etagDoUsuario(idUsuario, service.obterGeracao(idUsuario)))) {
+			return null;
+		}
 		
-		} else {
-			lancamentoFiltro.setUsuario(usuario.get());
+		if(after != null || limit != null) {
+			try {
+				PaginaLancamentoDTO pagina = service.buscar(lancamentoFiltro, after, limit);
+				return ResponseEntity.ok(pagina);
+				
+			} catch (RegraNegocioException e) {
+				return ResponseEntity.badRequest().body(e.getMessage());
+			}
 		}
 		
-		List<Lancamento> lancamentos = service.buscar(lancamentoFiltro);
+		List<LancamentoProjecao> lancamentos = service.buscar(lancamentoFiltro);
 		
 		return ResponseEntity.ok(lancamentos);
 	}
 	
+	@GetMapping("/exportar")
+	public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(value = "usuario", required = false) Long idParametro, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		
+		if(idAutenticado != null && idParametro != null && !idParametro.equals(idAutenticado)) {
+			return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+		}
+		
+		Long idUsuario = idAutenticado != null ? idAutenticado : idParametro;
+		
+		if(idAutenticado == null && (idUsuario == null || !usuarioService.obterporId(idUsuario).isPresent())) {
+			return textoInvalido("Não foi possível realizar a exportação. Usuario não encontrado!");
+		}
+		
+		StreamingResponseBody corpo = saida -> service.exportar(idUsuario, lancamento -> {
+			try {
+				ndjsonWriter.writeValue(saida, lancamento);
+				saida.write('\n');
+				
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		
+		return ResponseEntity.ok().contentType(NDJSON).body(corpo);
+	}
+	
+	@PostMapping(value = "/importar", consumes = {"text/*", "application/octet-stream", "application/x-ofx"})
+	public ResponseEntity<StreamingResponseBody> importar(@RequestParam("formato") String formato, 
+			@RequestParam(value = "usuario", required = false) Long idParametro, 
+			@RequestParam(value = "charset", defaultValue = "UTF-8") String charset, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado, 
+			InputStream extrato) {
+		
+		if(idAutenticado != null && idParametro != null && !idParametro.equals(idAutenticado)) {
+			return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+		}
+		
+		FormatoExtrato formatoExtrato;
+		Charset codificacao;
+		try {
+			formatoExtrato = FormatoExtrato.valueOf(formato.toUpperCase());
+			codificacao = Charset.forName(charset);
+			
+		} catch (IllegalArgumentException e) {
+			return textoInvalido("Formato ou charset inválido. Use formato=CSV ou formato=OFX.");
+		}
+		
+		Optional<Usuario> usuario = idAutenticado != null ? Optional.of(referenciaUsuario(idAutenticado)) 
+				: idParametro == null ? Optional.empty() : usuarioService.obterporId(idParametro);
+		
+		if(!usuario.isPresent()) {
+			return textoInvalido("Não foi possível realizar a importação. Usuario não encontrado!");
+		}
+		
+		StreamingResponseBody corpo = saida -> importacaoService.importar(usuario.get(), formatoExtrato, 
+				new InputStreamReader(extrato, codificacao), progresso -> {
+			try {
+				ndjsonWriter.writeValue(saida, progresso);
+				saida.write('\n');
+				saida.flush();
+				
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		
+		return ResponseEntity.ok().contentType(NDJSON).body(corpo);
+	}
+	
 	@PostMapping
-	public ResponseEntity salvar(@RequestBody LancamentoDTO dto) {
+	public ResponseEntity salvar(@RequestBody LancamentoDTO dto, 
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String chaveIdempotencia, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		
+		if(acessoNegado(dto.getUsuario(), idAutenticado)) {
+			return new ResponseEntity(HttpStatus.FORBIDDEN);
+		}
+		
 		try {
-			Lancamento entidade = converter(dto);
+			Lancamento entidade = converter(dto, idAutenticado);
+			entidade.setChaveIdempotencia(chaveIdempotencia(chaveIdempotencia));
 			service.salvar(entidade);
 			
-			//return ResponseEntity.ok(entidade);
-			return new ResponseEntity(entidade, HttpStatus.CREATED);
+			return ResponseEntity.status(HttpStatus.CREATED).eTag(etag(entidade.getVersao())).body(entidade);
 		
+		} catch (LancamentoDuplicadoException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+			
 		} catch (RegraNegocioException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
 		}
 	}
 	
-	@PutMapping("{id}")
-	public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto) {
-		return service.obterPorId(id).map(entity -> {
+	@PostMapping(params = "assincrono=true")
+	public ResponseEntity enfileirar(@RequestBody LancamentoDTO dto, 
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String chaveIdempotencia, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		
+		if(acessoNegado(dto.getUsuario(), idAutenticado)) {
+			return new ResponseEntity(HttpStatus.FORBIDDEN);
+		}
+		
+		try {
+			Lancamento entidade = converter(dto, idAutenticado);
+			entidade.setChaveIdempotencia(chaveIdempotencia(chaveIdempotencia));
+			SituacaoIngestaoDTO situacao = ingestaoService.enfileirar(entidade);
+			
+			return ResponseEntity.accepted()
+					.location(URI.create("/api/lancamentos/ingestao/" + situacao.getId()))
+					.body(situacao);
+			
+		} catch (FilaCheiaException e) {
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(e.getMessage());
+			
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	@GetMapping("/ingestao/{id}")
+	public ResponseEntity obterSituacaoIngestao(@PathVariable("id") String id) {
+		return ingestaoService.obterSituacao(id)
+				.map(situacao -> ResponseEntity.ok(situacao))
+				.orElseGet( () -> new ResponseEntity(HttpStatus.NOT_FOUND));
+	}
+	
+	@PostMapping("/lote")
+	public ResponseEntity salvarLote(@RequestBody List<LancamentoDTO> dtos, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		
+		if(dtos.stream().anyMatch(dto -> acessoNegado(dto.getUsuario(), idAutenticado))) {
+			return new ResponseEntity(HttpStatus.FORBIDDEN);
+		}
+		
+		List<Lancamento> lancamentos = new ArrayList<>(dtos.size());
+		List<Integer> posicoes = new ArrayList<>(dtos.size());
+		List<ErroLoteDTO> erros = new ArrayList<>();
+		Map<Long, Optional<Usuario>> usuarios = new HashMap<>();
+		
+		for (int i = 0; i < dtos.size(); i++) {
+			LancamentoDTO dto = dtos.get(i);
+			
 			try {
-				Lancamento lancamento = converter(dto);
-				lancamento.setId(id);
-				service.atualizar(lancamento);
-				return ResponseEntity.ok(lancamento);
+				Long idUsuario = idAutenticado != null ? idAutenticado : dto.getUsuario();
+				Optional<Usuario> usuario = idUsuario == null ? Optional.empty() 
+						: usuarios.computeIfAbsent(idUsuario, usuarioService::obterporId);
+				lancamentos.add(converter(dto, usuario));
+				posicoes.add(i);
 				
-			} catch (RegraNegocioException e) {
-				return ResponseEntity.badRequest().body(e.getMessage());
+			} catch (RegraNegocioException | IllegalArgumentException e) {
+				erros.add(new ErroLoteDTO(i, e.getMessage()));
 			}
-		}).orElseGet( () -> new ResponseEntity("Lançamento Não encontrado na base de dados!", HttpStatus.BAD_REQUEST));
+		}
+		
+		ResultadoLoteDTO resultado = service.salvarLote(lancamentos);
+		
+		for (ErroLoteDTO erro : resultado.getErros()) {
+			erros.add(new ErroLoteDTO(posicoes.get(erro.getIndice()), erro.getMensagem()));
+		}
+		erros.sort(Comparator.comparingInt(ErroLoteDTO::getIndice));
+		
+		ResultadoLoteDTO resposta = new ResultadoLoteDTO(dtos.size(), resultado.getSalvos(), erros);
+		
+		if(erros.isEmpty()) {
+			return new ResponseEntity(resposta, HttpStatus.CREATED);
+		}
+		
+		if(resposta.getSalvos() == 0) {
+			return ResponseEntity.badRequest().body(resposta);
+		}
+		
+		return ResponseEntity.ok(resposta);
+	}
+	
+	@PutMapping("{id}")
+	public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto, 
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		
+		if(acessoNegado(dto.getUsuario(), idAutenticado)) {
+			return new ResponseEntity(HttpStatus.FORBIDDEN);
+		}
+		
+		try {
+			Lancamento lancamento = converter(dto, idAutenticado);
+			lancamento.setId(id);
+			lancamento.setVersao(versaoEsperada(ifMatch));
+			
+			Lancamento atualizado = service.atualizar(lancamento);
+			// o merge devolve o usuário como proxy, que não pode mais ser carregado fora da transação
+			atualizado.setUsuario(lancamento.getUsuario());
+			return ResponseEntity.ok().eTag(etag(atualizado.getVersao())).body(atualizado);
+			
+		} catch (ConflitoVersaoException | OptimisticLockingFailureException e) {
+			return conflito(ifMatch);
+			
+		} catch (AcessoNegadoException e) {
+			return new ResponseEntity(HttpStatus.FORBIDDEN);
+			
+		} catch (LancamentoDuplicadoException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+			
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
 	}
 	
 	@PutMapping("{id}/atualiza-status")
-	public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO dto) {
-		return service.obterPorId(id).map( entity -> {
-			StatusLancamento statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
+	public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO dto, 
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, 
+			@RequestParam(value = "usuario", required = false) Long idusuario, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		
+		StatusLancamento statusSelecionado;
+		try {
+			statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
 			
-			if(statusSelecionado == null) {
-				return ResponseEntity.badRequest().body("Status inválido!. Envie novamente.");
-			}
+		} catch (IllegalArgumentException | NullPointerException e) {
+			return ResponseEntity.badRequest().body("Status inválido!. Envie novamente.");
+		}
+		
+		try {
+			// com token, o lançamento de outro usuário não passa no filtro da consulta e da atualização
+			Long idUsuario = idAutenticado != null ? idAutenticado : idusuario;
+			LancamentoProjecao atualizado = service.atualizarStatus(id, idUsuario, statusSelecionado, versaoEsperada(ifMatch));
 			
-			try {
-				entity.setStatus(statusSelecionado);
-				service.atualizar(entity);
-				
-				return ResponseEntity.ok(entity);
-				
-			} catch (RegraNegocioException e) {
-				return ResponseEntity.badRequest().body(e.getMessage());
+			return ResponseEntity.ok().eTag(etag(atualizado.getVersao())).body(atualizado);
+			
+		} catch (ConflitoVersaoException e) {
+			return conflito(ifMatch);
+			
+		} catch (AcessoNegadoException e) {
+			return new ResponseEntity(HttpStatus.FORBIDDEN);
+			
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	@PutMapping("/atualiza-status")
+	public ResponseEntity atualizarStatusEmLote(@RequestBody AtualizaStatusLoteDTO dto, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		
+		if(idAutenticado != null && dto.getUsuario() != null && !dto.getUsuario().equals(idAutenticado)) {
+			return new ResponseEntity(HttpStatus.FORBIDDEN);
+		}
+		
+		Long idUsuario = idAutenticado != null ? idAutenticado : dto.getUsuario();
+		
+		try {
+			Lancamento filtro = new Lancamento();
+			filtro.setUsuario(idUsuario == null ? null : referenciaUsuario(idUsuario));
+			filtro.setAno(dto.getAno());
+			filtro.setMes(dto.getMes());
+			
+			if(dto.getStatusAtual() != null) {
+				filtro.setStatus(StatusLancamento.valueOf(dto.getStatusAtual()));
 			}
 			
+			StatusLancamento status = dto.getStatus() == null ? null : StatusLancamento.valueOf(dto.getStatus());
+			int atualizados = service.atualizarStatusEmLote(filtro, dto.getIds(), status);
 			
-		}).orElseGet( () -> new ResponseEntity("Lançamento Não encontrado na base de dados!", HttpStatus.BAD_REQUEST));
+			return ResponseEntity.ok(new ResultadoAtualizaStatusDTO(atualizados));
+			
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Status inválido!. Envie novamente.");
+			
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
 	}
 	
+	/**
+	 * Sem token e com sharding, o dono vem no parâmetro {@code usuario}: o id do lançamento não diz o shard.
+	 */
 	@DeleteMapping("{id}")
-	public ResponseEntity deletar(@PathVariable("id") Long id) {
+	public ResponseEntity deletar(@PathVariable("id") Long id, 
+			@RequestParam(value = "usuario", required = false) Long idusuario, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
 		
-		return service.obterPorId(id).map( entidade ->{
+		Optional<Lancamento> lancamento;
+		try {
+			lancamento = service.obterPorId(id, idAutenticado != null ? idAutenticado : idusuario);
+			
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+		
+		return lancamento.map( entidade ->{
+			if(acessoNegado(entidade.getUsuario().getId(), idAutenticado)) {
+				return new ResponseEntity(HttpStatus.FORBIDDEN);
+			}
+			
 			service.deletar(entidade);
 			
 			return new ResponseEntity(HttpStatus.NO_CONTENT);
 		}).orElseGet( () -> new ResponseEntity("Lançamento Não encontrado na base de dados!", HttpStatus.BAD_REQUEST));
 	}
 	
-	private Lancamento converter(LancamentoDTO dto) {
+	/**
+	 * Com token, o lançamento é sempre do usuário autenticado; o usuário do corpo só é usado sem token.
+	 */
+	Lancamento converter(LancamentoDTO dto, Long idAutenticado) {
+		Long idUsuario = idAutenticado != null ? idAutenticado : dto.getUsuario();
+		return converter(dto, idUsuario == null ? Optional.empty() : usuarioService.obterporId(idUsuario));
+	}
+	
+	private Lancamento converter(LancamentoDTO dto, Optional<Usuario> usuarioEncontrado) {
 		Lancamento lancamento = new Lancamento();
 		lancamento.setId(dto.getId());
 		lancamento.setDescricao(dto.getDescricao());
@@ -133,7 +458,7 @@ public class LancamentoResource {
 		lancamento.setMes(dto.getMes());
 		lancamento.setValor(dto.getValor());
 		
-		Usuario usuario = usuarioService.obterporId(dto.getUsuario()).orElseThrow( () -> new RegraNegocioException("usuário não encontrado para o Id informado!"));
+		Usuario usuario = usuarioEncontrado.orElseThrow( () -> new RegraNegocioException("usuário não encontrado para o Id informado!"));
 		
 		lancamento.setUsuario(usuario);
 		if(dto.getTipo() != null) {
@@ -146,4 +471,64 @@ public class LancamentoResource {
 
 		return lancamento;
 	}
+	
+	private boolean acessoNegado(Long idUsuario, Long idAutenticado) {
+		return idAutenticado != null && idUsuario != null && !idUsuario.equals(idAutenticado);
+	}
+	
+	private ResponseEntity<StreamingResponseBody> textoInvalido(String mensagem) {
+		byte[] conteudo = mensagem.getBytes(StandardCharsets.UTF_8);
+		return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(saida -> saida.write(conteudo));
+	}
+	
+	static String etagDoUsuario(Long idUsuario, long geracao) {
+		return "\"" + idUsuario + "." + geracao + "\"";
+	}
+	
+	private Long versaoEsperada(String ifMatch) {
+		if(ifMatch == null || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		
+		String valor = ifMatch.trim();
+		if(valor.startsWith("W/")) {
+			valor = valor.substring(2);
+		}
+		
+		try {
+			return Long.valueOf(valor.replace("\"", ""));
+			
+		} catch (NumberFormatException e) {
+			// cabeçalho malformado é erro da requisição, não divergência de versão
+			throw new RegraNegocioException("If-Match inválido!");
+		}
+	}
+	
+	private String chaveIdempotencia(String chave) {
+		if(chave == null || chave.trim().equals("")) {
+			return null;
+		}
+		
+		if(chave.trim().length() > TAMANHO_MAXIMO_CHAVE) {
+			throw new RegraNegocioException("Idempotency-Key inválido!");
+		}
+		
+		return chave.trim();
+	}
+	
+	private String etag(Long versao) {
+		return versao == null ? null : "\"" + versao + "\"";
+	}
+	
+	private ResponseEntity conflito(String ifMatch) {
+		HttpStatus status = ifMatch == null ? HttpStatus.CONFLICT : HttpStatus.PRECONDITION_FAILED;
+		
+		return ResponseEntity.status(status).body("Lançamento alterado por outra requisição. Consulte novamente e reenvie.");
+	}
+	
+	private Usuario referenciaUsuario(Long id) {
+		Usuario usuario = new Usuario();
+		usuario.setId(id);
+		return usuario;
+	}
 }
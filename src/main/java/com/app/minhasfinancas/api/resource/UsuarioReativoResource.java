@@ -0,0 +1,108 @@
+package com.app.minhasfinancas.api.resource;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.app.minhasfinancas.api.interceptor.AutenticacaoInterceptor;
+import com.app.minhasfinancas.dto.UsuarioDTO;
+import com.app.minhasfinancas.model.repository.UsuarioReativoRepository;
+import com.app.minhasfinancas.service.LancamentoService;
+import com.app.minhasfinancas.service.PainelService;
+import com.app.minhasfinancas.service.RelatorioService;
+import com.app.minhasfinancas.service.ResumoMensalService;
+import com.app.minhasfinancas.service.TokenService;
+import com.app.minhasfinancas.service.UsuarioService;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Rotas de {@link UsuarioResource} na pilha reativa. O saldo é lido via R2DBC; autenticação,
+ * cadastro, resumo, relatório e painel reaproveitam os handlers servlet no scheduler elástico.
+ */
+@RestController
+@Profile("reativo")
+@RequestMapping("/api/usuarios")
+public class UsuarioReativoResource {
+	
+	private UsuarioResource recurso;
+	private UsuarioReativoRepository repository;
+	
+	public UsuarioReativoResource(UsuarioService service, LancamentoService lancamentoService, 
+			ResumoMensalService resumoMensalService, TokenService tokenService, RelatorioService relatorioService, 
+			PainelService painelService, UsuarioReativoRepository repository) {
+		this.recurso = new UsuarioResource(service, lancamentoService, resumoMensalService, tokenService, 
+				relatorioService, painelService);
+		this.repository = repository;
+	}
+	
+	@PostMapping("/autenticar")
+	public Mono<ResponseEntity> autenticar(@RequestBody UsuarioDTO dto) {
+		return LancamentoReativoResource.bloqueante(() -> recurso.autenticar(dto));
+	}
+	
+	@PostMapping
+	public Mono<ResponseEntity> salvar(@RequestBody UsuarioDTO dto) {
+		return LancamentoReativoResource.bloqueante(() -> recurso.salvar(dto));
+	}
+	
+	@GetMapping("{id}/saldo")
+	public Mono<ResponseEntity> obterSaldo(@PathVariable("id") Long id, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado, 
+			ServerWebExchange exchange) {
+		
+		return verificarAcesso(id, idAutenticado).flatMap(acesso -> {
+			if(acesso != HttpStatus.OK) {
+				return Mono.just(new ResponseEntity(acesso));
+			}
+			
+			return repository.obterGeracao(id).flatMap(geracao -> {
+				String etag = LancamentoResource.etagDoUsuario(id, geracao);
+				
+				if(exchange.checkNotModified(etag)) {
+					return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+				}
+				
+				return repository.obterSaldo(id).map(saldo -> (ResponseEntity) ResponseEntity.ok().eTag(etag).body(saldo));
+			});
+		});
+	}
+	
+	@GetMapping("{id}/resumo")
+	public Mono<ResponseEntity> obterResumo(@PathVariable("id") Long id, @RequestParam("ano") Integer ano, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		return LancamentoReativoResource.bloqueante(() -> recurso.obterResumo(id, ano, idAutenticado));
+	}
+	
+	@GetMapping("{id}/relatorio")
+	public Mono<ResponseEntity> obterRelatorio(@PathVariable("id") Long id, @RequestParam("ano") Integer ano, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		return LancamentoReativoResource.bloqueante(() -> recurso.obterRelatorio(id, ano, idAutenticado));
+	}
+	
+	@GetMapping("{id}/painel")
+	public Mono<ResponseEntity> obterPainel(@PathVariable("id") Long id, 
+			@RequestParam(value = "ano", required = false) Integer ano, 
+			@RequestParam(value = "tipo", required = false) String tipo, 
+			@RequestParam(value = "status", required = false) String status, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		return LancamentoReativoResource.bloqueante(() -> recurso.obterPainel(id, ano, tipo, status, idAutenticado));
+	}
+	
+	private Mono<HttpStatus> verificarAcesso(Long id, Long idAutenticado) {
+		if(idAutenticado != null) {
+			return Mono.just(idAutenticado.equals(id) ? HttpStatus.OK : HttpStatus.FORBIDDEN);
+		}
+		
+		return repository.existe(id).map(existe -> existe ? HttpStatus.OK : HttpStatus.NOT_FOUND);
+	}
+}
@@ -1,34 +1,61 @@
 package com.app.minhasfinancas.api.resource;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.app.minhasfinancas.api.interceptor.AutenticacaoInterceptor;
+import com.app.minhasfinancas.dto.PainelDTO;
+import com.app.minhasfinancas.dto.RelatorioAnualDTO;
+import com.app.minhasfinancas.dto.ResumoMensalDTO;
+import com.app.minhasfinancas.dto.UsuarioAutenticadoDTO;
 import com.app.minhasfinancas.dto.UsuarioDTO;
 import com.app.minhasfinancas.exception.ErroAutenticacao;
 import com.app.minhasfinancas.exception.RegraNegocioException;
 import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
 import com.app.minhasfinancas.service.LancamentoService;
+import com.app.minhasfinancas.service.PainelService;
+import com.app.minhasfinancas.service.RelatorioService;
+import com.app.minhasfinancas.service.ResumoMensalService;
+import com.app.minhasfinancas.service.TokenService;
 import com.app.minhasfinancas.service.UsuarioService;
 
 @RestController
+@Profile("!reativo")
 @RequestMapping("/api/usuarios")
 public class UsuarioResource {
 	
 	private UsuarioService service;
 	private LancamentoService lancamentoService;
+	private ResumoMensalService resumoMensalService;
+	private TokenService tokenService;
+	private RelatorioService relatorioService;
+	private PainelService painelService;
 	
-	public UsuarioResource(UsuarioService service, LancamentoService lancamentoService) {
+	public UsuarioResource(UsuarioService service, LancamentoService lancamentoService, 
+			ResumoMensalService resumoMensalService, TokenService tokenService, RelatorioService relatorioService, 
+			PainelService painelService) {
 		this.service = service;
 		this.lancamentoService = lancamentoService;
+		this.resumoMensalService = resumoMensalService;
+		this.tokenService = tokenService;
+		this.relatorioService = relatorioService;
+		this.painelService = painelService;
 	}
 	
 	@PostMapping("/autenticar")
@@ -36,7 +63,9 @@ public class UsuarioResource {
 		
 		try {
 			Usuario usuarioAutenticado = service.autenticar(dto.getEmail(), dto.getSenha());
-			return ResponseEntity.ok(usuarioAutenticado);
+			String token = tokenService.gerarToken(usuarioAutenticado);
+			
+			return ResponseEntity.ok(new UsuarioAutenticadoDTO(usuarioAutenticado, token));
 		
 		} catch (ErroAutenticacao e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
@@ -62,14 +91,87 @@ public class UsuarioResource {
 	}
 	
 	@GetMapping("{id}/saldo")
-	public ResponseEntity obterSaldo(@PathVariable("id") Long id) {
-		Optional<Usuario> usuario = service.obterporId(id);
+	public ResponseEntity obterSaldo(@PathVariable("id") Long id, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado, 
+			WebRequest request) {
+		HttpStatus acesso = verificarAcesso(id, idAutenticado);
 		
-		if(!usuario.isPresent()) {
-			return new ResponseEntity(HttpStatus.NOT_FOUND);
+		if(acesso != null) {
+			return new ResponseEntity(acesso);
+		}
+		
+		if(request.checkNotModified(LancamentoResource.etagDoUsuario(id, lancamentoService.obterGeracao(id)))) {
+			return null;
 		}
 		
 		BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(id);
 		return ResponseEntity.ok(saldo);
 	}
+	
+	@GetMapping("{id}/resumo")
+	public ResponseEntity obterResumo(@PathVariable("id") Long id, @RequestParam("ano") Integer ano, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		HttpStatus acesso = verificarAcesso(id, idAutenticado);
+		
+		if(acesso != null) {
+			return new ResponseEntity(acesso);
+		}
+		
+		List<ResumoMensalDTO> resumo = resumoMensalService.obterResumoAnual(id, ano);
+		return ResponseEntity.ok(resumo);
+	}
+	
+	@GetMapping("{id}/relatorio")
+	public ResponseEntity obterRelatorio(@PathVariable("id") Long id, @RequestParam("ano") Integer ano, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		HttpStatus acesso = verificarAcesso(id, idAutenticado);
+		
+		if(acesso != null) {
+			return new ResponseEntity(acesso);
+		}
+		
+		try {
+			RelatorioAnualDTO relatorio = relatorioService.gerarRelatorioAnual(id, ano);
+			return ResponseEntity.ok(relatorio);
+			
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	@GetMapping("{id}/painel")
+	public ResponseEntity obterPainel(@PathVariable("id") Long id, 
+			@RequestParam(value = "ano", required = false) Integer ano, 
+			@RequestParam(value = "tipo", required = false) String tipo, 
+			@RequestParam(value = "status", required = false) String status, 
+			@RequestAttribute(value = AutenticacaoInterceptor.ID_USUARIO, required = false) Long idAutenticado) {
+		HttpStatus acesso = verificarAcesso(id, idAutenticado);
+		
+		if(acesso != null) {
+			return new ResponseEntity(acesso);
+		}
+		
+		try {
+			PainelDTO painel = painelService.obterPainel(id, ano, 
+					tipo == null ? null : TipoLancamento.valueOf(tipo), 
+					status == null ? null : StatusLancamento.valueOf(status));
+			return ResponseEntity.ok(painel);
+			
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Tipo ou status inválido!");
+			
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	private HttpStatus verificarAcesso(Long id, Long idAutenticado) {
+		if(idAutenticado != null) {
+			// o token já comprova a existência do usuário, dispensando a consulta
+			return idAutenticado.equals(id) ? null : HttpStatus.FORBIDDEN;
+		}
+		
+		Optional<Usuario> usuario = service.obterporId(id);
+		return usuario.isPresent() ? null : HttpStatus.NOT_FOUND;
+	}
 }
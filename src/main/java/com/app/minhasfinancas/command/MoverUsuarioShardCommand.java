@@ -0,0 +1,35 @@
+package com.app.minhasfinancas.command;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.app.minhasfinancas.service.ShardService;
+
+/**
+ * Move um usuário de shard com as demais instâncias no ar, por exemplo com
+ * {@code --minhasfinancas.shards.mover-usuario=42 --minhasfinancas.shards.destino=2}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "minhasfinancas.shards", name = "mover-usuario")
+public class MoverUsuarioShardCommand implements CommandLineRunner {
+	
+	private ShardService shardService;
+	private Long idUsuario;
+	private int destino;
+	
+	public MoverUsuarioShardCommand(ShardService shardService, 
+			@Value("${minhasfinancas.shards.mover-usuario}") Long idUsuario, 
+			@Value("${minhasfinancas.shards.destino}") int destino) {
+		this.shardService = shardService;
+		this.idUsuario = idUsuario;
+		this.destino = destino;
+	}
+
+	@Override
+	public void run(String... args) {
+		shardService.moverUsuario(idUsuario, destino);
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.app.minhasfinancas.command;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.app.minhasfinancas.service.ResumoMensalService;
+import com.app.minhasfinancas.service.SaldoUsuarioService;
+import com.app.minhasfinancas.service.ShardService;
+
+@Component
+@ConditionalOnProperty(name = "minhasfinancas.reconciliar", havingValue = "true")
+public class ReconciliacaoCommand implements CommandLineRunner {
+	
+	private static final Logger log = LoggerFactory.getLogger(ReconciliacaoCommand.class);
+	
+	private SaldoUsuarioService saldoUsuarioService;
+	private ResumoMensalService resumoMensalService;
+	private ShardService shardService;
+	
+	public ReconciliacaoCommand(SaldoUsuarioService saldoUsuarioService, ResumoMensalService resumoMensalService, 
+			ShardService shardService) {
+		this.saldoUsuarioService = saldoUsuarioService;
+		this.resumoMensalService = resumoMensalService;
+		this.shardService = shardService;
+	}
+
+	@Override
+	public void run(String... args) {
+		shardService.paraCadaShard(false, () -> {
+			int usuarios = saldoUsuarioService.reconciliar();
+			log.info("Saldos reconstruídos para {} usuário(s).", usuarios);
+			
+			int resumos = resumoMensalService.reconciliar();
+			log.info("Resumo mensal reconstruído com {} linha(s).", resumos);
+		});
+	}
+
+}
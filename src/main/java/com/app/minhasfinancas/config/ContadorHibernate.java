@@ -0,0 +1,71 @@
+package com.app.minhasfinancas.config;
+
+import java.io.Serializable;
+import java.util.Iterator;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Interceptor do Hibernate que conta, por thread, os comandos SQL preparados,
+ * as entidades carregadas e os flushes entre {@link #iniciar()} e {@link #finalizar()}.
+ * Fora de uma medição iniciada não faz nada.
+ */
+public class ContadorHibernate extends EmptyInterceptor {
+	
+	private static final ThreadLocal<Contagem> CONTAGEM = new ThreadLocal<>();
+	
+	public static class Contagem {
+		private long comandos;
+		private long entidades;
+		private long flushes;
+		
+		public long getComandos() {
+			return comandos;
+		}
+		public long getEntidades() {
+			return entidades;
+		}
+		public long getFlushes() {
+			return flushes;
+		}
+	}
+	
+	public static void iniciar() {
+		CONTAGEM.set(new Contagem());
+	}
+	
+	public static Contagem finalizar() {
+		Contagem contagem = CONTAGEM.get();
+		CONTAGEM.remove();
+		return contagem;
+	}
+
+	@Override
+	public String onPrepareStatement(String sql) {
+		Contagem contagem = CONTAGEM.get();
+		if(contagem != null) {
+			contagem.comandos++;
+		}
+		return sql;
+	}
+	
+	@Override
+	public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+		Contagem contagem = CONTAGEM.get();
+		if(contagem != null) {
+			contagem.entidades++;
+		}
+		return false;
+	}
+	
+	@Override
+	@SuppressWarnings("rawtypes")
+	public void postFlush(Iterator entities) {
+		Contagem contagem = CONTAGEM.get();
+		if(contagem != null) {
+			contagem.flushes++;
+		}
+	}
+	
+}
@@ -0,0 +1,83 @@
+package com.app.minhasfinancas.config;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.jpa.spi.IdentifierGeneratorStrategyProvider;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Tira os ids das sequências do banco coordenador (o shard 0), numa conexão própria, em vez de usar a
+ * conexão da transação: assim os ids são únicos entre todos os shards e sair a buscar um novo bloco
+ * não prende a transação a um shard antes de o serviço escolher o do usuário.
+ */
+public class GeradorIdGlobal extends SequenceStyleGenerator {
+
+	public static final String COORDENADOR = "minhasfinancas.shards.coordenador";
+
+	private DataSource coordenador;
+
+	@Override
+	public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+		super.configure(type, params, serviceRegistry);
+		coordenador = (DataSource) serviceRegistry.getService(ConfigurationService.class).getSettings().get(COORDENADOR);
+	}
+
+	@Override
+	public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+		String sql = session.getJdbcServices().getDialect().getSequenceNextValString(getDatabaseStructure().getName());
+
+		return getOptimizer().generate(new AccessCallback() {
+			@Override
+			public IntegralDataTypeHolder getNextValue() {
+				try (Connection conexao = coordenador.getConnection();
+						Statement comando = conexao.createStatement();
+						ResultSet resultado = comando.executeQuery(sql)) {
+
+					resultado.next();
+					IntegralDataTypeHolder valor = IdentifierGeneratorHelper.getIntegralDataTypeHolder(getIdentifierType().getReturnedClass());
+					valor.initialize(resultado, 1);
+					return valor;
+
+				} catch (SQLException e) {
+					throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "Não foi possível obter o próximo id", sql);
+				}
+			}
+
+			@Override
+			public String getTenantIdentifier() {
+				return session.getTenantIdentifier();
+			}
+		});
+	}
+
+	/**
+	 * Registrada em {@code hibernate.ejb.identifier_generator_strategy_provider}, põe este gerador no
+	 * lugar do de sequência padrão para as entidades que usam {@code GenerationType.SEQUENCE}.
+	 */
+	public static class Estrategia implements IdentifierGeneratorStrategyProvider {
+
+		@Override
+		public Map<String, Class<?>> getStrategies() {
+			return Collections.singletonMap(SequenceStyleGenerator.class.getName(), GeradorIdGlobal.class);
+		}
+	}
+
+}
@@ -0,0 +1,24 @@
+package com.app.minhasfinancas.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class MetricasConfig {
+
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry registry) {
+		return new TimedAspect(registry);
+	}
+	
+	@Bean
+	public HibernatePropertiesCustomizer contadorHibernateCustomizer() {
+		return propriedades -> propriedades.put(AvailableSettings.INTERCEPTOR, new ContadorHibernate());
+	}
+	
+}
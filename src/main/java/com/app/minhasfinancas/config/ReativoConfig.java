@@ -0,0 +1,56 @@
+package com.app.minhasfinancas.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import com.app.minhasfinancas.api.interceptor.AutenticacaoWebFilter;
+import com.app.minhasfinancas.service.TokenService;
+import com.zaxxer.hikari.HikariDataSource;
+
+@Configuration
+@Profile("reativo")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReativoConfig {
+	
+	/**
+	 * As leituras R2DBC vão direto ao banco principal, sem escolher o shard do usuário.
+	 */
+	public ReativoConfig(Environment environment) {
+		if(environment.containsProperty("minhasfinancas.shards.urls")) {
+			throw new IllegalStateException("o perfil reativo e minhasfinancas.shards.urls não podem ser usados juntos");
+		}
+	}
+	
+	/**
+	 * Com um ConnectionFactory R2DBC no contexto o Spring Boot deixa de criar o DataSource JDBC,
+	 * mas as escritas continuam no JPA e precisam do pool Hikari.
+	 */
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource dataSource(DataSourceProperties properties) {
+		return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+	
+	/**
+	 * O Tomcat continua no classpath para o modo servlet; sem este bean o Spring Boot
+	 * o escolheria também para a pilha reativa.
+	 */
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+	
+	@Bean
+	public AutenticacaoWebFilter autenticacaoWebFilter(TokenService tokenService, 
+			@Value("${minhasfinancas.token.obrigatorio:false}") boolean tokenObrigatorio) {
+		return new AutenticacaoWebFilter(tokenService, tokenObrigatorio);
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.app.minhasfinancas.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Liga o roteamento de leituras para a réplica quando {@code minhasfinancas.replica.url} é informada.
+ * O pool da réplica é configurado em {@code minhasfinancas.replica.hikari.*}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "minhasfinancas.replica", name = "url")
+public class ReplicaConfig {
+
+	private static final String CONSULTA_ATRASO_POSTGRES = "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+			+ "else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+
+	/**
+	 * Envolve o DataSource da aplicação, seja o do Spring Boot ou o do {@link ReativoConfig}, em vez de
+	 * declarar outro: com dois DataSources no contexto a autoconfiguração do pool principal desistiria.
+	 */
+	@Bean
+	public static BeanPostProcessor roteamentoReplicaPostProcessor(Environment environment, ObjectProvider<MeterRegistry> metricas) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String nome) {
+				if(!"dataSource".equals(nome) || !(bean instanceof DataSource)) {
+					return bean;
+				}
+
+				return new ProxyRoteamento(criarRoteamento((DataSource) bean, environment, metricas.getIfAvailable()));
+			}
+		};
+	}
+
+	private static RoteamentoDataSource criarRoteamento(DataSource primario, Environment environment, MeterRegistry registry) {
+		HikariDataSource replica = DataSourceBuilder.create()
+				.type(HikariDataSource.class)
+				.url(environment.getProperty("minhasfinancas.replica.url"))
+				.username(environment.getProperty("minhasfinancas.replica.username"))
+				.password(environment.getProperty("minhasfinancas.replica.password"))
+				.driverClassName(environment.getProperty("minhasfinancas.replica.driver-class-name"))
+				.build();
+		replica.setPoolName("replica");
+		replica.setConnectionTimeout(2000);
+		replica.setReadOnly(true);
+		Binder.get(environment).bind("minhasfinancas.replica.hikari", Bindable.ofInstance(replica));
+
+		RoteamentoDataSource roteamento = new RoteamentoDataSource(primario, replica,
+				environment.getProperty("minhasfinancas.replica.consulta-atraso", CONSULTA_ATRASO_POSTGRES),
+				environment.getProperty("minhasfinancas.replica.atraso-maximo-ms", Long.class, 1000L));
+
+		if(registry != null) {
+			replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+			Gauge.builder("minhasfinancas.replica.atraso", roteamento, RoteamentoDataSource::getAtrasoMs)
+					.baseUnit("milliseconds")
+					.register(registry);
+			Gauge.builder("minhasfinancas.replica.disponivel", roteamento, r -> r.isReplicaDisponivel() ? 1 : 0)
+					.register(registry);
+		}
+
+		roteamento.iniciar(environment.getProperty("minhasfinancas.replica.intervalo-verificacao-ms", Long.class, 1000L));
+
+		return roteamento;
+	}
+
+	/**
+	 * Fica no lugar do DataSource original, então também é ele que fecha os pools ao desligar.
+	 */
+	static class ProxyRoteamento extends LazyConnectionDataSourceProxy implements DisposableBean {
+
+		ProxyRoteamento(RoteamentoDataSource roteamento) {
+			super(roteamento);
+		}
+
+		@Override
+		public void destroy() throws Exception {
+			((RoteamentoDataSource) obtainTargetDataSource()).destroy();
+		}
+	}
+
+}
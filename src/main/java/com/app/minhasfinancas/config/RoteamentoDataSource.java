@@ -0,0 +1,175 @@
+package com.app.minhasfinancas.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envia para a réplica as transações somente leitura liberadas por {@link #liberarReplicaNaTransacao()}
+ * e todo o resto para o primário. As consultas que o Spring Data abre como somente leitura por conta
+ * própria, como as que antecedem uma alteração, continuam no primário.
+ * <p>
+ * Precisa ficar atrás de um {@link LazyConnectionDataSourceProxy}: o gerenciador de transações pede a
+ * conexão antes de marcar a transação como somente leitura, e o proxy só a obtém no primeiro comando.
+ * <p>
+ * O atraso da réplica é consultado periodicamente; acima do máximo, ou se a consulta ou a conexão
+ * falharem, as leituras voltam ao primário até a próxima verificação bem sucedida.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(RoteamentoDataSource.class);
+
+	private static final ThreadLocal<Boolean> REPLICA_LIBERADA = new ThreadLocal<>();
+
+	enum Destino {
+		PRIMARIO, REPLICA
+	}
+
+	private final DataSource primario;
+	private final DataSource replica;
+	private final String consultaAtraso;
+	private final long atrasoMaximoMs;
+	private ScheduledExecutorService verificador;
+	private volatile boolean replicaDisponivel;
+	private volatile long atrasoMs = -1;
+
+	public RoteamentoDataSource(DataSource primario, DataSource replica, String consultaAtraso, long atrasoMaximoMs) {
+		this.primario = primario;
+		this.replica = replica;
+		this.consultaAtraso = consultaAtraso;
+		this.atrasoMaximoMs = atrasoMaximoMs;
+
+		Map<Object, Object> destinos = new HashMap<>();
+		destinos.put(Destino.PRIMARIO, primario);
+		destinos.put(Destino.REPLICA, replica);
+		setTargetDataSources(destinos);
+		setDefaultTargetDataSource(primario);
+		afterPropertiesSet();
+	}
+
+	/**
+	 * Permite que a transação somente leitura corrente use a réplica. Vale até ela terminar; fora de
+	 * uma transação não tem efeito.
+	 */
+	public static void liberarReplicaNaTransacao() {
+		if(!TransactionSynchronizationManager.isSynchronizationActive() || REPLICA_LIBERADA.get() != null) {
+			return;
+		}
+
+		REPLICA_LIBERADA.set(Boolean.TRUE);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				REPLICA_LIBERADA.remove();
+			}
+		});
+	}
+
+	/**
+	 * Verifica o atraso da réplica agora e depois a cada intervalo. Até a primeira verificação as
+	 * leituras ficam no primário.
+	 */
+	public void iniciar(long intervaloVerificacaoMs) {
+		verificador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+			Thread thread = new Thread(tarefa, "verificador-replica");
+			thread.setDaemon(true);
+			return thread;
+		});
+		verificador.scheduleWithFixedDelay(this::verificarReplica, 0, intervaloVerificacaoMs, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		if(verificador != null) {
+			verificador.shutdownNow();
+		}
+
+		for (DataSource pool : new DataSource[] { replica, primario }) {
+			if(pool instanceof AutoCloseable) {
+				((AutoCloseable) pool).close();
+			}
+		}
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if(replicaDisponivel
+				&& REPLICA_LIBERADA.get() != null
+				&& TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return Destino.REPLICA;
+		}
+
+		return Destino.PRIMARIO;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if(determineCurrentLookupKey() == Destino.REPLICA) {
+			try {
+				return replica.getConnection();
+
+			} catch (SQLException e) {
+				marcarIndisponivel("sem conexão: " + e.getMessage());
+			}
+		}
+
+		return primario.getConnection();
+	}
+
+	void verificarReplica() {
+		try (Connection conexao = replica.getConnection();
+				Statement comando = conexao.createStatement();
+				ResultSet resultado = comando.executeQuery(consultaAtraso)) {
+
+			double segundos = resultado.next() ? resultado.getDouble(1) : 0;
+			atrasoMs = Math.round(segundos * 1000);
+
+			if(atrasoMs > atrasoMaximoMs) {
+				marcarIndisponivel("atraso de " + atrasoMs + " ms");
+
+			} else if(!replicaDisponivel) {
+				replicaDisponivel = true;
+				log.info("Réplica disponível para leitura, atraso de {} ms", atrasoMs);
+			}
+
+		} catch (SQLException | RuntimeException e) {
+			atrasoMs = -1;
+			marcarIndisponivel(e.getMessage());
+		}
+	}
+
+	private void marcarIndisponivel(String motivo) {
+		if(replicaDisponivel) {
+			replicaDisponivel = false;
+			log.warn("Leituras voltando ao primário, réplica indisponível: {}", motivo);
+		}
+	}
+
+	public boolean isReplicaDisponivel() {
+		return replicaDisponivel;
+	}
+
+	/**
+	 * Atraso medido na última verificação, ou -1 se ela falhou.
+	 */
+	public long getAtrasoMs() {
+		return atrasoMs;
+	}
+
+}
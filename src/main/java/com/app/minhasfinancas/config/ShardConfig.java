@@ -0,0 +1,130 @@
+package com.app.minhasfinancas.config;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.jpa.AvailableSettings;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Liga o sharding por usuário quando {@code minhasfinancas.shards.urls} lista os bancos além do
+ * principal, que continua sendo o shard 0. Os pools dos demais shards são configurados em
+ * {@code minhasfinancas.shards.hikari.*}. Não combina com a réplica de leitura.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "minhasfinancas.shards", name = "urls")
+public class ShardConfig {
+
+	/**
+	 * Envolve o DataSource da aplicação, como faz o {@link ReplicaConfig}, em vez de declarar outro.
+	 */
+	@Bean
+	public static BeanPostProcessor shardPostProcessor(Environment environment, ObjectProvider<MeterRegistry> metricas) {
+		if(environment.containsProperty("minhasfinancas.replica.url")) {
+			throw new IllegalStateException("minhasfinancas.shards.urls e minhasfinancas.replica.url não podem ser usadas juntas");
+		}
+
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String nome) {
+				if(!"dataSource".equals(nome) || !(bean instanceof DataSource)) {
+					return bean;
+				}
+
+				return new ProxyShards(criarShards((DataSource) bean, environment, metricas.getIfAvailable()));
+			}
+		};
+	}
+
+	private static ShardDataSource criarShards(DataSource principal, Environment environment, MeterRegistry registry) {
+		List<DataSource> shards = new ArrayList<>();
+		shards.add(principal);
+
+		for (String url : StringUtils.commaDelimitedListToStringArray(environment.getProperty("minhasfinancas.shards.urls"))) {
+			HikariDataSource shard = DataSourceBuilder.create()
+					.type(HikariDataSource.class)
+					.url(url.trim())
+					.username(environment.getProperty("minhasfinancas.shards.username", environment.getProperty("spring.datasource.username")))
+					.password(environment.getProperty("minhasfinancas.shards.password", environment.getProperty("spring.datasource.password")))
+					.build();
+			shard.setPoolName("shard-" + shards.size());
+			Binder.get(environment).bind("minhasfinancas.shards.hikari", Bindable.ofInstance(shard));
+
+			if(registry != null) {
+				shard.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+			}
+
+			shards.add(shard);
+		}
+
+		return new ShardDataSource(shards);
+	}
+
+	/**
+	 * Aplica as mesmas migrações em todos os shards, começando pelo principal.
+	 */
+	@Bean
+	public FlywayMigrationStrategy migrarTodosOsShards(DataSource dataSource) throws SQLException {
+		ShardDataSource shards = dataSource.unwrap(ShardDataSource.class);
+
+		return flyway -> {
+			flyway.migrate();
+
+			for (int i = 1; i < shards.getQuantidade(); i++) {
+				Flyway.configure()
+						.configuration(flyway.getConfiguration())
+						.dataSource(shards.getShard(i))
+						.load()
+						.migrate();
+			}
+		};
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer geradorIdGlobal(DataSource dataSource) throws SQLException {
+		DataSource coordenador = dataSource.unwrap(ShardDataSource.class).getShard(0);
+
+		return propriedades -> {
+			propriedades.put(AvailableSettings.IDENTIFIER_GENERATOR_STRATEGY_PROVIDER, GeradorIdGlobal.Estrategia.class.getName());
+			propriedades.put(GeradorIdGlobal.COORDENADOR, coordenador);
+		};
+	}
+
+	/**
+	 * Fica no lugar do DataSource original, então também é ele que fecha os pools ao desligar.
+	 */
+	static class ProxyShards extends LazyConnectionDataSourceProxy implements DisposableBean {
+
+		ProxyShards(ShardDataSource shards) {
+			super(shards);
+		}
+
+		@Override
+		public void destroy() throws Exception {
+			((ShardDataSource) obtainTargetDataSource()).destroy();
+		}
+	}
+
+}
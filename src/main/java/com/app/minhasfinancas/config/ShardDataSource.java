@@ -0,0 +1,119 @@
+package com.app.minhasfinancas.config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Envia cada transação ao shard escolhido por {@link #usarNaTransacao(int)} ou
+ * {@link #executarNoShard(int, Runnable)}; sem escolha, vai para o shard 0, que é também o banco
+ * das migrações, do diretório de usuários e das sequências de ids.
+ * <p>
+ * Precisa ficar atrás de um {@link LazyConnectionDataSourceProxy}: o gerenciador de transações pede a
+ * conexão ao abrir a transação, antes de o serviço saber de qual usuário ela trata, e o proxy só a
+ * obtém no primeiro comando.
+ */
+public class ShardDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+	private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+	private final List<DataSource> shards;
+
+	public ShardDataSource(List<DataSource> shards) {
+		this.shards = Collections.unmodifiableList(shards);
+
+		Map<Object, Object> destinos = new HashMap<>();
+		for (int i = 0; i < shards.size(); i++) {
+			destinos.put(i, shards.get(i));
+		}
+		setTargetDataSources(destinos);
+		setDefaultTargetDataSource(shards.get(0));
+		afterPropertiesSet();
+	}
+
+	/**
+	 * Shard escolhido para a transação ou trecho corrente, ou null se nenhum foi escolhido.
+	 */
+	public static Integer shardAtual() {
+		return SHARD.get();
+	}
+
+	/**
+	 * Prende a transação corrente ao shard até ela terminar; fora de uma transação não tem efeito.
+	 * Uma transação não pode trocar de shard depois de escolhê-lo.
+	 */
+	public static void usarNaTransacao(int shard) {
+		Integer atual = SHARD.get();
+		if(atual != null) {
+			if(atual != shard) {
+				throw new IllegalStateException("Transação já presa ao shard " + atual + ", não pode usar o shard " + shard);
+			}
+			return;
+		}
+
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+
+		SHARD.set(shard);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				SHARD.remove();
+			}
+		});
+	}
+
+	/**
+	 * Executa a tarefa com o shard escolhido, para as transações que ela abrir, e depois volta à
+	 * escolha anterior.
+	 */
+	public static void executarNoShard(int shard, Runnable tarefa) {
+		Integer anterior = SHARD.get();
+		SHARD.set(shard);
+
+		try {
+			tarefa.run();
+
+		} finally {
+			if(anterior == null) {
+				SHARD.remove();
+			} else {
+				SHARD.set(anterior);
+			}
+		}
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		Integer shard = SHARD.get();
+		return shard == null ? 0 : shard;
+	}
+
+	public int getQuantidade() {
+		return shards.size();
+	}
+
+	public DataSource getShard(int shard) {
+		return shards.get(shard);
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		for (DataSource pool : shards) {
+			if(pool instanceof AutoCloseable) {
+				((AutoCloseable) pool).close();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.app.minhasfinancas.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.app.minhasfinancas.api.interceptor.AutenticacaoInterceptor;
+import com.app.minhasfinancas.api.interceptor.MetricasHibernateInterceptor;
+import com.app.minhasfinancas.service.TokenService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@Profile("!reativo")
+public class WebConfig implements WebMvcConfigurer {
+	
+	private TokenService tokenService;
+	private boolean tokenObrigatorio;
+	private ObjectProvider<MeterRegistry> meterRegistry;
+	
+	public WebConfig(TokenService tokenService, @Value("${minhasfinancas.token.obrigatorio:false}") boolean tokenObrigatorio, 
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		this.tokenService = tokenService;
+		this.tokenObrigatorio = tokenObrigatorio;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new AutenticacaoInterceptor(tokenService, tokenObrigatorio)).addPathPatterns("/api/**");
+		
+		meterRegistry.ifAvailable(metricas -> 
+			registry.addInterceptor(new MetricasHibernateInterceptor(metricas)).addPathPatterns("/api/**"));
+	}
+	
+}
@@ -0,0 +1,33 @@
+package com.app.minhasfinancas.dto;
+
+import java.util.List;
+
+public class AtualizaStatusLoteDTO {
+
+	private List<Long> ids;
+	private Long usuario;
+	private Integer ano;
+	private Integer mes;
+	private String statusAtual;
+	private String status;
+	
+	public List<Long> getIds() {
+		return ids;
+	}
+	public Long getUsuario() {
+		return usuario;
+	}
+	public Integer getAno() {
+		return ano;
+	}
+	public Integer getMes() {
+		return mes;
+	}
+	public String getStatusAtual() {
+		return statusAtual;
+	}
+	public String getStatus() {
+		return status;
+	}
+	
+}
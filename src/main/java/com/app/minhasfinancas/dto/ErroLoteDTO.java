@@ -0,0 +1,20 @@
+package com.app.minhasfinancas.dto;
+
+public class ErroLoteDTO {
+
+	private int indice;
+	private String mensagem;
+	
+	public ErroLoteDTO(int indice, String mensagem) {
+		this.indice = indice;
+		this.mensagem = mensagem;
+	}
+	
+	public int getIndice() {
+		return indice;
+	}
+	public String getMensagem() {
+		return mensagem;
+	}
+	
+}
@@ -0,0 +1,24 @@
+package com.app.minhasfinancas.dto;
+
+import java.util.List;
+
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+
+public class PaginaLancamentoDTO {
+
+	private List<LancamentoProjecao> lancamentos;
+	private String proximo;
+	
+	public PaginaLancamentoDTO(List<LancamentoProjecao> lancamentos, String proximo) {
+		this.lancamentos = lancamentos;
+		this.proximo = proximo;
+	}
+	
+	public List<LancamentoProjecao> getLancamentos() {
+		return lancamentos;
+	}
+	public String getProximo() {
+		return proximo;
+	}
+	
+}
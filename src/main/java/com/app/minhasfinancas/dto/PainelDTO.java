@@ -0,0 +1,36 @@
+package com.app.minhasfinancas.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class PainelDTO {
+
+	private BigDecimal receitas;
+	private BigDecimal despesas;
+	private int quantidade;
+	private List<PontoPainelDTO> serie;
+	
+	public PainelDTO(BigDecimal receitas, BigDecimal despesas, int quantidade, List<PontoPainelDTO> serie) {
+		this.receitas = receitas;
+		this.despesas = despesas;
+		this.quantidade = quantidade;
+		this.serie = serie;
+	}
+	
+	public BigDecimal getReceitas() {
+		return receitas;
+	}
+	public BigDecimal getDespesas() {
+		return despesas;
+	}
+	public BigDecimal getSaldo() {
+		return receitas.subtract(despesas);
+	}
+	public int getQuantidade() {
+		return quantidade;
+	}
+	public List<PontoPainelDTO> getSerie() {
+		return serie;
+	}
+	
+}
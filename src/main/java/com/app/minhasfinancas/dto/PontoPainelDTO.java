@@ -0,0 +1,35 @@
+package com.app.minhasfinancas.dto;
+
+import java.math.BigDecimal;
+
+public class PontoPainelDTO {
+
+	private Integer ano;
+	private Integer mes;
+	private BigDecimal receitas;
+	private BigDecimal despesas;
+	
+	public PontoPainelDTO(Integer ano, Integer mes, BigDecimal receitas, BigDecimal despesas) {
+		this.ano = ano;
+		this.mes = mes;
+		this.receitas = receitas;
+		this.despesas = despesas;
+	}
+	
+	public Integer getAno() {
+		return ano;
+	}
+	public Integer getMes() {
+		return mes;
+	}
+	public BigDecimal getReceitas() {
+		return receitas;
+	}
+	public BigDecimal getDespesas() {
+		return despesas;
+	}
+	public BigDecimal getSaldo() {
+		return receitas.subtract(despesas);
+	}
+	
+}
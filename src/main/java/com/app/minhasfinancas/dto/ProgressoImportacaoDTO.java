@@ -0,0 +1,37 @@
+package com.app.minhasfinancas.dto;
+
+import java.util.List;
+
+public class ProgressoImportacaoDTO {
+
+	private long lidos;
+	private long salvos;
+	private long rejeitados;
+	private List<ErroLoteDTO> erros;
+	private boolean concluido;
+	
+	public ProgressoImportacaoDTO(long lidos, long salvos, long rejeitados, List<ErroLoteDTO> erros, boolean concluido) {
+		this.lidos = lidos;
+		this.salvos = salvos;
+		this.rejeitados = rejeitados;
+		this.erros = erros;
+		this.concluido = concluido;
+	}
+	
+	public long getLidos() {
+		return lidos;
+	}
+	public long getSalvos() {
+		return salvos;
+	}
+	public long getRejeitados() {
+		return rejeitados;
+	}
+	public List<ErroLoteDTO> getErros() {
+		return erros;
+	}
+	public boolean isConcluido() {
+		return concluido;
+	}
+	
+}
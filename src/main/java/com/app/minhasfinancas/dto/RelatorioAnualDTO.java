@@ -0,0 +1,65 @@
+package com.app.minhasfinancas.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+
+public class RelatorioAnualDTO {
+
+	private Integer ano;
+	private List<RelatorioMensalDTO> meses = new ArrayList<>(12);
+	private BigDecimal receitas = BigDecimal.ZERO;
+	private BigDecimal despesas = BigDecimal.ZERO;
+	private Map<StatusLancamento, Long> quantidadePorStatus = quantidadesZeradas();
+	private List<LancamentoProjecao> maioresDespesas = Collections.emptyList();
+	
+	public RelatorioAnualDTO(Integer ano) {
+		this.ano = ano;
+	}
+	
+	static Map<StatusLancamento, Long> quantidadesZeradas() {
+		Map<StatusLancamento, Long> quantidades = new EnumMap<>(StatusLancamento.class);
+		for (StatusLancamento status : StatusLancamento.values()) {
+			quantidades.put(status, 0L);
+		}
+		return quantidades;
+	}
+	
+	public Integer getAno() {
+		return ano;
+	}
+	public List<RelatorioMensalDTO> getMeses() {
+		return meses;
+	}
+	public BigDecimal getReceitas() {
+		return receitas;
+	}
+	public void setReceitas(BigDecimal receitas) {
+		this.receitas = receitas;
+	}
+	public BigDecimal getDespesas() {
+		return despesas;
+	}
+	public void setDespesas(BigDecimal despesas) {
+		this.despesas = despesas;
+	}
+	public BigDecimal getSaldo() {
+		return receitas.subtract(despesas);
+	}
+	public Map<StatusLancamento, Long> getQuantidadePorStatus() {
+		return quantidadePorStatus;
+	}
+	public List<LancamentoProjecao> getMaioresDespesas() {
+		return maioresDespesas;
+	}
+	public void setMaioresDespesas(List<LancamentoProjecao> maioresDespesas) {
+		this.maioresDespesas = maioresDespesas;
+	}
+	
+}
@@ -0,0 +1,58 @@
+package com.app.minhasfinancas.dto;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+
+public class RelatorioMensalDTO {
+
+	private Integer mes;
+	private BigDecimal receitas = BigDecimal.ZERO;
+	private BigDecimal despesas = BigDecimal.ZERO;
+	private BigDecimal saldoAcumulado = BigDecimal.ZERO;
+	private Map<StatusLancamento, Long> quantidadePorStatus = RelatorioAnualDTO.quantidadesZeradas();
+	private List<LancamentoProjecao> maioresDespesas = Collections.emptyList();
+	
+	public RelatorioMensalDTO(Integer mes) {
+		this.mes = mes;
+	}
+	
+	public Integer getMes() {
+		return mes;
+	}
+	public BigDecimal getReceitas() {
+		return receitas;
+	}
+	public void setReceitas(BigDecimal receitas) {
+		this.receitas = receitas;
+	}
+	public BigDecimal getDespesas() {
+		return despesas;
+	}
+	public void setDespesas(BigDecimal despesas) {
+		this.despesas = despesas;
+	}
+	public BigDecimal getSaldo() {
+		return receitas.subtract(despesas);
+	}
+	public BigDecimal getSaldoAcumulado() {
+		return saldoAcumulado;
+	}
+	public void setSaldoAcumulado(BigDecimal saldoAcumulado) {
+		this.saldoAcumulado = saldoAcumulado;
+	}
+	public Map<StatusLancamento, Long> getQuantidadePorStatus() {
+		return quantidadePorStatus;
+	}
+	public List<LancamentoProjecao> getMaioresDespesas() {
+		return maioresDespesas;
+	}
+	public void setMaioresDespesas(List<LancamentoProjecao> maioresDespesas) {
+		this.maioresDespesas = maioresDespesas;
+	}
+	
+}
@@ -0,0 +1,15 @@
+package com.app.minhasfinancas.dto;
+
+public class ResultadoAtualizaStatusDTO {
+
+	private int atualizados;
+	
+	public ResultadoAtualizaStatusDTO(int atualizados) {
+		this.atualizados = atualizados;
+	}
+	
+	public int getAtualizados() {
+		return atualizados;
+	}
+	
+}
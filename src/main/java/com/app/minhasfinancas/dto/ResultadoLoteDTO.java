@@ -0,0 +1,27 @@
+package com.app.minhasfinancas.dto;
+
+import java.util.List;
+
+public class ResultadoLoteDTO {
+
+	private int total;
+	private int salvos;
+	private List<ErroLoteDTO> erros;
+	
+	public ResultadoLoteDTO(int total, int salvos, List<ErroLoteDTO> erros) {
+		this.total = total;
+		this.salvos = salvos;
+		this.erros = erros;
+	}
+	
+	public int getTotal() {
+		return total;
+	}
+	public int getSalvos() {
+		return salvos;
+	}
+	public List<ErroLoteDTO> getErros() {
+		return erros;
+	}
+	
+}
@@ -0,0 +1,37 @@
+package com.app.minhasfinancas.dto;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+
+public class ResumoMensalDTO {
+
+	private Integer mes;
+	private Map<StatusLancamento, BigDecimal> receitas = totaisZerados();
+	private Map<StatusLancamento, BigDecimal> despesas = totaisZerados();
+	
+	public ResumoMensalDTO(Integer mes) {
+		this.mes = mes;
+	}
+	
+	private static Map<StatusLancamento, BigDecimal> totaisZerados() {
+		Map<StatusLancamento, BigDecimal> totais = new EnumMap<>(StatusLancamento.class);
+		for (StatusLancamento status : StatusLancamento.values()) {
+			totais.put(status, BigDecimal.ZERO);
+		}
+		return totais;
+	}
+	
+	public Integer getMes() {
+		return mes;
+	}
+	public Map<StatusLancamento, BigDecimal> getReceitas() {
+		return receitas;
+	}
+	public Map<StatusLancamento, BigDecimal> getDespesas() {
+		return despesas;
+	}
+	
+}
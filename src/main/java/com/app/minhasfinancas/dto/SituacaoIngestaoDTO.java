@@ -0,0 +1,32 @@
+package com.app.minhasfinancas.dto;
+
+import com.app.minhasfinancas.model.enums.SituacaoIngestao;
+
+public class SituacaoIngestaoDTO {
+
+	private String id;
+	private SituacaoIngestao situacao;
+	private Long lancamento;
+	private String mensagem;
+	
+	public SituacaoIngestaoDTO(String id, SituacaoIngestao situacao, Long lancamento, String mensagem) {
+		this.id = id;
+		this.situacao = situacao;
+		this.lancamento = lancamento;
+		this.mensagem = mensagem;
+	}
+	
+	public String getId() {
+		return id;
+	}
+	public SituacaoIngestao getSituacao() {
+		return situacao;
+	}
+	public Long getLancamento() {
+		return lancamento;
+	}
+	public String getMensagem() {
+		return mensagem;
+	}
+	
+}
@@ -0,0 +1,32 @@
+package com.app.minhasfinancas.dto;
+
+import com.app.minhasfinancas.model.entity.Usuario;
+
+public class UsuarioAutenticadoDTO {
+
+	private Long id;
+	private String nome;
+	private String email;
+	private String token;
+	
+	public UsuarioAutenticadoDTO(Usuario usuario, String token) {
+		this.id = usuario.getId();
+		this.nome = usuario.getNome();
+		this.email = usuario.getEmail();
+		this.token = token;
+	}
+	
+	public Long getId() {
+		return id;
+	}
+	public String getNome() {
+		return nome;
+	}
+	public String getEmail() {
+		return email;
+	}
+	public String getToken() {
+		return token;
+	}
+	
+}
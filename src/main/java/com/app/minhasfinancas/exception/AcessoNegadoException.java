@@ -0,0 +1,9 @@
+package com.app.minhasfinancas.exception;
+
+public class AcessoNegadoException extends RuntimeException {
+
+	public AcessoNegadoException(String msg) {
+		super(msg);
+	}
+
+}
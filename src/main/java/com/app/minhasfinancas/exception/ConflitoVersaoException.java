@@ -0,0 +1,9 @@
+package com.app.minhasfinancas.exception;
+
+public class ConflitoVersaoException extends RuntimeException {
+
+	public ConflitoVersaoException(String msg) {
+		super(msg);
+	}
+
+}
@@ -0,0 +1,9 @@
+package com.app.minhasfinancas.exception;
+
+public class FilaCheiaException extends RuntimeException {
+
+	public FilaCheiaException(String msg) {
+		super(msg);
+	}
+
+}
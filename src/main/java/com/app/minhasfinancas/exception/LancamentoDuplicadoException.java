@@ -0,0 +1,9 @@
+package com.app.minhasfinancas.exception;
+
+public class LancamentoDuplicadoException extends RuntimeException {
+
+	public LancamentoDuplicadoException(String msg) {
+		super(msg);
+	}
+
+}
@@ -1,31 +1,66 @@
 package com.app.minhasfinancas.model.entity;
 
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
 import java.time.LocalDate;
+import java.util.Locale;
 
 import javax.persistence.Column;
 import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.Version;
 
 import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
 
 import com.app.minhasfinancas.model.enums.StatusLancamento;
 import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "lancamento", schema = "financas")
+@NamedEntityGraph(name = Lancamento.COM_USUARIO, attributeNodes = @NamedAttributeNode("usuario"))
+@Table(name = "lancamento", schema = "financas", indexes = {
+		@Index(name = "idx_lancamento_usuario_ano_mes_id", columnList = "id_usuario, ano, mes, id"),
+		@Index(name = "idx_lancamento_usuario_tipo", columnList = "id_usuario, tipo"),
+		@Index(name = Lancamento.INDICE_IMPRESSAO, columnList = "id_usuario, impressao"),
+		@Index(name = Lancamento.INDICE_CHAVE_IDEMPOTENCIA, columnList = "id_usuario, chave_idempotencia", unique = true)
+})
 public class Lancamento {
+	
+	public static final String COM_USUARIO = "Lancamento.comUsuario";
+	public static final String INDICE_IMPRESSAO = "idx_lancamento_usuario_impressao";
+	public static final String INDICE_CHAVE_IDEMPOTENCIA = "idx_lancamento_usuario_chave";
+	
+	/**
+	 * Acentos removidos da descrição nas buscas, na mesma posição das letras que os substituem; o índice em
+	 * memória e as consultas ({@code translate(lower(descricao), ...)}) usam a mesma tabela.
+	 */
+	public static final String ACENTOS = "áàâãäåéèêëíìîïóòôõöúùûüçñýÿ";
+	public static final String SEM_ACENTOS = "aaaaaaeeeeiiiiooooouuuucnyy";
+	public static final char ESCAPE_BUSCA = '!';
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_seq")
+	@SequenceGenerator(name = "lancamento_seq", sequenceName = "lancamento_id_seq", schema = "financas", allocationSize = 50)
 	@Column(name = "id")
 	private Long id;
 	
@@ -38,7 +73,7 @@ public class Lancamento {
 	@Column(name = "ano")
 	private Integer ano;
 	
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "id_usuario")
 	private Usuario usuario;
 	
@@ -56,6 +91,19 @@ public class Lancamento {
 	@Column(name = "status")
 	@Enumerated(value = EnumType.STRING)
 	private StatusLancamento status;
+	
+	@Version
+	@Column(name = "versao", nullable = false)
+	private Long versao;
+	
+	@Column(name = "impressao")
+	private Long impressao;
+	
+	@Column(name = "chave_idempotencia", updatable = false)
+	private String chaveIdempotencia;
+	
+	@Transient
+	private int ocorrencia = 1;
 
 	public Long getId() {
 		return id;
@@ -129,6 +177,117 @@ public class Lancamento {
 		this.status = status;
 	}
 
+	public Long getVersao() {
+		return versao;
+	}
+
+	public void setVersao(Long versao) {
+		this.versao = versao;
+	}
+
+	@JsonIgnore
+	public Long getImpressao() {
+		return impressao;
+	}
+
+	@JsonIgnore
+	public String getChaveIdempotencia() {
+		return chaveIdempotencia;
+	}
+
+	public void setChaveIdempotencia(String chaveIdempotencia) {
+		this.chaveIdempotencia = chaveIdempotencia;
+	}
+
+	/**
+	 * Quantos lançamentos com a mesma impressão a origem já trouxe até este, contando ele; um extrato com
+	 * duas corridas iguais no mesmo dia manda a segunda com 2. Não é gravada.
+	 */
+	@JsonIgnore
+	public int getOcorrencia() {
+		return ocorrencia;
+	}
+
+	public void setOcorrencia(int ocorrencia) {
+		this.ocorrencia = ocorrencia;
+	}
+
+	@PrePersist
+	@PreUpdate
+	void atualizarImpressao() {
+		this.impressao = calcularImpressao();
+	}
+
+	public Long calcularImpressao() {
+		return calcularImpressao(usuario == null ? null : usuario.getId(), ano, mes, dataCadastro, valor, descricao);
+	}
+
+	/**
+	 * Impressão digital de (usuário, ano, mês, dia quando houver data, valor, descrição normalizada): os
+	 * 64 primeiros bits do SHA-256. Lançamentos iguais podem existir, então o índice não é único; quem grava
+	 * confere quantos já há com a impressão contra a {@link #getOcorrencia() ocorrência} do novo.
+	 */
+	public static Long calcularImpressao(Long idUsuario, Integer ano, Integer mes, LocalDate data, BigDecimal valor, String descricao) {
+		if(idUsuario == null || ano == null || mes == null || valor == null || descricao == null) {
+			return null;
+		}
+		
+		String descricaoNormalizada = Normalizer.normalize(descricao, Normalizer.Form.NFD)
+				.replaceAll("\\p{M}+", "")
+				.replaceAll("\\s+", " ")
+				.trim()
+				.toLowerCase(Locale.ROOT);
+		String chave = idUsuario + "|" + ano + "|" + mes + "|" + (data == null ? "" : data.getDayOfMonth()) + "|" 
+				+ valor.stripTrailingZeros().toPlainString() + "|" + descricaoNormalizada;
+		
+		try {
+			byte[] resumo = MessageDigest.getInstance("SHA-256").digest(chave.getBytes(StandardCharsets.UTF_8));
+			return ByteBuffer.wrap(resumo).getLong();
+			
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Descrição em minúsculas, sem os {@link #ACENTOS} e sem espaços nas pontas, como comparada nas buscas.
+	 */
+	public static String normalizarDescricao(String descricao) {
+		if(descricao == null) {
+			return "";
+		}
+		
+		char[] letras = descricao.toLowerCase(Locale.ROOT).toCharArray();
+		for (int i = 0; i < letras.length; i++) {
+			int acento = ACENTOS.indexOf(letras[i]);
+			if(acento >= 0) {
+				letras[i] = SEM_ACENTOS.charAt(acento);
+			}
+		}
+		
+		return new String(letras).trim();
+	}
+	
+	/**
+	 * Padrão {@code like} que encontra {@code trecho} em qualquer posição da descrição normalizada, com
+	 * {@code %}, {@code _} e o próprio {@link #ESCAPE_BUSCA} tratados como texto; {@code null} sem trecho.
+	 */
+	public static String padraoDescricao(String trecho) {
+		if(trecho == null) {
+			return null;
+		}
+		
+		StringBuilder padrao = new StringBuilder("%");
+		for (char letra : normalizarDescricao(trecho).toCharArray()) {
+			if(letra == '%' || letra == '_' || letra == ESCAPE_BUSCA) {
+				padrao.append(ESCAPE_BUSCA);
+			}
+			padrao.append(letra);
+		}
+		
+		return padrao.append('%').toString();
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -0,0 +1,120 @@
+package com.app.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+
+@Entity
+@Table(name = "resumo_mensal", schema = "financas")
+public class ResumoMensal {
+
+	@EmbeddedId
+	private ResumoMensalId id;
+	
+	@Column(name = "pendente")
+	private BigDecimal pendente;
+	
+	@Column(name = "efetivado")
+	private BigDecimal efetivado;
+	
+	@Column(name = "cancelado")
+	private BigDecimal cancelado;
+
+	public ResumoMensalId getId() {
+		return id;
+	}
+
+	public void setId(ResumoMensalId id) {
+		this.id = id;
+	}
+
+	public BigDecimal getPendente() {
+		return pendente;
+	}
+
+	public void setPendente(BigDecimal pendente) {
+		this.pendente = pendente;
+	}
+
+	public BigDecimal getEfetivado() {
+		return efetivado;
+	}
+
+	public void setEfetivado(BigDecimal efetivado) {
+		this.efetivado = efetivado;
+	}
+
+	public BigDecimal getCancelado() {
+		return cancelado;
+	}
+
+	public void setCancelado(BigDecimal cancelado) {
+		this.cancelado = cancelado;
+	}
+	
+	public BigDecimal getValor(StatusLancamento status) {
+		switch (status) {
+		case PENDENTE:
+			return pendente;
+		case EFETIVADO:
+			return efetivado;
+		default:
+			return cancelado;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((cancelado == null) ? 0 : cancelado.hashCode());
+		result = prime * result + ((efetivado == null) ? 0 : efetivado.hashCode());
+		result = prime * result + ((id == null) ? 0 : id.hashCode());
+		result = prime * result + ((pendente == null) ? 0 : pendente.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ResumoMensal other = (ResumoMensal) obj;
+		if (cancelado == null) {
+			if (other.cancelado != null)
+				return false;
+		} else if (!cancelado.equals(other.cancelado))
+			return false;
+		if (efetivado == null) {
+			if (other.efetivado != null)
+				return false;
+		} else if (!efetivado.equals(other.efetivado))
+			return false;
+		if (id == null) {
+			if (other.id != null)
+				return false;
+		} else if (!id.equals(other.id))
+			return false;
+		if (pendente == null) {
+			if (other.pendente != null)
+				return false;
+		} else if (!pendente.equals(other.pendente))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "ResumoMensal [id=" + id + ", pendente=" + pendente + ", efetivado=" + efetivado + ", cancelado="
+				+ cancelado + "]";
+	}
+	
+}
@@ -0,0 +1,101 @@
+package com.app.minhasfinancas.model.entity;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+
+@Embeddable
+public class ResumoMensalId implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Column(name = "ano")
+	private Integer ano;
+	
+	@Column(name = "mes")
+	private Integer mes;
+	
+	@Column(name = "tipo")
+	@Enumerated(value = EnumType.STRING)
+	private TipoLancamento tipo;
+	
+	public ResumoMensalId() {
+	}
+	
+	public ResumoMensalId(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo) {
+		this.idUsuario = idUsuario;
+		this.ano = ano;
+		this.mes = mes;
+		this.tipo = tipo;
+	}
+
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
+
+	public Integer getAno() {
+		return ano;
+	}
+
+	public Integer getMes() {
+		return mes;
+	}
+
+	public TipoLancamento getTipo() {
+		return tipo;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((ano == null) ? 0 : ano.hashCode());
+		result = prime * result + ((idUsuario == null) ? 0 : idUsuario.hashCode());
+		result = prime * result + ((mes == null) ? 0 : mes.hashCode());
+		result = prime * result + ((tipo == null) ? 0 : tipo.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ResumoMensalId other = (ResumoMensalId) obj;
+		if (ano == null) {
+			if (other.ano != null)
+				return false;
+		} else if (!ano.equals(other.ano))
+			return false;
+		if (idUsuario == null) {
+			if (other.idUsuario != null)
+				return false;
+		} else if (!idUsuario.equals(other.idUsuario))
+			return false;
+		if (mes == null) {
+			if (other.mes != null)
+				return false;
+		} else if (!mes.equals(other.mes))
+			return false;
+		if (tipo != other.tipo)
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "ResumoMensalId [idUsuario=" + idUsuario + ", ano=" + ano + ", mes=" + mes + ", tipo=" + tipo + "]";
+	}
+	
+}
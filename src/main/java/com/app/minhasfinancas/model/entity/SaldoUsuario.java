@@ -0,0 +1,103 @@
+package com.app.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "saldo_usuario", schema = "financas")
+public class SaldoUsuario {
+
+	@Id
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Column(name = "saldo")
+	private BigDecimal saldo;
+	
+	@Column(name = "geracao", nullable = false)
+	private Long geracao;
+	
+	public SaldoUsuario() {
+	}
+	
+	public SaldoUsuario(Long idUsuario, BigDecimal saldo) {
+		this(idUsuario, saldo, 0L);
+	}
+	
+	public SaldoUsuario(Long idUsuario, BigDecimal saldo, Long geracao) {
+		this.idUsuario = idUsuario;
+		this.saldo = saldo;
+		this.geracao = geracao;
+	}
+
+	public Long getIdUsuario() {
+		return idUsuario;
+	}
+
+	public void setIdUsuario(Long idUsuario) {
+		this.idUsuario = idUsuario;
+	}
+
+	public BigDecimal getSaldo() {
+		return saldo;
+	}
+
+	public void setSaldo(BigDecimal saldo) {
+		this.saldo = saldo;
+	}
+
+	public Long getGeracao() {
+		return geracao;
+	}
+
+	public void setGeracao(Long geracao) {
+		this.geracao = geracao;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((geracao == null) ? 0 : geracao.hashCode());
+		result = prime * result + ((idUsuario == null) ? 0 : idUsuario.hashCode());
+		result = prime * result + ((saldo == null) ? 0 : saldo.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		SaldoUsuario other = (SaldoUsuario) obj;
+		if (geracao == null) {
+			if (other.geracao != null)
+				return false;
+		} else if (!geracao.equals(other.geracao))
+			return false;
+		if (idUsuario == null) {
+			if (other.idUsuario != null)
+				return false;
+		} else if (!idUsuario.equals(other.idUsuario))
+			return false;
+		if (saldo == null) {
+			if (other.saldo != null)
+				return false;
+		} else if (!saldo.equals(other.saldo))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "SaldoUsuario [idUsuario=" + idUsuario + ", saldo=" + saldo + ", geracao=" + geracao + "]";
+	}
+	
+}
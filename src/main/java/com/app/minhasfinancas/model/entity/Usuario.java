@@ -5,15 +5,22 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 @Entity
-@Table(name = "usuario", schema = "financas")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(name = "usuario", schema = "financas", indexes = @Index(name = "idx_usuario_email", columnList = "email", unique = true))
 public class Usuario {
 	
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuario_seq")
+	@SequenceGenerator(name = "usuario_seq", sequenceName = "usuario_id_seq", schema = "financas", allocationSize = 50)
 	private Long id;
 	
 	@Column(name = "nome")
@@ -23,6 +30,7 @@ public class Usuario {
 	private String email;
 	
 	@Column(name = "senha")
+	@JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
 	private String senha;
 
 	public Long getId() {
@@ -102,7 +110,7 @@ public class Usuario {
 
 	@Override
 	public String toString() {
-		return "Usuario [id=" + id + ", nome=" + nome + ", email=" + email + ", senha=" + senha + "]";
+		return "Usuario [id=" + id + ", nome=" + nome + ", email=" + email + "]";
 	}
 	
 }
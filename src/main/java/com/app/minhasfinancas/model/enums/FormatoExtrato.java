@@ -0,0 +1,7 @@
+package com.app.minhasfinancas.model.enums;
+
+public enum FormatoExtrato {
+
+	CSV,
+	OFX
+}
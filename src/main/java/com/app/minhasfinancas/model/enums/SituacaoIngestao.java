@@ -0,0 +1,8 @@
+package com.app.minhasfinancas.model.enums;
+
+public enum SituacaoIngestao {
+
+	PENDENTE,
+	GRAVADO,
+	ERRO
+}
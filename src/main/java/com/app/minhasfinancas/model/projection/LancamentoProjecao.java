@@ -0,0 +1,91 @@
+package com.app.minhasfinancas.model.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public class LancamentoProjecao {
+
+	private Long id;
+	private String descricao;
+	private Integer mes;
+	private Integer ano;
+	private BigDecimal valor;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	private LocalDate dataCadastro;
+	private Long usuario;
+	private Long versao;
+	
+	public LancamentoProjecao(Long id, String descricao, Integer mes, Integer ano, BigDecimal valor,
+			TipoLancamento tipo, StatusLancamento status, LocalDate dataCadastro, Long usuario, Long versao) {
+		this.id = id;
+		this.descricao = descricao;
+		this.mes = mes;
+		this.ano = ano;
+		this.valor = valor;
+		this.tipo = tipo;
+		this.status = status;
+		this.dataCadastro = dataCadastro;
+		this.usuario = usuario;
+		this.versao = versao;
+	}
+	
+	public static LancamentoProjecao de(Lancamento lancamento) {
+		Long usuario = lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+		
+		return new LancamentoProjecao(lancamento.getId(), lancamento.getDescricao(), lancamento.getMes(), 
+				lancamento.getAno(), lancamento.getValor(), lancamento.getTipo(), lancamento.getStatus(), 
+				lancamento.getDataCadastro(), usuario, lancamento.getVersao());
+	}
+	
+	public LancamentoProjecao comStatus(StatusLancamento novoStatus) {
+		return new LancamentoProjecao(id, descricao, mes, ano, valor, tipo, novoStatus, dataCadastro, usuario, 
+				versao == null ? null : versao + 1);
+	}
+	
+	@JsonIgnore
+	public BigDecimal getValorComSinal() {
+		if(valor == null || tipo == null) {
+			return BigDecimal.ZERO;
+		}
+		
+		return tipo == TipoLancamento.DESPESA ? valor.negate() : valor;
+	}
+
+	public Long getId() {
+		return id;
+	}
+	public String getDescricao() {
+		return descricao;
+	}
+	public Integer getMes() {
+		return mes;
+	}
+	public Integer getAno() {
+		return ano;
+	}
+	public BigDecimal getValor() {
+		return valor;
+	}
+	public TipoLancamento getTipo() {
+		return tipo;
+	}
+	public StatusLancamento getStatus() {
+		return status;
+	}
+	public LocalDate getDataCadastro() {
+		return dataCadastro;
+	}
+	public Long getUsuario() {
+		return usuario;
+	}
+	public Long getVersao() {
+		return versao;
+	}
+	
+}
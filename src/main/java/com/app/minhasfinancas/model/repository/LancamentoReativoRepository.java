@@ -0,0 +1,95 @@
+package com.app.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.data.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+
+@Repository
+@Profile("reativo")
+public class LancamentoReativoRepository {
+	
+	private static final String COLUNAS = "select l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, "
+			+ "l.data_cadastro, l.id_usuario, l.versao from financas.lancamento l ";
+	
+	private DatabaseClient databaseClient;
+	
+	public LancamentoReativoRepository(DatabaseClient databaseClient) {
+		this.databaseClient = databaseClient;
+	}
+	
+	/**
+	 * Sem filtro de descrição: a busca por descrição normaliza acentos e usa o índice, e fica no serviço.
+	 */
+	public Flux<LancamentoProjecao> buscar(Long idUsuario, Integer mes, Integer ano) {
+		StringBuilder sql = new StringBuilder(COLUNAS).append("where l.id_usuario = :idUsuario ");
+		
+		if(ano != null) {
+			sql.append("and l.ano = :ano ");
+		}
+		if(mes != null) {
+			sql.append("and l.mes = :mes ");
+		}
+		sql.append("order by l.ano, l.mes, l.id");
+		
+		GenericExecuteSpec consulta = databaseClient.execute(sql.toString()).bind("idUsuario", idUsuario);
+		
+		if(ano != null) {
+			consulta = consulta.bind("ano", ano);
+		}
+		if(mes != null) {
+			consulta = consulta.bind("mes", mes);
+		}
+		
+		return consulta.map((row, metadados) -> converter(row)).all();
+	}
+	
+	public Flux<LancamentoProjecao> percorrerPorUsuario(Long idUsuario) {
+		return databaseClient.execute(COLUNAS + "where l.id_usuario = :idUsuario order by l.ano, l.mes, l.id")
+				.bind("idUsuario", idUsuario)
+				.map((row, metadados) -> converter(row))
+				.all();
+	}
+	
+	private LancamentoProjecao converter(Row row) {
+		String tipo = row.get("tipo", String.class);
+		String status = row.get("status", String.class);
+		
+		return new LancamentoProjecao(
+				row.get("id", Long.class), 
+				row.get("descricao", String.class), 
+				row.get("mes", Integer.class), 
+				row.get("ano", Integer.class), 
+				row.get("valor", BigDecimal.class), 
+				tipo == null ? null : TipoLancamento.valueOf(tipo), 
+				status == null ? null : StatusLancamento.valueOf(status), 
+				converterData(row.get("data_cadastro")), 
+				row.get("id_usuario", Long.class), 
+				row.get("versao", Long.class));
+	}
+	
+	private LocalDate converterData(Object valor) {
+		// o driver do H2 não decodifica NULL como LocalDate e devolve java.sql.Date ou LocalDateTime
+		if(valor instanceof java.sql.Date) {
+			return ((java.sql.Date) valor).toLocalDate();
+		}
+		
+		if(valor instanceof LocalDateTime) {
+			return ((LocalDateTime) valor).toLocalDate();
+		}
+		
+		return (LocalDate) valor;
+	}
+
+}
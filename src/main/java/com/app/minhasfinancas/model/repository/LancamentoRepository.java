@@ -1,20 +1,158 @@
 package com.app.minhasfinancas.model.repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
 import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, LancamentoRepositoryCustom {
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
+	/**
+	 * Descrição normalizada como em {@link Lancamento#normalizarDescricao(String)}; compare com o padrão
+	 * montado por {@link Lancamento#padraoDescricao(String)}.
+	 */
+	String DESCRICAO_NORMALIZADA = "function('translate', lower(l.descricao), '" 
+			+ Lancamento.ACENTOS + "', '" + Lancamento.SEM_ACENTOS + "')";
 
 	@Query(value = "select sum(l.valor) "
-			+ "from Lancamento l join l.usuario u "
-			+ "where u.id = :idUsuario and l.tipo = :tipo "
-			+ "group by u")
+			+ "from Lancamento l "
+			+ "where l.usuario.id = :idUsuario and l.tipo = :tipo")
 	BigDecimal obterSaldoPorUsuarioETipo(@Param("idUsuario") Long idUsuario, @Param("tipo") TipoLancamento tipo);
 	
+	@Query(value = "select coalesce(sum(case when l.tipo = 'RECEITA' then l.valor "
+			+ "when l.tipo = 'DESPESA' then -l.valor else 0 end), 0) "
+			+ "from financas.lancamento l "
+			+ "where l.id_usuario = :idUsuario and l.ano < :ano", nativeQuery = true)
+	BigDecimal obterSaldoAnteriorAoAno(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano);
+	
+	@EntityGraph(Lancamento.COM_USUARIO)
+	@Query(value = "select l from Lancamento l where l.id = :id")
+	Optional<Lancamento> obterComUsuario(@Param("id") Long id);
+	
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FLUSH_MODE, value = "COMMIT"))
+	@Query(value = "select new com.app.minhasfinancas.model.projection.LancamentoProjecao("
+			+ "l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.dataCadastro, l.usuario.id, l.versao) "
+			+ "from Lancamento l "
+			+ "where l.id = :id and (:idUsuario is null or l.usuario.id = :idUsuario)")
+	Optional<LancamentoProjecao> obterProjecaoPersistida(@Param("id") Long id, @Param("idUsuario") Long idUsuario);
+	
+	/**
+	 * Uma impressão por lançamento gravado, repetida quando há lançamentos iguais.
+	 */
+	@Query(value = "select l.impressao from Lancamento l "
+			+ "where l.usuario.id = :idUsuario and l.impressao in :impressoes")
+	List<Long> buscarImpressoesExistentes(@Param("idUsuario") Long idUsuario, @Param("impressoes") Collection<Long> impressoes);
+	
+	@Query(value = "select l.chaveIdempotencia from Lancamento l "
+			+ "where l.usuario.id = :idUsuario and l.chaveIdempotencia in :chaves")
+	List<String> buscarChavesExistentes(@Param("idUsuario") Long idUsuario, @Param("chaves") Collection<String> chaves);
+	
+	/**
+	 * Bloqueia a linha do usuário até o fim da transação, para que a conferência de duplicados e a
+	 * inserção de quem grava para ele não se intercalem com as de outra instância.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query(value = "select u.id from Usuario u where u.id = :idUsuario")
+	List<Long> bloquearUsuario(@Param("idUsuario") Long idUsuario);
+	
+	@Modifying
+	@Query(value = "update Lancamento l set l.status = :novoStatus, l.versao = l.versao + 1 "
+			+ "where l.id = :id and l.versao = :versao "
+			+ "and (:idUsuario is null or l.usuario.id = :idUsuario) "
+			+ "and (l.status = :statusAtual or (:statusAtual is null and l.status is null))")
+	int compararEAtualizarStatus(@Param("id") Long id, 
+			@Param("idUsuario") Long idUsuario, 
+			@Param("statusAtual") StatusLancamento statusAtual, 
+			@Param("novoStatus") StatusLancamento novoStatus, 
+			@Param("versao") Long versao);
+	
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query(value = "select new com.app.minhasfinancas.model.projection.LancamentoProjecao("
+			+ "l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.dataCadastro, l.usuario.id, l.versao) "
+			+ "from Lancamento l")
+	Stream<LancamentoProjecao> percorrerProjecoes();
+	
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+	@Query(value = "select new com.app.minhasfinancas.model.projection.LancamentoProjecao("
+			+ "l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.dataCadastro, l.usuario.id, l.versao) "
+			+ "from Lancamento l "
+			+ "where l.usuario.id = :idUsuario "
+			+ "order by l.ano, l.mes, l.id")
+	Stream<LancamentoProjecao> percorrerProjecoesPorUsuario(@Param("idUsuario") Long idUsuario);
+	
+	@Query(value = "select new com.app.minhasfinancas.model.projection.LancamentoProjecao("
+			+ "l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.dataCadastro, l.usuario.id, l.versao) "
+			+ "from Lancamento l "
+			+ "where l.usuario.id = :idUsuario "
+			+ "and (:ano is null or l.ano = :ano) "
+			+ "and (:mes is null or l.mes = :mes) "
+			+ "and (:tipo is null or l.tipo = :tipo) "
+			+ "and (:status is null or l.status = :status) "
+			+ "and (:descricao is null or " + DESCRICAO_NORMALIZADA + " like :descricao escape '!') "
+			+ "order by l.ano, l.mes, l.id")
+	List<LancamentoProjecao> buscarProjecoes(@Param("idUsuario") Long idUsuario, 
+			@Param("descricao") String padraoDescricao, 
+			@Param("mes") Integer mes, 
+			@Param("ano") Integer ano, 
+			@Param("tipo") TipoLancamento tipo, 
+			@Param("status") StatusLancamento status);
+	
+	@Query(value = "select new com.app.minhasfinancas.model.projection.LancamentoProjecao("
+			+ "l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.dataCadastro, l.usuario.id, l.versao) "
+			+ "from Lancamento l "
+			+ "where l.id in :ids "
+			+ "and l.usuario.id = :idUsuario "
+			+ "and (:descricao is null or " + DESCRICAO_NORMALIZADA + " like :descricao escape '!') "
+			+ "and (:ano is null or l.ano = :ano) "
+			+ "and (:mes is null or l.mes = :mes) "
+			+ "and (:tipo is null or l.tipo = :tipo) "
+			+ "and (:status is null or l.status = :status) "
+			+ "order by l.ano, l.mes, l.id")
+	List<LancamentoProjecao> buscarPorIds(@Param("ids") Collection<Long> ids, 
+			@Param("idUsuario") Long idUsuario, 
+			@Param("descricao") String padraoDescricao, 
+			@Param("mes") Integer mes, 
+			@Param("ano") Integer ano, 
+			@Param("tipo") TipoLancamento tipo, 
+			@Param("status") StatusLancamento status);
+	
+	@Query(value = "select new com.app.minhasfinancas.model.projection.LancamentoProjecao("
+			+ "l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.dataCadastro, l.usuario.id, l.versao) "
+			+ "from Lancamento l "
+			+ "where l.usuario.id = :idUsuario "
+			+ "and (:ano is null or l.ano = :ano) "
+			+ "and (:mes is null or l.mes = :mes) "
+			+ "and (:descricao is null or " + DESCRICAO_NORMALIZADA + " like :descricao escape '!') "
+			+ "and l.ano >= :cursorAno "
+			+ "and (l.ano > :cursorAno "
+			+ "or (l.ano = :cursorAno and l.mes > :cursorMes) "
+			+ "or (l.ano = :cursorAno and l.mes = :cursorMes and l.id > :cursorId)) "
+			+ "order by l.ano, l.mes, l.id")
+	List<LancamentoProjecao> buscarAposCursor(@Param("idUsuario") Long idUsuario, 
+			@Param("descricao") String padraoDescricao, 
+			@Param("mes") Integer mes, 
+			@Param("ano") Integer ano, 
+			@Param("cursorAno") Integer cursorAno, 
+			@Param("cursorMes") Integer cursorMes, 
+			@Param("cursorId") Long cursorId, 
+			Pageable pageable);
+	
 }
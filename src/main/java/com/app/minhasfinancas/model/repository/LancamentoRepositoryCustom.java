@@ -0,0 +1,18 @@
+package com.app.minhasfinancas.model.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+
+public interface LancamentoRepositoryCustom {
+
+	void inserirEmLote(List<Lancamento> lancamentos);
+	
+	List<LancamentoProjecao> bloquearParaAtualizarStatus(Lancamento filtro, Collection<Long> ids, StatusLancamento status);
+	
+	int atualizarStatus(List<Long> ids, StatusLancamento status);
+	
+}
@@ -0,0 +1,118 @@
+package com.app.minhasfinancas.model.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+
+public class LancamentoRepositoryImpl implements LancamentoRepositoryCustom {
+	
+	private static final int TAMANHO_LOTE_INSERCAO = 500;
+	private static final int TAMANHO_LOTE_ATUALIZACAO = 1000;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public void inserirEmLote(List<Lancamento> lancamentos) {
+		for (int i = 0; i < lancamentos.size(); i++) {
+			entityManager.persist(lancamentos.get(i));
+			
+			if((i + 1) % TAMANHO_LOTE_INSERCAO == 0) {
+				entityManager.flush();
+				entityManager.clear();
+			}
+		}
+		
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	/**
+	 * Com ids, bloqueia em blocos do mesmo tamanho dos da atualização, em ordem crescente de id.
+	 */
+	@Override
+	public List<LancamentoProjecao> bloquearParaAtualizarStatus(Lancamento filtro, Collection<Long> ids, StatusLancamento status) {
+		if(ids == null || ids.isEmpty()) {
+			return bloquear(filtro, null, status);
+		}
+		
+		List<Long> ordenados = ids.stream().distinct().sorted().collect(Collectors.toList());
+		List<LancamentoProjecao> bloqueados = new ArrayList<>();
+		for (int inicio = 0; inicio < ordenados.size(); inicio += TAMANHO_LOTE_ATUALIZACAO) {
+			bloqueados.addAll(bloquear(filtro, ordenados.subList(inicio, Math.min(inicio + TAMANHO_LOTE_ATUALIZACAO, ordenados.size())), status));
+		}
+		
+		return bloqueados;
+	}
+	
+	private List<LancamentoProjecao> bloquear(Lancamento filtro, List<Long> ids, StatusLancamento status) {
+		StringBuilder jpql = new StringBuilder("select new com.app.minhasfinancas.model.projection.LancamentoProjecao(")
+				.append("l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.dataCadastro, l.usuario.id, l.versao) ")
+				.append("from Lancamento l ")
+				.append("where l.usuario.id = :idUsuario ")
+				.append("and (l.status is null or l.status <> :status) ");
+		
+		if(ids != null) {
+			jpql.append("and l.id in :ids ");
+		}
+		if(filtro.getAno() != null) {
+			jpql.append("and l.ano = :ano ");
+		}
+		if(filtro.getMes() != null) {
+			jpql.append("and l.mes = :mes ");
+		}
+		if(filtro.getStatus() != null) {
+			jpql.append("and l.status = :statusAtual ");
+		}
+		
+		TypedQuery<LancamentoProjecao> query = entityManager.createQuery(jpql.toString(), LancamentoProjecao.class)
+				.setParameter("idUsuario", filtro.getUsuario().getId())
+				.setParameter("status", status)
+				.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+		
+		if(ids != null) {
+			query.setParameter("ids", ids);
+		}
+		if(filtro.getAno() != null) {
+			query.setParameter("ano", filtro.getAno());
+		}
+		if(filtro.getMes() != null) {
+			query.setParameter("mes", filtro.getMes());
+		}
+		if(filtro.getStatus() != null) {
+			query.setParameter("statusAtual", filtro.getStatus());
+		}
+		
+		return query.getResultList();
+	}
+	
+	@Override
+	public int atualizarStatus(List<Long> ids, StatusLancamento status) {
+		entityManager.flush();
+		
+		int atualizados = 0;
+		for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_LOTE_ATUALIZACAO) {
+			List<Long> lote = ids.subList(inicio, Math.min(inicio + TAMANHO_LOTE_ATUALIZACAO, ids.size()));
+			
+			atualizados += entityManager
+					.createQuery("update Lancamento l set l.status = :status, l.versao = l.versao + 1 where l.id in :ids")
+					.setParameter("status", status)
+					.setParameter("ids", lote)
+					.executeUpdate();
+		}
+		
+		entityManager.clear();
+		return atualizados;
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.app.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.app.minhasfinancas.model.entity.ResumoMensal;
+import com.app.minhasfinancas.model.entity.ResumoMensalId;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, ResumoMensalId> {
+
+	@Query(value = "select r "
+			+ "from ResumoMensal r "
+			+ "where r.id.idUsuario = :idUsuario and r.id.ano = :ano")
+	List<ResumoMensal> obterPorUsuarioEAno(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano);
+	
+	@Modifying
+	@Query(value = "update ResumoMensal r "
+			+ "set r.pendente = r.pendente + :pendente, "
+			+ "r.efetivado = r.efetivado + :efetivado, "
+			+ "r.cancelado = r.cancelado + :cancelado "
+			+ "where r.id.idUsuario = :idUsuario and r.id.ano = :ano and r.id.mes = :mes and r.id.tipo = :tipo")
+	int aplicarDelta(@Param("idUsuario") Long idUsuario, 
+			@Param("ano") Integer ano, 
+			@Param("mes") Integer mes, 
+			@Param("tipo") TipoLancamento tipo, 
+			@Param("pendente") BigDecimal pendente, 
+			@Param("efetivado") BigDecimal efetivado, 
+			@Param("cancelado") BigDecimal cancelado);
+	
+	@Modifying
+	@Query(value = "insert into financas.resumo_mensal (id_usuario, ano, mes, tipo, pendente, efetivado, cancelado) "
+			+ "select l.id_usuario, l.ano, l.mes, l.tipo, "
+			+ "coalesce(sum(case when l.status = 'PENDENTE' then l.valor end), 0), "
+			+ "coalesce(sum(case when l.status = 'EFETIVADO' then l.valor end), 0), "
+			+ "coalesce(sum(case when l.status = 'CANCELADO' then l.valor end), 0) "
+			+ "from financas.lancamento l "
+			+ "where l.id_usuario = :idUsuario and l.ano = :ano and l.mes = :mes and l.tipo = :tipo "
+			+ "group by l.id_usuario, l.ano, l.mes, l.tipo "
+			+ "on conflict do nothing", nativeQuery = true)
+	int inicializar(@Param("idUsuario") Long idUsuario, 
+			@Param("ano") Integer ano, 
+			@Param("mes") Integer mes, 
+			@Param("tipo") String tipo);
+	
+	@Modifying
+	@Query(value = "insert into financas.resumo_mensal (id_usuario, ano, mes, tipo, pendente, efetivado, cancelado) "
+			+ "select l.id_usuario, l.ano, l.mes, l.tipo, "
+			+ "coalesce(sum(case when l.status = 'PENDENTE' then l.valor end), 0), "
+			+ "coalesce(sum(case when l.status = 'EFETIVADO' then l.valor end), 0), "
+			+ "coalesce(sum(case when l.status = 'CANCELADO' then l.valor end), 0) "
+			+ "from financas.lancamento l "
+			+ "where l.id_usuario is not null and l.ano is not null and l.mes is not null and l.tipo is not null "
+			+ "group by l.id_usuario, l.ano, l.mes, l.tipo", nativeQuery = true)
+	int reconstruir();
+	
+}
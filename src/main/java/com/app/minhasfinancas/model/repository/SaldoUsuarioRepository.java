@@ -0,0 +1,37 @@
+package com.app.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.app.minhasfinancas.model.entity.SaldoUsuario;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long> {
+
+	@Modifying
+	@Query(value = "update SaldoUsuario s "
+			+ "set s.saldo = s.saldo + :delta, s.geracao = s.geracao + 1 "
+			+ "where s.idUsuario = :idUsuario")
+	int aplicarDelta(@Param("idUsuario") Long idUsuario, @Param("delta") BigDecimal delta);
+	
+	@Modifying
+	@Query(value = "insert into financas.saldo_usuario (id_usuario, saldo, geracao) "
+			+ "values (:idUsuario, :saldo, 1) on conflict do nothing", nativeQuery = true)
+	int inicializar(@Param("idUsuario") Long idUsuario, @Param("saldo") BigDecimal saldo);
+	
+	@Query(value = "select s.geracao from SaldoUsuario s where s.idUsuario = :idUsuario")
+	Optional<Long> obterGeracao(@Param("idUsuario") Long idUsuario);
+	
+	@Modifying
+	@Query(value = "insert into financas.saldo_usuario (id_usuario, saldo, geracao) "
+			+ "select u.id, coalesce(sum(case when l.tipo = 'RECEITA' then l.valor "
+			+ "when l.tipo = 'DESPESA' then -l.valor else 0 end), 0), :geracao "
+			+ "from financas.usuario u left join financas.lancamento l on l.id_usuario = u.id "
+			+ "group by u.id", nativeQuery = true)
+	int reconstruir(@Param("geracao") Long geracao);
+	
+}
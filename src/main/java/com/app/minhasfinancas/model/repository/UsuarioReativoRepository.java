@@ -0,0 +1,54 @@
+package com.app.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Mono;
+
+@Repository
+@Profile("reativo")
+public class UsuarioReativoRepository {
+	
+	private DatabaseClient databaseClient;
+	
+	public UsuarioReativoRepository(DatabaseClient databaseClient) {
+		this.databaseClient = databaseClient;
+	}
+	
+	public Mono<Boolean> existe(Long id) {
+		return databaseClient.execute("select u.id from financas.usuario u where u.id = :id")
+				.bind("id", id)
+				.map((row, metadados) -> row.get("id", Long.class))
+				.first()
+				.hasElement();
+	}
+	
+	public Mono<Long> obterGeracao(Long idUsuario) {
+		return databaseClient.execute("select s.geracao from financas.saldo_usuario s where s.id_usuario = :idUsuario")
+				.bind("idUsuario", idUsuario)
+				.map((row, metadados) -> row.get("geracao", Long.class))
+				.first()
+				.defaultIfEmpty(0L);
+	}
+	
+	public Mono<BigDecimal> obterSaldo(Long idUsuario) {
+		return databaseClient.execute("select s.saldo from financas.saldo_usuario s where s.id_usuario = :idUsuario")
+				.bind("idUsuario", idUsuario)
+				.map((row, metadados) -> row.get("saldo", BigDecimal.class))
+				.first()
+				.switchIfEmpty(calcularSaldo(idUsuario));
+	}
+	
+	private Mono<BigDecimal> calcularSaldo(Long idUsuario) {
+		return databaseClient.execute("select coalesce(sum(case when l.tipo = 'RECEITA' then l.valor "
+				+ "when l.tipo = 'DESPESA' then -l.valor else 0 end), 0) as saldo "
+				+ "from financas.lancamento l where l.id_usuario = :idUsuario")
+				.bind("idUsuario", idUsuario)
+				.map((row, metadados) -> row.get("saldo", BigDecimal.class))
+				.first();
+	}
+
+}
@@ -2,7 +2,11 @@ package com.app.minhasfinancas.model.repository;
 
 import java.util.Optional;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.app.minhasfinancas.model.entity.Usuario;
 
@@ -10,5 +14,13 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
 	boolean existsByEmail(String email);
 	
+	/**
+	 * O usuário em cache é a mesma instância para todas as threads: não deve ser alterado.
+	 */
+	@Cacheable(cacheNames = "usuariosPorEmail", unless = "#result == null")
 	Optional<Usuario> findByEmail(String email);
+	
+	@Modifying
+	@Query("update Usuario u set u.senha = :senha where u.id = :id")
+	int atualizarSenha(@Param("id") Long id, @Param("senha") String senha);
 }
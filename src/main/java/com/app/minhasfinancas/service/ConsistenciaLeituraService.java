@@ -0,0 +1,12 @@
+package com.app.minhasfinancas.service;
+
+import java.util.Collection;
+
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+
+public interface ConsistenciaLeituraService {
+
+	void lerDoUsuario(Long idUsuario);
+	
+	void registrarAlteracoes(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos);
+}
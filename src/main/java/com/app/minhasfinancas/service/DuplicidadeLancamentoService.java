@@ -0,0 +1,12 @@
+package com.app.minhasfinancas.service;
+
+import java.util.Collection;
+
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+
+public interface DuplicidadeLancamentoService {
+
+	boolean recente(Long idUsuario, Long impressao);
+	
+	void registrarAlteracoes(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos);
+}
@@ -0,0 +1,19 @@
+package com.app.minhasfinancas.service;
+
+import java.io.Reader;
+import java.util.function.Consumer;
+
+import com.app.minhasfinancas.dto.ProgressoImportacaoDTO;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.enums.FormatoExtrato;
+
+public interface ImportacaoExtratoService {
+
+	/**
+	 * Lê o extrato incrementalmente e grava os lançamentos em lotes de tamanho fixo. Após cada lote
+	 * o consumidor recebe os totais acumulados e apenas os erros daquele lote, cujo índice é a linha
+	 * do extrato. O último progresso, com {@code concluido}, também é o retorno.
+	 */
+	ProgressoImportacaoDTO importar(Usuario usuario, FormatoExtrato formato, Reader extrato, 
+			Consumer<ProgressoImportacaoDTO> progresso);
+}
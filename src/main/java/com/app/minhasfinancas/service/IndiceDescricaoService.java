@@ -0,0 +1,16 @@
+package com.app.minhasfinancas.service;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+
+public interface IndiceDescricaoService {
+
+	Optional<Set<Long>> buscar(Long idUsuario, String trecho);
+	
+	void registrarAlteracoes(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos);
+	
+	void reconstruir();
+}
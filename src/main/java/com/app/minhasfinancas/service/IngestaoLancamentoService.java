@@ -0,0 +1,15 @@
+package com.app.minhasfinancas.service;
+
+import java.util.Optional;
+
+import com.app.minhasfinancas.dto.SituacaoIngestaoDTO;
+import com.app.minhasfinancas.model.entity.Lancamento;
+
+public interface IngestaoLancamentoService {
+
+	SituacaoIngestaoDTO enfileirar(Lancamento lancamento);
+	
+	Optional<SituacaoIngestaoDTO> obterSituacao(String id);
+	
+	int obterTamanhoFila();
+}
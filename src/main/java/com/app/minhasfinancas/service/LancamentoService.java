@@ -1,27 +1,44 @@
 package com.app.minhasfinancas.service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import com.app.minhasfinancas.dto.PaginaLancamentoDTO;
+import com.app.minhasfinancas.dto.ResultadoLoteDTO;
 import com.app.minhasfinancas.model.entity.Lancamento;
 import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
 
 public interface LancamentoService {
 
 	Lancamento salvar(Lancamento lancamento);
 	
+	ResultadoLoteDTO salvarLote(List<Lancamento> lancamentos);
+	
 	Lancamento atualizar(Lancamento lancamento);
 	
 	void deletar(Lancamento lancamento);
 	
-	List<Lancamento> buscar(Lancamento lancamentoFiltro);
+	List<LancamentoProjecao> buscar(Lancamento lancamentoFiltro);
+	
+	PaginaLancamentoDTO buscar(Lancamento lancamentoFiltro, String cursor, Integer limite);
+	
+	void exportar(Long idUsuario, Consumer<LancamentoProjecao> consumidor);
 	
 	void atualizarStatus(Lancamento lancamento, StatusLancamento status);
 	
+	LancamentoProjecao atualizarStatus(Long id, Long idUsuario, StatusLancamento status, Long versaoEsperada);
+	
+	int atualizarStatusEmLote(Lancamento filtro, Collection<Long> ids, StatusLancamento status);
+	
 	void validar(Lancamento lancamento);
 	
-	Optional<Lancamento> obterPorId(Long id);
+	Optional<Lancamento> obterPorId(Long id, Long idUsuario);
 	
 	BigDecimal obterSaldoPorUsuario(Long id);
+	
+	long obterGeracao(Long idUsuario);
 }
@@ -0,0 +1,15 @@
+package com.app.minhasfinancas.service;
+
+import java.util.Collection;
+
+import com.app.minhasfinancas.dto.PainelDTO;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+
+public interface PainelService {
+
+	PainelDTO obterPainel(Long idUsuario, Integer ano, TipoLancamento tipo, StatusLancamento status);
+	
+	void registrarAlteracoes(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos);
+}
@@ -0,0 +1,8 @@
+package com.app.minhasfinancas.service;
+
+import com.app.minhasfinancas.dto.RelatorioAnualDTO;
+
+public interface RelatorioService {
+
+	RelatorioAnualDTO gerarRelatorioAnual(Long idUsuario, Integer ano);
+}
@@ -0,0 +1,16 @@
+package com.app.minhasfinancas.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.app.minhasfinancas.dto.ResumoMensalDTO;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+
+public interface ResumoMensalService {
+
+	List<ResumoMensalDTO> obterResumoAnual(Long idUsuario, Integer ano);
+	
+	void registrarAlteracoes(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos);
+	
+	int reconciliar();
+}
@@ -0,0 +1,17 @@
+package com.app.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+
+public interface SaldoUsuarioService {
+
+	BigDecimal obterSaldo(Long idUsuario);
+	
+	long obterGeracao(Long idUsuario);
+	
+	void registrarAlteracoes(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos);
+	
+	int reconciliar();
+}
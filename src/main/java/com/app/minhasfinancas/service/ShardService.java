@@ -0,0 +1,20 @@
+package com.app.minhasfinancas.service;
+
+import com.app.minhasfinancas.model.entity.Usuario;
+
+public interface ShardService {
+
+	int shardDoUsuario(Long idUsuario);
+
+	void usarShardDoUsuario(Long idUsuario);
+
+	void usarShardDoDono(Long idUsuario);
+
+	void usarShardDoEmail(String email);
+
+	void registrarNovoUsuario(Usuario usuario);
+
+	void paraCadaShard(boolean somenteLeitura, Runnable tarefa);
+
+	void moverUsuario(Long idUsuario, int shardDestino);
+}
@@ -0,0 +1,10 @@
+package com.app.minhasfinancas.service;
+
+import com.app.minhasfinancas.model.entity.Usuario;
+
+public interface TokenService {
+
+	String gerarToken(Usuario usuario);
+	
+	Long obterIdUsuario(String token);
+}
@@ -0,0 +1,81 @@
+package com.app.minhasfinancas.service.impl;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.app.minhasfinancas.config.RoteamentoDataSource;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+import com.app.minhasfinancas.service.ConsistenciaLeituraService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Decide se as leituras de um usuário podem ir para a réplica: quem alterou lançamentos há menos de
+ * {@code janela-leitura-propria-ms} lê do primário e vê as próprias alterações mesmo com a réplica
+ * atrasada. A janela deve ser maior que o atraso máximo aceito para a réplica. As escritas são
+ * lembradas só nesta instância.
+ */
+@Service
+public class ConsistenciaLeituraServiceImpl implements ConsistenciaLeituraService {
+	
+	private final boolean replicaConfigurada;
+	private final Cache<Long, Boolean> escritasRecentes;
+	
+	public ConsistenciaLeituraServiceImpl(
+			@Value("${minhasfinancas.replica.url:}") String urlReplica, 
+			@Value("${minhasfinancas.replica.janela-leitura-propria-ms:5000}") long janelaMs) {
+		this.replicaConfigurada = !urlReplica.isEmpty();
+		this.escritasRecentes = Caffeine.newBuilder()
+				.maximumSize(100000)
+				.expireAfterWrite(Duration.ofMillis(janelaMs))
+				.build();
+	}
+
+	@Override
+	public void lerDoUsuario(Long idUsuario) {
+		if(!replicaConfigurada || (idUsuario != null && escritasRecentes.getIfPresent(idUsuario) != null)) {
+			return;
+		}
+		
+		RoteamentoDataSource.liberarReplicaNaTransacao();
+	}
+
+	@Override
+	public void registrarAlteracoes(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos) {
+		if(!replicaConfigurada) {
+			return;
+		}
+		
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			aplicar(removidos, incluidos);
+			return;
+		}
+		
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				aplicar(removidos, incluidos);
+			}
+		});
+	}
+	
+	private void aplicar(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos) {
+		for (LancamentoProjecao removido : removidos) {
+			if(removido.getUsuario() != null) {
+				escritasRecentes.put(removido.getUsuario(), Boolean.TRUE);
+			}
+		}
+		
+		for (LancamentoProjecao incluido : incluidos) {
+			if(incluido.getUsuario() != null) {
+				escritasRecentes.put(incluido.getUsuario(), Boolean.TRUE);
+			}
+		}
+	}
+
+}
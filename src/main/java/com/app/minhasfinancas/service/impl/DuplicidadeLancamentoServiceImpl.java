@@ -0,0 +1,118 @@
+package com.app.minhasfinancas.service.impl;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+import com.app.minhasfinancas.service.DuplicidadeLancamentoService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Janela em memória com as impressões dos lançamentos gravados recentemente por usuário. Serve para
+ * recusar reenvios sem ir ao banco; o que escapa da janela, por ter saído dela ou por ter sido gravado
+ * em outra instância, é recusado pela consulta ao índice {@code (id_usuario, impressao)} feita com o
+ * usuário bloqueado. Só responde pela primeira ocorrência de uma impressão.
+ */
+@Service
+public class DuplicidadeLancamentoServiceImpl implements DuplicidadeLancamentoService {
+	
+	private final int tamanhoJanela;
+	private final Cache<Long, JanelaUsuario> janelas;
+	
+	public DuplicidadeLancamentoServiceImpl(
+			@Value("${minhasfinancas.duplicidade.tamanho-janela:1000}") int tamanhoJanela, 
+			@Value("${minhasfinancas.duplicidade.expiracao-minutos:30}") long expiracaoMinutos) {
+		this.tamanhoJanela = tamanhoJanela;
+		this.janelas = Caffeine.newBuilder()
+				.maximumSize(100000)
+				.expireAfterAccess(Duration.ofMinutes(expiracaoMinutos))
+				.build();
+	}
+
+	@Override
+	public boolean recente(Long idUsuario, Long impressao) {
+		if(idUsuario == null || impressao == null) {
+			return false;
+		}
+		
+		JanelaUsuario janela = janelas.getIfPresent(idUsuario);
+		return janela != null && janela.contem(impressao);
+	}
+
+	@Override
+	public void registrarAlteracoes(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos) {
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			aplicar(removidos, incluidos);
+			return;
+		}
+		
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				aplicar(removidos, incluidos);
+			}
+		});
+	}
+	
+	private void aplicar(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos) {
+		for (LancamentoProjecao removido : removidos) {
+			JanelaUsuario janela = removido.getUsuario() == null ? null : janelas.getIfPresent(removido.getUsuario());
+			if(janela != null) {
+				janela.remover(impressao(removido), removido.getId());
+			}
+		}
+		
+		for (LancamentoProjecao incluido : incluidos) {
+			Long impressao = impressao(incluido);
+			if(impressao != null) {
+				janelas.get(incluido.getUsuario(), id -> new JanelaUsuario(tamanhoJanela)).incluir(impressao, incluido.getId());
+			}
+		}
+	}
+	
+	private Long impressao(LancamentoProjecao lancamento) {
+		return Lancamento.calcularImpressao(lancamento.getUsuario(), 
+				lancamento.getAno(), lancamento.getMes(), lancamento.getDataCadastro(), lancamento.getValor(), lancamento.getDescricao());
+	}
+	
+	/**
+	 * Impressões do usuário mapeadas para o id do lançamento, descartando as mais antigas ao passar do tamanho.
+	 */
+	private static class JanelaUsuario {
+		
+		private final Map<Long, Long> impressoes;
+		
+		JanelaUsuario(int tamanho) {
+			this.impressoes = new LinkedHashMap<Long, Long>(16, 0.75f, false) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Long, Long> maisAntiga) {
+					return size() > tamanho;
+				}
+			};
+		}
+		
+		synchronized boolean contem(Long impressao) {
+			return impressoes.containsKey(impressao);
+		}
+		
+		synchronized void incluir(Long impressao, Long id) {
+			impressoes.put(impressao, id);
+		}
+		
+		synchronized void remover(Long impressao, Long id) {
+			if(impressao != null && id != null && id.equals(impressoes.get(impressao))) {
+				impressoes.remove(impressao);
+			}
+		}
+	}
+
+}
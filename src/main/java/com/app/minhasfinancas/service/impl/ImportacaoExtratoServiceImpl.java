@@ -0,0 +1,183 @@
+package com.app.minhasfinancas.service.impl;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.app.minhasfinancas.dto.ErroLoteDTO;
+import com.app.minhasfinancas.dto.ProgressoImportacaoDTO;
+import com.app.minhasfinancas.dto.ResultadoLoteDTO;
+import com.app.minhasfinancas.exception.RegraNegocioException;
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.enums.FormatoExtrato;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.service.ImportacaoExtratoService;
+import com.app.minhasfinancas.service.LancamentoService;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Importa extratos bancários sem carregá-los inteiros: a cada {@code tamanhoLote} linhas lidas
+ * os lançamentos válidos são gravados numa transação via {@link LancamentoService#salvarLote(List)}
+ * e o lote é descartado. Fica de fora só a contagem por impressão das transações já lidas, que numera
+ * as iguais ({@link Lancamento#setOcorrencia(int)}): assim duas corridas de mesmo valor no mesmo dia
+ * são gravadas e a reimportação do mesmo extrato continua recusada.
+ */
+@Service
+public class ImportacaoExtratoServiceImpl implements ImportacaoExtratoService {
+
+	private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+	private static final DateTimeFormatter DATA_OFX = DateTimeFormatter.BASIC_ISO_DATE;
+
+	private final LancamentoService lancamentoService;
+	private final int tamanhoLote;
+
+	public ImportacaoExtratoServiceImpl(LancamentoService lancamentoService,
+			@Value("${minhasfinancas.importacao.tamanho-lote:500}") int tamanhoLote) {
+		this.lancamentoService = lancamentoService;
+		this.tamanhoLote = tamanhoLote;
+	}
+
+	@Override
+	@Timed("minhasfinancas.servico")
+	public ProgressoImportacaoDTO importar(Usuario usuario, FormatoExtrato formato, Reader extrato,
+			Consumer<ProgressoImportacaoDTO> progresso) {
+		LeitorExtrato leitor = LeitorExtrato.para(formato, extrato);
+
+		List<Lancamento> lote = new ArrayList<>(tamanhoLote);
+		List<Integer> linhas = new ArrayList<>(tamanhoLote);
+		List<ErroLoteDTO> erros = new ArrayList<>();
+		Map<Long, Integer> ocorrencias = new HashMap<>();
+		long lidos = 0;
+		long salvos = 0;
+		long rejeitados = 0;
+
+		TransacaoExtrato transacao;
+		while((transacao = leitor.proxima()) != null) {
+			lidos++;
+
+			try {
+				Lancamento lancamento = converter(transacao, formato, usuario);
+				lancamento.setOcorrencia(ocorrencias.merge(lancamento.calcularImpressao(), 1, Integer::sum));
+				lote.add(lancamento);
+				linhas.add(transacao.getLinha());
+
+			} catch (RegraNegocioException e) {
+				erros.add(new ErroLoteDTO(transacao.getLinha(), e.getMessage()));
+			}
+
+			if(lote.size() + erros.size() == tamanhoLote) {
+				salvos += gravar(lote, linhas, erros);
+				rejeitados += erros.size();
+				progresso.accept(new ProgressoImportacaoDTO(lidos, salvos, rejeitados, new ArrayList<>(erros), false));
+
+				lote.clear();
+				linhas.clear();
+				erros.clear();
+			}
+		}
+
+		salvos += gravar(lote, linhas, erros);
+		rejeitados += erros.size();
+
+		ProgressoImportacaoDTO concluido = new ProgressoImportacaoDTO(lidos, salvos, rejeitados, erros, true);
+		progresso.accept(concluido);
+
+		return concluido;
+	}
+
+	private int gravar(List<Lancamento> lote, List<Integer> linhas, List<ErroLoteDTO> erros) {
+		if(lote.isEmpty()) {
+			return 0;
+		}
+
+		ResultadoLoteDTO resultado = lancamentoService.salvarLote(lote);
+
+		for (ErroLoteDTO erro : resultado.getErros()) {
+			erros.add(new ErroLoteDTO(linhas.get(erro.getIndice()), erro.getMensagem()));
+		}
+		erros.sort((a, b) -> Integer.compare(a.getIndice(), b.getIndice()));
+
+		return resultado.getSalvos();
+	}
+
+	private Lancamento converter(TransacaoExtrato transacao, FormatoExtrato formato, Usuario usuario) {
+		if(transacao.getErro() != null) {
+			throw new RegraNegocioException(transacao.getErro());
+		}
+
+		LocalDate data = converterData(transacao.getData());
+		BigDecimal valor = converterValor(transacao.getValor(), formato);
+
+		Lancamento lancamento = new Lancamento();
+		lancamento.setDescricao(transacao.getDescricao());
+		lancamento.setAno(data.getYear());
+		lancamento.setMes(data.getMonthValue());
+		lancamento.setDataCadastro(data);
+		lancamento.setValor(valor.abs());
+		lancamento.setTipo(valor.signum() < 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA);
+		lancamento.setStatus(StatusLancamento.PENDENTE);
+		lancamento.setUsuario(usuario);
+
+		return lancamento;
+	}
+
+	private LocalDate converterData(String data) {
+		if(data == null || data.isEmpty()) {
+			throw new RegraNegocioException("Informe uma data válida!");
+		}
+
+		try {
+			if(data.indexOf('/') > 0) {
+				return LocalDate.parse(data, DATA_BR);
+			}
+
+			if(data.length() > 4 && data.charAt(4) == '-') {
+				return LocalDate.parse(data.substring(0, Math.min(data.length(), 10)));
+			}
+
+			// OFX: AAAAMMDD seguido opcionalmente de hora e fuso, como 20200115120000[-3:BRT]
+			return LocalDate.parse(data.substring(0, Math.min(data.length(), 8)), DATA_OFX);
+
+		} catch (DateTimeParseException e) {
+			throw new RegraNegocioException("Informe uma data válida!");
+		}
+	}
+
+	/**
+	 * O separador decimal é fixo por formato: no CSV, como nos extratos brasileiros, é a vírgula e o
+	 * ponto separa milhares ({@code 1.234} vale mil duzentos e trinta e quatro e {@code -R$ 1.234,56}
+	 * é aceito); no OFX é o ponto, sem separador de milhar.
+	 */
+	private BigDecimal converterValor(String valor, FormatoExtrato formato) {
+		if(valor == null) {
+			throw new RegraNegocioException("Informe um valor válido!");
+		}
+
+		String numero = valor.replace("R$", "").replace(" ", "").replace("+", "");
+
+		if(formato == FormatoExtrato.CSV) {
+			numero = numero.replace(".", "").replace(',', '.');
+		}
+
+		try {
+			return new BigDecimal(numero);
+
+		} catch (NumberFormatException e) {
+			throw new RegraNegocioException("Informe um valor válido!");
+		}
+	}
+
+}
@@ -0,0 +1,281 @@
+package com.app.minhasfinancas.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.entity.SaldoUsuario;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+import com.app.minhasfinancas.model.repository.LancamentoRepository;
+import com.app.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.app.minhasfinancas.service.IndiceDescricaoService;
+import com.app.minhasfinancas.service.ShardService;
+
+/**
+ * Índice de trigramas das descrições por usuário. Cada índice guarda a geração de {@code saldo_usuario}
+ * que reflete: como toda gravação de lançamentos avança essa geração, em qualquer instância, o índice só
+ * responde quando ela é a do banco, e senão é recarregado do banco antes de responder. As gravações desta
+ * instância o mantêm na geração seguinte sem recarga; as de outras instâncias forçam uma recarga na
+ * próxima busca do usuário.
+ */
+@Service
+public class IndiceDescricaoServiceImpl implements IndiceDescricaoService {
+	
+	private static final Logger log = LoggerFactory.getLogger(IndiceDescricaoServiceImpl.class);
+	
+	private static final int TAMANHO_NGRAMA = 3;
+	
+	private LancamentoRepository repository;
+	private SaldoUsuarioRepository saldoUsuarioRepository;
+	private ShardService shardService;
+	private Map<Long, IndiceUsuario> indices = new ConcurrentHashMap<>();
+	private volatile boolean pronto;
+	
+	public IndiceDescricaoServiceImpl(LancamentoRepository repository, SaldoUsuarioRepository saldoUsuarioRepository, 
+			ShardService shardService) {
+		this.repository = repository;
+		this.saldoUsuarioRepository = saldoUsuarioRepository;
+		this.shardService = shardService;
+	}
+
+	/**
+	 * Deve ser chamado na transação da busca, já roteada para o shard e a origem de leitura do usuário.
+	 */
+	@Override
+	public Optional<Set<Long>> buscar(Long idUsuario, String trecho) {
+		String normalizado = normalizar(trecho);
+		
+		if(!pronto || normalizado.length() < TAMANHO_NGRAMA) {
+			return Optional.empty();
+		}
+		
+		long geracao = obterGeracao(idUsuario);
+		IndiceUsuario indice = indices.get(idUsuario);
+		
+		if(indice == null || !indice.naGeracao(geracao)) {
+			indice = carregar(idUsuario, geracao);
+		}
+		
+		return Optional.of(indice.buscar(normalizado));
+	}
+
+	/**
+	 * Deve ser chamado depois de {@code SaldoUsuarioService#registrarAlteracoes}, na mesma transação: a
+	 * geração lida aqui já é a desta gravação.
+	 */
+	@Override
+	public void registrarAlteracoes(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos) {
+		Map<Long, Long> geracoes = new HashMap<>();
+		
+		for (LancamentoProjecao lancamento : concatenar(removidos, incluidos)) {
+			Long idUsuario = lancamento.getUsuario();
+			
+			if(idUsuario != null && indices.containsKey(idUsuario) && !geracoes.containsKey(idUsuario)) {
+				geracoes.put(idUsuario, obterGeracao(idUsuario));
+			}
+		}
+		
+		if(geracoes.isEmpty()) {
+			return;
+		}
+		
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			aplicar(removidos, incluidos, geracoes);
+			return;
+		}
+		
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				aplicar(removidos, incluidos, geracoes);
+			}
+		});
+	}
+
+	@Override
+	@EventListener(ApplicationReadyEvent.class)
+	public void reconstruir() {
+		pronto = false;
+		indices.clear();
+		
+		long inicio = System.currentTimeMillis();
+		shardService.paraCadaShard(true, () -> {
+			// gerações lidas antes dos lançamentos: uma gravação no meio deixa o índice atrasado, nunca adiantado
+			Map<Long, Long> geracoes = new HashMap<>();
+			for (SaldoUsuario saldo : saldoUsuarioRepository.findAll()) {
+				geracoes.put(saldo.getIdUsuario(), saldo.getGeracao());
+			}
+			
+			try (Stream<LancamentoProjecao> lancamentos = repository.percorrerProjecoes()) {
+				lancamentos.forEach(lancamento -> {
+					if(lancamento.getUsuario() != null) {
+						indices.computeIfAbsent(lancamento.getUsuario(), id -> new IndiceUsuario(geracoes.getOrDefault(id, 0L)))
+							.incluir(lancamento);
+					}
+				});
+			}
+		});
+		
+		pronto = true;
+		log.info("Índice de descrições reconstruído para {} usuário(s) em {} ms.", indices.size(), System.currentTimeMillis() - inicio);
+	}
+	
+	private IndiceUsuario carregar(Long idUsuario, long geracao) {
+		IndiceUsuario indice = new IndiceUsuario(geracao);
+		
+		try (Stream<LancamentoProjecao> lancamentos = repository.percorrerProjecoesPorUsuario(idUsuario)) {
+			lancamentos.forEach(indice::incluir);
+		}
+		
+		indices.put(idUsuario, indice);
+		return indice;
+	}
+	
+	private void aplicar(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos, 
+			Map<Long, Long> geracoes) {
+		geracoes.forEach((idUsuario, geracao) -> {
+			IndiceUsuario indice = indices.get(idUsuario);
+			
+			if(indice != null) {
+				indice.aplicar(doUsuario(removidos, idUsuario), doUsuario(incluidos, idUsuario), geracao);
+			}
+		});
+	}
+	
+	private long obterGeracao(Long idUsuario) {
+		return saldoUsuarioRepository.obterGeracao(idUsuario).orElse(0L);
+	}
+	
+	private static List<LancamentoProjecao> doUsuario(Collection<LancamentoProjecao> lancamentos, Long idUsuario) {
+		List<LancamentoProjecao> doUsuario = new ArrayList<>();
+		for (LancamentoProjecao lancamento : lancamentos) {
+			if(idUsuario.equals(lancamento.getUsuario())) {
+				doUsuario.add(lancamento);
+			}
+		}
+		return doUsuario;
+	}
+	
+	private static List<LancamentoProjecao> concatenar(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos) {
+		List<LancamentoProjecao> todos = new ArrayList<>(removidos);
+		todos.addAll(incluidos);
+		return todos;
+	}
+	
+	static String normalizar(String texto) {
+		return Lancamento.normalizarDescricao(texto);
+	}
+	
+	private static class IndiceUsuario {
+		
+		private Map<String, Set<Long>> ngramas = new HashMap<>();
+		private Map<Long, String> descricoes = new HashMap<>();
+		private long geracao;
+		
+		IndiceUsuario(long geracao) {
+			this.geracao = geracao;
+		}
+		
+		synchronized boolean naGeracao(long geracaoAtual) {
+			return geracao == geracaoAtual;
+		}
+		
+		/**
+		 * Aplica uma gravação que levou o usuário a {@code geracaoNova}. Só vale sobre a geração anterior:
+		 * se outra gravação ficou no meio o índice continua na sua geração e é recarregado na próxima busca.
+		 * Reaplicar a gravação já contida numa recarga não muda nada, pois inclusões e remoções são por id.
+		 */
+		synchronized void aplicar(List<LancamentoProjecao> removidos, List<LancamentoProjecao> incluidos, long geracaoNova) {
+			if(geracao != geracaoNova - 1 && geracao != geracaoNova) {
+				return;
+			}
+			
+			for (LancamentoProjecao removido : removidos) {
+				remover(removido.getId());
+			}
+			
+			for (LancamentoProjecao incluido : incluidos) {
+				incluir(incluido);
+			}
+			
+			geracao = geracaoNova;
+		}
+		
+		synchronized void incluir(LancamentoProjecao lancamento) {
+			if(lancamento.getId() != null && lancamento.getDescricao() != null) {
+				incluir(lancamento.getId(), normalizar(lancamento.getDescricao()));
+			}
+		}
+		
+		private void incluir(Long id, String descricao) {
+			remover(id);
+			descricoes.put(id, descricao);
+			
+			for (int i = 0; i + TAMANHO_NGRAMA <= descricao.length(); i++) {
+				ngramas.computeIfAbsent(descricao.substring(i, i + TAMANHO_NGRAMA), ngrama -> new HashSet<>()).add(id);
+			}
+		}
+		
+		private void remover(Long id) {
+			String descricao = descricoes.remove(id);
+			if(descricao == null) {
+				return;
+			}
+			
+			for (int i = 0; i + TAMANHO_NGRAMA <= descricao.length(); i++) {
+				String ngrama = descricao.substring(i, i + TAMANHO_NGRAMA);
+				Set<Long> ids = ngramas.get(ngrama);
+				
+				if(ids != null) {
+					ids.remove(id);
+					if(ids.isEmpty()) {
+						ngramas.remove(ngrama);
+					}
+				}
+			}
+		}
+		
+		synchronized Set<Long> buscar(String trecho) {
+			Set<Long> menor = null;
+			
+			for (int i = 0; i + TAMANHO_NGRAMA <= trecho.length(); i++) {
+				Set<Long> ids = ngramas.get(trecho.substring(i, i + TAMANHO_NGRAMA));
+				
+				if(ids == null) {
+					return Collections.emptySet();
+				}
+				
+				if(menor == null || ids.size() < menor.size()) {
+					menor = ids;
+				}
+			}
+			
+			Set<Long> encontrados = new HashSet<>();
+			for (Long id : menor) {
+				if(descricoes.get(id).contains(trecho)) {
+					encontrados.add(id);
+				}
+			}
+			
+			return encontrados;
+		}
+	}
+
+}
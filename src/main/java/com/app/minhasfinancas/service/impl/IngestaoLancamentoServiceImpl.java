@@ -0,0 +1,266 @@
+package com.app.minhasfinancas.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import com.app.minhasfinancas.dto.ErroLoteDTO;
+import com.app.minhasfinancas.dto.ResultadoLoteDTO;
+import com.app.minhasfinancas.dto.SituacaoIngestaoDTO;
+import com.app.minhasfinancas.exception.FilaCheiaException;
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.enums.SituacaoIngestao;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.service.IngestaoLancamentoService;
+import com.app.minhasfinancas.service.LancamentoService;
+import com.app.minhasfinancas.service.ShardService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Recebe lançamentos já validados numa fila limitada e os grava em segundo plano. A thread
+ * gravadora junta tudo o que chegou enquanto o lote anterior era gravado e persiste numa única
+ * transação via {@link LancamentoService#salvarLote(List)} (group commit), uma por shard quando o
+ * lote junta usuários de shards diferentes. Se o lote inteiro falhar, cada lançamento é gravado
+ * sozinho, para que só os que falharem de novo fiquem com erro.
+ */
+@Service
+public class IngestaoLancamentoServiceImpl implements IngestaoLancamentoService, SmartLifecycle {
+
+	private static final Logger log = LoggerFactory.getLogger(IngestaoLancamentoServiceImpl.class);
+
+	private static final long ESPERA_DESLIGAMENTO_MS = 30000;
+
+	private final LancamentoService lancamentoService;
+	private final ShardService shardService;
+	private final BlockingQueue<Pendente> fila;
+	private final int tamanhoLote;
+	private final Cache<String, SituacaoIngestaoDTO> situacoes;
+	private final ReadWriteLock recebimento = new ReentrantReadWriteLock();
+
+	private volatile boolean ativo;
+	private Thread gravadora;
+
+	public IngestaoLancamentoServiceImpl(LancamentoService lancamentoService, ShardService shardService,
+			@Value("${minhasfinancas.ingestao.capacidade:10000}") int capacidade,
+			@Value("${minhasfinancas.ingestao.tamanho-lote:500}") int tamanhoLote,
+			@Value("${minhasfinancas.ingestao.retencao-minutos:60}") long retencaoMinutos,
+			@Value("${minhasfinancas.ingestao.maximo-situacoes:100000}") long maximoSituacoes,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		this.lancamentoService = lancamentoService;
+		this.shardService = shardService;
+		this.fila = new ArrayBlockingQueue<>(capacidade);
+		this.tamanhoLote = tamanhoLote;
+		this.situacoes = Caffeine.newBuilder()
+				.expireAfterWrite(Duration.ofMinutes(retencaoMinutos))
+				.maximumSize(maximoSituacoes)
+				.build();
+
+		meterRegistry.ifAvailable(metricas ->
+			Gauge.builder("minhasfinancas.ingestao.fila", fila, BlockingQueue::size).register(metricas));
+	}
+
+	@Override
+	public SituacaoIngestaoDTO enfileirar(Lancamento lancamento) {
+		lancamentoService.validar(lancamento);
+		lancamento.setId(null);
+		lancamento.setVersao(null);
+		lancamento.setStatus(StatusLancamento.PENDENTE);
+
+		SituacaoIngestaoDTO situacao = new SituacaoIngestaoDTO(UUID.randomUUID().toString(), SituacaoIngestao.PENDENTE, null, null);
+		situacoes.put(situacao.getId(), situacao);
+
+		recebimento.readLock().lock();
+		try {
+			if(!ativo || !fila.offer(new Pendente(situacao.getId(), lancamento))) {
+				situacoes.invalidate(situacao.getId());
+				throw new FilaCheiaException("Fila de ingestão cheia. Tente novamente em instantes.");
+			}
+
+		} finally {
+			recebimento.readLock().unlock();
+		}
+
+		return situacao;
+	}
+
+	@Override
+	public Optional<SituacaoIngestaoDTO> obterSituacao(String id) {
+		return Optional.ofNullable(situacoes.getIfPresent(id));
+	}
+
+	@Override
+	public int obterTamanhoFila() {
+		return fila.size();
+	}
+
+	@Override
+	public void start() {
+		ativo = true;
+		gravadora = new Thread(this::gravar, "ingestao-lancamentos");
+		gravadora.setDaemon(true);
+		gravadora.start();
+	}
+
+	@Override
+	public void stop() {
+		desativar();
+
+		if(gravadora == null) {
+			return;
+		}
+
+		try {
+			gravadora.join(ESPERA_DESLIGAMENTO_MS);
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		if(!fila.isEmpty()) {
+			log.warn("Desligamento sem concluir a gravação de {} lançamento(s) da fila de ingestão.", fila.size());
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return ativo;
+	}
+
+	/**
+	 * Fase baixa: para depois do servidor web, que deixa de aceitar requisições primeiro,
+	 * e antes dos beans de persistência, que a gravadora ainda usa para esvaziar a fila.
+	 */
+	@Override
+	public int getPhase() {
+		return 0;
+	}
+
+	private void desativar() {
+		recebimento.writeLock().lock();
+		try {
+			ativo = false;
+
+		} finally {
+			recebimento.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Interrompida, a gravadora deixa de aceitar lançamentos, grava o que já está na fila sem esperar
+	 * por mais e encerra, devolvendo a interrupção à thread.
+	 */
+	private void gravar() {
+		List<Pendente> lote = new ArrayList<>(tamanhoLote);
+
+		while(ativo || !fila.isEmpty()) {
+			try {
+				Pendente primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+				if(primeiro == null) {
+					continue;
+				}
+
+				lote.add(primeiro);
+				fila.drainTo(lote, tamanhoLote - 1);
+				gravarLote(lote);
+
+			} catch (InterruptedException e) {
+				desativar();
+				log.warn("Gravadora da fila de ingestão interrompida; gravando {} lançamento(s) ainda na fila.", fila.size());
+
+				while(fila.drainTo(lote, tamanhoLote) > 0) {
+					gravarLote(lote);
+					lote.clear();
+				}
+
+				Thread.currentThread().interrupt();
+				return;
+
+			} finally {
+				lote.clear();
+			}
+		}
+	}
+
+	void gravarLote(List<Pendente> lote) {
+		Map<Integer, List<Pendente>> porShard = new LinkedHashMap<>();
+		for (Pendente pendente : lote) {
+			Long idUsuario = pendente.lancamento.getUsuario() == null ? null : pendente.lancamento.getUsuario().getId();
+			porShard.computeIfAbsent(shardService.shardDoUsuario(idUsuario), shard -> new ArrayList<>()).add(pendente);
+		}
+
+		for (List<Pendente> doShard : porShard.values()) {
+			gravarNoShard(doShard);
+		}
+	}
+
+	private void gravarNoShard(List<Pendente> lote) {
+		List<Lancamento> lancamentos = new ArrayList<>(lote.size());
+		for (Pendente pendente : lote) {
+			lancamentos.add(pendente.lancamento);
+		}
+
+		try {
+			ResultadoLoteDTO resultado = lancamentoService.salvarLote(lancamentos);
+
+			String[] erros = new String[lote.size()];
+			for (ErroLoteDTO erro : resultado.getErros()) {
+				erros[erro.getIndice()] = erro.getMensagem();
+			}
+
+			for (int i = 0; i < lote.size(); i++) {
+				Pendente pendente = lote.get(i);
+				situacoes.put(pendente.id, erros[i] == null
+						? new SituacaoIngestaoDTO(pendente.id, SituacaoIngestao.GRAVADO, pendente.lancamento.getId(), null)
+						: new SituacaoIngestaoDTO(pendente.id, SituacaoIngestao.ERRO, null, erros[i]));
+			}
+
+		} catch (RuntimeException e) {
+			if(lote.size() > 1) {
+				log.warn("Falha ao gravar lote de {} lançamento(s) da fila de ingestão; gravando um a um.", lote.size(), e);
+
+				for (Pendente pendente : lote) {
+					gravarNoShard(Collections.singletonList(pendente));
+				}
+				return;
+			}
+
+			Pendente pendente = lote.get(0);
+			log.error("Falha ao gravar o lançamento {} da fila de ingestão.", pendente.id, e);
+			situacoes.put(pendente.id, new SituacaoIngestaoDTO(pendente.id, SituacaoIngestao.ERRO, null,
+					"Não foi possível gravar o lançamento. Envie novamente."));
+		}
+	}
+
+	static class Pendente {
+
+		private final String id;
+		private final Lancamento lancamento;
+
+		Pendente(String id, Lancamento lancamento) {
+			this.id = id;
+			this.lancamento = lancamento;
+		}
+	}
+
+}
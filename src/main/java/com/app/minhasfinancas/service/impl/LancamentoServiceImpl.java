@@ -1,79 +1,475 @@
 package com.app.minhasfinancas.service.impl;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.omg.PortableServer.IdUniquenessPolicy;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
-import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.app.minhasfinancas.dto.ErroLoteDTO;
+import com.app.minhasfinancas.dto.PaginaLancamentoDTO;
+import com.app.minhasfinancas.dto.ResultadoLoteDTO;
+import com.app.minhasfinancas.exception.AcessoNegadoException;
+import com.app.minhasfinancas.exception.ConflitoVersaoException;
+import com.app.minhasfinancas.exception.LancamentoDuplicadoException;
 import com.app.minhasfinancas.exception.RegraNegocioException;
 import com.app.minhasfinancas.model.entity.Lancamento;
 import com.app.minhasfinancas.model.enums.StatusLancamento;
-import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
 import com.app.minhasfinancas.model.repository.LancamentoRepository;
+import com.app.minhasfinancas.service.ConsistenciaLeituraService;
+import com.app.minhasfinancas.service.DuplicidadeLancamentoService;
+import com.app.minhasfinancas.service.IndiceDescricaoService;
 import com.app.minhasfinancas.service.LancamentoService;
+import com.app.minhasfinancas.service.PainelService;
+import com.app.minhasfinancas.service.ResumoMensalService;
+import com.app.minhasfinancas.service.SaldoUsuarioService;
+import com.app.minhasfinancas.service.ShardService;
+
+import io.micrometer.core.annotation.Timed;
 
 @Service
 public class LancamentoServiceImpl implements LancamentoService {
 	
+	private static final Logger log = LoggerFactory.getLogger(LancamentoServiceImpl.class);
+	
+	static final int LIMITE_PADRAO = 50;
+	static final int LIMITE_MAXIMO = 500;
+	static final int TENTATIVAS_ATUALIZAR_STATUS = 3;
+	
+	static final String MENSAGEM_NAO_ENCONTRADO = "Lançamento Não encontrado na base de dados!";
+	static final String MENSAGEM_OUTRO_USUARIO = "Lançamento de outro usuário.";
+	static final String MENSAGEM_CONFLITO = "Lançamento alterado por outra requisição. Consulte novamente e reenvie.";
+	static final String MENSAGEM_DUPLICADO = "Lançamento duplicado: já existe um lançamento com a mesma descrição, valor e data. "
+			+ "Para gravar outro igual, envie-o com um Idempotency-Key.";
+	static final String MENSAGEM_CHAVE_REPETIDA = "Lançamento já recebido com este Idempotency-Key.";
+	static final String MENSAGEM_RECUSADO = "Lançamento recusado pelo banco de dados.";
+	
 	private LancamentoRepository repository;
+	private SaldoUsuarioService saldoUsuarioService;
+	private ResumoMensalService resumoMensalService;
+	private IndiceDescricaoService indiceDescricaoService;
+	private DuplicidadeLancamentoService duplicidadeService;
+	private ConsistenciaLeituraService consistenciaLeituraService;
+	private ShardService shardService;
+	private PainelService painelService;
+	private TransactionTemplate transacao;
 	
-	public LancamentoServiceImpl(LancamentoRepository repository) {
+	public LancamentoServiceImpl(LancamentoRepository repository, SaldoUsuarioService saldoUsuarioService, 
+			ResumoMensalService resumoMensalService, IndiceDescricaoService indiceDescricaoService, 
+			DuplicidadeLancamentoService duplicidadeService, ConsistenciaLeituraService consistenciaLeituraService, 
+			ShardService shardService, PainelService painelService, PlatformTransactionManager transactionManager) {
 		this.repository = repository;
+		this.saldoUsuarioService = saldoUsuarioService;
+		this.resumoMensalService = resumoMensalService;
+		this.indiceDescricaoService = indiceDescricaoService;
+		this.duplicidadeService = duplicidadeService;
+		this.consistenciaLeituraService = consistenciaLeituraService;
+		this.shardService = shardService;
+		this.painelService = painelService;
+		this.transacao = new TransactionTemplate(transactionManager);
 	}
 
 	@Override
+	@Timed("minhasfinancas.servico")
 	@Transactional
 	public Lancamento salvar(Lancamento lancamento) {
 		validar(lancamento);
+		lancamento.setId(null);
+		lancamento.setVersao(null);
 		lancamento.setStatus(StatusLancamento.PENDENTE);
 		
-		return repository.save(lancamento);
+		Long idUsuario = lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+		shardService.usarShardDoUsuario(idUsuario);
+		
+		// com chave de idempotência o reenvio é barrado pelo índice único da chave, e lançamentos iguais
+		// com chaves diferentes são gravados
+		if(lancamento.getChaveIdempotencia() == null) {
+			Long impressao = lancamento.calcularImpressao();
+			
+			if(lancamento.getOcorrencia() == 1 && duplicidadeService.recente(idUsuario, impressao)) {
+				throw new LancamentoDuplicadoException(MENSAGEM_DUPLICADO);
+			}
+			
+			repository.bloquearUsuario(idUsuario);
+			if(repository.buscarImpressoesExistentes(idUsuario, Collections.singletonList(impressao)).size() >= lancamento.getOcorrencia()) {
+				throw new LancamentoDuplicadoException(MENSAGEM_DUPLICADO);
+			}
+		}
+		
+		Lancamento lancamentoSalvo;
+		try {
+			lancamentoSalvo = repository.save(lancamento);
+			repository.flush();
+			
+		} catch (DataIntegrityViolationException e) {
+			throw duplicidadeOu(e);
+		}
+		
+		registrarAlteracoes(Collections.emptyList(), Collections.singletonList(LancamentoProjecao.de(lancamentoSalvo)));
+		
+		return lancamentoSalvo;
+	}
+
+	/**
+	 * Grava o lote numa transação. Se o banco recusar a inserção, como quando outra requisição grava a
+	 * mesma chave de idempotência entre a consulta e a inserção, o lote é desfeito e cada lançamento é
+	 * gravado na sua própria transação, para que só os recusados voltem com erro.
+	 */
+	@Override
+	@Timed("minhasfinancas.servico")
+	public ResultadoLoteDTO salvarLote(List<Lancamento> lancamentos) {
+		try {
+			return transacao.execute(status -> gravarLote(lancamentos));
+			
+		} catch (DataIntegrityViolationException e) {
+			log.warn("Lote de {} lançamento(s) recusado pelo banco; gravando um a um.", lancamentos.size(), e);
+		}
+		
+		int salvos = 0;
+		List<ErroLoteDTO> erros = new ArrayList<>();
+		
+		for (int i = 0; i < lancamentos.size(); i++) {
+			List<Lancamento> unico = Collections.singletonList(lancamentos.get(i));
+			
+			try {
+				ResultadoLoteDTO resultado = transacao.execute(status -> gravarLote(unico));
+				salvos += resultado.getSalvos();
+				
+				for (ErroLoteDTO erro : resultado.getErros()) {
+					erros.add(new ErroLoteDTO(i, erro.getMensagem()));
+				}
+				
+			} catch (DataIntegrityViolationException e) {
+				RuntimeException motivo = duplicidadeOu(e);
+				erros.add(new ErroLoteDTO(i, motivo instanceof LancamentoDuplicadoException ? motivo.getMessage() : MENSAGEM_RECUSADO));
+			}
+		}
+		
+		return new ResultadoLoteDTO(lancamentos.size(), salvos, erros);
+	}
+	
+	private ResultadoLoteDTO gravarLote(List<Lancamento> lancamentos) {
+		List<Integer> candidatos = new ArrayList<>(lancamentos.size());
+		List<ErroLoteDTO> erros = new ArrayList<>();
+		Map<Long, Map<Long, List<Integer>>> impressoesPorUsuario = new HashMap<>();
+		Map<Long, Map<String, Integer>> chavesPorUsuario = new HashMap<>();
+		
+		for (int i = 0; i < lancamentos.size(); i++) {
+			Lancamento lancamento = lancamentos.get(i);
+			
+			try {
+				validar(lancamento);
+				lancamento.setId(null);
+				lancamento.setVersao(null);
+				lancamento.setStatus(StatusLancamento.PENDENTE);
+				
+				Long idUsuario = lancamento.getUsuario().getId();
+				shardService.usarShardDoUsuario(idUsuario);
+				
+				if(lancamento.getChaveIdempotencia() != null) {
+					Map<String, Integer> chaves = chavesPorUsuario.computeIfAbsent(idUsuario, id -> new HashMap<>());
+					
+					if(chaves.putIfAbsent(lancamento.getChaveIdempotencia(), i) != null) {
+						throw new RegraNegocioException(MENSAGEM_CHAVE_REPETIDA);
+					}
+					
+				} else {
+					Long impressao = lancamento.calcularImpressao();
+					
+					if(lancamento.getOcorrencia() == 1 && duplicidadeService.recente(idUsuario, impressao)) {
+						throw new RegraNegocioException(MENSAGEM_DUPLICADO);
+					}
+					
+					impressoesPorUsuario.computeIfAbsent(idUsuario, id -> new HashMap<>())
+						.computeIfAbsent(impressao, valor -> new ArrayList<>()).add(i);
+				}
+				
+				candidatos.add(i);
+				
+			} catch (RegraNegocioException e) {
+				erros.add(new ErroLoteDTO(i, e.getMessage()));
+			}
+		}
+		
+		Set<Integer> jaGravados = buscarJaGravados(lancamentos, impressoesPorUsuario, chavesPorUsuario);
+		List<Lancamento> validos = new ArrayList<>(candidatos.size());
+		
+		for (Integer posicao : candidatos) {
+			if(jaGravados.contains(posicao)) {
+				erros.add(new ErroLoteDTO(posicao, lancamentos.get(posicao).getChaveIdempotencia() == null 
+						? MENSAGEM_DUPLICADO : MENSAGEM_CHAVE_REPETIDA));
+			} else {
+				validos.add(lancamentos.get(posicao));
+			}
+		}
+		erros.sort(Comparator.comparingInt(ErroLoteDTO::getIndice));
+		
+		repository.inserirEmLote(validos);
+		registrarAlteracoes(Collections.emptyList(), validos.stream().map(LancamentoProjecao::de).collect(Collectors.toList()));
+		
+		return new ResultadoLoteDTO(lancamentos.size(), validos.size(), erros);
 	}
 
 	@Override
+	@Timed("minhasfinancas.servico")
 	@Transactional
 	public Lancamento atualizar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
 		validar(lancamento);
+		Long idUsuario = lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+		shardService.usarShardDoUsuario(idUsuario);
+		
+		LancamentoProjecao anterior = repository.obterProjecaoPersistida(lancamento.getId(), idUsuario)
+				.orElseThrow( () -> naoEncontradoOuNegado(lancamento.getId(), idUsuario));
+		
+		if(lancamento.getVersao() == null) {
+			lancamento.setVersao(anterior.getVersao());
+			
+		} else if(!lancamento.getVersao().equals(anterior.getVersao())) {
+			throw new ConflitoVersaoException(MENSAGEM_CONFLITO);
+		}
 		
-		return repository.save(lancamento);
+		Lancamento lancamentoAtualizado;
+		try {
+			lancamentoAtualizado = repository.save(lancamento);
+			repository.flush();
+			
+		} catch (OptimisticLockingFailureException e) {
+			throw new ConflitoVersaoException(MENSAGEM_CONFLITO);
+			
+		} catch (DataIntegrityViolationException e) {
+			throw duplicidadeOu(e);
+		}
+		
+		registrarAlteracoes(Collections.singletonList(anterior), Collections.singletonList(LancamentoProjecao.de(lancamentoAtualizado)));
+		
+		return lancamentoAtualizado;
 	}
 
 	@Override
+	@Timed("minhasfinancas.servico")
 	@Transactional
 	public void deletar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
 		
+		Long idUsuario = lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+		shardService.usarShardDoDono(idUsuario);
+		
+		Optional<LancamentoProjecao> anterior = repository.obterProjecaoPersistida(lancamento.getId(), idUsuario);
 		repository.delete(lancamento);
+		registrarAlteracoes(listaDe(anterior), Collections.emptyList());
 	}
 
 	@Override
+	@Timed("minhasfinancas.servico")
 	@Transactional(readOnly = true)
-	public List<Lancamento> buscar(Lancamento lancamentoFiltro) {
+	public List<LancamentoProjecao> buscar(Lancamento lancamentoFiltro) {
+		Long idUsuario = lancamentoFiltro.getUsuario() == null ? null : lancamentoFiltro.getUsuario().getId();
+		shardService.usarShardDoUsuario(idUsuario);
+		consistenciaLeituraService.lerDoUsuario(idUsuario);
+		
+		String padraoDescricao = Lancamento.padraoDescricao(lancamentoFiltro.getDescricao());
+		
+		// o índice confere a geração do usuário no banco e se recarrega antes de responder, então a resposta
+		// dele é completa; a consulta ainda aplica o mesmo filtro de descrição
+		if(lancamentoFiltro.getDescricao() != null && idUsuario != null) {
+			Optional<Set<Long>> ids = indiceDescricaoService.buscar(idUsuario, lancamentoFiltro.getDescricao());
+			
+			if(ids.isPresent()) {
+				if(ids.get().isEmpty()) {
+					return Collections.emptyList();
+				}
+				
+				return repository.buscarPorIds(ids.get(), idUsuario, padraoDescricao, lancamentoFiltro.getMes(), 
+						lancamentoFiltro.getAno(), lancamentoFiltro.getTipo(), lancamentoFiltro.getStatus());
+			}
+		}
 
-		Example example = Example.of(lancamentoFiltro, 
-				ExampleMatcher.matching()
-				.withIgnoreCase()
-				.withStringMatcher(StringMatcher.CONTAINING));
+		return repository.buscarProjecoes(idUsuario, 
+				padraoDescricao, 
+				lancamentoFiltro.getMes(), 
+				lancamentoFiltro.getAno(), 
+				lancamentoFiltro.getTipo(), 
+				lancamentoFiltro.getStatus());
+	}
+
+	@Override
+	@Timed("minhasfinancas.servico")
+	@Transactional(readOnly = true)
+	public PaginaLancamentoDTO buscar(Lancamento lancamentoFiltro, String cursor, Integer limite) {
+		int tamanho = limite == null ? LIMITE_PADRAO : limite;
+		
+		if(tamanho < 1) {
+			throw new RegraNegocioException("Informe um limite válido!");
+		}
+		
+		tamanho = Math.min(tamanho, LIMITE_MAXIMO);
+		
+		shardService.usarShardDoUsuario(lancamentoFiltro.getUsuario().getId());
+		consistenciaLeituraService.lerDoUsuario(lancamentoFiltro.getUsuario().getId());
+		long[] posicao = decodificarCursor(cursor);
 		
-		return repository.findAll(example);
+		List<LancamentoProjecao> lancamentos = repository.buscarAposCursor(
+				lancamentoFiltro.getUsuario().getId(), 
+				Lancamento.padraoDescricao(lancamentoFiltro.getDescricao()), 
+				lancamentoFiltro.getMes(), 
+				lancamentoFiltro.getAno(), 
+				(int) posicao[0], 
+				(int) posicao[1], 
+				posicao[2], 
+				PageRequest.of(0, tamanho + 1));
+		
+		String proximo = null;
+		
+		if(lancamentos.size() > tamanho) {
+			lancamentos = lancamentos.subList(0, tamanho);
+			proximo = codificarCursor(lancamentos.get(tamanho - 1));
+		}
+		
+		return new PaginaLancamentoDTO(lancamentos, proximo);
+	}
+	
+	@Override
+	@Timed("minhasfinancas.servico")
+	@Transactional(readOnly = true)
+	public void exportar(Long idUsuario, Consumer<LancamentoProjecao> consumidor) {
+		shardService.usarShardDoUsuario(idUsuario);
+		consistenciaLeituraService.lerDoUsuario(idUsuario);
+		
+		try (Stream<LancamentoProjecao> lancamentos = repository.percorrerProjecoesPorUsuario(idUsuario)) {
+			lancamentos.forEach(consumidor);
+		}
+	}
+	
+	private String codificarCursor(LancamentoProjecao ultimo) {
+		String posicao = ultimo.getAno() + ":" + ultimo.getMes() + ":" + ultimo.getId();
+		
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(posicao.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private long[] decodificarCursor(String cursor) {
+		if(cursor == null || cursor.trim().equals("")) {
+			return new long[] { 0, 0, 0 };
+		}
+		
+		try {
+			String posicao = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] partes = posicao.split(":");
+			
+			if(partes.length != 3) {
+				throw new RegraNegocioException("Cursor inválido!");
+			}
+			
+			return new long[] { Integer.parseInt(partes[0]), Integer.parseInt(partes[1]), Long.parseLong(partes[2]) };
+			
+		} catch (IllegalArgumentException e) {
+			throw new RegraNegocioException("Cursor inválido!");
+		}
 	}
 
 	@Override
+	@Timed("minhasfinancas.servico")
+	@Transactional
 	public void atualizarStatus(Lancamento lancamento, StatusLancamento status) {
-		lancamento.setStatus(status);
-		atualizar(lancamento);
+		Objects.requireNonNull(lancamento.getId());
+		
+		LancamentoProjecao atualizado = atualizarStatus(lancamento.getId(), 
+				lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId(), status, lancamento.getVersao());
+		lancamento.setStatus(atualizado.getStatus());
+		lancamento.setVersao(atualizado.getVersao());
+	}
+	
+	@Override
+	@Timed("minhasfinancas.servico")
+	@Transactional
+	public LancamentoProjecao atualizarStatus(Long id, Long idUsuario, StatusLancamento status, Long versaoEsperada) {
+		if(status == null) {
+			throw new RegraNegocioException("Informe um status válido!");
+		}
+		
+		shardService.usarShardDoDono(idUsuario);
+		
+		for (int tentativa = 1; ; tentativa++) {
+			LancamentoProjecao anterior = repository.obterProjecaoPersistida(id, idUsuario)
+					.orElseThrow( () -> naoEncontradoOuNegado(id, idUsuario));
+			
+			if(versaoEsperada != null && !versaoEsperada.equals(anterior.getVersao())) {
+				throw new ConflitoVersaoException(MENSAGEM_CONFLITO);
+			}
+			
+			if(repository.compararEAtualizarStatus(id, idUsuario, anterior.getStatus(), status, anterior.getVersao()) == 1) {
+				LancamentoProjecao atual = anterior.comStatus(status);
+				registrarAlteracoes(Collections.singletonList(anterior), Collections.singletonList(atual));
+				
+				return atual;
+			}
+			
+			if(versaoEsperada != null || tentativa == TENTATIVAS_ATUALIZAR_STATUS) {
+				throw new ConflitoVersaoException(MENSAGEM_CONFLITO);
+			}
+		}
+	}
+	
+	@Override
+	@Timed("minhasfinancas.servico")
+	@Transactional
+	public int atualizarStatusEmLote(Lancamento filtro, Collection<Long> ids, StatusLancamento status) {
+		if(filtro.getUsuario() == null || filtro.getUsuario().getId() == null) {
+			throw new RegraNegocioException("Informe um usuário válido!");
+		}
+		
+		if(status == null) {
+			throw new RegraNegocioException("Informe um status válido!");
+		}
+		
+		if((ids == null || ids.isEmpty()) && filtro.getAno() == null && filtro.getMes() == null) {
+			throw new RegraNegocioException("Informe os ids, o ano ou o mês dos lançamentos a atualizar!");
+		}
+		
+		shardService.usarShardDoUsuario(filtro.getUsuario().getId());
+		List<LancamentoProjecao> anteriores = repository.bloquearParaAtualizarStatus(filtro, ids, status);
+		
+		if(anteriores.isEmpty()) {
+			return 0;
+		}
+		
+		List<Long> idsBloqueados = anteriores.stream().map(LancamentoProjecao::getId).collect(Collectors.toList());
+		int atualizados = repository.atualizarStatus(idsBloqueados, status);
+		
+		List<LancamentoProjecao> atuais = anteriores.stream()
+				.map(anterior -> anterior.comStatus(status))
+				.collect(Collectors.toList());
+		registrarAlteracoes(anteriores, atuais);
 		
+		return atualizados;
 	}
 
 	@Override
+	@Timed("minhasfinancas.servico")
 	public void validar(Lancamento lancamento) {
 		
 		if(lancamento.getDescricao() == null || lancamento.getDescricao().trim().equals("")) {
@@ -103,26 +499,120 @@ public class LancamentoServiceImpl implements LancamentoService {
 	}
 
 	@Override
-	public Optional<Lancamento> obterPorId(Long id) {
-		
-		return repository.findById(id);
+	@Timed("minhasfinancas.servico")
+	@Transactional(readOnly = true)
+	public Optional<Lancamento> obterPorId(Long id, Long idUsuario) {
+		shardService.usarShardDoDono(idUsuario);
+		return repository.obterComUsuario(id);
 	}
 
 	@Override
+	@Timed("minhasfinancas.servico")
 	@Transactional(readOnly = true)
 	public BigDecimal obterSaldoPorUsuario(Long id) {
-		BigDecimal receitas = repository.obterSaldoPorUsuarioETipo(id, TipoLancamento.RECEITA);
-		BigDecimal despesas = repository.obterSaldoPorUsuarioETipo(id, TipoLancamento.DESPESA);
+		shardService.usarShardDoUsuario(id);
+		consistenciaLeituraService.lerDoUsuario(id);
+		return saldoUsuarioService.obterSaldo(id);
+	}
+
+	@Override
+	@Timed("minhasfinancas.servico")
+	@Transactional(readOnly = true)
+	public long obterGeracao(Long idUsuario) {
+		shardService.usarShardDoUsuario(idUsuario);
+		consistenciaLeituraService.lerDoUsuario(idUsuario);
+		return saldoUsuarioService.obterGeracao(idUsuario);
+	}
+	
+	private void registrarAlteracoes(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos) {
+		saldoUsuarioService.registrarAlteracoes(removidos, incluidos);
+		resumoMensalService.registrarAlteracoes(removidos, incluidos);
+		indiceDescricaoService.registrarAlteracoes(removidos, incluidos);
+		duplicidadeService.registrarAlteracoes(removidos, incluidos);
+		consistenciaLeituraService.registrarAlteracoes(removidos, incluidos);
+		painelService.registrarAlteracoes(removidos, incluidos);
+	}
+	
+	/**
+	 * Bloqueia os usuários do lote, em ordem de id, e consulta por usuário em blocos de {@value #LIMITE_MAXIMO}
+	 * as impressões e chaves já gravadas. Com a impressão, a posição é recusada quando já há tantos
+	 * lançamentos iguais, gravados ou aceitos antes no lote, quanto a sua ocorrência.
+	 */
+	private Set<Integer> buscarJaGravados(List<Lancamento> lancamentos, Map<Long, Map<Long, List<Integer>>> impressoesPorUsuario, 
+			Map<Long, Map<String, Integer>> chavesPorUsuario) {
+		Set<Long> usuarios = new TreeSet<>(impressoesPorUsuario.keySet());
+		usuarios.addAll(chavesPorUsuario.keySet());
+		usuarios.forEach(repository::bloquearUsuario);
 		
-		if(receitas == null) {
-			receitas = BigDecimal.ZERO;
+		Set<Integer> jaGravados = new HashSet<>();
+		
+		for (Map.Entry<Long, Map<Long, List<Integer>>> usuario : impressoesPorUsuario.entrySet()) {
+			Map<Long, Integer> gravadas = new HashMap<>();
+			for (List<Long> bloco : blocos(usuario.getValue().keySet())) {
+				for (Long existente : repository.buscarImpressoesExistentes(usuario.getKey(), bloco)) {
+					gravadas.merge(existente, 1, Integer::sum);
+				}
+			}
+			
+			for (Map.Entry<Long, List<Integer>> impressao : usuario.getValue().entrySet()) {
+				int iguais = gravadas.getOrDefault(impressao.getKey(), 0);
+				
+				for (Integer posicao : impressao.getValue()) {
+					if(iguais >= lancamentos.get(posicao).getOcorrencia()) {
+						jaGravados.add(posicao);
+					} else {
+						iguais++;
+					}
+				}
+			}
 		}
 		
-		if(despesas == null) {
-			despesas = BigDecimal.ZERO;
+		for (Map.Entry<Long, Map<String, Integer>> usuario : chavesPorUsuario.entrySet()) {
+			for (List<String> bloco : blocos(usuario.getValue().keySet())) {
+				for (String existente : repository.buscarChavesExistentes(usuario.getKey(), bloco)) {
+					jaGravados.add(usuario.getValue().get(existente));
+				}
+			}
 		}
-
-		return receitas.subtract(despesas);
+		
+		return jaGravados;
+	}
+	
+	private <T> List<List<T>> blocos(Collection<T> valores) {
+		List<T> lista = new ArrayList<>(valores);
+		List<List<T>> blocos = new ArrayList<>();
+		
+		for (int inicio = 0; inicio < lista.size(); inicio += LIMITE_MAXIMO) {
+			blocos.add(lista.subList(inicio, Math.min(lista.size(), inicio + LIMITE_MAXIMO)));
+		}
+		
+		return blocos;
+	}
+	
+	private RuntimeException duplicidadeOu(DataIntegrityViolationException e) {
+		String mensagem = e.getMostSpecificCause().getMessage();
+		
+		if(mensagem != null && mensagem.toLowerCase().contains(Lancamento.INDICE_CHAVE_IDEMPOTENCIA)) {
+			return new LancamentoDuplicadoException(MENSAGEM_CHAVE_REPETIDA);
+		}
+		
+		return e;
+	}
+	
+	/**
+	 * Só quando a consulta filtrada pelo usuário não achou o lançamento: confere se ele existe para
+	 * responder que é de outro usuário em vez de que não existe.
+	 */
+	private RuntimeException naoEncontradoOuNegado(Long id, Long idUsuario) {
+		if(idUsuario != null && repository.existsById(id)) {
+			return new AcessoNegadoException(MENSAGEM_OUTRO_USUARIO);
+		}
+		
+		return new RegraNegocioException(MENSAGEM_NAO_ENCONTRADO);
+	}
+	
+	private List<LancamentoProjecao> listaDe(Optional<LancamentoProjecao> projecao) {
+		return projecao.map(Collections::singletonList).orElse(Collections.emptyList());
 	}
 
 }
@@ -0,0 +1,22 @@
+package com.app.minhasfinancas.service.impl;
+
+import java.io.Reader;
+
+import com.app.minhasfinancas.model.enums.FormatoExtrato;
+
+interface LeitorExtrato {
+
+	/**
+	 * @return a próxima transação do extrato ou {@code null} ao final
+	 */
+	TransacaoExtrato proxima();
+	
+	static LeitorExtrato para(FormatoExtrato formato, Reader extrato) {
+		switch (formato) {
+			case OFX:
+				return new LeitorExtratoOfx(extrato);
+			default:
+				return new LeitorExtratoCsv(extrato);
+		}
+	}
+}
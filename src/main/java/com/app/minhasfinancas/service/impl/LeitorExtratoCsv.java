@@ -0,0 +1,146 @@
+package com.app.minhasfinancas.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lê um extrato CSV linha a linha. O separador ({@code ;} ou {@code ,}) é deduzido da primeira
+ * linha; se ela não tiver dígitos é tratada como cabeçalho e define as colunas de data, descrição
+ * e valor, senão as colunas são lidas nessa ordem. Linhas com mais de {@value #TAMANHO_MAXIMO_LINHA}
+ * caracteres são descartadas sem guardar o excedente e rejeitadas.
+ */
+class LeitorExtratoCsv implements LeitorExtrato {
+
+	static final int TAMANHO_MAXIMO_LINHA = 4096;
+
+	private final BufferedReader leitor;
+	private final StringBuilder lida = new StringBuilder();
+	private boolean linhaLonga;
+	private int linha;
+	private char separador;
+	private int colunaData = 0;
+	private int colunaDescricao = 1;
+	private int colunaValor = 2;
+
+	LeitorExtratoCsv(Reader extrato) {
+		this.leitor = new BufferedReader(extrato);
+	}
+
+	@Override
+	public TransacaoExtrato proxima() {
+		String conteudo;
+		while((conteudo = lerLinha()) != null) {
+			linha++;
+
+			if(linhaLonga) {
+				return TransacaoExtrato.rejeitada(linha, "Linha maior que " + TAMANHO_MAXIMO_LINHA + " caracteres!");
+			}
+
+			if(conteudo.trim().isEmpty()) {
+				continue;
+			}
+
+			if(separador == 0) {
+				separador = conteudo.indexOf(';') >= 0 ? ';' : ',';
+
+				if(!conteudo.chars().anyMatch(Character::isDigit)) {
+					lerCabecalho(separar(conteudo));
+					continue;
+				}
+			}
+
+			List<String> campos = separar(conteudo);
+			return new TransacaoExtrato(linha, campo(campos, colunaData), campo(campos, colunaDescricao), campo(campos, colunaValor));
+		}
+
+		return null;
+	}
+
+	private void lerCabecalho(List<String> colunas) {
+		for (int i = 0; i < colunas.size(); i++) {
+			String coluna = Normalizer.normalize(colunas.get(i), Normalizer.Form.NFD)
+					.replaceAll("\\p{M}", "").trim().toLowerCase();
+
+			if(coluna.startsWith("data") || coluna.equals("date")) {
+				colunaData = i;
+
+			} else if(coluna.startsWith("descricao") || coluna.startsWith("historico")
+					|| coluna.equals("description") || coluna.equals("memo")) {
+				colunaDescricao = i;
+
+			} else if(coluna.startsWith("valor") || coluna.equals("amount") || coluna.equals("value")) {
+				colunaValor = i;
+			}
+		}
+	}
+
+	private List<String> separar(String conteudo) {
+		List<String> campos = new ArrayList<>();
+		StringBuilder campo = new StringBuilder();
+		boolean entreAspas = false;
+
+		for (int i = 0; i < conteudo.length(); i++) {
+			char c = conteudo.charAt(i);
+
+			if(c == '"') {
+				if(entreAspas && i + 1 < conteudo.length() && conteudo.charAt(i + 1) == '"') {
+					campo.append('"');
+					i++;
+				} else {
+					entreAspas = !entreAspas;
+				}
+
+			} else if(c == separador && !entreAspas) {
+				campos.add(campo.toString());
+				campo.setLength(0);
+
+			} else {
+				campo.append(c);
+			}
+		}
+		campos.add(campo.toString());
+
+		return campos;
+	}
+
+	private String campo(List<String> campos, int coluna) {
+		return coluna < campos.size() ? campos.get(coluna).trim() : null;
+	}
+
+	/**
+	 * Como {@link BufferedReader#readLine()}, mas guarda no máximo {@link #TAMANHO_MAXIMO_LINHA} caracteres.
+	 */
+	private String lerLinha() {
+		lida.setLength(0);
+		linhaLonga = false;
+
+		try {
+			int c;
+			while((c = leitor.read()) != -1 && c != '\n' && c != '\r') {
+				if(lida.length() < TAMANHO_MAXIMO_LINHA) {
+					lida.append((char) c);
+				} else {
+					linhaLonga = true;
+				}
+			}
+
+			if(c == '\r') {
+				leitor.mark(1);
+				if(leitor.read() != '\n') {
+					leitor.reset();
+				}
+			}
+
+			return c == -1 && lida.length() == 0 && !linhaLonga ? null : lida.toString();
+
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+package com.app.minhasfinancas.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * Lê as transações ({@code STMTTRN}) de um extrato OFX tag a tag, sem montar o documento. Aceita
+ * tanto o OFX 1.x em SGML, com tags sem fechamento e tudo numa linha só, quanto o OFX 2.x em XML.
+ * A linha informada é a da abertura da transação.
+ */
+class LeitorExtratoOfx implements LeitorExtrato {
+
+	private static final int TAMANHO_MAXIMO_VALOR = 1000;
+
+	private final BufferedReader leitor;
+	private int linha = 1;
+	private boolean fim;
+
+	LeitorExtratoOfx(Reader extrato) {
+		this.leitor = new BufferedReader(extrato);
+	}
+
+	@Override
+	public TransacaoExtrato proxima() {
+		int inicio = 0;
+		String data = null;
+		String valor = null;
+		String memo = null;
+		String nome = null;
+
+		String tag;
+		while((tag = lerTag()) != null) {
+			if(tag.equals("STMTTRN")) {
+				inicio = linha;
+				data = valor = memo = nome = null;
+				continue;
+			}
+
+			if(tag.equals("/STMTTRN") && inicio > 0) {
+				return new TransacaoExtrato(inicio, data, memo != null && !memo.isEmpty() ? memo : nome, valor);
+			}
+
+			if(inicio == 0 || tag.startsWith("/")) {
+				continue;
+			}
+
+			switch (tag) {
+				case "DTPOSTED":
+					data = lerValor();
+					break;
+				case "TRNAMT":
+					valor = lerValor();
+					break;
+				case "MEMO":
+					memo = lerValor();
+					break;
+				case "NAME":
+					nome = lerValor();
+					break;
+				default:
+					break;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Avança até a próxima tag e devolve o seu nome em maiúsculas, deixando o leitor logo após o {@code >}.
+	 */
+	private String lerTag() {
+		int c;
+		while((c = ler()) != -1 && c != '<') {
+		}
+
+		if(c == -1) {
+			return null;
+		}
+
+		StringBuilder tag = new StringBuilder();
+		while((c = ler()) != -1 && c != '>') {
+			if(tag.length() < TAMANHO_MAXIMO_VALOR) {
+				tag.append((char) c);
+			}
+		}
+
+		return tag.toString().trim().toUpperCase();
+	}
+
+	/**
+	 * Lê o texto até a próxima tag sem consumi-la. Valores maiores que o limite são truncados.
+	 */
+	private String lerValor() {
+		StringBuilder valor = new StringBuilder();
+		int c;
+
+		try {
+			leitor.mark(1);
+			while((c = ler()) != -1 && c != '<') {
+				if(valor.length() < TAMANHO_MAXIMO_VALOR) {
+					valor.append((char) c);
+				}
+				leitor.mark(1);
+			}
+
+			if(c == '<') {
+				leitor.reset();
+			}
+
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return valor.toString().trim()
+				.replace("&lt;", "<")
+				.replace("&gt;", ">")
+				.replace("&amp;", "&");
+	}
+
+	private int ler() {
+		if(fim) {
+			return -1;
+		}
+
+		try {
+			int c = leitor.read();
+			if(c == -1) {
+				fim = true;
+
+			} else if(c == '\n') {
+				linha++;
+			}
+
+			return c;
+
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
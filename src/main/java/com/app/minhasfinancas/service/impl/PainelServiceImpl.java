@@ -0,0 +1,458 @@
+package com.app.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import com.app.minhasfinancas.dto.PainelDTO;
+import com.app.minhasfinancas.dto.PontoPainelDTO;
+import com.app.minhasfinancas.exception.RegraNegocioException;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+import com.app.minhasfinancas.model.repository.LancamentoRepository;
+import com.app.minhasfinancas.service.PainelService;
+import com.app.minhasfinancas.service.ShardService;
+
+/**
+ * Responde o painel a partir de um livro colunar por usuário, mantido em memória: id, valor em centavos,
+ * ano * 100 + mês, tipo e status de cada lançamento em vetores primitivos. Totais, filtros e série mensal
+ * são laços sobre esses vetores, sem consultar o banco nem montar {@code BigDecimal} por linha.
+ * <p>
+ * O livro é carregado do primário na primeira consulta do usuário e depois acompanha as gravações do
+ * {@link LancamentoServiceImpl}, aplicadas após o commit. Como só vê as gravações desta instância, é
+ * relido quando passa de {@code minhasfinancas.painel.expiracao-ms}. Quando o total dos livros passa de
+ * {@code minhasfinancas.painel.memoria-maxima}, os menos usados são descartados.
+ */
+@Service
+public class PainelServiceImpl implements PainelService {
+
+	// id, centavos, ano e mês, tipo e status
+	static final int BYTES_POR_LINHA = 8 + 8 + 4 + 1 + 1;
+	// id e posição no índice
+	static final int BYTES_POR_POSICAO = 8 + 4;
+	// cabeçalhos dos vetores e entrada no mapa, aproximados
+	static final int BYTES_POR_LIVRO = 256;
+
+	private static final int CAPACIDADE_INICIAL = 16;
+	private static final byte NENHUM = -1;
+
+	private LancamentoRepository repository;
+	private ShardService shardService;
+	private long memoriaMaxima;
+	private long expiracaoMs;
+
+	// em ordem de acesso; o lock deste mapa também protege memoriaUsada e LivroUsuario.contabilizado
+	private final Map<Long, LivroUsuario> livros = new LinkedHashMap<>(16, 0.75f, true);
+	private long memoriaUsada;
+
+	public PainelServiceImpl(LancamentoRepository repository, ShardService shardService,
+			@Value("${minhasfinancas.painel.memoria-maxima:64MB}") DataSize memoriaMaxima,
+			@Value("${minhasfinancas.painel.expiracao-ms:60000}") long expiracaoMs) {
+		this.repository = repository;
+		this.shardService = shardService;
+		this.memoriaMaxima = memoriaMaxima.toBytes();
+		this.expiracaoMs = expiracaoMs;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PainelDTO obterPainel(Long idUsuario, Integer ano, TipoLancamento tipo, StatusLancamento status) {
+		if(ano != null && ano.toString().length() != 4) {
+			throw new RegraNegocioException("Informe um ano válido!");
+		}
+
+		return obterLivro(idUsuario).resumir(ano, tipo, status);
+	}
+
+	@Override
+	public void registrarAlteracoes(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos) {
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			aplicar(removidos, incluidos);
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				aplicar(removidos, incluidos);
+			}
+		});
+	}
+
+	private LivroUsuario obterLivro(Long idUsuario) {
+		long agora = System.currentTimeMillis();
+		LivroUsuario livro;
+		synchronized (livros) {
+			livro = livros.get(idUsuario);
+			if(livro == null || livro.expirado(agora - expiracaoMs)) {
+				if(livro != null) {
+					memoriaUsada -= livro.contabilizado;
+				}
+				livro = new LivroUsuario(idUsuario);
+				livros.put(idUsuario, livro);
+			}
+		}
+
+		if(livro.carregado()) {
+			return livro;
+		}
+
+		// sem liberar a réplica, a leitura vai ao primário e já vê todas as gravações confirmadas
+		shardService.usarShardDoUsuario(idUsuario);
+		Colunas colunas = new Colunas();
+
+		try (Stream<LancamentoProjecao> lancamentos = repository.percorrerProjecoesPorUsuario(idUsuario)) {
+			lancamentos.forEach(colunas::adicionar);
+
+		} catch (RuntimeException e) {
+			synchronized (livros) {
+				if(livros.remove(idUsuario, livro)) {
+					memoriaUsada -= livro.contabilizado;
+				}
+			}
+			throw e;
+		}
+
+		livro.instalar(colunas, agora);
+		contabilizar(livro);
+
+		return livro;
+	}
+
+	/**
+	 * Só atualiza os livros já em memória; os demais são lidos do banco quando consultados.
+	 */
+	private void aplicar(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos) {
+		Map<Long, List<LancamentoProjecao>> removidosPorUsuario = agruparPorUsuario(removidos);
+		Map<Long, List<LancamentoProjecao>> incluidosPorUsuario = agruparPorUsuario(incluidos);
+
+		Set<Long> usuarios = new HashSet<>(removidosPorUsuario.keySet());
+		usuarios.addAll(incluidosPorUsuario.keySet());
+
+		for (Long idUsuario : usuarios) {
+			LivroUsuario livro;
+			synchronized (livros) {
+				livro = livros.get(idUsuario);
+			}
+
+			if(livro != null) {
+				livro.aplicar(removidosPorUsuario.getOrDefault(idUsuario, Collections.emptyList()),
+						incluidosPorUsuario.getOrDefault(idUsuario, Collections.emptyList()));
+				contabilizar(livro);
+			}
+		}
+	}
+
+	private Map<Long, List<LancamentoProjecao>> agruparPorUsuario(Collection<LancamentoProjecao> lancamentos) {
+		return lancamentos.stream()
+				.filter(lancamento -> lancamento.getUsuario() != null && lancamento.getId() != null)
+				.collect(Collectors.groupingBy(LancamentoProjecao::getUsuario));
+	}
+
+	/**
+	 * Atualiza o tamanho do livro no total e descarta os menos usados enquanto o total passar do limite,
+	 * inclusive o próprio livro se ele sozinho não couber.
+	 */
+	private void contabilizar(LivroUsuario livro) {
+		long bytes = livro.bytes();
+
+		synchronized (livros) {
+			if(livros.get(livro.idUsuario) != livro) {
+				return;
+			}
+
+			memoriaUsada += bytes - livro.contabilizado;
+			livro.contabilizado = bytes;
+
+			Iterator<LivroUsuario> menosUsados = livros.values().iterator();
+			while(memoriaUsada > memoriaMaxima && menosUsados.hasNext()) {
+				memoriaUsada -= menosUsados.next().contabilizado;
+				menosUsados.remove();
+			}
+		}
+	}
+
+	/**
+	 * Enquanto o livro é lido do banco, as alterações confirmadas ficam pendentes e são reaplicadas sobre
+	 * a leitura. Incluir e remover pelo id são idempotentes, então tanto faz se a leitura já as viu.
+	 */
+	private static class LivroUsuario {
+
+		private final Long idUsuario;
+		private Colunas colunas;
+		private List<Consumer<Colunas>> pendentes = new ArrayList<>();
+		private long contabilizado;
+		// zero enquanto não carregado
+		private volatile long carregadoEm;
+
+		LivroUsuario(Long idUsuario) {
+			this.idUsuario = idUsuario;
+		}
+
+		synchronized boolean carregado() {
+			return colunas != null;
+		}
+
+		boolean expirado(long limite) {
+			long instante = carregadoEm;
+			return instante != 0 && instante < limite;
+		}
+
+		synchronized void instalar(Colunas lidas, long instante) {
+			if(colunas != null) {
+				return;
+			}
+
+			colunas = lidas;
+			carregadoEm = instante;
+			pendentes.forEach(pendente -> pendente.accept(lidas));
+			pendentes = null;
+		}
+
+		synchronized void aplicar(List<LancamentoProjecao> removidos, List<LancamentoProjecao> incluidos) {
+			if(colunas == null) {
+				pendentes.add(lidas -> lidas.aplicar(removidos, incluidos));
+				return;
+			}
+
+			colunas.aplicar(removidos, incluidos);
+		}
+
+		synchronized long bytes() {
+			return BYTES_POR_LIVRO + (colunas == null ? 0 : colunas.bytes());
+		}
+
+		synchronized PainelDTO resumir(Integer ano, TipoLancamento tipo, StatusLancamento status) {
+			return colunas.resumir(ano, tipo, status);
+		}
+	}
+
+	/**
+	 * Uma posição por lançamento, sem ordem; a remoção move o último para a vaga. A posição de cada id fica
+	 * num índice de endereçamento aberto com sondagem linear, em vetores primitivos, com ao menos o dobro
+	 * de entradas que de linhas; a chave zero marca entrada livre, já que os ids começam em um.
+	 */
+	static class Colunas {
+
+		private long[] ids = new long[CAPACIDADE_INICIAL];
+		private long[] centavos = new long[CAPACIDADE_INICIAL];
+		private int[] anosMeses = new int[CAPACIDADE_INICIAL];
+		private byte[] tipos = new byte[CAPACIDADE_INICIAL];
+		private byte[] status = new byte[CAPACIDADE_INICIAL];
+		private int tamanho;
+		private long[] chaves = new long[CAPACIDADE_INICIAL * 2];
+		private int[] posicoes = new int[CAPACIDADE_INICIAL * 2];
+
+		long bytes() {
+			return ids.length * (long) BYTES_POR_LINHA + chaves.length * (long) BYTES_POR_POSICAO;
+		}
+
+		void aplicar(List<LancamentoProjecao> removidos, List<LancamentoProjecao> incluidos) {
+			for (LancamentoProjecao removido : removidos) {
+				remover(removido.getId());
+			}
+
+			for (LancamentoProjecao incluido : incluidos) {
+				remover(incluido.getId());
+				adicionar(incluido);
+			}
+		}
+
+		void adicionar(LancamentoProjecao lancamento) {
+			if(tamanho == ids.length) {
+				int capacidade = ids.length + (ids.length >> 1);
+				ids = Arrays.copyOf(ids, capacidade);
+				centavos = Arrays.copyOf(centavos, capacidade);
+				anosMeses = Arrays.copyOf(anosMeses, capacidade);
+				tipos = Arrays.copyOf(tipos, capacidade);
+				status = Arrays.copyOf(status, capacidade);
+			}
+
+			if((tamanho + 1) * 2 > chaves.length) {
+				reindexar(chaves.length * 2);
+			}
+
+			ids[tamanho] = lancamento.getId();
+			centavos[tamanho] = lancamento.getValor() == null ? 0
+					: lancamento.getValor().setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+			anosMeses[tamanho] = lancamento.getAno() == null || lancamento.getMes() == null ? 0
+					: lancamento.getAno() * 100 + lancamento.getMes();
+			tipos[tamanho] = lancamento.getTipo() == null ? NENHUM : (byte) lancamento.getTipo().ordinal();
+			status[tamanho] = lancamento.getStatus() == null ? NENHUM : (byte) lancamento.getStatus().ordinal();
+			indexar(ids[tamanho], tamanho);
+			tamanho++;
+		}
+
+		void remover(long id) {
+			int entrada = localizar(id);
+			if(chaves[entrada] == 0) {
+				return;
+			}
+
+			int i = posicoes[entrada];
+			desindexar(entrada);
+			tamanho--;
+
+			if(i != tamanho) {
+				ids[i] = ids[tamanho];
+				centavos[i] = centavos[tamanho];
+				anosMeses[i] = anosMeses[tamanho];
+				tipos[i] = tipos[tamanho];
+				status[i] = status[tamanho];
+				posicoes[localizar(ids[i])] = i;
+			}
+		}
+
+		/**
+		 * A entrada do id, ou a entrada livre onde ele seria incluído.
+		 */
+		private int localizar(long id) {
+			int mascara = chaves.length - 1;
+			int entrada = ideal(id, mascara);
+			while(chaves[entrada] != 0 && chaves[entrada] != id) {
+				entrada = (entrada + 1) & mascara;
+			}
+			return entrada;
+		}
+
+		private void indexar(long id, int posicao) {
+			int entrada = localizar(id);
+			chaves[entrada] = id;
+			posicoes[entrada] = posicao;
+		}
+
+		/**
+		 * Libera a entrada e traz para trás as seguintes da mesma sequência que ficariam inalcançáveis,
+		 * para que a busca possa parar na primeira entrada livre.
+		 */
+		private void desindexar(int entrada) {
+			int mascara = chaves.length - 1;
+			int livre = entrada;
+			int seguinte = (livre + 1) & mascara;
+
+			while(chaves[seguinte] != 0) {
+				int ideal = ideal(chaves[seguinte], mascara);
+				if(((seguinte - ideal) & mascara) >= ((seguinte - livre) & mascara)) {
+					chaves[livre] = chaves[seguinte];
+					posicoes[livre] = posicoes[seguinte];
+					livre = seguinte;
+				}
+				seguinte = (seguinte + 1) & mascara;
+			}
+
+			chaves[livre] = 0;
+		}
+
+		private void reindexar(int capacidade) {
+			chaves = new long[capacidade];
+			posicoes = new int[capacidade];
+			for (int i = 0; i < tamanho; i++) {
+				indexar(ids[i], i);
+			}
+		}
+
+		private static int ideal(long id, int mascara) {
+			return Long.hashCode(id * 0x9E3779B97F4A7C15L) & mascara;
+		}
+
+		/**
+		 * Com o ano, a série tem os doze meses; sem ele, vai do primeiro ao último mês com lançamento.
+		 */
+		PainelDTO resumir(Integer ano, TipoLancamento tipo, StatusLancamento statusFiltro) {
+			int de = ano == null ? Integer.MIN_VALUE : ano * 100 + 1;
+			int ate = ano == null ? Integer.MAX_VALUE : ano * 100 + 12;
+			byte tipoFiltrado = tipo == null ? NENHUM : (byte) tipo.ordinal();
+			byte statusFiltrado = statusFiltro == null ? NENHUM : (byte) statusFiltro.ordinal();
+			byte receita = (byte) TipoLancamento.RECEITA.ordinal();
+			byte despesa = (byte) TipoLancamento.DESPESA.ordinal();
+
+			long receitas = 0;
+			long despesas = 0;
+			int quantidade = 0;
+			int primeiro = Integer.MAX_VALUE;
+			int ultimo = Integer.MIN_VALUE;
+
+			for (int i = 0; i < tamanho; i++) {
+				if(!selecionado(i, de, ate, tipoFiltrado, statusFiltrado)) {
+					continue;
+				}
+
+				quantidade++;
+				if(tipos[i] == receita) {
+					receitas += centavos[i];
+				} else if(tipos[i] == despesa) {
+					despesas += centavos[i];
+				}
+
+				int mes = indiceMes(anosMeses[i]);
+				primeiro = Math.min(primeiro, mes);
+				ultimo = Math.max(ultimo, mes);
+			}
+
+			if(ano != null) {
+				primeiro = indiceMes(de);
+				ultimo = indiceMes(ate);
+			}
+
+			if(primeiro > ultimo) {
+				return new PainelDTO(BigDecimal.ZERO, BigDecimal.ZERO, 0, Collections.emptyList());
+			}
+
+			long[] receitasMes = new long[ultimo - primeiro + 1];
+			long[] despesasMes = new long[ultimo - primeiro + 1];
+
+			for (int i = 0; i < tamanho; i++) {
+				if(!selecionado(i, de, ate, tipoFiltrado, statusFiltrado)) {
+					continue;
+				}
+
+				int posicao = indiceMes(anosMeses[i]) - primeiro;
+				if(tipos[i] == receita) {
+					receitasMes[posicao] += centavos[i];
+				} else if(tipos[i] == despesa) {
+					despesasMes[posicao] += centavos[i];
+				}
+			}
+
+			List<PontoPainelDTO> serie = new ArrayList<>(receitasMes.length);
+			for (int posicao = 0; posicao < receitasMes.length; posicao++) {
+				int mes = primeiro + posicao;
+				serie.add(new PontoPainelDTO(mes / 12, mes % 12 + 1,
+						BigDecimal.valueOf(receitasMes[posicao], 2), BigDecimal.valueOf(despesasMes[posicao], 2)));
+			}
+
+			return new PainelDTO(BigDecimal.valueOf(receitas, 2), BigDecimal.valueOf(despesas, 2), quantidade, serie);
+		}
+
+		private boolean selecionado(int i, int de, int ate, byte tipo, byte statusFiltro) {
+			return anosMeses[i] >= de && anosMeses[i] <= ate
+					&& (tipo == NENHUM || tipos[i] == tipo)
+					&& (statusFiltro == NENHUM || status[i] == statusFiltro);
+		}
+
+		private static int indiceMes(int anoMes) {
+			return (anoMes / 100) * 12 + anoMes % 100 - 1;
+		}
+	}
+
+}
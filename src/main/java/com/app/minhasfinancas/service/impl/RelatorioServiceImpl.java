@@ -0,0 +1,181 @@
+package com.app.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.minhasfinancas.dto.RelatorioAnualDTO;
+import com.app.minhasfinancas.dto.RelatorioMensalDTO;
+import com.app.minhasfinancas.exception.RegraNegocioException;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+import com.app.minhasfinancas.model.repository.LancamentoRepository;
+import com.app.minhasfinancas.service.ConsistenciaLeituraService;
+import com.app.minhasfinancas.service.RelatorioService;
+import com.app.minhasfinancas.service.ShardService;
+
+/**
+ * Monta o relatório anual com um ramo por mês, cada um na sua transação somente leitura, executados
+ * em paralelo num pool de {@code minhasfinancas.relatorio.threads} (0 usa um por núcleo). Com a fila
+ * cheia, a própria requisição executa o ramo. O saldo acumulado parte do saldo dos anos anteriores,
+ * consultado num ramo à parte, e ele e os totais do ano saem da junção, feita na ordem dos meses.
+ */
+@Service
+public class RelatorioServiceImpl implements RelatorioService, DisposableBean {
+
+	static final int MAIORES_DESPESAS = 5;
+
+	private static final Comparator<LancamentoProjecao> MAIOR_VALOR = Comparator
+			.comparing(LancamentoProjecao::getValor, Comparator.reverseOrder())
+			.thenComparing(LancamentoProjecao::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+	private LancamentoRepository repository;
+	private ShardService shardService;
+	private ConsistenciaLeituraService consistenciaLeituraService;
+	private TransactionTemplate transacao;
+	private ThreadPoolExecutor executor;
+
+	public RelatorioServiceImpl(LancamentoRepository repository, ShardService shardService,
+			ConsistenciaLeituraService consistenciaLeituraService, PlatformTransactionManager transactionManager,
+			@Value("${minhasfinancas.relatorio.threads:0}") int threads,
+			@Value("${minhasfinancas.relatorio.capacidade-fila:1000}") int capacidadeFila) {
+		this.repository = repository;
+		this.shardService = shardService;
+		this.consistenciaLeituraService = consistenciaLeituraService;
+		this.transacao = new TransactionTemplate(transactionManager);
+		this.transacao.setReadOnly(true);
+
+		int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		AtomicInteger contador = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(tamanho, tamanho, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(capacidadeFila),
+				tarefa -> {
+					Thread thread = new Thread(tarefa, "relatorio-" + contador.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+	@Override
+	public RelatorioAnualDTO gerarRelatorioAnual(Long idUsuario, Integer ano) {
+		if(ano == null || ano.toString().length() != 4) {
+			throw new RegraNegocioException("Informe um ano válido!");
+		}
+
+		CompletableFuture<BigDecimal> saldoAnterior = CompletableFuture.supplyAsync(
+				() -> transacao.execute(status -> obterSaldoAnterior(idUsuario, ano)), executor);
+
+		List<CompletableFuture<RelatorioMensalDTO>> ramos = new ArrayList<>(12);
+		for (int mes = 1; mes <= 12; mes++) {
+			int mesDoRamo = mes;
+			ramos.add(CompletableFuture.supplyAsync(
+					() -> transacao.execute(status -> resumirMes(idUsuario, ano, mesDoRamo)), executor));
+		}
+
+		RelatorioAnualDTO relatorio = new RelatorioAnualDTO(ano);
+		BigDecimal saldoAcumulado = aguardar(saldoAnterior);
+		List<LancamentoProjecao> despesas = new ArrayList<>();
+
+		for (CompletableFuture<RelatorioMensalDTO> ramo : ramos) {
+			RelatorioMensalDTO mes = aguardar(ramo);
+
+			saldoAcumulado = saldoAcumulado.add(mes.getSaldo());
+			mes.setSaldoAcumulado(saldoAcumulado);
+
+			relatorio.setReceitas(relatorio.getReceitas().add(mes.getReceitas()));
+			relatorio.setDespesas(relatorio.getDespesas().add(mes.getDespesas()));
+			mes.getQuantidadePorStatus().forEach((status, quantidade) -> relatorio.getQuantidadePorStatus().merge(status, quantidade, Long::sum));
+			despesas.addAll(mes.getMaioresDespesas());
+			relatorio.getMeses().add(mes);
+		}
+
+		// as maiores do ano estão entre as maiores de cada mês
+		relatorio.setMaioresDespesas(maiores(despesas));
+
+		return relatorio;
+	}
+
+	private BigDecimal obterSaldoAnterior(Long idUsuario, Integer ano) {
+		lerDoUsuario(idUsuario);
+
+		return repository.obterSaldoAnteriorAoAno(idUsuario, ano);
+	}
+
+	private RelatorioMensalDTO resumirMes(Long idUsuario, Integer ano, int mes) {
+		lerDoUsuario(idUsuario);
+
+		RelatorioMensalDTO resumo = new RelatorioMensalDTO(mes);
+		Map<StatusLancamento, Long> quantidades = resumo.getQuantidadePorStatus();
+		BigDecimal receitas = BigDecimal.ZERO;
+		BigDecimal despesas = BigDecimal.ZERO;
+		List<LancamentoProjecao> lancamentosDespesa = new ArrayList<>();
+
+		for (LancamentoProjecao lancamento : repository.buscarProjecoes(idUsuario, null, mes, ano, null, null)) {
+			if(lancamento.getStatus() != null) {
+				quantidades.merge(lancamento.getStatus(), 1L, Long::sum);
+			}
+
+			if(lancamento.getValor() == null) {
+				continue;
+			}
+
+			if(lancamento.getTipo() == TipoLancamento.RECEITA) {
+				receitas = receitas.add(lancamento.getValor());
+
+			} else if(lancamento.getTipo() == TipoLancamento.DESPESA) {
+				despesas = despesas.add(lancamento.getValor());
+				lancamentosDespesa.add(lancamento);
+			}
+		}
+
+		resumo.setReceitas(receitas);
+		resumo.setDespesas(despesas);
+		resumo.setMaioresDespesas(maiores(lancamentosDespesa));
+
+		return resumo;
+	}
+
+	private void lerDoUsuario(Long idUsuario) {
+		shardService.usarShardDoUsuario(idUsuario);
+		consistenciaLeituraService.lerDoUsuario(idUsuario);
+	}
+
+	private List<LancamentoProjecao> maiores(List<LancamentoProjecao> despesas) {
+		return despesas.stream().sorted(MAIOR_VALOR).limit(MAIORES_DESPESAS).collect(Collectors.toList());
+	}
+
+	private <T> T aguardar(CompletableFuture<T> ramo) {
+		try {
+			return ramo.join();
+
+		} catch (CompletionException e) {
+			if(e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.app.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.app.minhasfinancas.dto.ResumoMensalDTO;
+import com.app.minhasfinancas.model.entity.ResumoMensal;
+import com.app.minhasfinancas.model.entity.ResumoMensalId;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+import com.app.minhasfinancas.model.repository.ResumoMensalRepository;
+import com.app.minhasfinancas.service.ConsistenciaLeituraService;
+import com.app.minhasfinancas.service.ResumoMensalService;
+import com.app.minhasfinancas.service.ShardService;
+
+@Service
+public class ResumoMensalServiceImpl implements ResumoMensalService {
+
+	private ResumoMensalRepository repository;
+	private ConsistenciaLeituraService consistenciaLeituraService;
+	private ShardService shardService;
+	
+	public ResumoMensalServiceImpl(ResumoMensalRepository repository, ConsistenciaLeituraService consistenciaLeituraService, 
+			ShardService shardService) {
+		this.repository = repository;
+		this.consistenciaLeituraService = consistenciaLeituraService;
+		this.shardService = shardService;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<ResumoMensalDTO> obterResumoAnual(Long idUsuario, Integer ano) {
+		shardService.usarShardDoUsuario(idUsuario);
+		consistenciaLeituraService.lerDoUsuario(idUsuario);
+		
+		List<ResumoMensalDTO> meses = new ArrayList<>(12);
+		for (int mes = 1; mes <= 12; mes++) {
+			meses.add(new ResumoMensalDTO(mes));
+		}
+		
+		for (ResumoMensal resumo : repository.obterPorUsuarioEAno(idUsuario, ano)) {
+			Integer mes = resumo.getId().getMes();
+			if(mes == null || mes < 1 || mes > 12) {
+				continue;
+			}
+			
+			ResumoMensalDTO dto = meses.get(mes - 1);
+			Map<StatusLancamento, BigDecimal> totais = 
+					resumo.getId().getTipo() == TipoLancamento.RECEITA ? dto.getReceitas() : dto.getDespesas();
+			
+			for (StatusLancamento status : StatusLancamento.values()) {
+				totais.put(status, resumo.getValor(status));
+			}
+		}
+		
+		return meses;
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrarAlteracoes(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos) {
+		Map<ResumoMensalId, BigDecimal[]> deltas = new HashMap<>();
+		
+		for (LancamentoProjecao removido : removidos) {
+			acumular(deltas, removido, true);
+		}
+		
+		for (LancamentoProjecao incluido : incluidos) {
+			acumular(deltas, incluido, false);
+		}
+		
+		deltas.forEach((id, delta) -> {
+			if(delta[0].signum() == 0 && delta[1].signum() == 0 && delta[2].signum() == 0) {
+				return;
+			}
+			
+			// se outra transação criou a linha entre o update e o insert, o insert não faz nada e o delta
+			// é aplicado sobre a linha dela, que não inclui as gravações desta
+			if(aplicarDelta(id, delta) == 0
+					&& repository.inicializar(id.getIdUsuario(), id.getAno(), id.getMes(), id.getTipo().name()) == 0) {
+				aplicarDelta(id, delta);
+			}
+		});
+	}
+
+	@Override
+	@Transactional
+	public int reconciliar() {
+		repository.deleteAllInBatch();
+		
+		return repository.reconstruir();
+	}
+	
+	private int aplicarDelta(ResumoMensalId id, BigDecimal[] delta) {
+		return repository.aplicarDelta(id.getIdUsuario(), id.getAno(), id.getMes(), id.getTipo(), 
+				delta[0], delta[1], delta[2]);
+	}
+	
+	private void acumular(Map<ResumoMensalId, BigDecimal[]> deltas, LancamentoProjecao lancamento, boolean removido) {
+		if(lancamento.getUsuario() == null || lancamento.getAno() == null || lancamento.getMes() == null 
+				|| lancamento.getTipo() == null || lancamento.getStatus() == null || lancamento.getValor() == null) {
+			return;
+		}
+		
+		ResumoMensalId id = new ResumoMensalId(lancamento.getUsuario(), lancamento.getAno(), lancamento.getMes(), lancamento.getTipo());
+		BigDecimal[] delta = deltas.computeIfAbsent(id, chave -> new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO });
+		
+		int posicao = lancamento.getStatus() == StatusLancamento.PENDENTE ? 0 
+				: lancamento.getStatus() == StatusLancamento.EFETIVADO ? 1 : 2;
+		BigDecimal valor = removido ? lancamento.getValor().negate() : lancamento.getValor();
+		
+		delta[posicao] = delta[posicao].add(valor);
+	}
+
+}
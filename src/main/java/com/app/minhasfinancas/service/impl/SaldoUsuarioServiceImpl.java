@@ -0,0 +1,98 @@
+package com.app.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.app.minhasfinancas.model.entity.SaldoUsuario;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+import com.app.minhasfinancas.model.repository.LancamentoRepository;
+import com.app.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.app.minhasfinancas.service.SaldoUsuarioService;
+
+@Service
+public class SaldoUsuarioServiceImpl implements SaldoUsuarioService {
+
+	private SaldoUsuarioRepository repository;
+	private LancamentoRepository lancamentoRepository;
+	
+	public SaldoUsuarioServiceImpl(SaldoUsuarioRepository repository, LancamentoRepository lancamentoRepository) {
+		this.repository = repository;
+		this.lancamentoRepository = lancamentoRepository;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public BigDecimal obterSaldo(Long idUsuario) {
+		return repository.findById(idUsuario)
+				.map(SaldoUsuario::getSaldo)
+				.orElseGet(() -> calcularSaldo(idUsuario));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public long obterGeracao(Long idUsuario) {
+		return repository.obterGeracao(idUsuario).orElse(0L);
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrarAlteracoes(Collection<LancamentoProjecao> removidos, Collection<LancamentoProjecao> incluidos) {
+		Map<Long, BigDecimal> deltas = new HashMap<>();
+		
+		for (LancamentoProjecao removido : removidos) {
+			acumular(deltas, removido.getUsuario(), removido.getValorComSinal().negate());
+		}
+		
+		for (LancamentoProjecao incluido : incluidos) {
+			acumular(deltas, incluido.getUsuario(), incluido.getValorComSinal());
+		}
+		
+		// mesmo sem variação de saldo a geração avança, pois ela identifica a versão dos dados do usuário;
+		// se outra transação criou o saldo entre o update e o insert, o insert não faz nada e o delta é
+		// aplicado sobre o saldo dela, que não inclui as gravações desta
+		deltas.forEach((idUsuario, delta) -> {
+			if(repository.aplicarDelta(idUsuario, delta) == 0
+					&& repository.inicializar(idUsuario, calcularSaldo(idUsuario)) == 0) {
+				repository.aplicarDelta(idUsuario, delta);
+			}
+		});
+	}
+
+	@Override
+	@Transactional
+	public int reconciliar() {
+		repository.deleteAllInBatch();
+		
+		// gerações reiniciadas a partir do relógio não colidem com as já entregues aos clientes
+		return repository.reconstruir(System.currentTimeMillis());
+	}
+	
+	private void acumular(Map<Long, BigDecimal> deltas, Long idUsuario, BigDecimal valor) {
+		if(idUsuario != null) {
+			deltas.merge(idUsuario, valor, BigDecimal::add);
+		}
+	}
+	
+	private BigDecimal calcularSaldo(Long idUsuario) {
+		BigDecimal receitas = lancamentoRepository.obterSaldoPorUsuarioETipo(idUsuario, TipoLancamento.RECEITA);
+		BigDecimal despesas = lancamentoRepository.obterSaldoPorUsuarioETipo(idUsuario, TipoLancamento.DESPESA);
+		
+		if(receitas == null) {
+			receitas = BigDecimal.ZERO;
+		}
+		
+		if(despesas == null) {
+			despesas = BigDecimal.ZERO;
+		}
+
+		return receitas.subtract(despesas);
+	}
+
+}
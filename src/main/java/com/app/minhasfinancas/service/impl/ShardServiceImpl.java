@@ -0,0 +1,335 @@
+package com.app.minhasfinancas.service.impl;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.minhasfinancas.config.ShardDataSource;
+import com.app.minhasfinancas.exception.RegraNegocioException;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.service.ShardService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Escolhe o shard de cada transação pelo diretório {@code usuario_shard} do shard 0, guardado em cache
+ * por {@code cache-diretorio-ms}. O usuário novo vai para o shard do hash do seu email, a chave que
+ * se conhece antes de a transação do cadastro fazer a primeira consulta; a partir daí tudo segue pelo
+ * id, inclusive depois de {@link #moverUsuario(Long, int)}. Sem {@code minhasfinancas.shards.urls}
+ * há um único shard e só o diretório é mantido, para que o sharding possa ser ligado depois.
+ */
+@Service
+public class ShardServiceImpl implements ShardService {
+
+	private static final Logger log = LoggerFactory.getLogger(ShardServiceImpl.class);
+
+	static final String MENSAGEM_EM_MIGRACAO = "Usuário em migração entre shards. Tente novamente em instantes.";
+	static final String MENSAGEM_OUTRO_SHARD = "Usuários de shards diferentes não podem ser alterados na mesma operação.";
+	static final String MENSAGEM_SEM_DONO = "Informe o usuário do lançamento.";
+
+	private static final int TAMANHO_LOTE_COPIA = 500;
+	private static final Entrada SEM_ENTRADA = new Entrada(0, false);
+
+	private final ShardDataSource shards;
+	private final List<JdbcTemplate> jdbcShards = new ArrayList<>();
+	private final JdbcTemplate diretorio;
+	private final PlatformTransactionManager transactionManager;
+	private final long cacheDiretorioMs;
+	private final Cache<Long, Entrada> porUsuario;
+	private final Cache<String, Integer> porEmail;
+
+	public ShardServiceImpl(DataSource dataSource, PlatformTransactionManager transactionManager,
+			@Value("${minhasfinancas.shards.cache-diretorio-ms:5000}") long cacheDiretorioMs) throws SQLException {
+		this.shards = dataSource.isWrapperFor(ShardDataSource.class) ? dataSource.unwrap(ShardDataSource.class) : null;
+		this.transactionManager = transactionManager;
+		this.cacheDiretorioMs = cacheDiretorioMs;
+
+		if(shards != null) {
+			for (int i = 0; i < shards.getQuantidade(); i++) {
+				jdbcShards.add(new JdbcTemplate(shards.getShard(i)));
+			}
+		}
+
+		// sem sharding o diretório participa da transação do cadastro
+		this.diretorio = shards == null ? new JdbcTemplate(dataSource) : jdbcShards.get(0);
+		this.porUsuario = Caffeine.newBuilder()
+				.maximumSize(100000)
+				.expireAfterWrite(Duration.ofMillis(cacheDiretorioMs))
+				.build();
+		this.porEmail = Caffeine.newBuilder()
+				.maximumSize(100000)
+				.expireAfterWrite(Duration.ofMillis(cacheDiretorioMs))
+				.build();
+	}
+
+	@Override
+	public int shardDoUsuario(Long idUsuario) {
+		if(shards == null || idUsuario == null) {
+			return 0;
+		}
+
+		return porUsuario.get(idUsuario, this::consultarEntrada).shard;
+	}
+
+	@Override
+	public void usarShardDoUsuario(Long idUsuario) {
+		if(shards == null || idUsuario == null) {
+			return;
+		}
+
+		Entrada entrada = porUsuario.get(idUsuario, this::consultarEntrada);
+		if(entrada.migrando && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			throw new RegraNegocioException(MENSAGEM_EM_MIGRACAO);
+		}
+
+		usar(entrada.shard);
+	}
+
+	/**
+	 * Para as operações endereçadas pelo id do lançamento. O id não diz o shard, já que os lançamentos
+	 * mantêm o id quando o usuário muda de shard, e procurá-lo em cada shard custaria uma consulta por
+	 * shard; com sharding o dono é obrigatório.
+	 */
+	@Override
+	public void usarShardDoDono(Long idUsuario) {
+		if(shards != null && idUsuario == null) {
+			throw new RegraNegocioException(MENSAGEM_SEM_DONO);
+		}
+
+		usarShardDoUsuario(idUsuario);
+	}
+
+	@Override
+	public void usarShardDoEmail(String email) {
+		if(shards == null || email == null) {
+			return;
+		}
+
+		Integer shard = porEmail.get(email, this::consultarShardDoEmail);
+		usar(shard != null ? shard : shardParaNovoUsuario(email));
+	}
+
+	/**
+	 * A linha do diretório também reserva o email entre todos os shards. Com sharding ela é gravada
+	 * fora da transação do cadastro e apagada se esta não confirmar.
+	 */
+	@Override
+	public void registrarNovoUsuario(Usuario usuario) {
+		Long id = usuario.getId();
+		int shard = shards == null ? 0 : shardParaNovoUsuario(usuario.getEmail());
+
+		diretorio.update("insert into financas.usuario_shard (id_usuario, email, shard) values (?, ?, ?)", id, usuario.getEmail(), shard);
+
+		if(shards == null) {
+			return;
+		}
+
+		usar(shard);
+		porUsuario.put(id, new Entrada(shard, false));
+
+		if(TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if(status != STATUS_COMMITTED) {
+						porUsuario.invalidate(id);
+						diretorio.update("delete from financas.usuario_shard where id_usuario = ?", id);
+					}
+				}
+			});
+		}
+	}
+
+	@Override
+	public void paraCadaShard(boolean somenteLeitura, Runnable tarefa) {
+		TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+		transacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		transacao.setReadOnly(somenteLeitura);
+
+		int quantidade = shards == null ? 1 : shards.getQuantidade();
+		for (int i = 0; i < quantidade; i++) {
+			ShardDataSource.executarNoShard(i, () -> transacao.executeWithoutResult(status -> tarefa.run()));
+		}
+	}
+
+	/**
+	 * Move o usuário com a aplicação no ar: bloqueia as escritas dele, espera o cache do diretório
+	 * expirar nas demais instâncias, copia as linhas numa transação do destino, vira o diretório e, após
+	 * nova espera, apaga as linhas da origem. Escritas que já estavam em andamento por mais tempo que
+	 * o cache não são cobertas. Pode ser repetido se falhar no meio.
+	 */
+	@Override
+	public void moverUsuario(Long idUsuario, int shardDestino) {
+		if(shards == null) {
+			throw new RegraNegocioException("Sharding não configurado.");
+		}
+
+		if(shardDestino < 0 || shardDestino >= shards.getQuantidade()) {
+			throw new RegraNegocioException("Informe um shard de destino válido!");
+		}
+
+		int origem = consultarEntrada(idUsuario).shard;
+		List<String> email = jdbcShards.get(origem).queryForList("select email from financas.usuario where id = ?", String.class, idUsuario);
+
+		if(email.isEmpty()) {
+			throw new RegraNegocioException("Usuário não encontrado no shard " + origem + "!");
+		}
+
+		if(origem == shardDestino) {
+			log.info("Usuário {} já está no shard {}.", idUsuario, origem);
+			return;
+		}
+
+		int lancamentos;
+		try {
+			if(diretorio.update("update financas.usuario_shard set migrando = true where id_usuario = ?", idUsuario) == 0) {
+				diretorio.update("insert into financas.usuario_shard (id_usuario, email, shard, migrando) values (?, ?, ?, true)",
+						idUsuario, email.get(0), origem);
+			}
+			aguardarCache();
+
+			lancamentos = copiar(idUsuario, origem, shardDestino);
+
+		} catch (RuntimeException e) {
+			diretorio.update("update financas.usuario_shard set migrando = false where id_usuario = ?", idUsuario);
+			throw e;
+
+		} finally {
+			porUsuario.invalidate(idUsuario);
+		}
+
+		diretorio.update("update financas.usuario_shard set shard = ?, migrando = false where id_usuario = ?", shardDestino, idUsuario);
+		porUsuario.invalidate(idUsuario);
+		porEmail.invalidate(email.get(0));
+		aguardarCache();
+
+		new TransactionTemplate(new DataSourceTransactionManager(shards.getShard(origem)))
+				.executeWithoutResult(status -> apagar(jdbcShards.get(origem), idUsuario));
+
+		log.info("Usuário {} movido do shard {} para o shard {} com {} lançamento(s).", idUsuario, origem, shardDestino, lancamentos);
+	}
+
+	private int copiar(Long idUsuario, int origem, int destino) {
+		JdbcTemplate leitura = jdbcShards.get(origem);
+		JdbcTemplate escrita = jdbcShards.get(destino);
+
+		return new TransactionTemplate(new DataSourceTransactionManager(shards.getShard(destino))).execute(status -> {
+			// sobras de uma tentativa anterior que falhou depois de copiar
+			apagar(escrita, idUsuario);
+
+			copiarTabela(leitura, escrita, "usuario", "id", idUsuario);
+			int lancamentos = copiarTabela(leitura, escrita, "lancamento", "id_usuario", idUsuario);
+			copiarTabela(leitura, escrita, "saldo_usuario", "id_usuario", idUsuario);
+			copiarTabela(leitura, escrita, "resumo_mensal", "id_usuario", idUsuario);
+
+			return lancamentos;
+		});
+	}
+
+	private int copiarTabela(JdbcTemplate leitura, JdbcTemplate escrita, String tabela, String coluna, Long idUsuario) {
+		return leitura.query("select * from financas." + tabela + " where " + coluna + " = ?", resultado -> {
+			ResultSetMetaData colunas = resultado.getMetaData();
+			StringJoiner nomes = new StringJoiner(", ");
+			StringJoiner parametros = new StringJoiner(", ");
+			for (int i = 1; i <= colunas.getColumnCount(); i++) {
+				nomes.add(colunas.getColumnName(i));
+				parametros.add("?");
+			}
+			String insercao = "insert into financas." + tabela + " (" + nomes + ") values (" + parametros + ")";
+
+			List<Object[]> lote = new ArrayList<>(TAMANHO_LOTE_COPIA);
+			int copiadas = 0;
+
+			while(resultado.next()) {
+				Object[] linha = new Object[colunas.getColumnCount()];
+				for (int i = 0; i < linha.length; i++) {
+					linha[i] = resultado.getObject(i + 1);
+				}
+				lote.add(linha);
+
+				if(lote.size() == TAMANHO_LOTE_COPIA) {
+					escrita.batchUpdate(insercao, lote);
+					copiadas += lote.size();
+					lote.clear();
+				}
+			}
+
+			if(!lote.isEmpty()) {
+				escrita.batchUpdate(insercao, lote);
+				copiadas += lote.size();
+			}
+
+			return copiadas;
+		}, idUsuario);
+	}
+
+	private void apagar(JdbcTemplate shard, Long idUsuario) {
+		shard.update("delete from financas.lancamento where id_usuario = ?", idUsuario);
+		shard.update("delete from financas.resumo_mensal where id_usuario = ?", idUsuario);
+		shard.update("delete from financas.saldo_usuario where id_usuario = ?", idUsuario);
+		shard.update("delete from financas.usuario where id = ?", idUsuario);
+	}
+
+	private void aguardarCache() {
+		try {
+			Thread.sleep(cacheDiretorioMs);
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Migração de shard interrompida", e);
+		}
+	}
+
+	private void usar(int shard) {
+		Integer atual = ShardDataSource.shardAtual();
+		if(atual != null && atual != shard) {
+			throw new RegraNegocioException(MENSAGEM_OUTRO_SHARD);
+		}
+
+		ShardDataSource.usarNaTransacao(shard);
+	}
+
+	private int shardParaNovoUsuario(String email) {
+		return email == null ? 0 : Math.floorMod(email.hashCode(), shards.getQuantidade());
+	}
+
+	private Entrada consultarEntrada(Long idUsuario) {
+		return diretorio.query("select shard, migrando from financas.usuario_shard where id_usuario = ?",
+				resultado -> resultado.next() ? new Entrada(resultado.getInt(1), resultado.getBoolean(2)) : SEM_ENTRADA,
+				idUsuario);
+	}
+
+	private Integer consultarShardDoEmail(String email) {
+		List<Integer> shard = diretorio.queryForList("select shard from financas.usuario_shard where email = ?", Integer.class, email);
+		return shard.isEmpty() ? null : shard.get(0);
+	}
+
+	private static class Entrada {
+
+		final int shard;
+		final boolean migrando;
+
+		Entrada(int shard, boolean migrando) {
+			this.shard = shard;
+			this.migrando = migrando;
+		}
+	}
+
+}
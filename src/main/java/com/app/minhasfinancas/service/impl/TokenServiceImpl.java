@@ -0,0 +1,104 @@
+package com.app.minhasfinancas.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.app.minhasfinancas.exception.ErroAutenticacao;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.service.TokenService;
+
+@Service
+public class TokenServiceImpl implements TokenService {
+	
+	private static final String ALGORITMO = "HmacSHA256";
+	static final int TAMANHO_MINIMO_CHAVE = 32;
+	
+	private final SecretKeySpec chave;
+	private final long expiracaoSegundos;
+	private final ThreadLocal<Mac> macs;
+	
+	public TokenServiceImpl(@Value("${minhasfinancas.token.chave:}") String chave, 
+			@Value("${minhasfinancas.token.expiracao-minutos:480}") long expiracaoMinutos) {
+		this.chave = new SecretKeySpec(obterBytesChave(chave), ALGORITMO);
+		this.expiracaoSegundos = expiracaoMinutos * 60;
+		this.macs = ThreadLocal.withInitial(this::criarMac);
+	}
+
+	@Override
+	public String gerarToken(Usuario usuario) {
+		long expiraEm = System.currentTimeMillis() / 1000 + expiracaoSegundos;
+		String conteudo = codificar((usuario.getId() + ":" + expiraEm).getBytes(StandardCharsets.UTF_8));
+		
+		return conteudo + "." + codificar(assinar(conteudo));
+	}
+
+	@Override
+	public Long obterIdUsuario(String token) {
+		int separador = token == null ? -1 : token.indexOf('.');
+		if(separador < 1) {
+			throw new ErroAutenticacao("Token inválido!");
+		}
+		
+		String conteudo = token.substring(0, separador);
+		
+		try {
+			byte[] assinatura = Base64.getUrlDecoder().decode(token.substring(separador + 1));
+			if(!MessageDigest.isEqual(assinatura, assinar(conteudo))) {
+				throw new ErroAutenticacao("Token inválido!");
+			}
+			
+			String[] partes = new String(Base64.getUrlDecoder().decode(conteudo), StandardCharsets.UTF_8).split(":");
+			if(Long.parseLong(partes[1]) < System.currentTimeMillis() / 1000) {
+				throw new ErroAutenticacao("Token expirado!");
+			}
+			
+			return Long.valueOf(partes[0]);
+			
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			throw new ErroAutenticacao("Token inválido!");
+		}
+	}
+	
+	private byte[] assinar(String conteudo) {
+		return macs.get().doFinal(conteudo.getBytes(StandardCharsets.US_ASCII));
+	}
+	
+	private Mac criarMac() {
+		try {
+			Mac mac = Mac.getInstance(ALGORITMO);
+			mac.init(chave);
+			return mac;
+			
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private static String codificar(byte[] bytes) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
+	
+	/**
+	 * Sem chave configurada não sobe: uma chave gerada na partida invalidaria os tokens a cada reinício e
+	 * entre instâncias.
+	 */
+	private static byte[] obterBytesChave(String chave) {
+		byte[] bytes = chave == null ? new byte[0] : chave.trim().getBytes(StandardCharsets.UTF_8);
+		
+		if(bytes.length < TAMANHO_MINIMO_CHAVE) {
+			throw new IllegalStateException("Configure minhasfinancas.token.chave com pelo menos " 
+					+ TAMANHO_MINIMO_CHAVE + " caracteres.");
+		}
+		
+		return bytes;
+	}
+
+}
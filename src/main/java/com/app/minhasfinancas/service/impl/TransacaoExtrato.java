@@ -0,0 +1,50 @@
+package com.app.minhasfinancas.service.impl;
+
+/**
+ * Transação como lida do extrato, ainda em texto. A conversão fica no serviço para que um
+ * campo inválido rejeite só a sua linha.
+ */
+class TransacaoExtrato {
+
+	private final int linha;
+	private final String data;
+	private final String descricao;
+	private final String valor;
+	private final String erro;
+	
+	TransacaoExtrato(int linha, String data, String descricao, String valor) {
+		this(linha, data, descricao, valor, null);
+	}
+	
+	private TransacaoExtrato(int linha, String data, String descricao, String valor, String erro) {
+		this.linha = linha;
+		this.data = data;
+		this.descricao = descricao;
+		this.valor = valor;
+		this.erro = erro;
+	}
+	
+	/**
+	 * Linha que o leitor não conseguiu interpretar; é rejeitada com {@code erro} sem interromper a importação.
+	 */
+	static TransacaoExtrato rejeitada(int linha, String erro) {
+		return new TransacaoExtrato(linha, null, null, null, erro);
+	}
+	
+	int getLinha() {
+		return linha;
+	}
+	String getData() {
+		return data;
+	}
+	String getDescricao() {
+		return descricao;
+	}
+	String getValor() {
+		return valor;
+	}
+	String getErro() {
+		return erro;
+	}
+	
+}
@@ -1,7 +1,18 @@
 package com.app.minhasfinancas.service.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -9,53 +20,117 @@ import com.app.minhasfinancas.exception.ErroAutenticacao;
 import com.app.minhasfinancas.exception.RegraNegocioException;
 import com.app.minhasfinancas.model.entity.Usuario;
 import com.app.minhasfinancas.model.repository.UsuarioRepository;
+import com.app.minhasfinancas.service.ShardService;
 import com.app.minhasfinancas.service.UsuarioService;
 
+import io.micrometer.core.annotation.Timed;
+
 @Service
 public class UsuarioServiceImpl implements UsuarioService{
 
+	static final String MENSAGEM_EMAIL_EXISTENTE = "Já existe um usuário cadastrado com esse email!";
+	
+	private static final Pattern HASH_BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+	
 	private UsuarioRepository repository;
+	private ShardService shardService;
+	private ObjectProvider<CacheManager> cacheManager;
+	private PasswordEncoder encoder = new BCryptPasswordEncoder();
 	
-	public UsuarioServiceImpl(UsuarioRepository repository) {
+	public UsuarioServiceImpl(UsuarioRepository repository, ShardService shardService, ObjectProvider<CacheManager> cacheManager) {
 		super();
 		this.repository = repository;
+		this.shardService = shardService;
+		this.cacheManager = cacheManager;
 	}
 
 	@Override
+	@Timed("minhasfinancas.servico")
+	@Transactional
 	public Usuario autenticar(String email, String senha) {
+		shardService.usarShardDoEmail(email);
 		Optional<Usuario> usuario = repository.findByEmail(email);
 		
 		if(!usuario.isPresent()) {
 			throw new ErroAutenticacao("Usuário não encontrado!");
 		}
 		
-		if(!usuario.get().getSenha().equals(senha)) {
+		String senhaArmazenada = usuario.get().getSenha();
+		
+		if(senhaArmazenada != null && HASH_BCRYPT.matcher(senhaArmazenada).matches()) {
+			if(senha == null || !encoder.matches(senha, senhaArmazenada)) {
+				throw new ErroAutenticacao("Senha inválida!");
+			}
+			return usuario.get();
+		}
+		
+		// cadastros anteriores ao hash guardam a senha em texto: confere e já regrava com bcrypt
+		if(senhaArmazenada == null || senha == null || !MessageDigest.isEqual(
+				senhaArmazenada.getBytes(StandardCharsets.UTF_8), senha.getBytes(StandardCharsets.UTF_8))) {
 			throw new ErroAutenticacao("Senha inválida!");
 		}
 		
+		// o usuário veio do cache e é compartilhado: regrava pela chave, sem alterá-lo, e tira dos dois caches
+		repository.atualizarSenha(usuario.get().getId(), encoder.encode(senha));
+		esquecer(usuario.get());
+		
 		return usuario.get();
 	}
+	
+	private void esquecer(Usuario usuario) {
+		cacheManager.ifAvailable(caches -> {
+			caches.getCache("usuarios").evict(usuario.getId());
+			caches.getCache("usuariosPorEmail").evict(usuario.getEmail());
+		});
+	}
 
 	@Override
+	@Timed("minhasfinancas.servico")
 	@Transactional
+	@Caching(evict = {
+			@CacheEvict(cacheNames = "usuarios", key = "#usuario.id", condition = "#usuario.id != null"),
+			@CacheEvict(cacheNames = "usuariosPorEmail", key = "#usuario.email", condition = "#usuario.email != null")
+	})
 	public Usuario salvarUsuario(Usuario usuario) {
+		boolean novo = usuario.getId() == null;
 		validarEmail(usuario.getEmail());
 		
-		return repository.save(usuario);
+		if(usuario.getSenha() != null) {
+			usuario.setSenha(encoder.encode(usuario.getSenha()));
+		}
+		
+		try {
+			Usuario usuarioSalvo = repository.save(usuario);
+			if(novo) {
+				shardService.registrarNovoUsuario(usuarioSalvo);
+			}
+			repository.flush();
+			return usuarioSalvo;
+			
+		} catch (DataIntegrityViolationException e) {
+			// outro cadastro com o mesmo email passou pela validação ao mesmo tempo e o índice único o barrou
+			throw new RegraNegocioException(MENSAGEM_EMAIL_EXISTENTE);
+		}
 	}
 
 	@Override
+	@Timed("minhasfinancas.servico")
 	public void validarEmail(String email) {
+		shardService.usarShardDoEmail(email);
 		boolean existeUsuario = repository.existsByEmail(email);
 		
 		
 		if(existeUsuario) {
-			throw new RegraNegocioException("Já existe um usuário cadastrado com esse email!");
+			throw new RegraNegocioException(MENSAGEM_EMAIL_EXISTENTE);
 		}
 	}
 
 	@Override
+	@Timed("minhasfinancas.servico")
+	@Cacheable(cacheNames = "usuarios", condition = "#id != null", unless = "#result == null")
+	@Transactional(readOnly = true)
 	public Optional<Usuario> obterporId(Long id) {
+		shardService.usarShardDoUsuario(id);
 		return repository.findById(id);
 	}
 	
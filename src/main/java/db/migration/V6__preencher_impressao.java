@@ -0,0 +1,63 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.app.minhasfinancas.model.entity.Lancamento;
+
+/**
+ * Recalcula a impressão de todos os lançamentos: as linhas anteriores ao V1 ficaram sem ela e as demais
+ * foram calculadas sem o dia. É em Java porque o SHA-256 não está disponível em SQL em todos os bancos.
+ */
+public class V6__preencher_impressao extends BaseJavaMigration {
+	
+	private static final int TAMANHO_LOTE = 500;
+
+	@Override
+	public void migrate(Context context) throws Exception {
+		Connection conexao = context.getConnection();
+		
+		try (Statement consulta = conexao.createStatement();
+				PreparedStatement atualizacao = conexao.prepareStatement("update financas.lancamento set impressao = ? where id = ?")) {
+			
+			consulta.setFetchSize(TAMANHO_LOTE);
+			
+			try (ResultSet linhas = consulta.executeQuery(
+					"select id, id_usuario, ano, mes, data_cadastro, valor, descricao from financas.lancamento")) {
+				
+				int pendentes = 0;
+				while(linhas.next()) {
+					Date data = linhas.getDate("data_cadastro");
+					Long impressao = Lancamento.calcularImpressao(
+							linhas.getObject("id_usuario", Long.class), 
+							linhas.getObject("ano", Integer.class), 
+							linhas.getObject("mes", Integer.class), 
+							data == null ? null : data.toLocalDate(), 
+							linhas.getBigDecimal("valor"), 
+							linhas.getString("descricao"));
+					
+					atualizacao.setObject(1, impressao, Types.BIGINT);
+					atualizacao.setLong(2, linhas.getLong("id"));
+					atualizacao.addBatch();
+					
+					if(++pendentes == TAMANHO_LOTE) {
+						atualizacao.executeBatch();
+						pendentes = 0;
+					}
+				}
+				
+				if(pendentes > 0) {
+					atualizacao.executeBatch();
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,47 @@
+-- Estrutura até aqui criada pelo Hibernate. Tudo é condicional para que bancos já existentes,
+-- registrados pelo baseline, passem por esta versão sem erro e recebam só as colunas novas.
+
+create schema if not exists financas;
+
+create table if not exists financas.usuario (
+	id bigint primary key,
+	nome varchar(150),
+	email varchar(100),
+	senha varchar(255)
+);
+
+create table if not exists financas.lancamento (
+	id bigint primary key,
+	descricao varchar(255),
+	mes integer,
+	ano integer,
+	id_usuario bigint references financas.usuario (id),
+	valor numeric(16,2),
+	data_cadastro timestamp,
+	tipo varchar(20),
+	status varchar(20)
+);
+
+alter table financas.lancamento add column if not exists versao bigint default 0 not null;
+alter table financas.lancamento add column if not exists impressao bigint;
+
+create table if not exists financas.saldo_usuario (
+	id_usuario bigint primary key,
+	saldo numeric(19,2)
+);
+
+alter table financas.saldo_usuario add column if not exists geracao bigint default 0 not null;
+
+create table if not exists financas.resumo_mensal (
+	id_usuario bigint not null,
+	ano integer not null,
+	mes integer not null,
+	tipo varchar(20) not null,
+	pendente numeric(19,2),
+	efetivado numeric(19,2),
+	cancelado numeric(19,2),
+	primary key (id_usuario, ano, mes, tipo)
+);
+
+create sequence if not exists financas.usuario_id_seq start with 1 increment by 50;
+create sequence if not exists financas.lancamento_id_seq start with 1 increment by 50;
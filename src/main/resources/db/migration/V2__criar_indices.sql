@@ -0,0 +1,8 @@
+-- Índices das consultas dos repositórios; o PlanoConsultaTest falha se alguma delas voltar a
+-- percorrer a tabela inteira. O (id_usuario, ano, mes, id) também atende os filtros só por
+-- id_usuario e por (id_usuario, ano, mes), então não há índices separados para eles.
+
+create index if not exists idx_lancamento_usuario_ano_mes_id on financas.lancamento (id_usuario, ano, mes, id);
+create index if not exists idx_lancamento_usuario_tipo on financas.lancamento (id_usuario, tipo);
+create unique index if not exists idx_lancamento_usuario_impressao on financas.lancamento (id_usuario, impressao);
+create unique index if not exists idx_usuario_email on financas.usuario (email);
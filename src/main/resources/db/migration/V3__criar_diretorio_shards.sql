@@ -0,0 +1,15 @@
+-- Em que shard está cada usuário. Só a tabela do shard 0 é consultada; usuários sem linha ficam no
+-- shard 0, e os já cadastrados entram aqui com ele. O email é único entre todos os shards.
+
+create table if not exists financas.usuario_shard (
+	id_usuario bigint primary key,
+	email varchar(100),
+	shard integer not null,
+	migrando boolean default false not null
+);
+
+create unique index if not exists idx_usuario_shard_email on financas.usuario_shard (email);
+
+insert into financas.usuario_shard (id_usuario, email, shard)
+	select u.id, u.email, 0 from financas.usuario u
+	where not exists (select 1 from financas.usuario_shard d where d.id_usuario = u.id);
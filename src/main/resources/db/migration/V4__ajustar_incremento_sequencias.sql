@@ -0,0 +1,4 @@
+-- Bancos criados pelo DDL anterior ao Flyway já tinham estas sequências com incremento 1, e o
+-- "create if not exists" do V1 não as altera. As entidades alocam ids em blocos de 50.
+alter sequence financas.usuario_id_seq increment by 50;
+alter sequence financas.lancamento_id_seq increment by 50;
@@ -0,0 +1,9 @@
+-- Dois lançamentos legítimos podem ter a mesma impressão (duas corridas de mesmo valor no mesmo dia),
+-- então o índice deixa de ser único e a recusa de reenvios fica com quem grava. O reenvio de um
+-- cliente que precisa gravar exatamente uma vez é identificado pela chave de idempotência.
+
+drop index if exists financas.idx_lancamento_usuario_impressao;
+create index if not exists idx_lancamento_usuario_impressao on financas.lancamento (id_usuario, impressao);
+
+alter table financas.lancamento add column if not exists chave_idempotencia varchar(100);
+create unique index if not exists idx_lancamento_usuario_chave on financas.lancamento (id_usuario, chave_idempotencia);
@@ -0,0 +1,53 @@
+package com.app.minhasfinancas.api.interceptor;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.app.minhasfinancas.config.ContadorHibernate;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MetricasHibernateInterceptorTest {
+	
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	MetricasHibernateInterceptor interceptor = new MetricasHibernateInterceptor(registry);
+	ContadorHibernate contador = new ContadorHibernate();
+	
+	@Test
+	public void deveRegistrarComandosEntidadesEFlushesPorEndpoint() throws Exception {
+		//cenario
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/usuarios/1/saldo");
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/usuarios/{id}/saldo");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		
+		//acao
+		interceptor.preHandle(request, response, null);
+		contador.onPrepareStatement("select 1");
+		contador.onPrepareStatement("select 2");
+		contador.onLoad(new Object(), 1L, null, null, null);
+		contador.postFlush(null);
+		interceptor.afterCompletion(request, response, null, null);
+		
+		//verificacao
+		DistributionSummary comandos = registry.get("hibernate.requisicao.comandos")
+				.tag("uri", "/api/usuarios/{id}/saldo").tag("method", "GET").summary();
+		Assertions.assertThat(comandos.count()).isEqualTo(1);
+		Assertions.assertThat(comandos.totalAmount()).isEqualTo(2);
+		Assertions.assertThat(registry.get("hibernate.requisicao.entidades").summary().totalAmount()).isEqualTo(1);
+		Assertions.assertThat(registry.get("hibernate.requisicao.flushes").summary().totalAmount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void naoDeveContarForaDeUmaRequisicao() {
+		//acao
+		contador.onPrepareStatement("select 1");
+		
+		//verificacao
+		Assertions.assertThat(ContadorHibernate.finalizar()).isNull();
+	}
+
+}
@@ -0,0 +1,203 @@
+package com.app.minhasfinancas.api.resource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles({"reativo", "test"})
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "spring.main.web-application-type=reactive")
+public class ApiReativaTest {
+
+	static final String API = "/api/usuarios";
+
+	@Autowired
+	WebTestClient client;
+
+	@Test
+	public void deveAutenticarUsuario() {
+		// cenario
+		String email = criarEmail();
+		Long id = criarUsuario(email);
+
+		// execucao e verificacao
+		client.post().uri(API.concat("/autenticar")).contentType(MediaType.APPLICATION_JSON)
+		.bodyValue(usuario(email, "senha")).exchange()
+		.expectStatus().isOk()
+		.expectBody()
+		.jsonPath("id").isEqualTo(id.intValue())
+		.jsonPath("email").isEqualTo(email)
+		.jsonPath("token").isNotEmpty()
+		.jsonPath("senha").doesNotExist();
+	}
+
+	@Test
+	public void deveRetornarBadRequestAoObterErroDeAutenticacao() {
+		// cenario
+		String email = criarEmail();
+		criarUsuario(email);
+
+		// execucao e verificacao
+		client.post().uri(API.concat("/autenticar")).contentType(MediaType.APPLICATION_JSON)
+		.bodyValue(usuario(email, "outra")).exchange()
+		.expectStatus().isBadRequest();
+	}
+
+	@Test
+	public void deveRetornarbadRequestAoCriarUsuarioinvalido() {
+		// cenario
+		String email = criarEmail();
+		criarUsuario(email);
+
+		// execucao e verificacao
+		client.post().uri(API).contentType(MediaType.APPLICATION_JSON)
+		.bodyValue(usuario(email, "senha")).exchange()
+		.expectStatus().isBadRequest();
+	}
+
+	@Test
+	public void deveObterResumoAnualDoUsuario() {
+		// cenario
+		Long id = criarUsuario(criarEmail());
+		criarLancamento(id, "Salario", "RECEITA");
+
+		// execucao e verificacao
+		client.get().uri(API.concat("/" + id + "/resumo?ano=2020")).exchange()
+		.expectStatus().isOk()
+		.expectBody()
+		.jsonPath("[0].mes").isEqualTo(1)
+		.jsonPath("[0].receitas.PENDENTE").isEqualTo(10.0)
+		.jsonPath("[0].despesas.PENDENTE").isEqualTo(0);
+	}
+
+	@Test
+	public void deveRetornarNotFoundAoObterSaldoDeUsuarioInexistente() {
+		// execucao e verificacao
+		client.get().uri(API.concat("/999999/saldo")).exchange()
+		.expectStatus().isNotFound();
+	}
+
+	@Test
+	public void deveObterSaldoPorTokenERetornarNotModifiedSemAlteracoes() {
+		// cenario
+		String email = criarEmail();
+		Long id = criarUsuario(email);
+		criarLancamento(id, "Salario", "RECEITA");
+		String token = autenticar(email);
+
+		// execucao e verificacao
+		String etag = client.get().uri(API.concat("/" + id + "/saldo")).header("Authorization", "Bearer " + token).exchange()
+		.expectStatus().isOk()
+		.expectBody(String.class).isEqualTo("10.00")
+		.returnResult().getResponseHeaders().getETag();
+
+		client.get().uri(API.concat("/" + id + "/saldo")).header("Authorization", "Bearer " + token)
+		.header("If-None-Match", etag).exchange()
+		.expectStatus().isNotModified()
+		.expectBody().isEmpty();
+
+		criarLancamento(id, "Luz", "DESPESA");
+
+		client.get().uri(API.concat("/" + id + "/saldo")).header("If-None-Match", etag).exchange()
+		.expectStatus().isOk()
+		.expectBody(String.class).isEqualTo("0.00");
+	}
+
+	@Test
+	public void deveRetornarForbiddenAoObterSaldoDeOutroUsuario() {
+		// cenario
+		String email = criarEmail();
+		Long id = criarUsuario(email);
+		String token = autenticar(email);
+
+		// execucao e verificacao
+		client.get().uri(API.concat("/" + (id + 1) + "/saldo")).header("Authorization", "Bearer " + token).exchange()
+		.expectStatus().isForbidden();
+	}
+
+	@Test
+	public void deveRetornarUnauthorizedComTokenInvalido() {
+		// execucao e verificacao
+		client.get().uri(API.concat("/1/saldo")).header("Authorization", "Bearer token").exchange()
+		.expectStatus().isUnauthorized();
+	}
+
+	@Test
+	public void deveBuscarEExportarLancamentosDoUsuario() {
+		// cenario
+		Long id = criarUsuario(criarEmail());
+		criarLancamento(id, "Conta de Luz", "DESPESA");
+		criarLancamento(id, "Salario", "RECEITA");
+
+		// execucao e verificacao
+		client.get().uri("/api/lancamentos?usuario=" + id + "&descricao=LUZ").exchange()
+		.expectStatus().isOk()
+		.expectHeader().exists("ETag")
+		.expectBody()
+		.jsonPath("length()").isEqualTo(1)
+		.jsonPath("[0].descricao").isEqualTo("Conta de Luz")
+		.jsonPath("[0].usuario").isEqualTo(id.intValue());
+
+		String exportacao = client.get().uri("/api/lancamentos/exportar?usuario=" + id).exchange()
+		.expectStatus().isOk()
+		.expectHeader().contentType(LancamentoResource.NDJSON)
+		.expectBody(String.class).returnResult().getResponseBody();
+
+		Assertions.assertThat(exportacao.split("\n")).hasSize(2);
+	}
+
+	private String criarEmail() {
+		return UUID.randomUUID() + "@email.com";
+	}
+
+	private Long criarUsuario(String email) {
+		Map resposta = client.post().uri(API).contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(usuario(email, "senha")).exchange()
+				.expectStatus().isCreated()
+				.expectBody(Map.class).returnResult().getResponseBody();
+
+		return ((Number) resposta.get("id")).longValue();
+	}
+
+	private String autenticar(String email) {
+		Map resposta = client.post().uri(API.concat("/autenticar")).contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(usuario(email, "senha")).exchange()
+				.expectStatus().isOk()
+				.expectBody(Map.class).returnResult().getResponseBody();
+
+		return (String) resposta.get("token");
+	}
+
+	private void criarLancamento(Long idUsuario, String descricao, String tipo) {
+		Map<String, Object> lancamento = new HashMap<>();
+		lancamento.put("descricao", descricao);
+		lancamento.put("mes", 1);
+		lancamento.put("ano", 2020);
+		lancamento.put("valor", 10);
+		lancamento.put("usuario", idUsuario);
+		lancamento.put("tipo", tipo);
+
+		client.post().uri("/api/lancamentos").contentType(MediaType.APPLICATION_JSON)
+		.bodyValue(lancamento).exchange()
+		.expectStatus().isCreated();
+	}
+
+	private Map<String, String> usuario(String email, String senha) {
+		Map<String, String> usuario = new HashMap<>();
+		usuario.put("nome", "usuario");
+		usuario.put("email", email);
+		usuario.put("senha", senha);
+		return usuario;
+	}
+}
@@ -0,0 +1,43 @@
+package com.app.minhasfinancas.api.resource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.app.minhasfinancas.config.ReativoConfig;
+import com.app.minhasfinancas.model.repository.LancamentoReativoRepository;
+import com.app.minhasfinancas.model.repository.UsuarioReativoRepository;
+
+import reactor.core.publisher.Mono;
+
+@ActiveProfiles({"reativo", "test"})
+@WebFluxTest(controllers = LancamentoReativoResource.class)
+@Import(ReativoConfig.class)
+public class LancamentoReativoResourceTest extends LancamentoResourceTest {
+
+	@Autowired
+	WebTestClient client;
+
+	@MockBean
+	LancamentoReativoRepository repository;
+
+	@MockBean
+	UsuarioReativoRepository usuarioRepository;
+
+	@BeforeEach
+	public void configurarGeracao() {
+		Mockito.when(usuarioRepository.obterGeracao(Mockito.anyLong())).thenReturn(Mono.just(0L));
+	}
+
+	@Override
+	protected ResultActions executar(MockHttpServletRequestBuilder request) throws Exception {
+		return RequisicaoReativa.executar(client, request);
+	}
+}
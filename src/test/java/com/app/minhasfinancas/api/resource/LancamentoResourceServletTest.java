@@ -0,0 +1,23 @@
+package com.app.minhasfinancas.api.resource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@ActiveProfiles("test")
+@WebMvcTest(controllers = LancamentoResource.class)
+@AutoConfigureMockMvc
+public class LancamentoResourceServletTest extends LancamentoResourceTest {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Override
+	protected ResultActions executar(MockHttpServletRequestBuilder request) throws Exception {
+		return mvc.perform(request);
+	}
+}
@@ -0,0 +1,249 @@
+package com.app.minhasfinancas.api.resource;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.app.minhasfinancas.exception.AcessoNegadoException;
+import com.app.minhasfinancas.exception.ConflitoVersaoException;
+import com.app.minhasfinancas.exception.LancamentoDuplicadoException;
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+import com.app.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.app.minhasfinancas.service.ImportacaoExtratoService;
+import com.app.minhasfinancas.service.IngestaoLancamentoService;
+import com.app.minhasfinancas.service.LancamentoService;
+import com.app.minhasfinancas.service.TokenService;
+import com.app.minhasfinancas.service.UsuarioService;
+
+/**
+ * Cenários comuns às duas pilhas; {@link LancamentoResourceServletTest} e {@link LancamentoReativoResourceTest}
+ * os executam contra {@link LancamentoResource} e {@link LancamentoReativoResource}.
+ */
+@ExtendWith(SpringExtension.class)
+public abstract class LancamentoResourceTest {
+
+	static final String API = "/api/lancamentos";
+	static final MediaType JSON = MediaType.APPLICATION_JSON;
+	static final String LANCAMENTO_SEM_USUARIO = "{\"descricao\":\"Luz\",\"mes\":1,\"ano\":2020,\"valor\":10,\"tipo\":\"DESPESA\"}";
+	static final String LANCAMENTO_DO_USUARIO_1 = "{\"descricao\":\"Luz\",\"mes\":1,\"ano\":2020,\"valor\":10,\"tipo\":\"DESPESA\",\"usuario\":1}";
+
+	@MockBean
+	LancamentoService service;
+
+	@MockBean
+	UsuarioService usuarioService;
+
+	@MockBean
+	IngestaoLancamentoService ingestaoService;
+
+	@MockBean
+	ImportacaoExtratoService importacaoService;
+
+	@MockBean
+	TokenService tokenService;
+
+	@Test
+	public void deveSalvarLancamentoParaOUsuarioDoToken() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(2L);
+		Mockito.when(usuarioService.obterporId(2L)).thenReturn(Optional.of(usuario(2L)));
+		Mockito.when(service.salvar(Mockito.any())).thenAnswer(invocacao -> {
+			Lancamento lancamento = invocacao.getArgument(0);
+			lancamento.setVersao(0L);
+			return lancamento;
+		});
+
+		// execucao e verificacao
+		executar(comToken(MockMvcRequestBuilders.post(API)).content(LANCAMENTO_SEM_USUARIO))
+		.andExpect(MockMvcResultMatchers.status().isCreated());
+
+		ArgumentCaptor<Lancamento> salvo = ArgumentCaptor.forClass(Lancamento.class);
+		Mockito.verify(service).salvar(salvo.capture());
+		Assertions.assertThat(salvo.getValue().getUsuario().getId()).isEqualTo(2L);
+	}
+
+	@Test
+	public void deveRepassarOIdempotencyKeyERetornarConflictQuandoJaRecebido() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(2L);
+		Mockito.when(usuarioService.obterporId(2L)).thenReturn(Optional.of(usuario(2L)));
+		Mockito.when(service.salvar(Mockito.any())).thenThrow(new LancamentoDuplicadoException("Lançamento já recebido"));
+
+		// execucao e verificacao
+		executar(comToken(MockMvcRequestBuilders.post(API)).header("Idempotency-Key", " corrida-2 ").content(LANCAMENTO_SEM_USUARIO))
+		.andExpect(MockMvcResultMatchers.status().isConflict());
+
+		ArgumentCaptor<Lancamento> salvo = ArgumentCaptor.forClass(Lancamento.class);
+		Mockito.verify(service).salvar(salvo.capture());
+		Assertions.assertThat(salvo.getValue().getChaveIdempotencia()).isEqualTo("corrida-2");
+	}
+
+	@Test
+	public void deveBuscarLancamentosPorDescricaoPeloServico() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(2L);
+		Mockito.when(service.buscar(Mockito.any(Lancamento.class))).thenReturn(Collections.singletonList(
+				new LancamentoProjecao(5L, "Conta de Luz", 1, 2020, BigDecimal.TEN, TipoLancamento.DESPESA, 
+						StatusLancamento.PENDENTE, null, 2L, 0L)));
+
+		// execucao e verificacao
+		executar(comToken(MockMvcRequestBuilders.get(API.concat("?descricao=lúz&ano=2020"))))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("[0].id").value(5))
+		.andExpect(MockMvcResultMatchers.jsonPath("[0].descricao").value("Conta de Luz"));
+
+		ArgumentCaptor<Lancamento> filtro = ArgumentCaptor.forClass(Lancamento.class);
+		Mockito.verify(service).buscar(filtro.capture());
+		Assertions.assertThat(filtro.getValue().getDescricao()).isEqualTo("lúz");
+		Assertions.assertThat(filtro.getValue().getAno()).isEqualTo(2020);
+		Assertions.assertThat(filtro.getValue().getUsuario().getId()).isEqualTo(2L);
+	}
+
+	@Test
+	public void deveRetornarForbiddenAoSalvarLancamentoDeOutroUsuario() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(2L);
+
+		// execucao e verificacao
+		executar(comToken(MockMvcRequestBuilders.post(API)).content(LANCAMENTO_DO_USUARIO_1))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+
+		Mockito.verify(service, Mockito.never()).salvar(Mockito.any());
+	}
+
+	@Test
+	public void deveRetornarForbiddenAoEnfileirarLancamentoDeOutroUsuario() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(2L);
+
+		// execucao e verificacao
+		executar(comToken(MockMvcRequestBuilders.post(API.concat("?assincrono=true"))).content(LANCAMENTO_DO_USUARIO_1))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+
+		Mockito.verify(ingestaoService, Mockito.never()).enfileirar(Mockito.any());
+	}
+
+	@Test
+	public void deveRetornarForbiddenAoSalvarLoteComLancamentoDeOutroUsuario() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(2L);
+
+		// execucao e verificacao
+		executar(comToken(MockMvcRequestBuilders.post(API.concat("/lote")))
+				.content("[" + LANCAMENTO_SEM_USUARIO + "," + LANCAMENTO_DO_USUARIO_1 + "]"))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+
+		Mockito.verify(service, Mockito.never()).salvarLote(Mockito.anyList());
+	}
+
+	@Test
+	public void deveRetornarForbiddenAoAtualizarLancamentoDeOutroUsuario() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(2L);
+		Mockito.when(usuarioService.obterporId(2L)).thenReturn(Optional.of(usuario(2L)));
+		Mockito.when(service.atualizar(Mockito.any())).thenThrow(new AcessoNegadoException("Lançamento de outro usuário."));
+
+		// execucao e verificacao
+		executar(comToken(MockMvcRequestBuilders.put(API.concat("/5"))).content(LANCAMENTO_SEM_USUARIO))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+
+		ArgumentCaptor<Lancamento> enviado = ArgumentCaptor.forClass(Lancamento.class);
+		Mockito.verify(service).atualizar(enviado.capture());
+		Assertions.assertThat(enviado.getValue().getUsuario().getId()).isEqualTo(2L);
+		Mockito.verify(service, Mockito.never()).obterPorId(Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	public void deveRetornarForbiddenAoAtualizarStatusDeLancamentoDeOutroUsuario() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(2L);
+		Mockito.when(service.atualizarStatus(5L, 2L, StatusLancamento.EFETIVADO, null))
+			.thenThrow(new AcessoNegadoException("Lançamento de outro usuário."));
+
+		// execucao e verificacao
+		executar(comToken(MockMvcRequestBuilders.put(API.concat("/5/atualiza-status"))).content("{\"status\":\"EFETIVADO\"}"))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+
+		Mockito.verify(service, Mockito.never()).obterPorId(Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	public void deveRetornarBadRequestComIfMatchMalformado() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(1L);
+		Mockito.when(usuarioService.obterporId(1L)).thenReturn(Optional.of(usuario(1L)));
+
+		// execucao e verificacao
+		executar(comToken(MockMvcRequestBuilders.put(API.concat("/5"))).header("If-Match", "\"abc\"").content(LANCAMENTO_SEM_USUARIO))
+		.andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+		executar(comToken(MockMvcRequestBuilders.put(API.concat("/5/atualiza-status"))).header("If-Match", "\"abc\"")
+				.content("{\"status\":\"EFETIVADO\"}"))
+		.andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+		Mockito.verify(service, Mockito.never()).atualizar(Mockito.any());
+		Mockito.verify(service, Mockito.never()).atualizarStatus(Mockito.anyLong(), Mockito.any(), Mockito.any(StatusLancamento.class), Mockito.any());
+	}
+
+	@Test
+	public void deveRetornarPreconditionFailedQuandoVersaoDivergir() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(1L);
+		Mockito.when(service.atualizarStatus(5L, 1L, StatusLancamento.EFETIVADO, 3L))
+			.thenThrow(new ConflitoVersaoException("Lançamento alterado por outra requisição."));
+
+		// execucao e verificacao
+		executar(comToken(MockMvcRequestBuilders.put(API.concat("/5/atualiza-status"))).header("If-Match", "\"3\"")
+				.content("{\"status\":\"EFETIVADO\"}"))
+		.andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+	}
+
+	@Test
+	public void deveRetornarForbiddenAoDeletarLancamentoDeOutroUsuario() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(2L);
+		Mockito.when(service.obterPorId(5L, 2L)).thenReturn(Optional.of(lancamentoDoUsuario1()));
+
+		// execucao e verificacao
+		executar(comToken(MockMvcRequestBuilders.delete(API.concat("/5"))))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+
+		Mockito.verify(service, Mockito.never()).deletar(Mockito.any());
+	}
+
+	private MockHttpServletRequestBuilder comToken(MockHttpServletRequestBuilder request) {
+		return request.header("Authorization", "Bearer token").contentType(JSON).accept(JSON);
+	}
+
+	private Lancamento lancamentoDoUsuario1() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(5L);
+		lancamento.setUsuario(usuario(1L));
+		return lancamento;
+	}
+
+	private Usuario usuario(Long id) {
+		Usuario usuario = new Usuario();
+		usuario.setId(id);
+		return usuario;
+	}
+
+	protected abstract ResultActions executar(MockHttpServletRequestBuilder request) throws Exception;
+}
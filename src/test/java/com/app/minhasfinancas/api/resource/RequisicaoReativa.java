@@ -0,0 +1,129 @@
+package com.app.minhasfinancas.api.resource;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.ResultHandler;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Envia pela pilha reativa a requisição montada para o MockMvc e devolve a resposta como um
+ * {@link MvcResult}: assim os mesmos cenários e verificações dos testes servlet rodam nas duas pilhas.
+ */
+class RequisicaoReativa {
+
+	private RequisicaoReativa() {
+	}
+
+	static ResultActions executar(WebTestClient client, MockHttpServletRequestBuilder builder) throws Exception {
+		MockHttpServletRequest request = builder.buildRequest(new MockServletContext());
+		// a query string já vem codificada e não pode passar de novo pelo template de URI
+		URI uri = URI.create(request.getQueryString() == null ? request.getRequestURI()
+				: request.getRequestURI() + "?" + request.getQueryString());
+
+		WebTestClient.RequestBodySpec requisicao = client.method(HttpMethod.resolve(request.getMethod())).uri(uri);
+		for (String nome : Collections.list(request.getHeaderNames())) {
+			requisicao.header(nome, Collections.list(request.getHeaders(nome)).toArray(new String[0]));
+		}
+
+		byte[] corpo = request.getContentAsByteArray();
+		WebTestClient.RequestHeadersSpec<?> envio = corpo == null ? requisicao : requisicao.bodyValue(corpo);
+		EntityExchangeResult<byte[]> resultado = envio.exchange().expectBody().returnResult();
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		response.setStatus(resultado.getRawStatusCode());
+		resultado.getResponseHeaders().forEach((nome, valores) -> valores.forEach(valor -> response.addHeader(nome, valor)));
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		if(resultado.getResponseBody() != null) {
+			response.getOutputStream().write(resultado.getResponseBody());
+		}
+
+		return new Resultado(request, response);
+	}
+
+	private static class Resultado implements MvcResult, ResultActions {
+
+		private final MockHttpServletRequest request;
+		private final MockHttpServletResponse response;
+
+		Resultado(MockHttpServletRequest request, MockHttpServletResponse response) {
+			this.request = request;
+			this.response = response;
+		}
+
+		@Override
+		public ResultActions andExpect(ResultMatcher matcher) throws Exception {
+			matcher.match(this);
+			return this;
+		}
+
+		@Override
+		public ResultActions andDo(ResultHandler handler) throws Exception {
+			handler.handle(this);
+			return this;
+		}
+
+		@Override
+		public MvcResult andReturn() {
+			return this;
+		}
+
+		@Override
+		public MockHttpServletRequest getRequest() {
+			return request;
+		}
+
+		@Override
+		public MockHttpServletResponse getResponse() {
+			return response;
+		}
+
+		@Override
+		public Object getHandler() {
+			return null;
+		}
+
+		@Override
+		public HandlerInterceptor[] getInterceptors() {
+			return null;
+		}
+
+		@Override
+		public ModelAndView getModelAndView() {
+			return null;
+		}
+
+		@Override
+		public Exception getResolvedException() {
+			return null;
+		}
+
+		@Override
+		public FlashMap getFlashMap() {
+			return null;
+		}
+
+		@Override
+		public Object getAsyncResult() {
+			return null;
+		}
+
+		@Override
+		public Object getAsyncResult(long timeToWait) {
+			return null;
+		}
+	}
+}
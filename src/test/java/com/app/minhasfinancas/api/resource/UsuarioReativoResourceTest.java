@@ -0,0 +1,75 @@
+package com.app.minhasfinancas.api.resource;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.app.minhasfinancas.config.ReativoConfig;
+import com.app.minhasfinancas.model.repository.UsuarioReativoRepository;
+
+import reactor.core.publisher.Mono;
+
+@ActiveProfiles({"reativo", "test"})
+@WebFluxTest(controllers = UsuarioReativoResource.class)
+@Import(ReativoConfig.class)
+public class UsuarioReativoResourceTest extends UsuarioResourceTest {
+
+	@Autowired
+	WebTestClient client;
+
+	@MockBean
+	UsuarioReativoRepository repository;
+
+	@Test
+	public void deveObterSaldoSemConsultarUsuarioQuandoAutenticadoPorToken() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(1L);
+		Mockito.when(repository.obterGeracao(1L)).thenReturn(Mono.just(7L));
+		Mockito.when(repository.obterSaldo(1L)).thenReturn(Mono.just(BigDecimal.TEN));
+
+		// execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/saldo"))
+				.header("Authorization", "Bearer token").accept(JSON);
+
+		executar(request)
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.header().string("ETag", "\"1.7\""))
+		.andExpect(MockMvcResultMatchers.content().string("10"));
+
+		Mockito.verify(repository, Mockito.never()).existe(Mockito.anyLong());
+	}
+
+	@Test
+	public void deveRetornarNotModifiedQuandoGeracaoDoUsuarioNaoMudou() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(1L);
+		Mockito.when(repository.obterGeracao(1L)).thenReturn(Mono.just(7L));
+
+		// execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/saldo"))
+				.header("Authorization", "Bearer token").header("If-None-Match", "\"1.7\"").accept(JSON);
+
+		executar(request)
+		.andExpect(MockMvcResultMatchers.status().isNotModified())
+		.andExpect(MockMvcResultMatchers.header().string("ETag", "\"1.7\""))
+		.andExpect(MockMvcResultMatchers.content().string(""));
+
+		Mockito.verify(repository, Mockito.never()).obterSaldo(Mockito.anyLong());
+	}
+
+	@Override
+	protected ResultActions executar(MockHttpServletRequestBuilder request) throws Exception {
+		return RequisicaoReativa.executar(client, request);
+	}
+}
@@ -0,0 +1,64 @@
+package com.app.minhasfinancas.api.resource;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@ActiveProfiles("test")
+@WebMvcTest(controllers = UsuarioResource.class)
+@AutoConfigureMockMvc
+public class UsuarioResourceServletTest extends UsuarioResourceTest {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Test
+	public void deveObterSaldoSemConsultarUsuarioQuandoAutenticadoPorToken() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(1L);
+		Mockito.when(lancamentoService.obterSaldoPorUsuario(1L)).thenReturn(BigDecimal.TEN);
+		
+		// execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/saldo"))
+				.header("Authorization", "Bearer token").accept(JSON);
+		
+		mvc.perform(request)
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.content().string("10"));
+		
+		Mockito.verify(service, Mockito.never()).obterporId(Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveRetornarNotModifiedQuandoGeracaoDoUsuarioNaoMudou() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(1L);
+		Mockito.when(lancamentoService.obterGeracao(1L)).thenReturn(7L);
+
+		// execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/saldo"))
+				.header("Authorization", "Bearer token").header("If-None-Match", "\"1.7\"").accept(JSON);
+
+		mvc.perform(request)
+		.andExpect(MockMvcResultMatchers.status().isNotModified())
+		.andExpect(MockMvcResultMatchers.header().string("ETag", "\"1.7\""))
+		.andExpect(MockMvcResultMatchers.content().string(""));
+
+		Mockito.verify(lancamentoService, Mockito.never()).obterSaldoPorUsuario(Mockito.anyLong());
+	}
+
+	@Override
+	protected ResultActions executar(MockHttpServletRequestBuilder request) throws Exception {
+		return mvc.perform(request);
+	}
+}
@@ -1,46 +1,65 @@
 package com.app.minhasfinancas.api.resource;
 
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Optional;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
-import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
-import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
-import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import com.app.minhasfinancas.dto.PainelDTO;
+import com.app.minhasfinancas.dto.PontoPainelDTO;
+import com.app.minhasfinancas.dto.RelatorioAnualDTO;
+import com.app.minhasfinancas.dto.ResumoMensalDTO;
 import com.app.minhasfinancas.dto.UsuarioDTO;
 import com.app.minhasfinancas.exception.ErroAutenticacao;
 import com.app.minhasfinancas.exception.RegraNegocioException;
 import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
 import com.app.minhasfinancas.service.LancamentoService;
+import com.app.minhasfinancas.service.PainelService;
+import com.app.minhasfinancas.service.RelatorioService;
+import com.app.minhasfinancas.service.ResumoMensalService;
+import com.app.minhasfinancas.service.TokenService;
 import com.app.minhasfinancas.service.UsuarioService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+/**
+ * Cenários comuns às duas pilhas; {@link UsuarioResourceServletTest} e {@link UsuarioReativoResourceTest}
+ * os executam contra {@link UsuarioResource} e {@link UsuarioReativoResource}.
+ */
 @ExtendWith(SpringExtension.class)
-@ActiveProfiles("test")
-@WebMvcTest(controllers = UsuarioResource.class)
-@AutoConfigureMockMvc
-public class UsuarioResourceTest {
+public abstract class UsuarioResourceTest {
 
 	static final String API = "/api/usuarios";
 	static final MediaType JSON = MediaType.APPLICATION_JSON;
 
-	@Autowired
-	MockMvc mvc;
-
 	@MockBean
 	UsuarioService service;
 	
 	@MockBean
 	LancamentoService lancamentoService;
+	
+	@MockBean
+	ResumoMensalService resumoMensalService;
+	
+	@MockBean
+	TokenService tokenService;
+	
+	@MockBean
+	RelatorioService relatorioService;
+	
+	@MockBean
+	PainelService painelService;
 
 	@Test
 	public void deveAutenticarUsuario() throws Exception {
@@ -57,6 +76,7 @@ public class UsuarioResourceTest {
 		usuario.setSenha(senha);
 
 		Mockito.when(service.autenticar(email, senha)).thenReturn(usuario);
+		Mockito.when(tokenService.gerarToken(usuario)).thenReturn("token");
 
 		String json = new ObjectMapper().writeValueAsString(dto);
 
@@ -64,11 +84,13 @@ public class UsuarioResourceTest {
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/autenticar")).accept(JSON)
 				.contentType(JSON).content(json);
 		
-		mvc.perform(request)
+		executar(request)
 		.andExpect(MockMvcResultMatchers.status().isOk())
 		.andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
 		.andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
-		.andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
+		.andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+		.andExpect(MockMvcResultMatchers.jsonPath("token").value("token"))
+		.andExpect(MockMvcResultMatchers.jsonPath("senha").doesNotExist());
 
 	}
 	
@@ -89,7 +111,7 @@ public class UsuarioResourceTest {
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/autenticar")).accept(JSON)
 				.contentType(JSON).content(json);
 		
-		mvc.perform(request)
+		executar(request)
 		.andExpect(MockMvcResultMatchers.status().isBadRequest());
 
 	}
@@ -116,7 +138,7 @@ public class UsuarioResourceTest {
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API).accept(JSON)
 				.contentType(JSON).content(json);
 		
-		mvc.perform(request)
+		executar(request)
 		.andExpect(MockMvcResultMatchers.status().isCreated())
 		.andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
 		.andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
@@ -141,8 +163,147 @@ public class UsuarioResourceTest {
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API).accept(JSON)
 				.contentType(JSON).content(json);
 		
-		mvc.perform(request)
+		executar(request)
 		.andExpect(MockMvcResultMatchers.status().isBadRequest());
 
 	}
+	
+	@Test
+	public void deveObterResumoAnualDoUsuario() throws Exception {
+		// cenario
+		Usuario usuario = new Usuario();
+		usuario.setId(1L);
+		
+		ResumoMensalDTO janeiro = new ResumoMensalDTO(1);
+		janeiro.getReceitas().put(StatusLancamento.EFETIVADO, BigDecimal.TEN);
+		
+		Mockito.when(service.obterporId(1L)).thenReturn(Optional.of(usuario));
+		Mockito.when(resumoMensalService.obterResumoAnual(1L, 2020)).thenReturn(Arrays.asList(janeiro));
+		
+		// execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/resumo?ano=2020")).accept(JSON);
+		
+		executar(request)
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("[0].mes").value(1))
+		.andExpect(MockMvcResultMatchers.jsonPath("[0].receitas.EFETIVADO").value(10))
+		.andExpect(MockMvcResultMatchers.jsonPath("[0].despesas.PENDENTE").value(0));
+	}
+	
+	@Test
+	public void deveObterRelatorioAnualDoUsuario() throws Exception {
+		// cenario
+		Usuario usuario = new Usuario();
+		usuario.setId(1L);
+		
+		RelatorioAnualDTO relatorio = new RelatorioAnualDTO(2020);
+		relatorio.setReceitas(BigDecimal.TEN);
+		
+		Mockito.when(service.obterporId(1L)).thenReturn(Optional.of(usuario));
+		Mockito.when(relatorioService.gerarRelatorioAnual(1L, 2020)).thenReturn(relatorio);
+		
+		// execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/relatorio?ano=2020")).accept(JSON);
+		
+		executar(request)
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("ano").value(2020))
+		.andExpect(MockMvcResultMatchers.jsonPath("saldo").value(10))
+		.andExpect(MockMvcResultMatchers.jsonPath("quantidadePorStatus.PENDENTE").value(0));
+	}
+	
+	@Test
+	public void deveRetornarBadRequestAoObterRelatorioDeAnoInvalido() throws Exception {
+		// cenario
+		Usuario usuario = new Usuario();
+		usuario.setId(1L);
+		
+		Mockito.when(service.obterporId(1L)).thenReturn(Optional.of(usuario));
+		Mockito.when(relatorioService.gerarRelatorioAnual(1L, 20)).thenThrow(new RegraNegocioException("Informe um ano válido!"));
+		
+		// execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/relatorio?ano=20")).accept(JSON);
+		
+		executar(request)
+		.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	@Test
+	public void deveObterPainelDoUsuario() throws Exception {
+		// cenario
+		Usuario usuario = new Usuario();
+		usuario.setId(1L);
+		
+		PontoPainelDTO janeiro = new PontoPainelDTO(2020, 1, BigDecimal.TEN, BigDecimal.ONE);
+		PainelDTO painel = new PainelDTO(BigDecimal.TEN, BigDecimal.ONE, 2, Arrays.asList(janeiro));
+		
+		Mockito.when(service.obterporId(1L)).thenReturn(Optional.of(usuario));
+		Mockito.when(painelService.obterPainel(1L, 2020, null, StatusLancamento.EFETIVADO)).thenReturn(painel);
+		
+		// execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/painel?ano=2020&status=EFETIVADO")).accept(JSON);
+		
+		executar(request)
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("saldo").value(9))
+		.andExpect(MockMvcResultMatchers.jsonPath("quantidade").value(2))
+		.andExpect(MockMvcResultMatchers.jsonPath("serie[0].mes").value(1));
+	}
+	
+	@Test
+	public void deveRetornarBadRequestAoObterPainelComTipoInvalido() throws Exception {
+		// cenario
+		Usuario usuario = new Usuario();
+		usuario.setId(1L);
+		
+		Mockito.when(service.obterporId(1L)).thenReturn(Optional.of(usuario));
+		
+		// execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/painel?tipo=OUTRO")).accept(JSON);
+		
+		executar(request)
+		.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		
+		Mockito.verifyNoInteractions(painelService);
+	}
+	
+	@Test
+	public void deveRetornarNotFoundAoObterResumoDeUsuarioInexistente() throws Exception {
+		// cenario
+		Mockito.when(service.obterporId(1L)).thenReturn(Optional.empty());
+		
+		// execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/resumo?ano=2020")).accept(JSON);
+		
+		executar(request)
+		.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+	
+	@Test
+	public void deveRetornarForbiddenAoObterSaldoDeOutroUsuario() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(2L);
+		
+		// execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/saldo"))
+				.header("Authorization", "Bearer token").accept(JSON);
+		
+		executar(request)
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+	}
+	
+	@Test
+	public void deveRetornarUnauthorizedComTokenInvalido() throws Exception {
+		// cenario
+		Mockito.when(tokenService.obterIdUsuario("token")).thenThrow(new ErroAutenticacao("Token inválido!"));
+		
+		// execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/saldo"))
+				.header("Authorization", "Bearer token").accept(JSON);
+		
+		executar(request)
+		.andExpect(MockMvcResultMatchers.status().isUnauthorized());
+	}
+	
+	protected abstract ResultActions executar(MockHttpServletRequestBuilder request) throws Exception;
 }
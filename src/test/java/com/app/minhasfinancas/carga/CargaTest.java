@@ -0,0 +1,393 @@
+package com.app.minhasfinancas.carga;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Formatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.service.LancamentoService;
+import com.app.minhasfinancas.service.UsuarioService;
+
+/**
+ * Carga mista sobre HTTP real contra a aplicação embarcada no perfil de teste.
+ * Roda apenas com {@code mvn -Pcarga test}; parâmetros por -D (ver {@link Configuracao}).
+ * <p>
+ * Cada cliente envia requisições em ritmo fixo ({@code carga.vazao} dividida entre os
+ * clientes) e a latência é medida a partir do horário em que a requisição deveria ter
+ * saído: se o servidor atrasa, a espera das requisições seguintes entra no histograma
+ * em vez de simplesmente reduzir o ritmo (coordinated omission). Histogramas HDR (em
+ * microssegundos) e o resumo ficam em target/carga; o p99 e a vazão de cada endpoint
+ * são comparados ao baseline, e a build falha se piorarem além da tolerância ou se o
+ * baseline não existir. Com {@code -Dcarga.gravar-baseline=true} o resultado da
+ * execução é gravado em {@code carga.baseline}, junto dos parâmetros de carga; grave-o
+ * na máquina em que o teste será comparado, já que os números dependem dela.
+ */
+@Tag("carga")
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"logging.level.root=WARN",
+		"logging.level.com.app.minhasfinancas.carga=INFO"
+})
+public class CargaTest {
+
+	private static final Logger log = LoggerFactory.getLogger(CargaTest.class);
+
+	private static final String SENHA = "senha";
+	private static final Path SAIDA = Paths.get("target", "carga");
+	private static final String PARAMETROS = "parametros.";
+
+	enum Endpoint {
+		AUTENTICAR(2), CRIAR(20), BUSCAR(35), ATUALIZAR_STATUS(15), SALDO(28);
+
+		final int peso;
+
+		Endpoint(int peso) {
+			this.peso = peso;
+		}
+
+		static Endpoint sortear() {
+			int valor = ThreadLocalRandom.current().nextInt(100);
+			for (Endpoint endpoint : values()) {
+				valor -= endpoint.peso;
+				if(valor < 0) {
+					return endpoint;
+				}
+			}
+			return SALDO;
+		}
+	}
+
+	static class Configuracao {
+		final int usuarios = Integer.getInteger("carga.usuarios", 20);
+		final int lancamentosPorUsuario = Integer.getInteger("carga.lancamentos-por-usuario", 500);
+		final int clientes = Integer.getInteger("carga.clientes", 16);
+		final int vazao = Integer.getInteger("carga.vazao", 150);
+		final int aquecimentoSegundos = Integer.getInteger("carga.aquecimento-segundos", 10);
+		final int duracaoSegundos = Integer.getInteger("carga.duracao-segundos", 30);
+		final double tolerancia = Double.parseDouble(System.getProperty("carga.tolerancia", "0.25"));
+		final double taxaMaximaErros = Double.parseDouble(System.getProperty("carga.taxa-maxima-erros", "0.01"));
+		final Path baseline = Paths.get(System.getProperty("carga.baseline", "src/test/resources/carga/baseline.properties"));
+		final boolean gravarBaseline = Boolean.getBoolean("carga.gravar-baseline");
+
+		long intervaloNanos() {
+			return TimeUnit.SECONDS.toNanos(clientes) / vazao;
+		}
+	}
+
+	static class Cliente {
+		final Usuario usuario;
+		final List<Long> lancamentos;
+		String token;
+
+		Cliente(Usuario usuario, List<Long> lancamentos) {
+			this.usuario = usuario;
+			this.lancamentos = lancamentos;
+		}
+	}
+
+	static class Resultado {
+		final Map<Endpoint, Histogram> latencias = new EnumMap<>(Endpoint.class);
+		final Map<Endpoint, Long> erros = new EnumMap<>(Endpoint.class);
+
+		Resultado() {
+			for (Endpoint endpoint : Endpoint.values()) {
+				latencias.put(endpoint, new Histogram(TimeUnit.MINUTES.toMicros(1), 3));
+				erros.put(endpoint, 0L);
+			}
+		}
+
+		void somar(Resultado outro) {
+			for (Endpoint endpoint : Endpoint.values()) {
+				latencias.get(endpoint).add(outro.latencias.get(endpoint));
+				erros.merge(endpoint, outro.erros.get(endpoint), Long::sum);
+			}
+		}
+	}
+
+	@LocalServerPort
+	int porta;
+
+	@Autowired
+	UsuarioService usuarioService;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	Configuracao configuracao = new Configuracao();
+
+	@Test
+	public void deveManterLatenciaEVazaoDentroDoBaseline() throws Exception {
+		//cenario
+		System.setProperty("http.maxConnections", String.valueOf(configuracao.clientes));
+		List<Cliente> clientes = popular();
+		RestTemplate rest = new RestTemplate();
+		String base = "http://localhost:" + porta + "/api";
+
+		//acao
+		executar(clientes, rest, base, configuracao.aquecimentoSegundos);
+		Resultado resultado = executar(clientes, rest, base, configuracao.duracaoSegundos);
+
+		//verificacao
+		Properties atual = relatar(resultado);
+		verificarBaseline(atual, resultado);
+	}
+
+	private List<Cliente> popular() {
+		List<Cliente> clientes = new ArrayList<>(configuracao.usuarios);
+
+		for (int u = 0; u < configuracao.usuarios; u++) {
+			Usuario usuario = new Usuario();
+			usuario.setNome("carga " + u);
+			usuario.setEmail("carga" + u + "@email.com");
+			usuario.setSenha(SENHA);
+			usuario = usuarioService.salvarUsuario(usuario);
+
+			List<Lancamento> lancamentos = new ArrayList<>(configuracao.lancamentosPorUsuario);
+			for (int i = 0; i < configuracao.lancamentosPorUsuario; i++) {
+				lancamentos.add(novoLancamento(usuario, i));
+			}
+			lancamentoService.salvarLote(lancamentos);
+
+			List<Long> ids = new ArrayList<>(lancamentos.size());
+			lancamentos.forEach(lancamento -> ids.add(lancamento.getId()));
+			clientes.add(new Cliente(usuario, ids));
+		}
+
+		return clientes;
+	}
+
+	private Resultado executar(List<Cliente> clientes, RestTemplate rest, String base, int segundos) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(configuracao.clientes);
+		long intervalo = configuracao.intervaloNanos();
+		long comeco = System.nanoTime();
+		long fim = comeco + TimeUnit.SECONDS.toNanos(segundos);
+		List<Future<Resultado>> parciais = new ArrayList<>();
+
+		for (int c = 0; c < configuracao.clientes; c++) {
+			Cliente cliente = clientes.get(c % clientes.size());
+			long defasagem = intervalo * c / configuracao.clientes;
+			parciais.add(executor.submit(() -> {
+				Resultado parcial = new Resultado();
+				for (long previsto = comeco + defasagem; previsto < fim && System.nanoTime() < fim; previsto += intervalo) {
+					long espera = previsto - System.nanoTime();
+					if(espera > 0) {
+						LockSupport.parkNanos(espera);
+					}
+
+					Endpoint endpoint = cliente.token == null ? Endpoint.AUTENTICAR : Endpoint.sortear();
+					try {
+						requisitar(endpoint, cliente, rest, base);
+						parcial.latencias.get(endpoint).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - previsto));
+					} catch (RestClientException e) {
+						parcial.erros.merge(endpoint, 1L, Long::sum);
+					}
+				}
+				return parcial;
+			}));
+		}
+
+		Resultado resultado = new Resultado();
+		for (Future<Resultado> parcial : parciais) {
+			resultado.somar(parcial.get());
+		}
+		executor.shutdown();
+
+		return resultado;
+	}
+
+	private void requisitar(Endpoint endpoint, Cliente cliente, RestTemplate rest, String base) {
+		ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		if(cliente.token != null) {
+			headers.setBearerAuth(cliente.token);
+		}
+		Long idUsuario = cliente.usuario.getId();
+
+		switch (endpoint) {
+		case AUTENTICAR:
+			Map<String, String> credenciais = new HashMap<>();
+			credenciais.put("email", cliente.usuario.getEmail());
+			credenciais.put("senha", SENHA);
+			Map<?, ?> autenticado = rest.postForObject(base + "/usuarios/autenticar", new HttpEntity<>(credenciais, headers), Map.class);
+			cliente.token = (String) autenticado.get("token");
+			break;
+
+		case CRIAR:
+			Map<String, Object> lancamento = new HashMap<>();
+			lancamento.put("descricao", "carga " + aleatorio.nextInt(1000));
+			lancamento.put("ano", 2020);
+			lancamento.put("mes", aleatorio.nextInt(1, 13));
+			lancamento.put("valor", BigDecimal.valueOf(aleatorio.nextInt(1, 100000), 2));
+			lancamento.put("tipo", aleatorio.nextBoolean() ? "RECEITA" : "DESPESA");
+			lancamento.put("usuario", idUsuario);
+			rest.exchange(base + "/lancamentos", HttpMethod.POST, new HttpEntity<>(lancamento, headers), String.class);
+			break;
+
+		case BUSCAR:
+			String url = base + "/lancamentos?usuario=" + idUsuario + "&ano=2020&mes=" + aleatorio.nextInt(1, 13);
+			if(aleatorio.nextInt(4) == 0) {
+				url += "&descricao=" + aleatorio.nextInt(100);
+			}
+			rest.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+			break;
+
+		case ATUALIZAR_STATUS:
+			Long id = cliente.lancamentos.get(aleatorio.nextInt(cliente.lancamentos.size()));
+			String status = aleatorio.nextBoolean() ? "EFETIVADO" : "CANCELADO";
+			rest.exchange(base + "/lancamentos/" + id + "/atualiza-status", HttpMethod.PUT,
+					new HttpEntity<>(Collections.singletonMap("status", status), headers), String.class);
+			break;
+
+		case SALDO:
+			rest.exchange(base + "/usuarios/" + idUsuario + "/saldo", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+			break;
+		}
+	}
+
+	private Properties relatar(Resultado resultado) throws IOException {
+		Files.createDirectories(SAIDA);
+		Properties atual = new Properties();
+		StringWriter resumo = new StringWriter();
+		Formatter tabela = new Formatter(resumo, Locale.ROOT);
+
+		tabela.format("%-18s %10s %10s %10s %10s %10s %10s %8s%n",
+				"endpoint", "req/s", "p50(us)", "p99(us)", "p999(us)", "max(us)", "total", "erros");
+
+		for (Endpoint endpoint : Endpoint.values()) {
+			Histogram histograma = resultado.latencias.get(endpoint);
+			double vazao = (double) histograma.getTotalCount() / configuracao.duracaoSegundos;
+
+			tabela.format("%-18s %10.1f %10d %10d %10d %10d %10d %8d%n", endpoint, vazao,
+					histograma.getValueAtPercentile(50), histograma.getValueAtPercentile(99),
+					histograma.getValueAtPercentile(99.9), histograma.getMaxValue(),
+					histograma.getTotalCount(), resultado.erros.get(endpoint));
+
+			try (PrintStream saida = new PrintStream(Files.newOutputStream(SAIDA.resolve(endpoint.name().toLowerCase() + ".hgrm")))) {
+				histograma.outputPercentileDistribution(saida, 1.0);
+			}
+
+			String chave = endpoint.name().toLowerCase();
+			atual.setProperty(chave + ".p99", String.valueOf(histograma.getValueAtPercentile(99)));
+			atual.setProperty(chave + ".vazao", String.format(Locale.ROOT, "%.1f", vazao));
+		}
+
+		atual.setProperty(PARAMETROS + "clientes", String.valueOf(configuracao.clientes));
+		atual.setProperty(PARAMETROS + "vazao", String.valueOf(configuracao.vazao));
+
+		Files.write(SAIDA.resolve("resumo.txt"), resumo.toString().getBytes(StandardCharsets.UTF_8));
+		log.info("Carga de {} req/s com {} clientes por {}s:{}{}", configuracao.vazao, configuracao.clientes,
+				configuracao.duracaoSegundos, System.lineSeparator(), resumo);
+
+		if(configuracao.gravarBaseline) {
+			Files.createDirectories(configuracao.baseline.toAbsolutePath().getParent());
+			try (OutputStream saida = Files.newOutputStream(configuracao.baseline)) {
+				atual.store(saida, "p99 em microssegundos, vazao em requisicoes por segundo");
+			}
+			log.info("Baseline gravado em {}", configuracao.baseline);
+		}
+
+		return atual;
+	}
+
+	private void verificarBaseline(Properties atual, Resultado resultado) throws IOException {
+		long total = 0;
+		long erros = 0;
+		for (Endpoint endpoint : Endpoint.values()) {
+			total += resultado.latencias.get(endpoint).getTotalCount() + resultado.erros.get(endpoint);
+			erros += resultado.erros.get(endpoint);
+		}
+		Assertions.assertThat(total).as("nenhuma requisição concluída").isPositive();
+		Assertions.assertThat((double) erros / total).as("taxa de erros").isLessThanOrEqualTo(configuracao.taxaMaximaErros);
+
+		Assertions.assertThat(configuracao.baseline)
+			.as("baseline não encontrado; grave-o com -Dcarga.gravar-baseline=true")
+			.exists();
+
+		Properties baseline = new Properties();
+		try (InputStream entrada = Files.newInputStream(configuracao.baseline)) {
+			baseline.load(entrada);
+		}
+
+		List<String> regressoes = new ArrayList<>();
+		for (String chave : baseline.stringPropertyNames()) {
+			if(chave.startsWith(PARAMETROS)) {
+				Assertions.assertThat(atual.getProperty(chave)).as("baseline gravado com outro %s", chave)
+					.isEqualTo(baseline.getProperty(chave));
+				continue;
+			}
+			if(atual.getProperty(chave) == null) {
+				continue;
+			}
+			double esperado = Double.parseDouble(baseline.getProperty(chave));
+			double medido = Double.parseDouble(atual.getProperty(chave));
+
+			boolean piorou = chave.endsWith(".vazao")
+					? medido < esperado * (1 - configuracao.tolerancia)
+					: medido > esperado * (1 + configuracao.tolerancia);
+
+			if(piorou) {
+				regressoes.add(chave + ": baseline " + esperado + ", medido " + medido);
+			}
+		}
+
+		Assertions.assertThat(regressoes).as("regressões acima de %.0f%%", configuracao.tolerancia * 100).isEmpty();
+	}
+
+	private Lancamento novoLancamento(Usuario usuario, int indice) {
+		Lancamento lancamento = new Lancamento();
+		lancamento.setDescricao("lançamento " + indice);
+		lancamento.setAno(2020);
+		lancamento.setMes(indice % 12 + 1);
+		lancamento.setValor(BigDecimal.valueOf(indice % 1000 + 1));
+		lancamento.setTipo(indice % 3 == 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA);
+		lancamento.setUsuario(usuario);
+		return lancamento;
+	}
+
+}
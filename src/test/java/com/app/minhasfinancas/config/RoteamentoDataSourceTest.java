@@ -0,0 +1,113 @@
+package com.app.minhasfinancas.config;
+
+import java.util.Collections;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+import com.app.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.app.minhasfinancas.service.ConsistenciaLeituraService;
+import com.app.minhasfinancas.service.impl.ConsistenciaLeituraServiceImpl;
+
+public class RoteamentoDataSourceTest {
+
+	DataSource primario = criarBanco("primario");
+	DataSource replica = criarBanco("replica");
+
+	RoteamentoDataSource roteamento = new RoteamentoDataSource(primario, replica, "select segundos from atraso", 1000);
+	DataSource dataSource = new LazyConnectionDataSourceProxy(roteamento);
+
+	@AfterEach
+	public void apagarBancos() {
+		new JdbcTemplate(primario).execute("drop all objects");
+		new JdbcTemplate(replica).execute("drop all objects");
+	}
+
+	@Test
+	public void deveLerDaReplicaSomenteEmTransacaoSomenteLeituraLiberada() {
+		//cenario
+		roteamento.verificarReplica();
+
+		//acao
+		String leituraLiberada = origem(true, RoteamentoDataSource::liberarReplicaNaTransacao);
+		String leituraNaoLiberada = origem(true, () -> {});
+		String escrita = origem(false, RoteamentoDataSource::liberarReplicaNaTransacao);
+
+		//verificacao
+		Assertions.assertThat(leituraLiberada).isEqualTo("replica");
+		Assertions.assertThat(leituraNaoLiberada).isEqualTo("primario");
+		Assertions.assertThat(escrita).isEqualTo("primario");
+	}
+
+	@Test
+	public void deveVoltarAoPrimarioEnquantoAReplicaEstiverAtrasada() {
+		//cenario
+		JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+		replicaJdbc.update("update atraso set segundos = 5");
+
+		//acao
+		roteamento.verificarReplica();
+		String atrasada = origem(true, RoteamentoDataSource::liberarReplicaNaTransacao);
+		replicaJdbc.update("update atraso set segundos = 0.2");
+		roteamento.verificarReplica();
+		String recuperada = origem(true, RoteamentoDataSource::liberarReplicaNaTransacao);
+
+		//verificacao
+		Assertions.assertThat(atrasada).isEqualTo("primario");
+		Assertions.assertThat(recuperada).isEqualTo("replica");
+		Assertions.assertThat(roteamento.getAtrasoMs()).isEqualTo(200);
+	}
+
+	@Test
+	public void deveLerDoPrimarioLogoAposEscritaDoProprioUsuario() {
+		//cenario
+		roteamento.verificarReplica();
+		ConsistenciaLeituraService consistencia = new ConsistenciaLeituraServiceImpl("jdbc:h2:mem:replica", 60000);
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1L);
+		Usuario usuario = new Usuario();
+		usuario.setId(1L);
+		lancamento.setUsuario(usuario);
+
+		//acao
+		consistencia.registrarAlteracoes(Collections.emptyList(), Collections.singletonList(LancamentoProjecao.de(lancamento)));
+		String quemEscreveu = origem(true, () -> consistencia.lerDoUsuario(1L));
+		String outroUsuario = origem(true, () -> consistencia.lerDoUsuario(2L));
+
+		//verificacao
+		Assertions.assertThat(quemEscreveu).isEqualTo("primario");
+		Assertions.assertThat(outroUsuario).isEqualTo("replica");
+	}
+
+	private String origem(boolean somenteLeitura, Runnable antesDaConsulta) {
+		TransactionTemplate transacao = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		transacao.setReadOnly(somenteLeitura);
+
+		return transacao.execute(status -> {
+			antesDaConsulta.run();
+			return new JdbcTemplate(dataSource).queryForObject("select nome from origem", String.class);
+		});
+	}
+
+	private static DataSource criarBanco(String nome) {
+		DataSource banco = new DriverManagerDataSource("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbc = new JdbcTemplate(banco);
+		jdbc.execute("create table origem (nome varchar(20))");
+		jdbc.update("insert into origem values (?)", nome);
+		jdbc.execute("create table atraso (segundos double)");
+		jdbc.update("insert into atraso values (0)");
+
+		return banco;
+	}
+}
@@ -0,0 +1,40 @@
+package com.app.minhasfinancas.model.repository;
+
+import java.util.function.Supplier;
+
+import org.assertj.core.api.Assertions;
+
+import com.app.minhasfinancas.config.ContadorHibernate;
+
+/**
+ * Confere quantos comandos SQL uma chamada ao repositório prepara, para que
+ * regressões de N+1 quebrem o teste. Requer o {@link ContadorHibernate}
+ * registrado como interceptor da SessionFactory, o que {@link #PROPRIEDADE}
+ * faz quando informada em {@code @DataJpaTest(properties = ...)}.
+ */
+public final class ContagemSql {
+	
+	public static final String PROPRIEDADE = 
+			"spring.jpa.properties.hibernate.session_factory.interceptor=com.app.minhasfinancas.config.ContadorHibernate";
+	
+	private ContagemSql() {
+	}
+	
+	public static <T> T verificar(long comandosEsperados, Supplier<T> chamada) {
+		ContadorHibernate.iniciar();
+		T resultado;
+		
+		try {
+			resultado = chamada.get();
+		} catch (RuntimeException e) {
+			ContadorHibernate.finalizar();
+			throw e;
+		}
+		
+		long comandos = ContadorHibernate.finalizar().getComandos();
+		Assertions.assertThat(comandos).as("comandos SQL executados").isEqualTo(comandosEsperados);
+		
+		return resultado;
+	}
+	
+}
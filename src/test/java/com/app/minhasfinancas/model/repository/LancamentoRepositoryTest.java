@@ -2,9 +2,16 @@ package com.app.minhasfinancas.model.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,16 +19,19 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.entity.Usuario;
 import com.app.minhasfinancas.model.enums.StatusLancamento;
 import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
-@DataJpaTest
+@DataJpaTest(properties = ContagemSql.PROPRIEDADE)
 @AutoConfigureTestDatabase(replace = Replace.NONE)
 public class LancamentoRepositoryTest {
 	
@@ -88,6 +98,298 @@ public class LancamentoRepositoryTest {
 	}
 	
 	
+	@Test
+	public void deveBuscarLancamentosAposCursorOrdenadosPorAnoMesId() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento setembro = criarEPersistirLancamento(usuario, 2020, 9);
+		Lancamento janeiro = criarEPersistirLancamento(usuario, 2021, 1);
+		Lancamento agosto = criarEPersistirLancamento(usuario, 2020, 8);
+		Lancamento outroSetembro = criarEPersistirLancamento(usuario, 2020, 9);
+		
+		//acao
+		List<LancamentoProjecao> primeiraPagina = repository.buscarAposCursor(usuario.getId(), null, null, null, 0, 0, 0L, PageRequest.of(0, 2));
+		List<LancamentoProjecao> segundaPagina = repository.buscarAposCursor(usuario.getId(), null, null, null, 2020, 9, setembro.getId(), PageRequest.of(0, 2));
+		
+		//verificacao
+		assertThat(primeiraPagina).extracting(LancamentoProjecao::getId).containsExactly(agosto.getId(), setembro.getId());
+		assertThat(segundaPagina).extracting(LancamentoProjecao::getId).containsExactly(outroSetembro.getId(), janeiro.getId());
+	}
+	
+	@Test
+	public void devePercorrerProjecoesDoUsuarioOrdenadas() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento setembro = criarEPersistirLancamento(usuario, 2020, 9);
+		Lancamento agosto = criarEPersistirLancamento(usuario, 2020, 8);
+		
+		//acao
+		List<LancamentoProjecao> percorridos;
+		try (Stream<LancamentoProjecao> projecoes = repository.percorrerProjecoesPorUsuario(usuario.getId())) {
+			percorridos = projecoes.collect(Collectors.toList());
+		}
+		
+		//verificacao
+		assertThat(percorridos).extracting(LancamentoProjecao::getId).containsExactly(agosto.getId(), setembro.getId());
+		assertThat(percorridos).allMatch(projecao -> usuario.getId().equals(projecao.getUsuario()));
+	}
+	
+	@Test
+	public void deveBuscarProjecoesIgnorandoCaixaEAcentosDaDescricao() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setDescricao("Conta de Água 100%");
+		entityManager.persist(lancamento);
+		criarEPersistirLancamento(usuario, 2020, 9);
+		
+		//acao
+		List<LancamentoProjecao> encontrados = repository.buscarProjecoes(usuario.getId(), Lancamento.padraoDescricao("AGUA 100%"), null, null, null, null);
+		List<LancamentoProjecao> curinga = repository.buscarProjecoes(usuario.getId(), Lancamento.padraoDescricao("_"), null, null, null, null);
+		List<LancamentoProjecao> porIds = repository.buscarPorIds(Arrays.asList(lancamento.getId()), usuario.getId(), 
+				Lancamento.padraoDescricao("água"), null, null, null, null);
+		List<LancamentoProjecao> todos = repository.buscarProjecoes(usuario.getId(), null, null, null, null, null);
+		
+		//verificacao
+		assertThat(encontrados).extracting(LancamentoProjecao::getId).containsExactly(lancamento.getId());
+		assertThat(curinga).isEmpty();
+		assertThat(porIds).extracting(LancamentoProjecao::getId).containsExactly(lancamento.getId());
+		assertThat(todos).hasSize(2);
+	}
+	
+	@Test
+	public void deveObterSaldoDosAnosAnteriores() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		criarEPersistirLancamento(usuario, 2018, 5);
+		criarEPersistirLancamento(usuario, 2019, 12).setValor(BigDecimal.valueOf(25));
+		criarEPersistirLancamento(usuario, 2019, 3).setTipo(TipoLancamento.DESPESA);
+		criarEPersistirLancamento(usuario, 2020, 1);
+		entityManager.flush();
+
+		//acao
+		BigDecimal saldo = repository.obterSaldoAnteriorAoAno(usuario.getId(), 2020);
+		BigDecimal semAnteriores = repository.obterSaldoAnteriorAoAno(usuario.getId(), 2018);
+
+		//verificacao
+		assertThat(saldo).isEqualByComparingTo("25");
+		assertThat(semAnteriores).isEqualByComparingTo("0");
+	}
+
+	@Test
+	public void deveListarLancamentosSemCarregarOsUsuarios() {
+		//cenario
+		for (int i = 0; i < 3; i++) {
+			Usuario usuario = UsuarioRepositoryTest.criarUsuario();
+			usuario.setEmail("usuario" + i + "@email.com");
+			entityManager.persist(usuario);
+			criarEPersistirLancamento(usuario, 2020, 8);
+			criarEPersistirLancamento(usuario, 2020, 9);
+		}
+		entityManager.flush();
+		entityManager.clear();
+		
+		//acao
+		List<Lancamento> lancamentos = ContagemSql.verificar(1, () -> repository.findAll());
+		
+		//verificacao
+		assertThat(lancamentos).hasSize(6);
+		assertThat(lancamentos).noneMatch(lancamento -> Hibernate.isInitialized(lancamento.getUsuario()));
+	}
+	
+	@Test
+	public void deveObterLancamentoComUsuarioEmUmaUnicaConsulta() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento lancamento = criarEPersistirLancamento(usuario, 2020, 9);
+		entityManager.flush();
+		entityManager.clear();
+		
+		//acao
+		String nome = ContagemSql.verificar(1, () -> repository.obterComUsuario(lancamento.getId()).get().getUsuario().getNome());
+		
+		//verificacao
+		assertThat(nome).isEqualTo(usuario.getNome());
+	}
+	
+	@Test
+	public void deveAtualizarStatusDosLancamentosFiltradosComUmUnicoUpdate() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento agosto = criarEPersistirLancamento(usuario, 2020, 8);
+		Lancamento setembro = criarEPersistirLancamento(usuario, 2020, 9);
+		Lancamento outroSetembro = criarEPersistirLancamento(usuario, 2020, 9);
+		outroSetembro.setStatus(StatusLancamento.EFETIVADO);
+		
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		filtro.setAno(2020);
+		filtro.setMes(9);
+		
+		//acao
+		List<LancamentoProjecao> bloqueados = repository.bloquearParaAtualizarStatus(filtro, null, StatusLancamento.EFETIVADO);
+		int atualizados = ContagemSql.verificar(1, () -> 
+				repository.atualizarStatus(Arrays.asList(setembro.getId()), StatusLancamento.EFETIVADO));
+		
+		//verificacao
+		assertThat(bloqueados).extracting(LancamentoProjecao::getId).containsExactly(setembro.getId());
+		assertThat(atualizados).isEqualTo(1);
+		assertThat(entityManager.find(Lancamento.class, setembro.getId()).getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		assertThat(entityManager.find(Lancamento.class, agosto.getId()).getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+	}
+	
+	@Test
+	public void deveBloquearIdsEmBlocosDeMil() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento primeiro = criarEPersistirLancamento(usuario, 2020, 9);
+		Lancamento segundo = criarEPersistirLancamento(usuario, 2020, 9);
+		entityManager.flush();
+		
+		List<Long> ids = new ArrayList<>();
+		for (long id = 1; id <= 1500; id++) {
+			ids.add(Long.MAX_VALUE - id);
+		}
+		ids.add(segundo.getId());
+		ids.add(primeiro.getId());
+		
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		
+		//acao
+		List<LancamentoProjecao> bloqueados = ContagemSql.verificar(2, () -> 
+				repository.bloquearParaAtualizarStatus(filtro, ids, StatusLancamento.EFETIVADO));
+		
+		//verificacao
+		assertThat(bloqueados).extracting(LancamentoProjecao::getId).containsExactlyInAnyOrder(primeiro.getId(), segundo.getId());
+	}
+	
+	@Test
+	public void naoDeveObterNemAtualizarStatusDeLancamentoDeOutroUsuario() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(usuario);
+		entityManager.persist(lancamento);
+		entityManager.flush();
+		Long outroUsuario = usuario.getId() + 1;
+
+		//acao
+		Optional<LancamentoProjecao> doDono = repository.obterProjecaoPersistida(lancamento.getId(), usuario.getId());
+		Optional<LancamentoProjecao> deOutro = repository.obterProjecaoPersistida(lancamento.getId(), outroUsuario);
+		int atualizados = repository.compararEAtualizarStatus(lancamento.getId(), outroUsuario, 
+				StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO, lancamento.getVersao());
+
+		//verificacao
+		assertThat(doDono).isPresent();
+		assertThat(deOutro).isEmpty();
+		assertThat(atualizados).isZero();
+	}
+	
+	@Test
+	public void deveAtualizarStatusSomenteQuandoVersaoEStatusConferem() {
+		//cenario
+		Lancamento lancamento = criarEPersistirLancamento();
+		entityManager.flush();
+		Long versao = lancamento.getVersao();
+
+		//acao
+		int comVersaoAntiga = repository.compararEAtualizarStatus(lancamento.getId(), null, StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO, versao + 1);
+		int comStatusDiferente = repository.compararEAtualizarStatus(lancamento.getId(), null, StatusLancamento.CANCELADO, StatusLancamento.EFETIVADO, versao);
+		int atualizados = ContagemSql.verificar(1, () ->
+				repository.compararEAtualizarStatus(lancamento.getId(), null, StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO, versao));
+		entityManager.clear();
+
+		//verificacao
+		assertThat(comVersaoAntiga).isZero();
+		assertThat(comStatusDiferente).isZero();
+		assertThat(atualizados).isEqualTo(1);
+
+		Lancamento lancamentoAtualizado = entityManager.find(Lancamento.class, lancamento.getId());
+		assertThat(lancamentoAtualizado.getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		assertThat(lancamentoAtualizado.getVersao()).isEqualTo(versao + 1);
+	}
+
+	@Test
+	public void deveGravarLancamentosIguaisEDevolverUmaImpressaoPorLancamento() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(usuario);
+		entityManager.persist(lancamento);
+		
+		Lancamento igual = criarLancamento();
+		igual.setUsuario(usuario);
+		igual.setDescricao(" LANÇAMENTO ");
+		igual.setValor(new BigDecimal("10.00"));
+		
+		//acao
+		repository.saveAndFlush(igual);
+		List<Long> existentes = repository.buscarImpressoesExistentes(usuario.getId(), 
+				Arrays.asList(igual.calcularImpressao(), 1L));
+		
+		//verificacao
+		assertThat(lancamento.getImpressao()).isEqualTo(igual.getImpressao());
+		assertThat(existentes).containsExactly(lancamento.getImpressao(), lancamento.getImpressao());
+		assertThat(repository.bloquearUsuario(usuario.getId())).containsExactly(usuario.getId());
+	}
+	
+	@Test
+	public void deveDiferenciarAImpressaoPeloDiaDoLancamento() {
+		//cenario
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(UsuarioRepositoryTest.criarUsuario());
+		lancamento.getUsuario().setId(1L);
+		lancamento.setDataCadastro(LocalDate.of(2020, 9, 1));
+		
+		Lancamento outroDia = criarLancamento();
+		outroDia.setUsuario(lancamento.getUsuario());
+		outroDia.setDataCadastro(LocalDate.of(2020, 9, 2));
+		
+		//verificacao
+		assertThat(lancamento.calcularImpressao()).isNotEqualTo(outroDia.calcularImpressao());
+	}
+	
+	@Test
+	public void deveImpedirChaveDeIdempotenciaRepetidaPeloIndice() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setChaveIdempotencia("chave-1");
+		entityManager.persist(lancamento);
+		
+		Lancamento reenvio = criarLancamento();
+		reenvio.setUsuario(usuario);
+		reenvio.setDescricao("outra descrição");
+		reenvio.setChaveIdempotencia("chave-1");
+		
+		//acao
+		List<String> existentes = repository.buscarChavesExistentes(usuario.getId(), Arrays.asList("chave-1", "chave-2"));
+		Throwable erro = catchThrowable(() -> repository.saveAndFlush(reenvio));
+		
+		//verificacao
+		assertThat(existentes).containsExactly("chave-1");
+		assertThat(erro).hasMessageContaining(Lancamento.INDICE_CHAVE_IDEMPOTENCIA.toUpperCase());
+	}
+	
+	@Test
+	public void deveInserirLancamentosEmLote() {
+		//cenario
+		List<Lancamento> lancamentos = new ArrayList<>();
+		for (int i = 0; i < 1200; i++) {
+			lancamentos.add(criarLancamento());
+		}
+		
+		//acao
+		repository.inserirEmLote(lancamentos);
+		
+		//verificacao
+		assertThat(lancamentos).allMatch(lancamento -> lancamento.getId() != null);
+		assertThat(repository.count()).isEqualTo(1200);
+	}
+	
 	public static Lancamento criarLancamento() {
 		Lancamento lancamento = new Lancamento();
 		lancamento.setDescricao("lancamento");
@@ -108,5 +410,15 @@ public class LancamentoRepositoryTest {
 		
 		return lancamento;
 	}
+	
+	private Lancamento criarEPersistirLancamento(Usuario usuario, Integer ano, Integer mes) {
+		Lancamento lancamento = criarLancamento();
+		lancamento.setDescricao("lancamento " + UUID.randomUUID());
+		lancamento.setUsuario(usuario);
+		lancamento.setAno(ano);
+		lancamento.setMes(mes);
+		
+		return entityManager.persist(lancamento);
+	}
 
 }
@@ -0,0 +1,81 @@
+package com.app.minhasfinancas.model.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Pede ao H2 o plano ({@code EXPLAIN}) de cada comando SQL que uma chamada ao repositório prepara
+ * e falha se algum deles percorrer uma tabela inteira, para que uma consulta sem índice quebre o
+ * teste. Requer esta classe registrada como inspetor de comandos da SessionFactory, o que
+ * {@link #PROPRIEDADE} faz quando informada em {@code @DataJpaTest(properties = ...)}.
+ */
+public class PlanoConsulta implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final String PROPRIEDADE =
+			"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.app.minhasfinancas.model.repository.PlanoConsulta";
+
+	private static final ThreadLocal<List<String>> COMANDOS = new ThreadLocal<>();
+
+	@Override
+	public String inspect(String sql) {
+		List<String> comandos = COMANDOS.get();
+		if(comandos != null) {
+			comandos.add(sql);
+		}
+		return sql;
+	}
+
+	public static <T> T verificarSemVarredura(JdbcTemplate jdbcTemplate, Supplier<T> chamada) {
+		COMANDOS.set(new ArrayList<>());
+		T resultado;
+		List<String> comandos;
+
+		try {
+			resultado = chamada.get();
+		} finally {
+			comandos = COMANDOS.get();
+			COMANDOS.remove();
+		}
+
+		Assertions.assertThat(comandos).as("comandos SQL preparados").isNotEmpty();
+		for (String sql : comandos) {
+			Assertions.assertThat(explicar(jdbcTemplate, sql)).as(sql).doesNotContain(".tableScan");
+		}
+
+		return resultado;
+	}
+
+	/**
+	 * O plano do H2 não depende dos valores, então os parâmetros vão nulos.
+	 */
+	private static String explicar(JdbcTemplate jdbcTemplate, String sql) {
+		return jdbcTemplate.execute((ConnectionCallback<String>) conexao -> {
+			try (PreparedStatement comando = conexao.prepareStatement("explain " + sql)) {
+				int parametros = comando.getParameterMetaData().getParameterCount();
+				for (int i = 1; i <= parametros; i++) {
+					comando.setNull(i, Types.NULL);
+				}
+
+				try (ResultSet plano = comando.executeQuery()) {
+					StringBuilder texto = new StringBuilder();
+					while(plano.next()) {
+						texto.append(plano.getString(1)).append('\n');
+					}
+					return texto.toString();
+				}
+			}
+		});
+	}
+
+}
@@ -0,0 +1,233 @@
+package com.app.minhasfinancas.model.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+
+/**
+ * Um teste por consulta dos repositórios sobre o esquema das migrações. Ficam de fora só as que
+ * percorrem tudo de propósito: {@code percorrerProjecoes}, usada para montar o índice de descrições,
+ * e os {@code reconstruir} de saldo e resumo.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest(properties = PlanoConsulta.PROPRIEDADE)
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class PlanoConsultaTest {
+
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	SaldoUsuarioRepository saldoUsuarioRepository;
+
+	@Autowired
+	ResumoMensalRepository resumoMensalRepository;
+
+	@Autowired
+	TestEntityManager entityManager;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	Usuario usuario;
+	Lancamento lancamento;
+
+	@BeforeEach
+	public void setUp() {
+		usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		entityManager.persist(lancamento);
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	public void deveObterSaldoPorUsuarioETipoPeloIndice() {
+		//acao
+		BigDecimal saldo = PlanoConsulta.verificarSemVarredura(jdbcTemplate,
+				() -> lancamentoRepository.obterSaldoPorUsuarioETipo(usuario.getId(), TipoLancamento.RECEITA));
+
+		//verificacao
+		assertThat(saldo).isEqualByComparingTo(lancamento.getValor());
+	}
+
+	@Test
+	public void deveObterLancamentoComUsuarioPelaChave() {
+		//acao
+		PlanoConsulta.verificarSemVarredura(jdbcTemplate, () -> lancamentoRepository.obterComUsuario(lancamento.getId()));
+	}
+
+	@Test
+	public void deveObterProjecaoPersistidaPelaChave() {
+		//acao
+		PlanoConsulta.verificarSemVarredura(jdbcTemplate, () -> lancamentoRepository.obterProjecaoPersistida(lancamento.getId(), usuario.getId()));
+	}
+
+	@Test
+	public void deveBuscarImpressoesPeloIndice() {
+		//acao
+		List<Long> impressoes = PlanoConsulta.verificarSemVarredura(jdbcTemplate,
+				() -> lancamentoRepository.buscarImpressoesExistentes(usuario.getId(), Arrays.asList(1L, 2L)));
+
+		//verificacao
+		assertThat(impressoes).isEmpty();
+	}
+
+	@Test
+	public void deveBuscarChavesDeIdempotenciaPeloIndiceUnico() {
+		//acao
+		List<String> chaves = PlanoConsulta.verificarSemVarredura(jdbcTemplate,
+				() -> lancamentoRepository.buscarChavesExistentes(usuario.getId(), Arrays.asList("a", "b")));
+
+		//verificacao
+		assertThat(chaves).isEmpty();
+	}
+
+	@Test
+	public void deveCompararEAtualizarStatusPelaChave() {
+		//acao
+		int atualizados = PlanoConsulta.verificarSemVarredura(jdbcTemplate, () -> lancamentoRepository.compararEAtualizarStatus(
+				lancamento.getId(), usuario.getId(), StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO, lancamento.getVersao()));
+
+		//verificacao
+		assertThat(atualizados).isEqualTo(1);
+	}
+
+	@Test
+	public void devePercorrerProjecoesDoUsuarioPeloIndice() {
+		//acao
+		List<LancamentoProjecao> lancamentos = PlanoConsulta.verificarSemVarredura(jdbcTemplate, () -> {
+			try (Stream<LancamentoProjecao> projecoes = lancamentoRepository.percorrerProjecoesPorUsuario(usuario.getId())) {
+				return projecoes.collect(Collectors.toList());
+			}
+		});
+
+		//verificacao
+		assertThat(lancamentos).hasSize(1);
+	}
+
+	@Test
+	public void deveBuscarProjecoesPeloIndiceDoUsuario() {
+		//acao
+		List<LancamentoProjecao> lancamentos = PlanoConsulta.verificarSemVarredura(jdbcTemplate,
+				() -> lancamentoRepository.buscarProjecoes(usuario.getId(), "%lanc%", 9, 2020, TipoLancamento.RECEITA, null));
+
+		//verificacao
+		assertThat(lancamentos).hasSize(1);
+	}
+
+	@Test
+	public void deveBuscarPorIdsPelaChave() {
+		//acao
+		List<LancamentoProjecao> lancamentos = PlanoConsulta.verificarSemVarredura(jdbcTemplate,
+				() -> lancamentoRepository.buscarPorIds(Collections.singleton(lancamento.getId()), usuario.getId(), null, null, null, null, null));
+
+		//verificacao
+		assertThat(lancamentos).hasSize(1);
+	}
+
+	@Test
+	public void deveBuscarAposCursorPeloIndiceDoUsuario() {
+		//acao
+		List<LancamentoProjecao> lancamentos = PlanoConsulta.verificarSemVarredura(jdbcTemplate,
+				() -> lancamentoRepository.buscarAposCursor(usuario.getId(), null, null, null, 0, 0, 0L, PageRequest.of(0, 10)));
+
+		//verificacao
+		assertThat(lancamentos).hasSize(1);
+	}
+
+	@Test
+	public void deveBloquearParaAtualizarStatusPeloIndiceDoUsuario() {
+		//cenario
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		filtro.setAno(2020);
+
+		//acao
+		List<LancamentoProjecao> lancamentos = PlanoConsulta.verificarSemVarredura(jdbcTemplate,
+				() -> lancamentoRepository.bloquearParaAtualizarStatus(filtro, null, StatusLancamento.EFETIVADO));
+
+		//verificacao
+		assertThat(lancamentos).hasSize(1);
+	}
+
+	@Test
+	public void deveAtualizarStatusEmLotePelaChave() {
+		//acao
+		int atualizados = PlanoConsulta.verificarSemVarredura(jdbcTemplate,
+				() -> lancamentoRepository.atualizarStatus(Collections.singletonList(lancamento.getId()), StatusLancamento.CANCELADO));
+
+		//verificacao
+		assertThat(atualizados).isEqualTo(1);
+	}
+
+	@Test
+	public void deveVerificarEmailPeloIndice() {
+		//acao
+		boolean existe = PlanoConsulta.verificarSemVarredura(jdbcTemplate, () -> usuarioRepository.existsByEmail(usuario.getEmail()));
+
+		//verificacao
+		assertThat(existe).isTrue();
+	}
+
+	@Test
+	public void deveBuscarUsuarioPorEmailPeloIndice() {
+		//acao
+		PlanoConsulta.verificarSemVarredura(jdbcTemplate, () -> usuarioRepository.findByEmail(usuario.getEmail()));
+	}
+
+	@Test
+	public void deveAplicarDeltaEObterGeracaoDoSaldoPelaChave() {
+		//acao
+		PlanoConsulta.verificarSemVarredura(jdbcTemplate, () -> saldoUsuarioRepository.aplicarDelta(usuario.getId(), BigDecimal.TEN));
+		PlanoConsulta.verificarSemVarredura(jdbcTemplate, () -> saldoUsuarioRepository.obterGeracao(usuario.getId()));
+	}
+
+	@Test
+	public void deveObterResumoAnualPelaChave() {
+		//acao
+		PlanoConsulta.verificarSemVarredura(jdbcTemplate, () -> resumoMensalRepository.obterPorUsuarioEAno(usuario.getId(), 2020));
+	}
+
+	@Test
+	public void deveAplicarDeltaEInicializarResumoPelosIndices() {
+		//acao
+		PlanoConsulta.verificarSemVarredura(jdbcTemplate, () -> resumoMensalRepository.aplicarDelta(usuario.getId(), 2020, 9,
+				TipoLancamento.RECEITA, BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO));
+		int inseridos = PlanoConsulta.verificarSemVarredura(jdbcTemplate,
+				() -> resumoMensalRepository.inicializar(usuario.getId(), 2020, 9, TipoLancamento.RECEITA.name()));
+
+		//verificacao
+		assertThat(inseridos).isEqualTo(1);
+	}
+
+}
@@ -0,0 +1,102 @@
+package com.app.minhasfinancas.model.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.entity.ResumoMensal;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class ResumoMensalRepositoryTest {
+
+	@Autowired
+	ResumoMensalRepository repository;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveInicializarEAplicarDeltaNoResumoDoMes() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistirLancamento(usuario, StatusLancamento.PENDENTE, 10);
+		persistirLancamento(usuario, StatusLancamento.EFETIVADO, 25);
+		entityManager.flush();
+		
+		//acao
+		int semResumo = repository.aplicarDelta(usuario.getId(), 2020, 9, TipoLancamento.RECEITA, BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO);
+		int inicializados = repository.inicializar(usuario.getId(), 2020, 9, TipoLancamento.RECEITA.name());
+		int atualizados = repository.aplicarDelta(usuario.getId(), 2020, 9, TipoLancamento.RECEITA, BigDecimal.valueOf(-10), BigDecimal.TEN, BigDecimal.ZERO);
+		
+		//verificacao
+		entityManager.clear();
+		assertThat(semResumo).isZero();
+		assertThat(inicializados).isEqualTo(1);
+		assertThat(atualizados).isEqualTo(1);
+		
+		List<ResumoMensal> resumos = repository.obterPorUsuarioEAno(usuario.getId(), 2020);
+		assertThat(resumos).hasSize(1);
+		assertThat(resumos.get(0).getPendente()).isEqualByComparingTo("0");
+		assertThat(resumos.get(0).getEfetivado()).isEqualByComparingTo("35");
+		assertThat(resumos.get(0).getCancelado()).isEqualByComparingTo("0");
+	}
+	
+	@Test
+	public void naoDeveInicializarResumoJaExistente() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistirLancamento(usuario, StatusLancamento.PENDENTE, 10);
+		entityManager.flush();
+		repository.inicializar(usuario.getId(), 2020, 9, TipoLancamento.RECEITA.name());
+		
+		//acao
+		int repetidos = repository.inicializar(usuario.getId(), 2020, 9, TipoLancamento.RECEITA.name());
+		
+		//verificacao
+		entityManager.clear();
+		assertThat(repetidos).isZero();
+		assertThat(repository.obterPorUsuarioEAno(usuario.getId(), 2020)).hasSize(1);
+	}
+	
+	@Test
+	public void deveReconstruirResumosAPartirDosLancamentos() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistirLancamento(usuario, StatusLancamento.CANCELADO, 7);
+		entityManager.flush();
+		
+		//acao
+		int reconstruidos = repository.reconstruir();
+		
+		//verificacao
+		entityManager.clear();
+		assertThat(reconstruidos).isEqualTo(1);
+		assertThat(repository.obterPorUsuarioEAno(usuario.getId(), 2020).get(0).getCancelado()).isEqualByComparingTo("7");
+	}
+	
+	private void persistirLancamento(Usuario usuario, StatusLancamento status, int valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setStatus(status);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		entityManager.persist(lancamento);
+	}
+}
@@ -0,0 +1,103 @@
+package com.app.minhasfinancas.model.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.entity.SaldoUsuario;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class SaldoUsuarioRepositoryTest {
+
+	@Autowired
+	SaldoUsuarioRepository repository;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveAplicarDeltaAoSaldoExistente() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		entityManager.persist(new SaldoUsuario(usuario.getId(), BigDecimal.TEN));
+		entityManager.flush();
+		
+		//acao
+		int atualizados = repository.aplicarDelta(usuario.getId(), BigDecimal.valueOf(-3));
+		
+		//verificacao
+		entityManager.clear();
+		assertThat(atualizados).isEqualTo(1);
+		assertThat(repository.findById(usuario.getId()).get().getSaldo()).isEqualByComparingTo("7");
+		assertThat(repository.obterGeracao(usuario.getId())).contains(1L);
+	}
+	
+	@Test
+	public void naoDeveAplicarDeltaQuandoSaldoNaoExiste() {
+		//acao
+		int atualizados = repository.aplicarDelta(1L, BigDecimal.TEN);
+		
+		//verificacao
+		assertThat(atualizados).isZero();
+	}
+	
+	@Test
+	public void naoDeveInicializarSaldoJaExistente() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		entityManager.flush();
+		int inicializados = repository.inicializar(usuario.getId(), BigDecimal.TEN);
+		
+		//acao
+		int repetidos = repository.inicializar(usuario.getId(), BigDecimal.ONE);
+		
+		//verificacao
+		entityManager.clear();
+		assertThat(inicializados).isEqualTo(1);
+		assertThat(repetidos).isZero();
+		assertThat(repository.findById(usuario.getId()).get().getSaldo()).isEqualByComparingTo("10");
+		assertThat(repository.obterGeracao(usuario.getId())).contains(1L);
+	}
+	
+	@Test
+	public void deveReconstruirSaldosAPartirDosLancamentos() {
+		//cenario
+		Usuario usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+		persistirLancamento(usuario, TipoLancamento.RECEITA, 100);
+		persistirLancamento(usuario, TipoLancamento.DESPESA, 30);
+		entityManager.flush();
+		
+		//acao
+		int reconstruidos = repository.reconstruir(5L);
+		
+		//verificacao
+		entityManager.clear();
+		assertThat(reconstruidos).isEqualTo(1);
+		assertThat(repository.findById(usuario.getId()).get().getSaldo()).isEqualByComparingTo("70");
+		assertThat(repository.obterGeracao(usuario.getId())).contains(5L);
+	}
+	
+	private void persistirLancamento(Usuario usuario, TipoLancamento tipo, int valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setTipo(tipo);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		entityManager.persist(lancamento);
+	}
+}
@@ -88,6 +88,21 @@ public class UsuarioRepositoryTest {
 		Assertions.assertFalse(result.isPresent());
 	}
 	
+	@Test
+	public void deveAtualizarASenhaPeloId() {
+		//cenario
+		Usuario usuario = entityManager.persistFlushFind(criarUsuario());
+		entityManager.detach(usuario);
+		
+		//acao
+		int atualizados = repository.atualizarSenha(usuario.getId(), "hash");
+		
+		//verificacao
+		Assertions.assertEquals(1, atualizados);
+		Assertions.assertEquals("senha", usuario.getSenha());
+		Assertions.assertEquals("hash", entityManager.find(Usuario.class, usuario.getId()).getSenha());
+	}
+	
 	
 	public static Usuario criarUsuario() {
 		Usuario usuario = new Usuario();
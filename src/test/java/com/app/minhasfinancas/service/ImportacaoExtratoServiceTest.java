@@ -0,0 +1,153 @@
+package com.app.minhasfinancas.service;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.app.minhasfinancas.dto.ErroLoteDTO;
+import com.app.minhasfinancas.dto.ProgressoImportacaoDTO;
+import com.app.minhasfinancas.dto.ResultadoLoteDTO;
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.enums.FormatoExtrato;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.service.impl.ImportacaoExtratoServiceImpl;
+
+public class ImportacaoExtratoServiceTest {
+
+	LancamentoService lancamentoService = Mockito.mock(LancamentoService.class);
+
+	ImportacaoExtratoService service = new ImportacaoExtratoServiceImpl(lancamentoService, 2);
+
+	List<Lancamento> gravados = new ArrayList<>();
+
+	@Test
+	public void deveImportarCsvEmLotesInformandoProgressoEErrosPorLinha() {
+		//cenario
+		gravarTodos();
+		String csv = "Data;Histórico;Saldo;Valor\n"
+				+ "15/01/2020;\"Mercado \"\"Bom\"\"\";0;-1.234,56\n"
+				+ "\n"
+				+ "32/01/2020;Data inválida;0;10,00\n"
+				+ "01/03/2020;Salário;0;2500,00\n";
+		List<ProgressoImportacaoDTO> progressos = new ArrayList<>();
+
+		//acao
+		ProgressoImportacaoDTO resultado = service.importar(usuario(), FormatoExtrato.CSV, new StringReader(csv), progressos::add);
+
+		//verificacao
+		Assertions.assertThat(progressos).hasSize(2);
+		Assertions.assertThat(progressos.get(0).getLidos()).isEqualTo(2);
+		Assertions.assertThat(progressos.get(0).getErros()).extracting(ErroLoteDTO::getIndice).containsExactly(4);
+		Assertions.assertThat(progressos.get(1)).isSameAs(resultado);
+		Assertions.assertThat(resultado.isConcluido()).isTrue();
+		Assertions.assertThat(resultado.getSalvos()).isEqualTo(2);
+		Assertions.assertThat(resultado.getRejeitados()).isEqualTo(1);
+		Mockito.verify(lancamentoService, Mockito.times(2)).salvarLote(Mockito.anyList());
+
+		Lancamento mercado = gravados.get(0);
+		Assertions.assertThat(mercado.getDescricao()).isEqualTo("Mercado \"Bom\"");
+		Assertions.assertThat(mercado.getValor()).isEqualByComparingTo(new BigDecimal("1234.56"));
+		Assertions.assertThat(mercado.getTipo()).isEqualTo(TipoLancamento.DESPESA);
+		Assertions.assertThat(mercado.getDataCadastro()).isEqualTo(LocalDate.of(2020, 1, 15));
+		Assertions.assertThat(gravados.get(1).getTipo()).isEqualTo(TipoLancamento.RECEITA);
+	}
+
+	@Test
+	public void deveImportarTransacoesDeOfxEmSgml() {
+		//cenario
+		gravarTodos();
+		String ofx = "OFXHEADER:100\nDATA:OFXSGML\n\n<OFX><BANKTRANLIST>\n"
+				+ "<STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20200115120000[-3:BRT]<TRNAMT>-50.00<MEMO>Luz &amp; água</STMTTRN>\n"
+				+ "<STMTTRN>\n<DTPOSTED>20200201\n<TRNAMT>1000.00\n<NAME>Salário\n</STMTTRN>\n"
+				+ "</BANKTRANLIST></OFX>";
+
+		//acao
+		ProgressoImportacaoDTO resultado = service.importar(usuario(), FormatoExtrato.OFX, new StringReader(ofx), progresso -> {});
+
+		//verificacao
+		Assertions.assertThat(resultado.getSalvos()).isEqualTo(2);
+		Assertions.assertThat(gravados).extracting(Lancamento::getDescricao).containsExactly("Luz & água", "Salário");
+		Assertions.assertThat(gravados).extracting(Lancamento::getMes).containsExactly(1, 2);
+		Assertions.assertThat(gravados).extracting(Lancamento::getTipo).containsExactly(TipoLancamento.DESPESA, TipoLancamento.RECEITA);
+	}
+
+	@Test
+	public void deveUsarAVirgulaComoDecimalNoCsvEOPontoNoOfx() {
+		//cenario
+		gravarTodos();
+		String csv = "15/01/2020;Aluguel;1.234\n"
+				+ "16/01/2020;Mercado;-1.234,56\n"
+				+ "17/01/2020;Salário;\"2.500,00\"\n";
+		String ofx = "<OFX><STMTTRN><DTPOSTED>20200118<TRNAMT>1.234<MEMO>Juros</STMTTRN></OFX>";
+
+		//acao
+		service.importar(usuario(), FormatoExtrato.CSV, new StringReader(csv), progresso -> {});
+		service.importar(usuario(), FormatoExtrato.OFX, new StringReader(ofx), progresso -> {});
+
+		//verificacao
+		Assertions.assertThat(gravados).extracting(Lancamento::getValor).usingElementComparator(BigDecimal::compareTo)
+			.containsExactly(new BigDecimal("1234"), new BigDecimal("1234.56"), new BigDecimal("2500"), new BigDecimal("1.234"));
+	}
+
+	@Test
+	public void deveNumerarAsTransacoesIguaisDoExtrato() {
+		//cenario
+		gravarTodos();
+		String csv = "15/01/2020;Uber;-25,00\n"
+				+ "15/01/2020;Mercado;-80,00\n"
+				+ "15/01/2020;UBER;-25,00\n"
+				+ "16/01/2020;Uber;-25,00\n";
+
+		//acao
+		service.importar(usuario(), FormatoExtrato.CSV, new StringReader(csv), progresso -> {});
+
+		//verificacao
+		Assertions.assertThat(gravados).extracting(Lancamento::getOcorrencia).containsExactly(1, 1, 2, 1);
+	}
+
+	@Test
+	public void deveRejeitarLinhaDoCsvMaiorQueOLimite() {
+		//cenario
+		gravarTodos();
+		StringBuilder longa = new StringBuilder("15/01/2020;");
+		for (int i = 0; i < 10000; i++) {
+			longa.append('x');
+		}
+		String csv = longa.append(";10,00\r\n").toString()
+				+ "16/01/2020;Mercado;-5,00\r\n";
+		List<ProgressoImportacaoDTO> progressos = new ArrayList<>();
+
+		//acao
+		ProgressoImportacaoDTO resultado = service.importar(usuario(), FormatoExtrato.CSV, new StringReader(csv), progressos::add);
+
+		//verificacao
+		Assertions.assertThat(resultado.getSalvos()).isEqualTo(1);
+		Assertions.assertThat(resultado.getRejeitados()).isEqualTo(1);
+		Assertions.assertThat(progressos.get(0).getErros()).extracting(ErroLoteDTO::getIndice).containsExactly(1);
+		Assertions.assertThat(progressos.get(0).getErros().get(0).getMensagem()).contains("4096");
+		Assertions.assertThat(gravados.get(0).getDescricao()).isEqualTo("Mercado");
+		Assertions.assertThat(gravados.get(0).getDataCadastro()).isEqualTo(LocalDate.of(2020, 1, 16));
+	}
+
+	private void gravarTodos() {
+		Mockito.when(lancamentoService.salvarLote(Mockito.anyList())).thenAnswer(invocacao -> {
+			List<Lancamento> lote = invocacao.getArgument(0);
+			gravados.addAll(lote);
+			return new ResultadoLoteDTO(lote.size(), lote.size(), Collections.emptyList());
+		});
+	}
+
+	private Usuario usuario() {
+		Usuario usuario = new Usuario();
+		usuario.setId(1L);
+		return usuario;
+	}
+}
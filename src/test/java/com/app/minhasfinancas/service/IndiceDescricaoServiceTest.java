@@ -0,0 +1,130 @@
+package com.app.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.app.minhasfinancas.model.entity.SaldoUsuario;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+import com.app.minhasfinancas.model.repository.LancamentoRepository;
+import com.app.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.app.minhasfinancas.service.impl.IndiceDescricaoServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class IndiceDescricaoServiceTest {
+
+	@SpyBean
+	IndiceDescricaoServiceImpl service;
+	
+	@MockBean
+	LancamentoRepository repository;
+	
+	@MockBean
+	SaldoUsuarioRepository saldoUsuarioRepository;
+	
+	@MockBean
+	ShardService shardService;
+	
+	@BeforeEach
+	public void setUp() {
+		Mockito.doAnswer(invocacao -> {
+			invocacao.<Runnable>getArgument(1).run();
+			return null;
+		}).when(shardService).paraCadaShard(Mockito.anyBoolean(), Mockito.any(Runnable.class));
+	}
+	
+	@Test
+	public void deveEncontrarDescricaoIgnorandoAcentosEMaiusculas() {
+		//cenario
+		Mockito.when(repository.percorrerProjecoes()).thenReturn(Arrays.asList(
+				criarProjecao(1L, 1L, "Pão de Açúcar"), 
+				criarProjecao(2L, 1L, "Padaria"), 
+				criarProjecao(3L, 2L, "Pão de Açúcar")).stream());
+		service.reconstruir();
+		
+		//acao
+		Optional<Set<Long>> resultado = service.buscar(1L, "ACUCAR");
+		
+		//verificacao
+		Assertions.assertThat(resultado).contains(Collections.singleton(1L));
+	}
+	
+	@Test
+	public void deveManterIndiceAtualizadoNasAlteracoesSemRecarregar() {
+		//cenario
+		Mockito.when(saldoUsuarioRepository.findAll()).thenReturn(Arrays.asList(new SaldoUsuario(1L, BigDecimal.TEN, 3L)));
+		Mockito.when(repository.percorrerProjecoes()).thenReturn(Arrays.asList(criarProjecao(1L, 1L, "Mercado")).stream());
+		service.reconstruir();
+		Mockito.when(saldoUsuarioRepository.obterGeracao(1L)).thenReturn(Optional.of(4L), Optional.of(5L));
+		
+		//acao
+		service.registrarAlteracoes(Arrays.asList(criarProjecao(1L, 1L, "Mercado")), Arrays.asList(criarProjecao(1L, 1L, "Farmácia")));
+		service.registrarAlteracoes(Collections.emptyList(), Arrays.asList(criarProjecao(2L, 1L, "Supermercado")));
+		
+		//verificacao
+		Assertions.assertThat(service.buscar(1L, "mercado")).contains(Collections.singleton(2L));
+		Assertions.assertThat(service.buscar(1L, "farmacia")).contains(Collections.singleton(1L));
+		Mockito.verify(repository, Mockito.never()).percorrerProjecoesPorUsuario(Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveRecarregarOUsuarioQuandoOutraInstanciaGravou() {
+		//cenario
+		Mockito.when(saldoUsuarioRepository.findAll()).thenReturn(Arrays.asList(new SaldoUsuario(1L, BigDecimal.TEN, 3L)));
+		Mockito.when(repository.percorrerProjecoes()).thenReturn(Arrays.asList(criarProjecao(1L, 1L, "Mercado")).stream());
+		service.reconstruir();
+		Mockito.when(saldoUsuarioRepository.obterGeracao(1L)).thenReturn(Optional.of(4L));
+		Mockito.when(repository.percorrerProjecoesPorUsuario(1L)).thenReturn(Arrays.asList(
+				criarProjecao(1L, 1L, "Mercado"), criarProjecao(9L, 1L, "Supermercado")).stream());
+		
+		//acao
+		Optional<Set<Long>> recarregado = service.buscar(1L, "mercado");
+		Optional<Set<Long>> semRecarga = service.buscar(1L, "super");
+		
+		//verificacao
+		Assertions.assertThat(recarregado.get()).containsExactlyInAnyOrder(1L, 9L);
+		Assertions.assertThat(semRecarga).contains(Collections.singleton(9L));
+		Mockito.verify(repository, Mockito.times(1)).percorrerProjecoesPorUsuario(1L);
+	}
+	
+	@Test
+	public void deveCarregarUsuarioSemEntradaNoIndice() {
+		//cenario
+		Mockito.when(repository.percorrerProjecoes()).thenReturn(Arrays.asList(criarProjecao(1L, 1L, "Mercado")).stream());
+		service.reconstruir();
+		Mockito.when(repository.percorrerProjecoesPorUsuario(2L)).thenReturn(Arrays.asList(criarProjecao(5L, 2L, "Mercado")).stream());
+		
+		//acao e verificacao
+		Assertions.assertThat(service.buscar(2L, "mercado")).contains(Collections.singleton(5L));
+	}
+	
+	@Test
+	public void naoDeveResponderTrechosMenoresQueUmTrigrama() {
+		//cenario
+		Mockito.when(repository.percorrerProjecoes()).thenReturn(Arrays.asList(criarProjecao(1L, 1L, "Mercado")).stream());
+		service.reconstruir();
+		
+		//acao e verificacao
+		Assertions.assertThat(service.buscar(1L, "me")).isEmpty();
+	}
+	
+	private LancamentoProjecao criarProjecao(Long id, Long usuario, String descricao) {
+		return new LancamentoProjecao(id, descricao, 1, 2020, BigDecimal.TEN, TipoLancamento.DESPESA, 
+				StatusLancamento.PENDENTE, null, usuario, 0L);
+	}
+}
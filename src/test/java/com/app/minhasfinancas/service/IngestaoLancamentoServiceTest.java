@@ -0,0 +1,174 @@
+package com.app.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.app.minhasfinancas.dto.ResultadoLoteDTO;
+import com.app.minhasfinancas.dto.SituacaoIngestaoDTO;
+import com.app.minhasfinancas.exception.FilaCheiaException;
+import com.app.minhasfinancas.exception.RegraNegocioException;
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.enums.SituacaoIngestao;
+import com.app.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.app.minhasfinancas.service.impl.IngestaoLancamentoServiceImpl;
+
+public class IngestaoLancamentoServiceTest {
+
+	LancamentoService lancamentoService = Mockito.mock(LancamentoService.class);
+
+	@Test
+	public void deveGravarLancamentosEnfileiradosAoDesligar() {
+		//cenario
+		IngestaoLancamentoServiceImpl service = criarService(10);
+		Mockito.when(lancamentoService.salvarLote(Mockito.anyList())).thenAnswer(invocacao -> {
+			List<Lancamento> lancamentos = invocacao.getArgument(0);
+			lancamentos.forEach(lancamento -> lancamento.setId(1L));
+			return new ResultadoLoteDTO(lancamentos.size(), lancamentos.size(), Collections.emptyList());
+		});
+		service.start();
+
+		//acao
+		SituacaoIngestaoDTO enfileirado = service.enfileirar(LancamentoRepositoryTest.criarLancamento());
+		service.stop();
+
+		//verificacao
+		Assertions.assertThat(enfileirado.getSituacao()).isEqualTo(SituacaoIngestao.PENDENTE);
+		SituacaoIngestaoDTO gravado = service.obterSituacao(enfileirado.getId()).get();
+		Assertions.assertThat(gravado.getSituacao()).isEqualTo(SituacaoIngestao.GRAVADO);
+		Assertions.assertThat(gravado.getLancamento()).isEqualTo(1L);
+		Assertions.assertThat(service.obterTamanhoFila()).isZero();
+	}
+
+	@Test
+	public void deveLancarErroQuandoAFilaEstiverCheia() throws Exception {
+		//cenario
+		IngestaoLancamentoServiceImpl service = criarService(1);
+		CountDownLatch gravando = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		Mockito.when(lancamentoService.salvarLote(Mockito.anyList())).thenAnswer(invocacao -> {
+			gravando.countDown();
+			liberar.await();
+			return new ResultadoLoteDTO(1, 1, Collections.emptyList());
+		});
+		service.start();
+		service.enfileirar(LancamentoRepositoryTest.criarLancamento());
+		gravando.await(5, TimeUnit.SECONDS);
+		service.enfileirar(LancamentoRepositoryTest.criarLancamento());
+
+		//acao
+		Throwable exception = Assertions.catchThrowable(() -> service.enfileirar(LancamentoRepositoryTest.criarLancamento()));
+		liberar.countDown();
+		service.stop();
+
+		//verificacao
+		Assertions.assertThat(exception).isInstanceOf(FilaCheiaException.class);
+		Mockito.verify(lancamentoService, Mockito.times(2)).salvarLote(Mockito.anyList());
+	}
+
+	@Test
+	public void deveRecusarLancamentoInvalidoSemEnfileirar() {
+		//cenario
+		IngestaoLancamentoServiceImpl service = criarService(10);
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setValor(BigDecimal.ZERO);
+		Mockito.doThrow(new RegraNegocioException("Informe um Valor válido.")).when(lancamentoService).validar(lancamento);
+		service.start();
+
+		//acao
+		Throwable exception = Assertions.catchThrowable(() -> service.enfileirar(lancamento));
+		service.stop();
+
+		//verificacao
+		Assertions.assertThat(exception).isInstanceOf(RegraNegocioException.class);
+		Assertions.assertThat(service.obterTamanhoFila()).isZero();
+		Mockito.verify(lancamentoService, Mockito.never()).salvarLote(Mockito.anyList());
+	}
+
+	@Test
+	public void deveDesligarSemTerSidoIniciado() {
+		//cenario
+		IngestaoLancamentoServiceImpl service = criarService(10);
+
+		//acao
+		Throwable exception = Assertions.catchThrowable(service::stop);
+
+		//verificacao
+		Assertions.assertThat(exception).isNull();
+		Assertions.assertThat(service.isRunning()).isFalse();
+	}
+
+	@Test
+	public void deveEncerrarAGravadoraQuandoInterrompida() throws Exception {
+		//cenario
+		IngestaoLancamentoServiceImpl service = criarService(10);
+		Set<Thread> existentes = Thread.getAllStackTraces().keySet();
+		service.start();
+		Thread gravadora = Thread.getAllStackTraces().keySet().stream()
+				.filter(thread -> thread.getName().equals("ingestao-lancamentos") && !existentes.contains(thread))
+				.findFirst().get();
+
+		//acao
+		gravadora.interrupt();
+		gravadora.join(5000);
+		Throwable exception = Assertions.catchThrowable(() -> service.enfileirar(LancamentoRepositoryTest.criarLancamento()));
+
+		//verificacao
+		Assertions.assertThat(gravadora.isAlive()).isFalse();
+		Assertions.assertThat(service.isRunning()).isFalse();
+		Assertions.assertThat(exception).isInstanceOf(FilaCheiaException.class);
+	}
+
+	@Test
+	public void deveGravarUmAUmQuandoOLoteFalhar() throws Exception {
+		//cenario
+		IngestaoLancamentoServiceImpl service = criarService(10);
+		CountDownLatch gravandoPrimeiro = new CountDownLatch(1);
+		CountDownLatch liberarPrimeiro = new CountDownLatch(1);
+		Mockito.when(lancamentoService.salvarLote(Mockito.anyList())).thenAnswer(invocacao -> {
+			List<Lancamento> lancamentos = invocacao.getArgument(0);
+			if(lancamentos.get(0).getDescricao().equals("primeiro")) {
+				gravandoPrimeiro.countDown();
+				liberarPrimeiro.await(5, TimeUnit.SECONDS);
+			} else if(lancamentos.size() > 1 || lancamentos.get(0).getDescricao().equals("falha")) {
+				throw new IllegalStateException("conexão perdida");
+			}
+			lancamentos.forEach(lancamento -> lancamento.setId(1L));
+			return new ResultadoLoteDTO(lancamentos.size(), lancamentos.size(), Collections.emptyList());
+		});
+		service.start();
+		service.enfileirar(lancamento("primeiro"));
+		gravandoPrimeiro.await(5, TimeUnit.SECONDS);
+
+		//acao
+		SituacaoIngestaoDTO bom = service.enfileirar(lancamento("bom"));
+		SituacaoIngestaoDTO ruim = service.enfileirar(lancamento("falha"));
+		liberarPrimeiro.countDown();
+		service.stop();
+
+		//verificacao
+		Assertions.assertThat(service.obterSituacao(bom.getId()).get().getSituacao()).isEqualTo(SituacaoIngestao.GRAVADO);
+		Assertions.assertThat(service.obterSituacao(ruim.getId()).get().getSituacao()).isEqualTo(SituacaoIngestao.ERRO);
+		Mockito.verify(lancamentoService, Mockito.times(4)).salvarLote(Mockito.anyList());
+	}
+
+	private Lancamento lancamento(String descricao) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setDescricao(descricao);
+		return lancamento;
+	}
+
+	@SuppressWarnings("unchecked")
+	private IngestaoLancamentoServiceImpl criarService(int capacidade) {
+		return new IngestaoLancamentoServiceImpl(lancamentoService, Mockito.mock(ShardService.class), capacidade, 500, 60, 1000, 
+				Mockito.mock(ObjectProvider.class));
+	}
+}
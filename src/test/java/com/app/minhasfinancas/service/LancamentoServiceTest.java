@@ -2,24 +2,36 @@ package com.app.minhasfinancas.service;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
-import org.springframework.data.domain.Example;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import com.app.minhasfinancas.dto.PaginaLancamentoDTO;
+import com.app.minhasfinancas.dto.ResultadoLoteDTO;
+import com.app.minhasfinancas.exception.AcessoNegadoException;
+import com.app.minhasfinancas.exception.ConflitoVersaoException;
+import com.app.minhasfinancas.exception.LancamentoDuplicadoException;
 import com.app.minhasfinancas.exception.RegraNegocioException;
 import com.app.minhasfinancas.model.entity.Lancamento;
 import com.app.minhasfinancas.model.entity.Usuario;
 import com.app.minhasfinancas.model.enums.StatusLancamento;
 import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
 import com.app.minhasfinancas.model.repository.LancamentoRepository;
 import com.app.minhasfinancas.model.repository.LancamentoRepositoryTest;
 import com.app.minhasfinancas.service.impl.LancamentoServiceImpl;
@@ -34,6 +46,30 @@ public class LancamentoServiceTest {
 	@MockBean
 	LancamentoRepository repository;
 	
+	@MockBean
+	SaldoUsuarioService saldoUsuarioService;
+	
+	@MockBean
+	ResumoMensalService resumoMensalService;
+	
+	@MockBean
+	IndiceDescricaoService indiceDescricaoService;
+	
+	@MockBean
+	DuplicidadeLancamentoService duplicidadeService;
+	
+	@MockBean
+	ConsistenciaLeituraService consistenciaLeituraService;
+	
+	@MockBean
+	ShardService shardService;
+	
+	@MockBean
+	PainelService painelService;
+	
+	@MockBean
+	PlatformTransactionManager transactionManager;
+	
 	@Test
 	public void deveSalvarLancamento() {
 		//cenario
@@ -66,6 +102,159 @@ public class LancamentoServiceTest {
 		
 	}
 	
+	@Test
+	public void deveSalvarLoteReportandoErrosPorItem() {
+		//cenario
+		Lancamento valido = LancamentoRepositoryTest.criarLancamento();
+		valido.setUsuario(new Usuario());
+		valido.getUsuario().setId(1L);
+		valido.setStatus(StatusLancamento.EFETIVADO);
+		
+		Lancamento invalido = LancamentoRepositoryTest.criarLancamento();
+		invalido.setDescricao("");
+		
+		//acao
+		ResultadoLoteDTO resultado = service.salvarLote(Arrays.asList(invalido, valido));
+		
+		//verificacao
+		Assertions.assertThat(resultado.getTotal()).isEqualTo(2);
+		Assertions.assertThat(resultado.getSalvos()).isEqualTo(1);
+		Assertions.assertThat(resultado.getErros()).hasSize(1);
+		Assertions.assertThat(resultado.getErros().get(0).getIndice()).isEqualTo(0);
+		Assertions.assertThat(resultado.getErros().get(0).getMensagem()).isEqualTo("Informe uma descrição válida!");
+		Assertions.assertThat(valido.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+		Mockito.verify(repository).inserirEmLote(Arrays.asList(valido));
+	}
+	
+	@Test
+	public void deveRecusarLancamentoRecenteComMesmaImpressaoSemGravar() {
+		//cenario
+		Lancamento lancamento = criarLancamentoDoUsuario(1L, "Conta de Luz");
+		Mockito.when(duplicidadeService.recente(1L, lancamento.calcularImpressao())).thenReturn(true);
+		
+		//acao
+		Throwable erro = Assertions.catchThrowable( () -> service.salvar(lancamento));
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(LancamentoDuplicadoException.class);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+	}
+	
+	@Test
+	public void deveRecusarNoLoteDuplicadosDoLoteEJaGravados() {
+		//cenario
+		Lancamento luz = criarLancamentoDoUsuario(1L, "Conta de Luz");
+		Lancamento repetido = criarLancamentoDoUsuario(1L, "  conta   de LUZ ");
+		repetido.setValor(new BigDecimal("10.00"));
+		Lancamento gravado = criarLancamentoDoUsuario(1L, "Água");
+		Mockito.when(repository.buscarImpressoesExistentes(Mockito.eq(1L), Mockito.anyCollection()))
+			.thenReturn(Arrays.asList(gravado.calcularImpressao()));
+		
+		//acao
+		ResultadoLoteDTO resultado = service.salvarLote(Arrays.asList(luz, repetido, gravado));
+		
+		//verificacao
+		Assertions.assertThat(resultado.getSalvos()).isEqualTo(1);
+		Assertions.assertThat(resultado.getErros()).extracting(erro -> erro.getIndice()).containsExactly(1, 2);
+		Mockito.verify(repository, Mockito.times(1)).buscarImpressoesExistentes(Mockito.eq(1L), Mockito.anyCollection());
+		Mockito.verify(repository).inserirEmLote(Arrays.asList(luz));
+	}
+	
+	@Test
+	public void deveRecusarLancamentoJaGravadoConsultandoComOUsuarioBloqueado() {
+		//cenario
+		Lancamento lancamento = criarLancamentoDoUsuario(1L, "Uber");
+		Mockito.when(repository.buscarImpressoesExistentes(1L, Collections.singletonList(lancamento.calcularImpressao())))
+			.thenReturn(Arrays.asList(lancamento.calcularImpressao()));
+		
+		//acao
+		Throwable erro = Assertions.catchThrowable( () -> service.salvar(lancamento));
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(LancamentoDuplicadoException.class);
+		Mockito.verify(repository).bloquearUsuario(1L);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+	}
+	
+	@Test
+	public void deveGravarLancamentoIgualQuandoEnviadoComChaveDeIdempotencia() {
+		//cenario
+		Lancamento lancamento = criarLancamentoDoUsuario(1L, "Uber");
+		lancamento.setChaveIdempotencia("corrida-2");
+		Mockito.when(duplicidadeService.recente(Mockito.eq(1L), Mockito.any())).thenReturn(true);
+		Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+		
+		//acao
+		service.salvar(lancamento);
+		
+		//verificacao
+		Mockito.verify(repository).save(lancamento);
+		Mockito.verify(repository, Mockito.never()).buscarImpressoesExistentes(Mockito.any(), Mockito.anyCollection());
+	}
+	
+	@Test
+	public void deveGravarNoLoteAsOcorrenciasIguaisQueAindaNaoForamGravadas() {
+		//cenario
+		Lancamento primeira = criarLancamentoDoUsuario(1L, "Uber");
+		Lancamento segunda = criarLancamentoDoUsuario(1L, "Uber");
+		segunda.setOcorrencia(2);
+		Lancamento terceira = criarLancamentoDoUsuario(1L, "Uber");
+		terceira.setOcorrencia(3);
+		Mockito.when(repository.buscarImpressoesExistentes(Mockito.eq(1L), Mockito.anyCollection()))
+			.thenReturn(Arrays.asList(primeira.calcularImpressao()));
+		
+		//acao
+		ResultadoLoteDTO resultado = service.salvarLote(Arrays.asList(primeira, segunda, terceira));
+		
+		//verificacao
+		Assertions.assertThat(resultado.getSalvos()).isEqualTo(2);
+		Assertions.assertThat(resultado.getErros()).extracting(erro -> erro.getIndice()).containsExactly(0);
+		Mockito.verify(repository).bloquearUsuario(1L);
+		Mockito.verify(repository).inserirEmLote(Arrays.asList(segunda, terceira));
+	}
+	
+	@Test
+	public void deveRecusarNoLoteChavesDeIdempotenciaRepetidasEJaGravadas() {
+		//cenario
+		Lancamento primeira = criarLancamentoDoUsuario(1L, "Uber");
+		primeira.setChaveIdempotencia("a");
+		Lancamento repetida = criarLancamentoDoUsuario(1L, "Uber");
+		repetida.setChaveIdempotencia("a");
+		Lancamento gravada = criarLancamentoDoUsuario(1L, "Uber");
+		gravada.setChaveIdempotencia("b");
+		Mockito.when(repository.buscarChavesExistentes(Mockito.eq(1L), Mockito.anyCollection()))
+			.thenReturn(Arrays.asList("b"));
+		
+		//acao
+		ResultadoLoteDTO resultado = service.salvarLote(Arrays.asList(primeira, repetida, gravada));
+		
+		//verificacao
+		Assertions.assertThat(resultado.getErros()).extracting(erro -> erro.getIndice()).containsExactly(1, 2);
+		Mockito.verify(repository, Mockito.never()).buscarImpressoesExistentes(Mockito.any(), Mockito.anyCollection());
+		Mockito.verify(repository).inserirEmLote(Arrays.asList(primeira));
+	}
+	
+	@Test
+	public void deveGravarUmAUmQuandoOBancoRecusarOLote() {
+		//cenario
+		Lancamento primeira = criarLancamentoDoUsuario(1L, "Uber");
+		primeira.setChaveIdempotencia("a");
+		Lancamento concorrente = criarLancamentoDoUsuario(1L, "Uber");
+		concorrente.setChaveIdempotencia("b");
+		Mockito.doThrow(new DataIntegrityViolationException("unique index " + Lancamento.INDICE_CHAVE_IDEMPOTENCIA.toUpperCase()))
+			.when(repository).inserirEmLote(Mockito.argThat(lote -> lote.stream().anyMatch(lancamento -> lancamento == concorrente)));
+		
+		//acao
+		ResultadoLoteDTO resultado = service.salvarLote(Arrays.asList(primeira, concorrente));
+		
+		//verificacao
+		Assertions.assertThat(resultado.getSalvos()).isEqualTo(1);
+		Assertions.assertThat(resultado.getErros()).extracting(erro -> erro.getIndice()).containsExactly(1);
+		Assertions.assertThat(resultado.getErros().get(0).getMensagem()).contains("Idempotency-Key");
+		Mockito.verify(repository, Mockito.times(3)).inserirEmLote(Mockito.anyList());
+		Mockito.verify(saldoUsuarioService).registrarAlteracoes(Mockito.anyCollection(), Mockito.argThat(incluidos -> incluidos.size() == 1));
+	}
+	
 	@Test
 	public void deveAtualizarLancamento() {
 		//cenario
@@ -127,14 +316,191 @@ public class LancamentoServiceTest {
 		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
 		lancamento.setId(1L);
 		
-		List<Lancamento> lista = Arrays.asList(lancamento);
-		Mockito.when(repository.findAll(Mockito.any(Example.class))).thenReturn(lista);
+		LancamentoProjecao projecao = LancamentoProjecao.de(lancamento);
+		Mockito.when(repository.buscarProjecoes(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+			.thenReturn(Arrays.asList(projecao));
+		
+		//acao
+		List<LancamentoProjecao> resultado = service.buscar(lancamento);
+		
+		//verificacao
+		Assertions.assertThat(resultado).isNotEmpty().hasSize(1).contains(projecao);
+		Mockito.verify(repository).buscarProjecoes(null, "%lancamento%", lancamento.getMes(), 
+				lancamento.getAno(), lancamento.getTipo(), lancamento.getStatus());
+	}
+	
+	@Test
+	public void deveFiltrarLancamentosPeloIndiceDeDescricao() {
+		//cenario
+		Lancamento filtro = new Lancamento();
+		filtro.setDescricao("mercado");
+		filtro.setStatus(StatusLancamento.PENDENTE);
+		filtro.setUsuario(new Usuario());
+		filtro.getUsuario().setId(1L);
+		
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(7L);
+		LancamentoProjecao projecao = LancamentoProjecao.de(lancamento);
+		
+		Set<Long> ids = Collections.singleton(7L);
+		Mockito.when(indiceDescricaoService.buscar(1L, "mercado")).thenReturn(Optional.of(ids));
+		Mockito.when(repository.buscarPorIds(ids, 1L, "%mercado%", null, null, null, StatusLancamento.PENDENTE)).thenReturn(Arrays.asList(projecao));
 		
 		//acao
-		List<Lancamento> resultado = service.buscar(lancamento);
+		List<LancamentoProjecao> resultado = service.buscar(filtro);
 		
 		//verificacao
-		Assertions.assertThat(resultado).isNotEmpty().hasSize(1).contains(lancamento);
+		Assertions.assertThat(resultado).containsExactly(projecao);
+		Mockito.verify(repository, Mockito.never()).buscarProjecoes(Mockito.any(), Mockito.any(), Mockito.any(), 
+				Mockito.any(), Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	public void deveRetornarVazioSemConsultarQuandoIndiceNaoEncontrarDescricao() {
+		//cenario
+		Lancamento filtro = new Lancamento();
+		filtro.setDescricao("mercado");
+		filtro.setUsuario(new Usuario());
+		filtro.getUsuario().setId(1L);
+		
+		Mockito.when(indiceDescricaoService.buscar(1L, "mercado")).thenReturn(Optional.of(Collections.emptySet()));
+		
+		//acao
+		List<LancamentoProjecao> resultado = service.buscar(filtro);
+		
+		//verificacao
+		Assertions.assertThat(resultado).isEmpty();
+		Mockito.verify(repository, Mockito.never()).buscarProjecoes(Mockito.any(), Mockito.any(), Mockito.any(), 
+				Mockito.any(), Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	public void deveConsultarBaseComDescricaoNormalizadaQuandoIndiceNaoResponder() {
+		//cenario
+		Lancamento filtro = new Lancamento();
+		filtro.setDescricao(" Água_100% ");
+		filtro.setUsuario(new Usuario());
+		filtro.getUsuario().setId(1L);
+		
+		LancamentoProjecao projecao = LancamentoProjecao.de(LancamentoRepositoryTest.criarLancamento());
+		Mockito.when(indiceDescricaoService.buscar(1L, " Água_100% ")).thenReturn(Optional.empty());
+		Mockito.when(repository.buscarProjecoes(1L, "%agua!_100!%%", null, null, null, null)).thenReturn(Arrays.asList(projecao));
+		
+		//acao
+		List<LancamentoProjecao> resultado = service.buscar(filtro);
+		
+		//verificacao
+		Assertions.assertThat(resultado).containsExactly(projecao);
+		Mockito.verify(repository, Mockito.never()).buscarPorIds(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), 
+				Mockito.any(), Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	public void deveRetornarCursorQuandoHouverMaisLancamentos() {
+		//cenario
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(new Usuario());
+		filtro.getUsuario().setId(1L);
+		
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1L);
+		LancamentoProjecao primeiro = LancamentoProjecao.de(lancamento);
+		lancamento.setId(2L);
+		LancamentoProjecao segundo = LancamentoProjecao.de(lancamento);
+		
+		Mockito.when(repository.buscarAposCursor(Mockito.eq(1L), Mockito.any(), Mockito.any(), Mockito.any(), 
+				Mockito.eq(0), Mockito.eq(0), Mockito.eq(0L), Mockito.any(Pageable.class)))
+			.thenReturn(Arrays.asList(primeiro, segundo));
+		
+		//acao
+		PaginaLancamentoDTO pagina = service.buscar(filtro, null, 1);
+		
+		//verificacao
+		Assertions.assertThat(pagina.getLancamentos()).containsExactly(primeiro);
+		Assertions.assertThat(pagina.getProximo()).isNotNull();
+		
+		Mockito.when(repository.buscarAposCursor(Mockito.eq(1L), Mockito.any(), Mockito.any(), Mockito.any(), 
+				Mockito.eq(2020), Mockito.eq(9), Mockito.eq(1L), Mockito.any(Pageable.class)))
+			.thenReturn(Arrays.asList(segundo));
+		
+		PaginaLancamentoDTO proximaPagina = service.buscar(filtro, pagina.getProximo(), 1);
+		
+		Assertions.assertThat(proximaPagina.getLancamentos()).containsExactly(segundo);
+		Assertions.assertThat(proximaPagina.getProximo()).isNull();
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void deveAtualizarStatusEmLoteMantendoResumoConsistente() {
+		//cenario
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(new Usuario());
+		filtro.getUsuario().setId(1L);
+		filtro.setAno(2020);
+		
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1L);
+		lancamento.setUsuario(filtro.getUsuario());
+		LancamentoProjecao primeiro = LancamentoProjecao.de(lancamento);
+		lancamento.setId(2L);
+		LancamentoProjecao segundo = LancamentoProjecao.de(lancamento);
+		
+		Mockito.when(repository.bloquearParaAtualizarStatus(filtro, null, StatusLancamento.EFETIVADO))
+			.thenReturn(Arrays.asList(primeiro, segundo));
+		Mockito.when(repository.atualizarStatus(Arrays.asList(1L, 2L), StatusLancamento.EFETIVADO)).thenReturn(2);
+		
+		//acao
+		int atualizados = service.atualizarStatusEmLote(filtro, null, StatusLancamento.EFETIVADO);
+		
+		//verificacao
+		Assertions.assertThat(atualizados).isEqualTo(2);
+		
+		ArgumentCaptor<Collection<LancamentoProjecao>> incluidos = ArgumentCaptor.forClass(Collection.class);
+		Mockito.verify(resumoMensalService).registrarAlteracoes(Mockito.eq(Arrays.asList(primeiro, segundo)), incluidos.capture());
+		Assertions.assertThat(incluidos.getValue()).extracting(LancamentoProjecao::getStatus)
+			.containsExactly(StatusLancamento.EFETIVADO, StatusLancamento.EFETIVADO);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(Lancamento.class));
+	}
+	
+	@Test
+	public void naoDeveAtualizarStatusEmLoteSemUsuario() {
+		//acao
+		Throwable erro = Assertions.catchThrowable( () -> service.atualizarStatusEmLote(new Lancamento(), null, StatusLancamento.EFETIVADO));
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um usuário válido!");
+		Mockito.verifyNoInteractions(repository);
+	}
+	
+	@Test
+	public void naoDeveAtualizarStatusEmLoteSemIdsNemPeriodo() {
+		//cenario
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(new Usuario());
+		filtro.getUsuario().setId(1L);
+		filtro.setStatus(StatusLancamento.PENDENTE);
+		
+		//acao
+		Throwable erro = Assertions.catchThrowable( () -> service.atualizarStatusEmLote(filtro, Collections.emptyList(), StatusLancamento.EFETIVADO));
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class)
+			.hasMessage("Informe os ids, o ano ou o mês dos lançamentos a atualizar!");
+		Mockito.verifyNoInteractions(repository);
+	}
+	
+	@Test
+	public void deveLancarErroAoBuscarComCursorInvalido() {
+		//cenario
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(new Usuario());
+		filtro.getUsuario().setId(1L);
+		
+		//acao
+		Throwable erro = Assertions.catchThrowable( () -> service.buscar(filtro, "cursor-invalido", 10));
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Cursor inválido!");
 	}
 	
 	@Test
@@ -145,14 +511,98 @@ public class LancamentoServiceTest {
 		lancamento.setStatus(StatusLancamento.PENDENTE);
 		
 		StatusLancamento novoStatus = StatusLancamento.EFETIVADO;
-		Mockito.doReturn(lancamento).when(service).atualizar(lancamento);
+		Mockito.when(repository.obterProjecaoPersistida(1L, null)).thenReturn(Optional.of(criarProjecao(1L, StatusLancamento.PENDENTE, 3L)));
+		Mockito.when(repository.compararEAtualizarStatus(1L, null, StatusLancamento.PENDENTE, novoStatus, 3L)).thenReturn(1);
 		
 		//acao
 		service.atualizarStatus(lancamento, novoStatus);
 		
 		//verificacao
 		Assertions.assertThat(lancamento.getStatus()).isEqualTo(novoStatus);
-		Mockito.verify(service).atualizar(lancamento);
+		Assertions.assertThat(lancamento.getVersao()).isEqualTo(4L);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(Lancamento.class));
+	}
+	
+	@Test
+	public void deveRepetirAtualizacaoDeStatusQuandoOutraRequisicaoAlterouOLancamento() {
+		//cenario
+		Mockito.when(repository.obterProjecaoPersistida(1L, null)).thenReturn(
+				Optional.of(criarProjecao(1L, StatusLancamento.PENDENTE, 3L)), 
+				Optional.of(criarProjecao(1L, StatusLancamento.CANCELADO, 4L)));
+		Mockito.when(repository.compararEAtualizarStatus(1L, null, StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO, 3L)).thenReturn(0);
+		Mockito.when(repository.compararEAtualizarStatus(1L, null, StatusLancamento.CANCELADO, StatusLancamento.EFETIVADO, 4L)).thenReturn(1);
+		
+		//acao
+		LancamentoProjecao atualizado = service.atualizarStatus(1L, null, StatusLancamento.EFETIVADO, null);
+		
+		//verificacao
+		Assertions.assertThat(atualizado.getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		Assertions.assertThat(atualizado.getVersao()).isEqualTo(5L);
+		Mockito.verify(resumoMensalService, Mockito.times(1)).registrarAlteracoes(Mockito.anyCollection(), Mockito.anyCollection());
+	}
+	
+	@Test
+	public void deveAtualizarStatusFiltrandoPeloUsuarioSemProcurarOShard() {
+		//cenario
+		Mockito.when(repository.obterProjecaoPersistida(1L, 2L)).thenReturn(Optional.of(criarProjecao(1L, StatusLancamento.PENDENTE, 3L)));
+		Mockito.when(repository.compararEAtualizarStatus(1L, 2L, StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO, 3L)).thenReturn(1);
+		
+		//acao
+		LancamentoProjecao atualizado = service.atualizarStatus(1L, 2L, StatusLancamento.EFETIVADO, null);
+		
+		//verificacao
+		Assertions.assertThat(atualizado.getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		Mockito.verify(shardService).usarShardDoDono(2L);
+		Mockito.verify(repository, Mockito.never()).existsById(Mockito.any());
+	}
+	
+	@Test
+	public void deveNegarAtualizacaoDeStatusDeLancamentoDeOutroUsuario() {
+		//cenario
+		Mockito.when(repository.existsById(1L)).thenReturn(true);
+		
+		//acao
+		Throwable deOutro = Assertions.catchThrowable( () -> service.atualizarStatus(1L, 2L, StatusLancamento.EFETIVADO, null));
+		Mockito.when(repository.existsById(1L)).thenReturn(false);
+		Throwable inexistente = Assertions.catchThrowable( () -> service.atualizarStatus(1L, 2L, StatusLancamento.EFETIVADO, null));
+		
+		//verificacao
+		Assertions.assertThat(deOutro).isInstanceOf(AcessoNegadoException.class);
+		Assertions.assertThat(inexistente).isInstanceOf(RegraNegocioException.class);
+		Mockito.verify(repository, Mockito.never()).compararEAtualizarStatus(
+				Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyLong());
+	}
+	
+	@Test
+	public void naoDeveAtualizarStatusComVersaoDesatualizada() {
+		//cenario
+		Mockito.when(repository.obterProjecaoPersistida(1L, null)).thenReturn(Optional.of(criarProjecao(1L, StatusLancamento.PENDENTE, 4L)));
+		
+		//acao
+		Throwable erro = Assertions.catchThrowable( () -> service.atualizarStatus(1L, null, StatusLancamento.EFETIVADO, 3L));
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(ConflitoVersaoException.class);
+		Mockito.verify(repository, Mockito.never()).compararEAtualizarStatus(
+				Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyLong());
+		Mockito.verifyNoInteractions(saldoUsuarioService, resumoMensalService, indiceDescricaoService);
+	}
+	
+	@Test
+	public void naoDeveAtualizarLancamentoComVersaoDesatualizada() {
+		//cenario
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1L);
+		lancamento.setVersao(3L);
+		Mockito.doNothing().when(service).validar(lancamento);
+		Mockito.when(repository.obterProjecaoPersistida(1L, null)).thenReturn(Optional.of(criarProjecao(1L, StatusLancamento.PENDENTE, 4L)));
+		
+		//acao
+		Throwable erro = Assertions.catchThrowable( () -> service.atualizar(lancamento));
+		
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(ConflitoVersaoException.class);
+		Mockito.verify(repository, Mockito.never()).save(lancamento);
 	}
 	
 	@Test
@@ -162,10 +612,10 @@ public class LancamentoServiceTest {
 		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
 		lancamento.setId(id);
 		
-		Mockito.when(repository.findById(id)).thenReturn(Optional.of(lancamento));
+		Mockito.when(repository.obterComUsuario(id)).thenReturn(Optional.of(lancamento));
 		
 		//acao
-		Optional<Lancamento> resutado = service.obterPorId(id);
+		Optional<Lancamento> resutado = service.obterPorId(id, 1L);
 		
 		//verificacao
 		Assertions.assertThat(resutado.isPresent()).isTrue();
@@ -178,10 +628,10 @@ public class LancamentoServiceTest {
 		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
 		lancamento.setId(id);
 		
-		Mockito.when(repository.findById(id)).thenReturn(Optional.empty());
+		Mockito.when(repository.obterComUsuario(id)).thenReturn(Optional.empty());
 		
 		//acao
-		Optional<Lancamento> resutado = service.obterPorId(id);
+		Optional<Lancamento> resutado = service.obterPorId(id, 1L);
 		
 		//verificacao
 		Assertions.assertThat(resutado.isPresent()).isFalse();
@@ -252,5 +702,16 @@ public class LancamentoServiceTest {
 		lancamento.setTipo(TipoLancamento.RECEITA);
 	}
 	
+	private Lancamento criarLancamentoDoUsuario(Long idUsuario, String descricao) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(new Usuario());
+		lancamento.getUsuario().setId(idUsuario);
+		lancamento.setDescricao(descricao);
+		return lancamento;
+	}
 	
+	private LancamentoProjecao criarProjecao(Long id, StatusLancamento status, Long versao) {
+		return new LancamentoProjecao(id, "lancamento", 9, 2020, BigDecimal.TEN, TipoLancamento.RECEITA, 
+				status, null, 1L, versao);
+	}
 }
@@ -0,0 +1,179 @@
+package com.app.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.util.unit.DataSize;
+
+import com.app.minhasfinancas.dto.PainelDTO;
+import com.app.minhasfinancas.dto.PontoPainelDTO;
+import com.app.minhasfinancas.exception.RegraNegocioException;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+import com.app.minhasfinancas.model.repository.LancamentoRepository;
+import com.app.minhasfinancas.service.impl.PainelServiceImpl;
+
+public class PainelServiceTest {
+
+	LancamentoRepository repository = Mockito.mock(LancamentoRepository.class);
+
+	@Test
+	public void deveTotalizarEFiltrarOsLancamentosCarregadosUmaVez() {
+		//cenario
+		PainelServiceImpl service = criarService(DataSize.ofMegabytes(1));
+		Mockito.when(repository.percorrerProjecoesPorUsuario(1L)).thenAnswer(invocacao -> Arrays.asList(
+				projecao(1L, 1L, 2019, 12, "10.50", TipoLancamento.RECEITA, StatusLancamento.EFETIVADO),
+				projecao(2L, 1L, 2020, 1, "100.25", TipoLancamento.RECEITA, StatusLancamento.EFETIVADO),
+				projecao(3L, 1L, 2020, 3, "40.10", TipoLancamento.DESPESA, StatusLancamento.PENDENTE)).stream());
+
+		//acao
+		PainelDTO ano = service.obterPainel(1L, 2020, null, null);
+		PainelDTO pendentes = service.obterPainel(1L, null, null, StatusLancamento.PENDENTE);
+		PainelDTO tudo = service.obterPainel(1L, null, null, null);
+
+		//verificacao
+		Assertions.assertThat(ano.getReceitas()).isEqualByComparingTo("100.25");
+		Assertions.assertThat(ano.getDespesas()).isEqualByComparingTo("40.10");
+		Assertions.assertThat(ano.getSaldo()).isEqualByComparingTo("60.15");
+		Assertions.assertThat(ano.getQuantidade()).isEqualTo(2);
+		Assertions.assertThat(ano.getSerie()).hasSize(12);
+		Assertions.assertThat(ano.getSerie().get(2).getDespesas()).isEqualByComparingTo("40.10");
+
+		Assertions.assertThat(pendentes.getQuantidade()).isEqualTo(1);
+		Assertions.assertThat(pendentes.getReceitas()).isEqualByComparingTo("0");
+
+		Assertions.assertThat(tudo.getSerie()).extracting(PontoPainelDTO::getMes).containsExactly(12, 1, 2, 3);
+		Assertions.assertThat(tudo.getSerie().get(0).getAno()).isEqualTo(2019);
+		Assertions.assertThat(tudo.getSaldo()).isEqualByComparingTo("70.65");
+
+		Mockito.verify(repository, Mockito.times(1)).percorrerProjecoesPorUsuario(1L);
+	}
+
+	@Test
+	public void deveAplicarAsAlteracoesNoLivroJaCarregado() {
+		//cenario
+		PainelServiceImpl service = criarService(DataSize.ofMegabytes(1));
+		LancamentoProjecao despesa = projecao(1L, 1L, 2020, 1, "30", TipoLancamento.DESPESA, StatusLancamento.PENDENTE);
+		LancamentoProjecao receita = projecao(2L, 1L, 2020, 1, "50", TipoLancamento.RECEITA, StatusLancamento.PENDENTE);
+		Mockito.when(repository.percorrerProjecoesPorUsuario(1L)).thenAnswer(invocacao -> Arrays.asList(despesa, receita).stream());
+		service.obterPainel(1L, 2020, null, null);
+
+		//acao
+		service.registrarAlteracoes(Collections.singletonList(receita), Collections.singletonList(receita.comStatus(StatusLancamento.EFETIVADO)));
+		service.registrarAlteracoes(Collections.singletonList(despesa), Collections.emptyList());
+		service.registrarAlteracoes(Collections.emptyList(),
+				Collections.singletonList(projecao(3L, 1L, 2020, 2, "5", TipoLancamento.DESPESA, StatusLancamento.PENDENTE)));
+		PainelDTO efetivados = service.obterPainel(1L, 2020, null, StatusLancamento.EFETIVADO);
+		PainelDTO todos = service.obterPainel(1L, 2020, null, null);
+
+		//verificacao
+		Assertions.assertThat(efetivados.getReceitas()).isEqualByComparingTo("50");
+		Assertions.assertThat(efetivados.getQuantidade()).isEqualTo(1);
+		Assertions.assertThat(todos.getDespesas()).isEqualByComparingTo("5");
+		Assertions.assertThat(todos.getQuantidade()).isEqualTo(2);
+		Mockito.verify(repository, Mockito.times(1)).percorrerProjecoesPorUsuario(1L);
+	}
+
+	@Test
+	public void deveDescartarOLivroMenosUsadoAoPassarDoLimiteDeMemoria() {
+		//cenario
+		PainelServiceImpl service = criarService(DataSize.ofBytes(1500));
+		Mockito.when(repository.percorrerProjecoesPorUsuario(Mockito.anyLong())).thenAnswer(invocacao -> Collections
+				.singletonList(projecao(invocacao.getArgument(0), invocacao.getArgument(0), 2020, 1, "1", TipoLancamento.RECEITA, StatusLancamento.PENDENTE))
+				.stream());
+
+		//acao
+		service.obterPainel(1L, null, null, null);
+		service.obterPainel(2L, null, null, null);
+		service.obterPainel(2L, null, null, null);
+		PainelDTO recarregado = service.obterPainel(1L, null, null, null);
+
+		//verificacao
+		Assertions.assertThat(recarregado.getReceitas()).isEqualByComparingTo("1");
+		Mockito.verify(repository, Mockito.times(2)).percorrerProjecoesPorUsuario(1L);
+		Mockito.verify(repository, Mockito.times(1)).percorrerProjecoesPorUsuario(2L);
+	}
+
+	@Test
+	public void deveManterAsPosicoesAoRemoverEIncluirMuitosLancamentos() {
+		//cenario
+		PainelServiceImpl service = criarService(DataSize.ofMegabytes(1));
+		List<LancamentoProjecao> lancamentos = new ArrayList<>();
+		for (long id = 1; id <= 1000; id++) {
+			lancamentos.add(projecao(id, 1L, 2020, 1, "1", TipoLancamento.RECEITA, StatusLancamento.PENDENTE));
+		}
+		Mockito.when(repository.percorrerProjecoesPorUsuario(1L)).thenAnswer(invocacao -> lancamentos.stream());
+		service.obterPainel(1L, null, null, null);
+
+		List<LancamentoProjecao> pares = new ArrayList<>();
+		for (LancamentoProjecao lancamento : lancamentos) {
+			if(lancamento.getId() % 2 == 0) {
+				pares.add(lancamento);
+			}
+		}
+
+		//acao
+		service.registrarAlteracoes(pares, Collections.emptyList());
+		service.registrarAlteracoes(Collections.singletonList(lancamentos.get(0)),
+				Collections.singletonList(lancamentos.get(0).comStatus(StatusLancamento.EFETIVADO)));
+		service.registrarAlteracoes(pares, Collections.emptyList());
+		PainelDTO todos = service.obterPainel(1L, null, null, null);
+		PainelDTO efetivados = service.obterPainel(1L, null, null, StatusLancamento.EFETIVADO);
+
+		//verificacao
+		Assertions.assertThat(todos.getQuantidade()).isEqualTo(500);
+		Assertions.assertThat(todos.getReceitas()).isEqualByComparingTo("500");
+		Assertions.assertThat(efetivados.getQuantidade()).isEqualTo(1);
+	}
+
+	@Test
+	public void deveRecarregarOLivroExpirado() throws InterruptedException {
+		//cenario
+		PainelServiceImpl service = criarService(DataSize.ofMegabytes(1), 1);
+		Mockito.when(repository.percorrerProjecoesPorUsuario(1L))
+				.thenAnswer(invocacao -> Collections.singletonList(projecao(1L, 1L, 2020, 1, "10", TipoLancamento.RECEITA, StatusLancamento.PENDENTE)).stream())
+				.thenAnswer(invocacao -> Collections.singletonList(projecao(1L, 1L, 2020, 1, "25", TipoLancamento.RECEITA, StatusLancamento.PENDENTE)).stream());
+		service.obterPainel(1L, null, null, null);
+
+		//acao
+		Thread.sleep(5);
+		PainelDTO recarregado = service.obterPainel(1L, null, null, null);
+
+		//verificacao
+		Assertions.assertThat(recarregado.getReceitas()).isEqualByComparingTo("25");
+		Mockito.verify(repository, Mockito.times(2)).percorrerProjecoesPorUsuario(1L);
+	}
+
+	@Test
+	public void deveLancarErroAoObterPainelDeAnoInvalido() {
+		//cenario
+		PainelServiceImpl service = criarService(DataSize.ofMegabytes(1));
+
+		//acao
+		Throwable exception = Assertions.catchThrowable(() -> service.obterPainel(1L, 20, null, null));
+
+		//verificacao
+		Assertions.assertThat(exception).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um ano válido!");
+		Mockito.verifyNoInteractions(repository);
+	}
+
+	private PainelServiceImpl criarService(DataSize memoriaMaxima) {
+		return criarService(memoriaMaxima, 60000);
+	}
+
+	private PainelServiceImpl criarService(DataSize memoriaMaxima, long expiracaoMs) {
+		return new PainelServiceImpl(repository, Mockito.mock(ShardService.class), memoriaMaxima, expiracaoMs);
+	}
+
+	private LancamentoProjecao projecao(Long id, Long usuario, int ano, int mes, String valor, TipoLancamento tipo,
+			StatusLancamento status) {
+		return new LancamentoProjecao(id, "lancamento", mes, ano, new BigDecimal(valor), tipo, status, null, usuario, 0L);
+	}
+}
@@ -0,0 +1,107 @@
+package com.app.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.app.minhasfinancas.dto.RelatorioAnualDTO;
+import com.app.minhasfinancas.dto.RelatorioMensalDTO;
+import com.app.minhasfinancas.exception.RegraNegocioException;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.enums.TipoLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+import com.app.minhasfinancas.model.repository.LancamentoRepository;
+import com.app.minhasfinancas.service.impl.RelatorioServiceImpl;
+
+public class RelatorioServiceTest {
+
+	LancamentoRepository repository = Mockito.mock(LancamentoRepository.class);
+	ShardService shardService = Mockito.mock(ShardService.class);
+
+	RelatorioServiceImpl service = new RelatorioServiceImpl(repository, shardService,
+			Mockito.mock(ConsistenciaLeituraService.class), Mockito.mock(PlatformTransactionManager.class), 3, 12);
+
+	@BeforeEach
+	public void semSaldoAnterior() {
+		Mockito.when(repository.obterSaldoAnteriorAoAno(Mockito.anyLong(), Mockito.anyInt())).thenReturn(BigDecimal.ZERO);
+	}
+
+	@AfterEach
+	public void desligar() {
+		service.destroy();
+	}
+
+	@Test
+	public void deveMontarOsMesesComSaldoAcumuladoDesdeOsAnosAnteriores() {
+		//cenario
+		Mockito.when(repository.obterSaldoAnteriorAoAno(1L, 2020)).thenReturn(new BigDecimal("500"));
+		Mockito.when(repository.buscarProjecoes(1L, null, 1, 2020, null, null)).thenReturn(Arrays.asList(
+				projecao(1L, 1, 100, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO),
+				projecao(2L, 1, 30, TipoLancamento.DESPESA, StatusLancamento.PENDENTE)));
+		Mockito.when(repository.buscarProjecoes(1L, null, 3, 2020, null, null)).thenReturn(Arrays.asList(
+				projecao(3L, 3, 50, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO),
+				projecao(4L, 3, 10, TipoLancamento.DESPESA, StatusLancamento.CANCELADO)));
+		Mockito.when(repository.buscarProjecoes(Mockito.eq(1L), Mockito.isNull(), Mockito.intThat(mes -> mes != 1 && mes != 3),
+				Mockito.eq(2020), Mockito.isNull(), Mockito.isNull())).thenReturn(Collections.emptyList());
+
+		//acao
+		RelatorioAnualDTO relatorio = service.gerarRelatorioAnual(1L, 2020);
+
+		//verificacao
+		Assertions.assertThat(relatorio.getMeses()).extracting(RelatorioMensalDTO::getMes)
+				.containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12);
+		Assertions.assertThat(relatorio.getMeses().get(0).getSaldoAcumulado()).isEqualByComparingTo("570");
+		Assertions.assertThat(relatorio.getMeses().get(1).getSaldoAcumulado()).isEqualByComparingTo("570");
+		Assertions.assertThat(relatorio.getMeses().get(2).getSaldo()).isEqualByComparingTo("-60");
+		Assertions.assertThat(relatorio.getMeses().get(11).getSaldoAcumulado()).isEqualByComparingTo("510");
+
+		Assertions.assertThat(relatorio.getReceitas()).isEqualByComparingTo("100");
+		Assertions.assertThat(relatorio.getDespesas()).isEqualByComparingTo("90");
+		Assertions.assertThat(relatorio.getQuantidadePorStatus().get(StatusLancamento.EFETIVADO)).isEqualTo(2L);
+		Assertions.assertThat(relatorio.getQuantidadePorStatus().get(StatusLancamento.PENDENTE)).isEqualTo(1L);
+		Assertions.assertThat(relatorio.getQuantidadePorStatus().get(StatusLancamento.CANCELADO)).isEqualTo(1L);
+		Mockito.verify(shardService, Mockito.times(13)).usarShardDoUsuario(1L);
+	}
+
+	@Test
+	public void deveListarAsMaioresDespesasDoAno() {
+		//cenario
+		Mockito.when(repository.buscarProjecoes(Mockito.eq(1L), Mockito.isNull(), Mockito.anyInt(), Mockito.eq(2020),
+				Mockito.isNull(), Mockito.isNull())).thenAnswer(invocacao -> {
+					int mes = invocacao.getArgument(2);
+					return Arrays.asList(
+							projecao(mes * 10L, mes, mes, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO),
+							projecao(mes * 10L + 1, mes, 1000, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO));
+				});
+
+		//acao
+		RelatorioAnualDTO relatorio = service.gerarRelatorioAnual(1L, 2020);
+
+		//verificacao
+		Assertions.assertThat(relatorio.getMaioresDespesas()).extracting(LancamentoProjecao::getId)
+				.containsExactly(120L, 110L, 100L, 90L, 80L);
+		Assertions.assertThat(relatorio.getMeses().get(4).getMaioresDespesas()).extracting(LancamentoProjecao::getId)
+				.containsExactly(50L);
+	}
+
+	@Test
+	public void deveLancarErroAoGerarRelatorioDeAnoInvalido() {
+		//acao
+		Throwable exception = Assertions.catchThrowable(() -> service.gerarRelatorioAnual(1L, 20));
+
+		//verificacao
+		Assertions.assertThat(exception).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um ano válido!");
+		Mockito.verifyNoInteractions(repository);
+	}
+
+	private LancamentoProjecao projecao(Long id, int mes, int valor, TipoLancamento tipo, StatusLancamento status) {
+		return new LancamentoProjecao(id, "lancamento", mes, 2020, BigDecimal.valueOf(valor), tipo, status, null, 1L, 0L);
+	}
+}
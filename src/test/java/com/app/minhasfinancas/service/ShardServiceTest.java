@@ -0,0 +1,175 @@
+package com.app.minhasfinancas.service;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.app.minhasfinancas.config.ShardDataSource;
+import com.app.minhasfinancas.exception.RegraNegocioException;
+import com.app.minhasfinancas.model.entity.Lancamento;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.enums.StatusLancamento;
+import com.app.minhasfinancas.model.projection.LancamentoProjecao;
+import com.app.minhasfinancas.model.repository.LancamentoRepositoryTest;
+
+/**
+ * Três bancos H2: o {@code db} do perfil de teste como shard 0 e mais dois.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = WebEnvironment.NONE, properties = {
+		"minhasfinancas.shards.urls=jdbc:h2:mem:shard1;MODE=PostgreSQL;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard2;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+		"minhasfinancas.shards.cache-diretorio-ms=50"
+})
+public class ShardServiceTest {
+
+	@Autowired
+	UsuarioService usuarioService;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	ShardService shardService;
+
+	@Autowired
+	DataSource dataSource;
+
+	@Test
+	public void deveGravarCadaUsuarioComSeusLancamentosNumUnicoShard() throws SQLException {
+		//cenario
+		List<Usuario> usuarios = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			usuarios.add(cadastrar("gravar" + i));
+		}
+
+		//acao
+		List<Lancamento> lancamentos = new ArrayList<>();
+		for (Usuario usuario : usuarios) {
+			lancamentos.add(lancar(usuario));
+		}
+
+		//verificacao
+		Set<Integer> shardsUsados = new HashSet<>();
+		Set<Long> idsUsuarios = new HashSet<>();
+		Set<Long> idsLancamentos = new HashSet<>();
+		for (int i = 0; i < usuarios.size(); i++) {
+			Long idUsuario = usuarios.get(i).getId();
+			int shard = shardService.shardDoUsuario(idUsuario);
+			shardsUsados.add(shard);
+			idsUsuarios.add(idUsuario);
+			idsLancamentos.add(lancamentos.get(i).getId());
+
+			Assertions.assertThat(shardsComUsuario(idUsuario)).containsExactly(shard);
+		}
+
+		Assertions.assertThat(shardsUsados).hasSizeGreaterThan(1);
+		Assertions.assertThat(idsUsuarios).hasSize(usuarios.size());
+		Assertions.assertThat(idsLancamentos).hasSize(usuarios.size());
+	}
+
+	@Test
+	public void deveAcharUsuarioPeloEmailELancamentoPeloIdComODonoEmQualquerShard() {
+		//cenario
+		List<Lancamento> lancamentos = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			lancamentos.add(lancar(cadastrar("achar" + i)));
+		}
+
+		for (Lancamento lancamento : lancamentos) {
+			//acao
+			Usuario autenticado = usuarioService.autenticar(lancamento.getUsuario().getEmail(), "senha");
+			LancamentoProjecao efetivado = lancamentoService.atualizarStatus(lancamento.getId(), autenticado.getId(), StatusLancamento.EFETIVADO, null);
+
+			//verificacao
+			Assertions.assertThat(autenticado.getId()).isEqualTo(lancamento.getUsuario().getId());
+			Assertions.assertThat(lancamentoService.obterPorId(lancamento.getId(), autenticado.getId())).isPresent();
+			Assertions.assertThat(efetivado.getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+			Assertions.assertThat(lancamentoService.obterSaldoPorUsuario(autenticado.getId())).isEqualByComparingTo(lancamento.getValor());
+		}
+	}
+
+	@Test
+	public void deveExigirODonoParaEnderecarLancamentoPeloId() {
+		//cenario
+		Lancamento lancamento = lancar(cadastrar("semdono"));
+
+		//acao
+		Throwable erro = Assertions.catchThrowable( () -> lancamentoService.atualizarStatus(lancamento.getId(), null, StatusLancamento.EFETIVADO, null));
+
+		//verificacao
+		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe o usuário do lançamento.");
+		Assertions.assertThat(Assertions.catchThrowable( () -> lancamentoService.obterPorId(lancamento.getId(), null)))
+			.isInstanceOf(RegraNegocioException.class);
+	}
+
+	@Test
+	public void deveMoverUsuarioDeShardMantendoOsIds() throws SQLException {
+		//cenario
+		Lancamento lancamento = lancar(cadastrar("mover"));
+		Long idUsuario = lancamento.getUsuario().getId();
+		int destino = (shardService.shardDoUsuario(idUsuario) + 1) % 3;
+
+		//acao
+		shardService.moverUsuario(idUsuario, destino);
+
+		//verificacao
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(lancamento.getUsuario());
+
+		Assertions.assertThat(shardService.shardDoUsuario(idUsuario)).isEqualTo(destino);
+		Assertions.assertThat(shardsComUsuario(idUsuario)).containsExactly(destino);
+		Assertions.assertThat(lancamentoService.buscar(filtro)).extracting(LancamentoProjecao::getId).containsExactly(lancamento.getId());
+		Assertions.assertThat(lancamentoService.obterSaldoPorUsuario(idUsuario)).isEqualByComparingTo(lancamento.getValor());
+		Assertions.assertThat(usuarioService.autenticar(lancamento.getUsuario().getEmail(), "senha").getId()).isEqualTo(idUsuario);
+	}
+
+	private Usuario cadastrar(String nome) {
+		Usuario usuario = new Usuario();
+		usuario.setNome(nome);
+		usuario.setEmail(nome + "@shard.com");
+		usuario.setSenha("senha");
+		return usuarioService.salvarUsuario(usuario);
+	}
+
+	private Lancamento lancar(Usuario usuario) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		return lancamentoService.salvar(lancamento);
+	}
+
+	/**
+	 * Shards com a linha do usuário ou algum lançamento dele.
+	 */
+	private List<Integer> shardsComUsuario(Long idUsuario) throws SQLException {
+		ShardDataSource shards = dataSource.unwrap(ShardDataSource.class);
+		List<Integer> encontrados = new ArrayList<>();
+
+		for (int i = 0; i < shards.getQuantidade(); i++) {
+			JdbcTemplate shard = new JdbcTemplate(shards.getShard(i));
+			int linhas = shard.queryForObject("select count(*) from financas.usuario where id = ?", Integer.class, idUsuario)
+					+ shard.queryForObject("select count(*) from financas.lancamento where id_usuario = ?", Integer.class, idUsuario);
+
+			if(linhas > 0) {
+				encontrados.add(i);
+			}
+		}
+
+		return encontrados;
+	}
+
+}
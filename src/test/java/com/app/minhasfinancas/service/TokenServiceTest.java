@@ -0,0 +1,76 @@
+package com.app.minhasfinancas.service;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.app.minhasfinancas.exception.ErroAutenticacao;
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.service.impl.TokenServiceImpl;
+
+public class TokenServiceTest {
+	
+	static final String CHAVE = "chave-de-teste-com-pelo-menos-32-caracteres";
+	
+	TokenService service = new TokenServiceImpl(CHAVE, 60);
+	
+	@Test
+	public void deveObterIdDoUsuarioAPartirDoToken() {
+		//cenario
+		Usuario usuario = new Usuario();
+		usuario.setId(7L);
+		String token = service.gerarToken(usuario);
+		
+		//acao
+		Long id = service.obterIdUsuario(token);
+		
+		//verificacao
+		Assertions.assertThat(id).isEqualTo(7L);
+	}
+	
+	@Test
+	public void deveRecusarTokenAdulterado() {
+		//cenario
+		Usuario usuario = new Usuario();
+		usuario.setId(7L);
+		String token = service.gerarToken(usuario);
+		String assinatura = token.substring(token.indexOf('.'));
+		
+		usuario.setId(8L);
+		String adulterado = service.gerarToken(usuario).split("\\.")[0] + assinatura;
+		
+		//acao
+		Throwable exception = Assertions.catchThrowable(() -> service.obterIdUsuario(adulterado));
+		Throwable assinadoComOutraChave = Assertions.catchThrowable(() -> 
+				new TokenServiceImpl(CHAVE.replace('a', 'b'), 60).obterIdUsuario(token));
+		
+		//verificacao
+		Assertions.assertThat(exception).isInstanceOf(ErroAutenticacao.class).hasMessage("Token inválido!");
+		Assertions.assertThat(assinadoComOutraChave).isInstanceOf(ErroAutenticacao.class);
+	}
+	
+	@Test
+	public void deveRecusarTokenExpirado() {
+		//cenario
+		Usuario usuario = new Usuario();
+		usuario.setId(7L);
+		String token = new TokenServiceImpl(CHAVE, -1).gerarToken(usuario);
+		
+		//acao
+		Throwable exception = Assertions.catchThrowable(() -> service.obterIdUsuario(token));
+		
+		//verificacao
+		Assertions.assertThat(exception).isInstanceOf(ErroAutenticacao.class).hasMessage("Token expirado!");
+	}
+
+	@Test
+	public void naoDeveIniciarSemChaveConfigurada() {
+		//acao
+		Throwable semChave = Assertions.catchThrowable(() -> new TokenServiceImpl("", 60));
+		Throwable chaveCurta = Assertions.catchThrowable(() -> new TokenServiceImpl("chave-curta", 60));
+		
+		//verificacao
+		Assertions.assertThat(semChave).isInstanceOf(IllegalStateException.class).hasMessageContaining("minhasfinancas.token.chave");
+		Assertions.assertThat(chaveCurta).isInstanceOf(IllegalStateException.class);
+	}
+
+}
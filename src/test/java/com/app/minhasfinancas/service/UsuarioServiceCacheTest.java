@@ -0,0 +1,115 @@
+package com.app.minhasfinancas.service;
+
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.app.minhasfinancas.model.entity.Usuario;
+import com.app.minhasfinancas.model.repository.UsuarioRepository;
+import com.app.minhasfinancas.service.impl.UsuarioServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(classes = { UsuarioServiceImpl.class, UsuarioServiceCacheTest.CacheConfig.class })
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+public class UsuarioServiceCacheTest {
+	
+	@Configuration
+	@EnableCaching
+	static class CacheConfig {
+	}
+
+	@Autowired
+	UsuarioService service;
+	
+	@Autowired
+	CacheManager cacheManager;
+	
+	@MockBean
+	UsuarioRepository repository;
+	
+	@MockBean
+	ShardService shardService;
+	
+	@Test
+	public void deveConsultarBaseUmaUnicaVezParaOMesmoUsuario() {
+		//cenario
+		Usuario usuario = new Usuario();
+		usuario.setId(1L);
+		Mockito.when(repository.findById(1L)).thenReturn(Optional.of(usuario));
+		
+		//acao
+		service.obterporId(1L);
+		Optional<Usuario> resultado = service.obterporId(1L);
+		
+		//verificacao
+		Assertions.assertThat(resultado).contains(usuario);
+		Mockito.verify(repository, Mockito.times(1)).findById(1L);
+	}
+	
+	@Test
+	public void naoDeveGuardarUsuarioInexistente() {
+		//cenario
+		Mockito.when(repository.findById(2L)).thenReturn(Optional.empty());
+		
+		//acao
+		service.obterporId(2L);
+		Optional<Usuario> resultado = service.obterporId(2L);
+		
+		//verificacao
+		Assertions.assertThat(resultado).isEmpty();
+		Mockito.verify(repository, Mockito.times(2)).findById(2L);
+	}
+	
+	@Test
+	public void deveInvalidarUsuarioAoSalvar() {
+		//cenario
+		Usuario usuario = new Usuario();
+		usuario.setId(3L);
+		usuario.setEmail("usuario@email.com");
+		Mockito.when(repository.findById(3L)).thenReturn(Optional.of(usuario));
+		Mockito.when(repository.save(usuario)).thenReturn(usuario);
+		service.obterporId(3L);
+		
+		//acao
+		service.salvarUsuario(usuario);
+		service.obterporId(3L);
+		
+		//verificacao
+		Mockito.verify(repository, Mockito.times(2)).findById(3L);
+	}
+	
+	@Test
+	public void deveInvalidarOsDoisCachesAoRegravarSenhaLegada() {
+		//cenario
+		Usuario usuario = new Usuario();
+		usuario.setId(4L);
+		usuario.setEmail("legado@email.com");
+		usuario.setSenha("senha");
+		Mockito.when(repository.findById(4L)).thenReturn(Optional.of(usuario));
+		Mockito.when(repository.findByEmail("legado@email.com")).thenReturn(Optional.of(usuario));
+		service.obterporId(4L);
+		cacheManager.getCache("usuariosPorEmail").put("legado@email.com", usuario);
+		
+		//acao
+		service.autenticar("legado@email.com", "senha");
+		
+		//verificacao
+		Assertions.assertThat(usuario.getSenha()).isEqualTo("senha");
+		Assertions.assertThat(cacheManager.getCache("usuarios").get(4L)).isNull();
+		Assertions.assertThat(cacheManager.getCache("usuariosPorEmail").get("legado@email.com")).isNull();
+	}
+}
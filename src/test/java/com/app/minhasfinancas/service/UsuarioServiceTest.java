@@ -8,6 +8,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -27,6 +28,9 @@ public class UsuarioServiceTest {
 	@MockBean
 	UsuarioRepository repository;
 	
+	@MockBean
+	ShardService shardService;
+	
 	@Test
 	public void deveSalvarUsuario() {
 		//cenario
@@ -116,6 +120,62 @@ public class UsuarioServiceTest {
 		Assertions.assertThat(exception).isInstanceOf(ErroAutenticacao.class).hasMessage("Senha inválida!");
 	}
 	
+	@Test
+	public void deveGravarSenhaComHashAoSalvarUsuario() {
+		//cenario
+		Mockito.doNothing().when(service).validarEmail(Mockito.anyString());
+		Usuario usuario = new Usuario();
+		usuario.setEmail("usuario@email.com");
+		usuario.setSenha("senha");
+		
+		Mockito.when(repository.save(Mockito.any(Usuario.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+		
+		//acao
+		Usuario usuarioSalvo = service.salvarUsuario(usuario);
+		
+		//verificacao
+		Assertions.assertThat(usuarioSalvo.getSenha()).isNotEqualTo("senha").startsWith("$2a$");
+		Assertions.assertThat(new BCryptPasswordEncoder().matches("senha", usuarioSalvo.getSenha())).isTrue();
+	}
+	
+	@Test
+	public void deveAutenticarUsuarioComSenhaEmHash() {
+		//cenario
+		Usuario usuario = new Usuario();
+		usuario.setEmail("usuario@email.com");
+		usuario.setSenha(new BCryptPasswordEncoder().encode("senha"));
+		
+		Mockito.when(repository.findByEmail(Mockito.anyString())).thenReturn(Optional.of(usuario));
+		
+		//acao
+		Usuario result = service.autenticar("usuario@email.com", "senha");
+		Throwable exception = Assertions.catchThrowable(() -> service.autenticar("usuario@email.com", "123"));
+		
+		//verificacao
+		Assertions.assertThat(result).isSameAs(usuario);
+		Assertions.assertThat(exception).isInstanceOf(ErroAutenticacao.class).hasMessage("Senha inválida!");
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(Usuario.class));
+	}
+	
+	@Test
+	public void deveConverterSenhaLegadaParaHashAoAutenticar() {
+		//cenario
+		Usuario usuario = new Usuario();
+		usuario.setId(1l);
+		usuario.setEmail("usuario@email.com");
+		usuario.setSenha("senha");
+		
+		Mockito.when(repository.findByEmail(Mockito.anyString())).thenReturn(Optional.of(usuario));
+		
+		//acao
+		service.autenticar("usuario@email.com", "senha");
+		
+		//verificacao
+		Mockito.verify(repository).atualizarSenha(Mockito.eq(1l), Mockito.argThat(hash -> new BCryptPasswordEncoder().matches("senha", hash)));
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(Usuario.class));
+		Assertions.assertThat(usuario.getSenha()).isEqualTo("senha");
+	}
+	
 	@Test
 	public void deveValidarEmail() {
 		//cenario